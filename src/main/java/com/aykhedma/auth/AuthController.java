@@ -1,6 +1,7 @@
 package com.aykhedma.auth;
 
 import com.aykhedma.security.CustomUserDetails;
+import com.aykhedma.security.CustomUserDetailsService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 
@@ -11,7 +12,6 @@ import com.aykhedma.dto.request.RegisterRequest;
 import com.aykhedma.dto.response.AuthResponse;
 import com.aykhedma.exception.BadRequestException;
 import com.aykhedma.exception.ResourceNotFoundException;
-import com.aykhedma.model.user.RefreshToken;
 import com.aykhedma.model.user.User;
 import com.aykhedma.repository.RefreshTokenRepository;
 import com.aykhedma.repository.UserRepository;
@@ -41,6 +41,7 @@ public class AuthController {
     private final RefreshTokenService refreshTokenService;
     private final JwtService jwtService;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final CustomUserDetailsService userDetailsService;
 
     @Value("${jwt.expiration:3600000}")
     private long jwtExpirationMs;
@@ -120,7 +121,7 @@ public class AuthController {
     }
 
     @PostMapping("/refresh")
-    @Operation(summary = "Refresh access token", description = "Get a new access token using refresh token")
+    @Operation(summary = "Refresh access token", description = "Get a new access token and a new refresh token; the one sent is invalidated")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "New token generated successfully", content = @Content(schema = @Schema(implementation = AuthResponse.class))),
             @ApiResponse(responseCode = "400", description = "Invalid or malformed refresh token"),
@@ -129,14 +130,15 @@ public class AuthController {
     public ResponseEntity<AuthResponse> refresh(
             @RequestParam("refreshToken") String refreshToken) {
 
-        RefreshToken token = refreshTokenService.verify(refreshToken);
+        // every refresh hands out a new refresh token; the old one stops working
+        IssuedRefreshToken rotated = refreshTokenService.rotate(refreshToken);
 
-        String newJwt = jwtService.generateToken(token.getUser());
+        String newJwt = jwtService.generateToken(rotated.user());
 
         return ResponseEntity.ok(
                 AuthResponse.builder()
                         .token(newJwt)
-                        .refreshToken(refreshToken)
+                        .refreshToken(rotated.token())
                         .tokenType("Bearer")
                         .expiresIn(jwtExpirationMs / 1000)
                         .build());
@@ -152,6 +154,7 @@ public class AuthController {
             @AuthenticationPrincipal CustomUserDetails userDetails) {
 
         refreshTokenRepository.deleteByUser(userDetails.getUser());
+        userDetailsService.evictUser(userDetails.getUsername());
 
         return ResponseEntity.ok("Logged out");
     }
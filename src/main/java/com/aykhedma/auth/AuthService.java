@@ -73,11 +73,11 @@ public class AuthService {
         String jwt = jwtService.generateToken(user);
 
         // 🔹 Generate refresh token (stored in DB)
-        RefreshToken refresh = refreshTokenService.createRefreshToken(user);
+        IssuedRefreshToken refresh = refreshTokenService.createRefreshToken(user);
 
         return AuthResponse.builder()
                 .token(jwt)
-                .refreshToken(refresh.getToken())
+                .refreshToken(refresh.token())
                 .tokenType("Bearer")
                 .expiresIn(jwtExpirationMs / 1000)
                 .userId(user.getId())
@@ -0,0 +1,11 @@
+package com.aykhedma.auth;
+
+import com.aykhedma.model.user.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * A refresh token as handed to the client; only its hash is stored.
+ */
+public record IssuedRefreshToken(String token, User user, LocalDateTime expiresAt) {
+}
@@ -1,37 +1,51 @@
 package com.aykhedma.auth;
 
+import com.aykhedma.auth.otp.OtpProperties;
+import com.aykhedma.auth.otp.OtpStore;
+import com.aykhedma.auth.otp.OtpVerification;
+import com.aykhedma.exception.TooManyRequestsException;
 import com.aykhedma.service.NotificationService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.security.SecureRandom;
 
+/**
+ * Issues and checks the one-time codes of the register and password reset flows.
+ * Codes expire after {@code otp.ttl} and are burnt after {@code otp.max-attempts}
+ * wrong guesses; sending is rate limited per email and per client IP, and
+ * guessing per client IP.
+ */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class OtpService {
 
     private final NotificationService notificationService;
-    private final Map<String, String> otpStorage = new ConcurrentHashMap<>();
+    private final OtpStore otpStore;
+    private final OtpProperties properties;
+    private final SecureRandom random = new SecureRandom();
 
     public String generateOtp(String email) {
         String normalizedEmail = normalizeEmail(email);
-        String otp = String.valueOf((int) (Math.random() * 900000) + 100000);
+        String otp = issue(normalizedEmail);
 
-        otpStorage.put(normalizedEmail, otp.trim());
-        notificationService.sendOtpEmail(normalizedEmail, otp.trim());
+        notificationService.sendOtpEmail(normalizedEmail, otp);
 
-        return otp.trim();
+        return otp;
     }
 
     public String generatePasswordResetOtp(String email) {
         String normalizedEmail = normalizeEmail(email);
-        String otp = String.valueOf((int) (Math.random() * 900000) + 100000);
+        String otp = issue(normalizedEmail);
 
-        otpStorage.put(normalizedEmail, otp.trim());
-        notificationService.sendPasswordResetEmail(normalizedEmail, otp.trim());
+        notificationService.sendPasswordResetEmail(normalizedEmail, otp);
 
-        return otp.trim();
+        return otp;
     }
 
     public boolean validateOtp(String email, String otp) {
@@ -39,22 +53,47 @@ public class OtpService {
             return false;
         }
 
+        String ip = clientIp();
+        if (ip != null && !otpStore.tryAcquire("verify-ip:" + ip,
+                properties.getGuessesPerIp(), properties.getIpGuessRefill())) {
+            throw new TooManyRequestsException("Too many OTP attempts. Please try again later.");
+        }
+
         String normalizedEmail = normalizeEmail(email);
-        String providedOtp = otp.trim();
+        OtpVerification result = otpStore.verify(normalizedEmail, otp.trim(), properties.getMaxAttempts());
+        if (result == OtpVerification.TOO_MANY_ATTEMPTS) {
+            log.warn("OTP for {} burnt after {} wrong attempts", normalizedEmail, properties.getMaxAttempts());
+        }
 
-        String storedOtp = otpStorage.get(normalizedEmail);
+        return result == OtpVerification.VALID;
+    }
 
-        if (storedOtp == null) {
-            return false;
+    private String issue(String normalizedEmail) {
+        if (!otpStore.tryAcquire("send-email:" + normalizedEmail,
+                properties.getSendsPerEmail(), properties.getEmailSendRefill())) {
+            throw new TooManyRequestsException("Too many OTP requests for this email. Please try again later.");
+        }
+        String ip = clientIp();
+        if (ip != null && !otpStore.tryAcquire("send-ip:" + ip,
+                properties.getSendsPerIp(), properties.getIpSendRefill())) {
+            throw new TooManyRequestsException("Too many OTP requests. Please try again later.");
         }
 
-        boolean matches = storedOtp.equals(providedOtp);
+        String otp = String.valueOf(random.nextInt(900000) + 100000);
+        otpStore.save(normalizedEmail, otp, properties.getTtl());
+        return otp;
+    }
 
-        if (matches) {
-            otpStorage.remove(normalizedEmail);
+    /**
+     * Address of the HTTP request being served, or null outside one. Behind a proxy
+     * this is only the client's when forwarded headers are trusted.
+     */
+    private static String clientIp() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
         }
-
-        return matches;
+        HttpServletRequest request = attributes.getRequest();
+        return request.getRemoteAddr();
     }
 
     private String normalizeEmail(String email) {
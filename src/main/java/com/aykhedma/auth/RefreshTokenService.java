@@ -4,18 +4,32 @@ import com.aykhedma.exception.UnauthorizedException;
 import com.aykhedma.model.user.RefreshToken;
 import com.aykhedma.model.user.User;
 import com.aykhedma.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
 @Transactional
+@Slf4j
 public class RefreshTokenService {
 
+    static final int CLEANUP_BATCH_SIZE = 1000;
+    static final int MAX_CLEANUP_BATCHES = 100;
+
     private final RefreshTokenRepository repository;
+    private final SecureRandom random = new SecureRandom();
 
     @Value("${jwt.refresh-expiration-minutes:10080}")
     private long refreshExpirationMinutes; // default 7 days
@@ -28,39 +42,103 @@ public class RefreshTokenService {
         repository.deleteByUser(user);
     }
 
-    public RefreshToken createRefreshToken(User user) {
-
-        RefreshToken token = RefreshToken.builder()
-                .user(user)
-                .token(UUID.randomUUID().toString())
-                .expiryDate(LocalDateTime.now().plusMinutes(refreshExpirationMinutes))
-                .build();
-
-        return repository.save(token);
+    /**
+     * Starts a new token family, at login.
+     */
+    public IssuedRefreshToken createRefreshToken(User user) {
+        return issue(user, UUID.randomUUID().toString(),
+                LocalDateTime.now().plusMinutes(refreshExpirationMinutes));
     }
 
-    public RefreshToken verify(String token) {
-        RefreshToken refreshToken = repository.findByToken(token)
+    /**
+     * Exchanges a refresh token for a new one of the same family and expiry. A token
+     * that was already rotated is being replayed, so its whole family is revoked.
+     */
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public IssuedRefreshToken rotate(String token) {
+        RefreshToken refreshToken = find(token)
                 .orElseThrow(() -> new UnauthorizedException("Invalid refresh token"));
+        LocalDateTime now = LocalDateTime.now();
 
-        if (refreshToken.getExpiryDate().isBefore(LocalDateTime.now())) {
+        if (refreshToken.getExpiryDate().isBefore(now)) {
             // Clean up the expired token
             repository.delete(refreshToken);
             throw new UnauthorizedException("Expired refresh token. Please login again.");
         }
 
+        if (refreshToken.getRotatedAt() != null
+                || repository.markRotated(refreshToken.getId(), now) == 0) {
+            revokeFamily(refreshToken);
+            throw new UnauthorizedException("Refresh token was already used. Please login again.");
+        }
+
         if (!refreshToken.getUser().isEnabled()) {
             throw new UnauthorizedException("Account is suspended. Please contact support.");
         }
 
-        return refreshToken;
+        String familyId = refreshToken.getFamilyId() != null
+                ? refreshToken.getFamilyId()
+                : UUID.randomUUID().toString();
+        return issue(refreshToken.getUser(), familyId, refreshToken.getExpiryDate());
     }
 
     /**
-     * Deletes all expired refresh tokens from the database.
-     * Called by the scheduled cleanup task.
+     * Deletes expired tokens in batches, each its own transaction, so the cleanup
+     * never holds locks across the whole table. Stops after
+     * {@link #MAX_CLEANUP_BATCHES}; the next run continues.
      */
-    public void deleteExpiredTokens() {
-        repository.deleteByExpiryDateBefore(LocalDateTime.now());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int deleteExpiredTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        for (int batch = 0; batch < MAX_CLEANUP_BATCHES; batch++) {
+            int deleted = repository.deleteExpiredBatch(now, CLEANUP_BATCH_SIZE);
+            total += deleted;
+            if (deleted < CLEANUP_BATCH_SIZE) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private IssuedRefreshToken issue(User user, String familyId, LocalDateTime expiresAt) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        repository.save(RefreshToken.builder()
+                .user(user)
+                .token(hash(token))
+                .familyId(familyId)
+                .expiryDate(expiresAt)
+                .build());
+        return new IssuedRefreshToken(token, user, expiresAt);
+    }
+
+    private Optional<RefreshToken> find(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        return repository.findWithUserByToken(hash(token))
+                // tokens issued before hashing were stored as-is; they rotate into hashed ones
+                .or(() -> repository.findLegacyWithUserByToken(token));
+    }
+
+    private void revokeFamily(RefreshToken refreshToken) {
+        log.warn("Refresh token reuse detected for user {}, revoking its sessions", refreshToken.getUser().getId());
+        if (refreshToken.getFamilyId() != null) {
+            repository.deleteByFamilyId(refreshToken.getFamilyId());
+        } else {
+            repository.delete(refreshToken);
+        }
+    }
+
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
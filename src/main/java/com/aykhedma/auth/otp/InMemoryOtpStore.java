@@ -0,0 +1,159 @@
+package com.aykhedma.auth.otp;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-instance store for tests and local runs without Redis. Expired codes
+ * and idle buckets are dropped by a timing wheel: every entry sits in the slot
+ * of the second it expires in, and each tick only looks at the slots it passed,
+ * so cleanup never scans the whole store.
+ */
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "memory")
+public class InMemoryOtpStore implements OtpStore {
+
+    static final long TICK_MILLIS = 1000;
+    static final int WHEEL_SLOTS = 512;
+
+    private static final String CODE = "code:";
+    private static final String BUCKET = "bucket:";
+
+    private final Clock clock;
+    private final Map<String, Code> codes = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final List<Set<String>> wheel = new ArrayList<>(WHEEL_SLOTS);
+    private long lastTick;
+
+    public InMemoryOtpStore() {
+        this(Clock.systemUTC());
+    }
+
+    InMemoryOtpStore(Clock clock) {
+        this.clock = clock;
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel.add(ConcurrentHashMap.newKeySet());
+        }
+        this.lastTick = clock.millis() / TICK_MILLIS - 1;
+    }
+
+    @Override
+    public void save(String email, String otp, Duration ttl) {
+        long expiresAt = clock.millis() + ttl.toMillis();
+        codes.put(email, new Code(otp, 0, expiresAt));
+        schedule(CODE + email, expiresAt);
+    }
+
+    @Override
+    public OtpVerification verify(String email, String otp, int maxAttempts) {
+        long now = clock.millis();
+        OtpVerification[] result = {OtpVerification.NOT_FOUND};
+        codes.computeIfPresent(email, (key, code) -> {
+            if (code.expiresAt() <= now) {
+                return null;
+            }
+            if (code.otp().equals(otp)) {
+                result[0] = OtpVerification.VALID;
+                return null;
+            }
+            int attempts = code.attempts() + 1;
+            if (attempts >= maxAttempts) {
+                result[0] = OtpVerification.TOO_MANY_ATTEMPTS;
+                return null;
+            }
+            result[0] = OtpVerification.INVALID;
+            return new Code(code.otp(), attempts, code.expiresAt());
+        });
+        return result[0];
+    }
+
+    @Override
+    public boolean tryAcquire(String bucket, int capacity, Duration refillEvery) {
+        long now = clock.millis();
+        long refill = refillEvery.toMillis();
+        boolean[] allowed = {false};
+        Bucket updated = buckets.compute(bucket, (key, current) -> {
+            int tokens = current != null ? current.tokens() : capacity;
+            long since = current != null ? current.since() : now;
+            long regained = (now - since) / refill;
+            if (regained > 0) {
+                tokens = (int) Math.min(capacity, tokens + regained);
+                since += regained * refill;
+            }
+            if (tokens >= capacity) {
+                since = now;
+            }
+            if (tokens > 0) {
+                tokens--;
+                allowed[0] = true;
+            }
+            return new Bucket(tokens, since, now + (capacity - tokens + 1) * refill);
+        });
+        schedule(BUCKET + bucket, updated.expiresAt());
+        return allowed[0];
+    }
+
+    /**
+     * Advances the wheel over the seconds that have fully passed, expiring what was due in them.
+     */
+    @Scheduled(fixedDelay = TICK_MILLIS)
+    public synchronized void advance() {
+        long now = clock.millis();
+        long lastPassed = now / TICK_MILLIS - 1;
+        // after a long pause every slot is due once
+        long from = Math.max(lastTick + 1, lastPassed - WHEEL_SLOTS + 1);
+        for (long tick = from; tick <= lastPassed; tick++) {
+            Set<String> slot = wheel.get(slotOf(tick));
+            for (String key : slot) {
+                slot.remove(key);
+                long expiresAt = expire(key, now);
+                // still alive: either rescheduled elsewhere already, or due in a later round of this slot
+                if (expiresAt > 0 && slotOf(expiresAt / TICK_MILLIS) == slotOf(tick)) {
+                    slot.add(key);
+                }
+            }
+        }
+        lastTick = Math.max(lastTick, lastPassed);
+    }
+
+    int size() {
+        return codes.size() + buckets.size();
+    }
+
+    /**
+     * Removes the entry if it has expired; otherwise returns when it will.
+     */
+    private long expire(String key, long now) {
+        if (key.startsWith(CODE)) {
+            Code code = codes.computeIfPresent(key.substring(CODE.length()),
+                    (email, current) -> current.expiresAt() <= now ? null : current);
+            return code != null ? code.expiresAt() : 0;
+        }
+        Bucket bucket = buckets.computeIfPresent(key.substring(BUCKET.length()),
+                (name, current) -> current.expiresAt() <= now ? null : current);
+        return bucket != null ? bucket.expiresAt() : 0;
+    }
+
+    private void schedule(String key, long expiresAt) {
+        wheel.get(slotOf(expiresAt / TICK_MILLIS)).add(key);
+    }
+
+    private static int slotOf(long tick) {
+        return (int) (tick % WHEEL_SLOTS);
+    }
+
+    private record Code(String otp, int attempts, long expiresAt) {
+    }
+
+    private record Bucket(int tokens, long since, long expiresAt) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.aykhedma.auth.otp;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "otp")
+@Data
+public class OtpProperties {
+
+    /**
+     * "redis" to share codes between instances, "memory" for a single instance.
+     */
+    private String store = "redis";
+
+    private Duration ttl = Duration.ofMinutes(10);
+    private int maxAttempts = 5;
+
+    // token buckets: capacity, and how often one token comes back
+    private int sendsPerEmail = 3;
+    private Duration emailSendRefill = Duration.ofMinutes(5);
+    private int sendsPerIp = 10;
+    private Duration ipSendRefill = Duration.ofMinutes(1);
+    private int guessesPerIp = 20;
+    private Duration ipGuessRefill = Duration.ofSeconds(30);
+}
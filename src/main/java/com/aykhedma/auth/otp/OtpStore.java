@@ -0,0 +1,28 @@
+package com.aykhedma.auth.otp;
+
+import java.time.Duration;
+
+/**
+ * Where issued OTPs and their rate-limit buckets live. Codes expire on their own
+ * and allow a limited number of wrong guesses; implementations must make each
+ * operation atomic, since several requests for the same email can race.
+ */
+public interface OtpStore {
+
+    /**
+     * Stores the code for the email, replacing any earlier one and its attempt count.
+     */
+    void save(String email, String otp, Duration ttl);
+
+    /**
+     * Checks a guess. A match consumes the code; so does the guess that uses up the
+     * last of {@code maxAttempts}.
+     */
+    OtpVerification verify(String email, String otp, int maxAttempts);
+
+    /**
+     * Takes one token from the bucket, which holds up to {@code capacity} tokens and
+     * regains one every {@code refillEvery}. Returns false when it is empty.
+     */
+    boolean tryAcquire(String bucket, int capacity, Duration refillEvery);
+}
@@ -0,0 +1,8 @@
+package com.aykhedma.auth.otp;
+
+public enum OtpVerification {
+    VALID,
+    INVALID,
+    NOT_FOUND,
+    TOO_MANY_ATTEMPTS
+}
@@ -0,0 +1,108 @@
+package com.aykhedma.auth.otp;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * OTPs shared by every instance. Each operation is one Lua script, so reads and
+ * updates of a code or bucket can't interleave; codes and idle buckets carry a
+ * Redis TTL and disappear without cleanup.
+ */
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "redis", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RedisOtpStore implements OtpStore {
+
+    private static final String CODE_PREFIX = "otp:code:";
+    private static final String BUCKET_PREFIX = "otp:bucket:";
+
+    private static final RedisScript<Long> SAVE = RedisScript.of("""
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], 'code', ARGV[1], 'attempts', 0)
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    // 0 not found, 1 valid, 2 invalid, 3 too many attempts
+    private static final RedisScript<Long> VERIFY = RedisScript.of("""
+            local code = redis.call('HGET', KEYS[1], 'code')
+            if not code then
+                return 0
+            end
+            if code == ARGV[1] then
+                redis.call('DEL', KEYS[1])
+                return 1
+            end
+            local attempts = redis.call('HINCRBY', KEYS[1], 'attempts', 1)
+            if attempts >= tonumber(ARGV[2]) then
+                redis.call('DEL', KEYS[1])
+                return 3
+            end
+            return 2
+            """, Long.class);
+
+    // server time, so instances with skewed clocks share one bucket correctly
+    private static final RedisScript<Long> ACQUIRE = RedisScript.of("""
+            local capacity = tonumber(ARGV[1])
+            local refill = tonumber(ARGV[2])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(state[1])
+            local ts = tonumber(state[2])
+            if tokens == nil or ts == nil then
+                tokens = capacity
+                ts = now
+            end
+            local regained = math.floor((now - ts) / refill)
+            if regained > 0 then
+                tokens = math.min(capacity, tokens + regained)
+                ts = ts + regained * refill
+            end
+            if tokens >= capacity then
+                ts = now
+            end
+            local allowed = 0
+            if tokens > 0 then
+                tokens = tokens - 1
+                allowed = 1
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tokens, 'ts', ts)
+            redis.call('PEXPIRE', KEYS[1], (capacity - tokens + 1) * refill)
+            return allowed
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public void save(String email, String otp, Duration ttl) {
+        redisTemplate.execute(SAVE, List.of(CODE_PREFIX + email), otp, String.valueOf(ttl.toMillis()));
+    }
+
+    @Override
+    public OtpVerification verify(String email, String otp, int maxAttempts) {
+        Long result = redisTemplate.execute(VERIFY, List.of(CODE_PREFIX + email), otp, String.valueOf(maxAttempts));
+        if (result == null) {
+            return OtpVerification.NOT_FOUND;
+        }
+        return switch (result.intValue()) {
+            case 1 -> OtpVerification.VALID;
+            case 2 -> OtpVerification.INVALID;
+            case 3 -> OtpVerification.TOO_MANY_ATTEMPTS;
+            default -> OtpVerification.NOT_FOUND;
+        };
+    }
+
+    @Override
+    public boolean tryAcquire(String bucket, int capacity, Duration refillEvery) {
+        Long allowed = redisTemplate.execute(ACQUIRE, List.of(BUCKET_PREFIX + bucket),
+                String.valueOf(capacity), String.valueOf(refillEvery.toMillis()));
+        return allowed != null && allowed == 1L;
+    }
+}
@@ -0,0 +1,48 @@
+package com.aykhedma.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Pool the chatbot turns run on. A turn waits seconds on the model, so running it here
+ * rather than on a Tomcat worker keeps a burst of AI chats from starving the REST API.
+ * Its workers are virtual threads, so a turn blocked on Gemini or speech-to-text holds
+ * no platform thread; the pool size caps how many turns run at once and the queue how
+ * many wait.
+ * <p>
+ * Declaring any Executor bean makes Boot skip its own {@code applicationTaskExecutor},
+ * so it is declared here the way Boot would, keeping unqualified {@code @Async} and
+ * MVC async requests on the shared pool.
+ */
+@Configuration
+public class AiChatExecutorConfig {
+
+    public static final String AI_CHAT_EXECUTOR = "aiChatExecutor";
+
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(name = AI_CHAT_EXECUTOR)
+    public ThreadPoolTaskExecutor aiChatExecutor(
+            @Value("${ai.chat.max-concurrency:16}") int maxConcurrency,
+            @Value("${ai.chat.queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadFactory(Thread.ofVirtual().name("ai-chat-", 0).factory());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -6,10 +6,13 @@ import com.aykhedma.mcp.tools.tools.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
+import java.time.Duration;
+
 @Configuration
 @Slf4j
 public class McpConfig {
@@ -31,7 +34,9 @@ public class McpConfig {
             CheckAvailabilityTool checkAvailabilityTool,
             CreateBookingTool createBookingTool,
             GetProviderDetailsTool getProviderDetailsTool,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            @Value("${mcp.tools.timeout:PT10S}") Duration toolTimeout,
+            @Value("${mcp.tools.result-cache-ttl:PT30S}") Duration resultCacheTtl) {
 
         log.info("Initializing MCP Server...");
 
@@ -50,7 +55,7 @@ public class McpConfig {
 
         log.info("All tools registered in registry. Total: {}", toolRegistry.getToolCount());
 
-        McpServer server = new McpServer(objectMapper);
+        McpServer server = new McpServer(objectMapper, toolTimeout, resultCacheTtl);
 
         // Register all tools with the server
         toolRegistry.registerAll(server);
@@ -0,0 +1,40 @@
+package com.aykhedma.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Connection pool settings for each upstream the backend calls over HTTP.
+ */
+@Component
+@ConfigurationProperties(prefix = "http.upstream")
+@Data
+public class UpstreamHttpProperties {
+
+    private Pool gemini = new Pool(50);
+    private Pool verification = new Pool(10);
+
+    @Data
+    public static class Pool {
+
+        private int maxConnections;
+        // how long a call waits for a free connection before failing
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+        // idle connections are closed before the upstream's load balancer drops them
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private Duration evictionInterval = Duration.ofSeconds(30);
+        private Duration connectTimeout = Duration.ofSeconds(10);
+
+        public Pool() {
+            this(20);
+        }
+
+        public Pool(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+    }
+}
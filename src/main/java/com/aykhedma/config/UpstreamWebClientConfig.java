@@ -0,0 +1,59 @@
+package com.aykhedma.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * One pre-built {@link WebClient} per upstream, each over its own Reactor Netty connection
+ * pool, instead of building a client (and its pool and codecs) for every call.
+ * The clients come from Boot's {@link WebClient.Builder}, so every call is recorded in the
+ * {@code http.client.requests} metric, tagged with the upstream host; the pools publish
+ * {@code reactor.netty.connection.provider.*} gauges under their names.
+ */
+@Configuration
+public class UpstreamWebClientConfig {
+
+    @Bean
+    public WebClient geminiWebClient(WebClient.Builder webClientBuilder, UpstreamHttpProperties properties,
+            @Value("${ai.gemini.base-url:https://generativelanguage.googleapis.com/v1beta}") String baseUrl) {
+        return build(webClientBuilder, "gemini", baseUrl, properties.getGemini());
+    }
+
+    @Bean
+    public WebClient verificationWebClient(WebClient.Builder webClientBuilder, UpstreamHttpProperties properties,
+            @Value("${verification.service.url:http://127.0.0.1:8000}") String baseUrl) {
+        return build(webClientBuilder, "verification", baseUrl, properties.getVerification());
+    }
+
+    public static WebClient build(WebClient.Builder webClientBuilder, String name, String baseUrl,
+            UpstreamHttpProperties.Pool pool) {
+        ConnectionProvider connections = ConnectionProvider.builder(name)
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictionInterval())
+                .metrics(true)
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connections)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) pool.getConnectTimeout().toMillis());
+        if (baseUrl.startsWith("https:")) {
+            // negotiated over TLS, falls back to HTTP/1.1 when the upstream doesn't offer h2
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        }
+
+        return webClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
@@ -2,6 +2,7 @@ package com.aykhedma.config;
 
 import com.aykhedma.repository.UserRepository;
 import com.aykhedma.security.JwtService;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,18 +36,7 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
         if (StompCommand.CONNECT.equals(accessor.getCommand())) {
             log.debug("WebSocketAuthInterceptor: CONNECT received. messageHeaders={}", message.getHeaders());
 
-            String userIdHeader = accessor.getFirstNativeHeader("X-User-Id");
-            if (userIdHeader != null) {
-                try {
-                    Long userId = Long.parseLong(userIdHeader);
-                    accessor.setUser(principalForUserId(userId));
-                    log.info("WebSocketAuthInterceptor: set Principal from X-User-Id={}", userId);
-                    return message;
-                } catch (NumberFormatException ex) {
-                    log.warn("WebSocketAuthInterceptor: invalid X-User-Id header='{}'", userIdHeader);
-                }
-            }
-
+            // The principal comes only from a validated JWT; client-supplied ids are never trusted
             String token = accessor.getFirstNativeHeader("Authorization");
             if (token != null && token.startsWith("Bearer ")) {
                 token = token.substring(7);
@@ -70,16 +60,10 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
 
     private String extractEmailFromToken(String token) {
         try {
-            if (!jwtService.isTokenValid(token)) {
-                return null;
-            }
-            return jwtService.extractUsername(token);
+            Claims claims = jwtService.parseValidClaims(token);
+            return claims != null ? claims.getSubject() : null;
         } catch (Exception ex) {
             return null;
         }
     }
-
-    private Principal principalForUserId(Long userId) {
-        return () -> userId.toString();
-    }
 }
\ No newline at end of file
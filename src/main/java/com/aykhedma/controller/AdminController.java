@@ -6,12 +6,17 @@ import com.aykhedma.dto.request.RejectProviderRequest;
 import com.aykhedma.dto.request.UpdateUserRequest;
 import com.aykhedma.dto.response.AdminProviderResponse;
 import com.aykhedma.dto.response.DashboardStatsResponse;
+import com.aykhedma.dto.response.KeysetPageResponse;
 import com.aykhedma.dto.response.ProviderResponse;
+import com.aykhedma.dto.response.UserDeletionJobResponse;
 import com.aykhedma.dto.response.UserResponse;
 import com.aykhedma.exception.BadRequestException;
+import com.aykhedma.model.user.UserDeletionStatus;
 import com.aykhedma.model.user.UserType;
 import com.aykhedma.model.user.VerificationStatus;
 import com.aykhedma.service.AdminService;
+import com.aykhedma.service.export.AdminExportService;
+import com.aykhedma.service.export.ExportFormat;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -22,10 +27,15 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Locale;
@@ -37,9 +47,10 @@ public class AdminController {
 
     private final AdminService adminService;
     private final AuthService authService;
+    private final AdminExportService adminExportService;
 
     @GetMapping("/stats")
-    @Operation(summary = "Get dashboard statistics", description = "Retrieve total users, providers, pending providers, and services")
+    @Operation(summary = "Get dashboard statistics", description = "Retrieve total users, providers, pending providers, services, and daily signups and bookings for the last 30 days")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully", content = @Content(schema = @Schema(implementation = DashboardStatsResponse.class))),
             @ApiResponse(responseCode = "403", description = "Unauthorized - admin access required")
@@ -118,6 +129,55 @@ public class AdminController {
                 pageable));
     }
 
+    @GetMapping("/providers/keyset")
+    @Operation(summary = "Search providers by cursor", description = "Same filters as provider search, newest first; pass nextCursor from the previous page as cursor. No total count, so deep pages cost the same as the first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Providers found successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid filter parameters"),
+            @ApiResponse(responseCode = "403", description = "Unauthorized - admin access required")
+    })
+    public ResponseEntity<KeysetPageResponse<AdminProviderResponse>> searchProvidersByCursor(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String verificationStatus,
+            @RequestParam(required = false) String enabled,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(adminService.searchProvidersAfter(
+                firstPresent(keyword, search, q),
+                parseVerificationStatus(firstPresent(status, verificationStatus)),
+                parseEnabled(enabled),
+                cursor,
+                size));
+    }
+
+    @GetMapping("/providers/export")
+    @Operation(summary = "Export providers", description = "Stream every provider matching the search filters as CSV or JSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed"),
+            @ApiResponse(responseCode = "400", description = "Invalid filter parameters or format"),
+            @ApiResponse(responseCode = "403", description = "Unauthorized - admin access required")
+    })
+    public ResponseEntity<StreamingResponseBody> exportProviders(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String verificationStatus,
+            @RequestParam(required = false) String enabled,
+            @RequestParam(defaultValue = "csv") String format) {
+        // parse everything up front so bad input is a 400 rather than a broken download
+        String searchFilter = firstPresent(keyword, search, q);
+        VerificationStatus statusFilter = parseVerificationStatus(firstPresent(status, verificationStatus));
+        Boolean enabledFilter = parseEnabled(enabled);
+        ExportFormat exportFormat = parseExportFormat(format);
+
+        return exportResponse("providers", exportFormat, out -> adminExportService.exportProviders(
+                searchFilter, statusFilter, enabledFilter, exportFormat, out));
+    }
+
     @PutMapping("/providers/{id}/block")
     @Operation(summary = "Block provider", description = "Suspend a provider account temporarily")
     @ApiResponses(value = {
@@ -172,6 +232,63 @@ public class AdminController {
                 pageable));
     }
 
+    @GetMapping("/users/keyset")
+    @Operation(summary = "Search users by cursor", description = "Same filters as user search, newest first; pass nextCursor from the previous page as cursor. No total count, so deep pages cost the same as the first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users found successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid filter parameters or date format"),
+            @ApiResponse(responseCode = "403", description = "Unauthorized - admin access required")
+    })
+    public ResponseEntity<KeysetPageResponse<UserResponse>> searchUsersByCursor(
+            @RequestParam(value = "role", required = false) String role,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "enabled", required = false) String enabled,
+            @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(value = "keyword", required = false) String keyword,
+            @RequestParam(value = "search", required = false) String search,
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "cursor", required = false) Long cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @AuthenticationPrincipal(expression = "user.id") Long currentAdminId) {
+        return ResponseEntity.ok(adminService.searchUsersAfter(
+                parseUserType(role),
+                parseEnabled(firstPresent(enabled, status)),
+                startDate,
+                endDate,
+                firstPresent(keyword, search, q),
+                currentAdminId,
+                cursor,
+                size));
+    }
+
+    @GetMapping("/users/export")
+    @Operation(summary = "Export users", description = "Stream every user matching the search filters as CSV or JSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed"),
+            @ApiResponse(responseCode = "400", description = "Invalid filter parameters, date format or export format"),
+            @ApiResponse(responseCode = "403", description = "Unauthorized - admin access required")
+    })
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(value = "role", required = false) String role,
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "enabled", required = false) String enabled,
+            @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(value = "keyword", required = false) String keyword,
+            @RequestParam(value = "search", required = false) String search,
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @AuthenticationPrincipal(expression = "user.id") Long currentAdminId) {
+        UserType roleFilter = parseUserType(role);
+        Boolean enabledFilter = parseEnabled(firstPresent(enabled, status));
+        String searchFilter = firstPresent(keyword, search, q);
+        ExportFormat exportFormat = parseExportFormat(format);
+
+        return exportResponse("users", exportFormat, out -> adminExportService.exportUsers(
+                roleFilter, enabledFilter, startDate, endDate, searchFilter, currentAdminId, exportFormat, out));
+    }
+
     @PostMapping("/users")
     @Operation(summary = "Add new user", description = "Create a new user account with specified role and details")
     @ApiResponses(value = {
@@ -222,15 +339,28 @@ public class AdminController {
     }
 
     @DeleteMapping("/users/{id}")
-    @Operation(summary = "Delete user", description = "Permanently delete a user account")
+    @Operation(summary = "Delete user", description = "Permanently delete a user account. The account is disabled at once; accounts with a lot of data are deleted in the background, track them with the returned job id")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "User deleted successfully"),
+            @ApiResponse(responseCode = "200", description = "User deleted successfully", content = @Content(schema = @Schema(implementation = UserDeletionJobResponse.class))),
+            @ApiResponse(responseCode = "202", description = "Deletion started in the background", content = @Content(schema = @Schema(implementation = UserDeletionJobResponse.class))),
             @ApiResponse(responseCode = "403", description = "Unauthorized - admin access required"),
             @ApiResponse(responseCode = "404", description = "User not found")
     })
-    public ResponseEntity<String> deleteUser(@PathVariable("id") Long id) {
-        adminService.deleteUser(id);
-        return ResponseEntity.ok("User deleted successfully");
+    public ResponseEntity<UserDeletionJobResponse> deleteUser(@PathVariable("id") Long id) {
+        UserDeletionJobResponse job = adminService.deleteUser(id);
+        HttpStatus status = job.getStatus() == UserDeletionStatus.COMPLETED ? HttpStatus.OK : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(job);
+    }
+
+    @GetMapping("/users/deletions/{jobId}")
+    @Operation(summary = "Get user deletion progress", description = "Status, current step and rows deleted so far of an account deletion")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Deletion job retrieved successfully", content = @Content(schema = @Schema(implementation = UserDeletionJobResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Unauthorized - admin access required"),
+            @ApiResponse(responseCode = "404", description = "Deletion job not found")
+    })
+    public ResponseEntity<UserDeletionJobResponse> getUserDeletion(@PathVariable("jobId") Long jobId) {
+        return ResponseEntity.ok(adminService.getUserDeletion(jobId));
     }
 
     private String firstPresent(String... values) {
@@ -242,6 +372,24 @@ public class AdminController {
         return null;
     }
 
+    private ExportFormat parseExportFormat(String value) {
+        try {
+            return ExportFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid export format: " + value + " (expected csv or json)");
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportResponse(
+            String name, ExportFormat format, StreamingResponseBody body) {
+        String filename = name + "-" + LocalDate.now() + "." + format.getExtension();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .contentType(format.getMediaType())
+                .body(body);
+    }
+
     private UserType parseUserType(String value) {
         if (value == null) {
             return null;
@@ -3,13 +3,16 @@ package com.aykhedma.controller;
 import com.aykhedma.dto.location.LocationDTO;
 import com.aykhedma.dto.request.AiChatRequest;
 import com.aykhedma.dto.response.ChatResponse;
+import com.aykhedma.exception.TooManyRequestsException;
 import com.aykhedma.model.user.User;
 import com.aykhedma.security.CustomUserDetails;
 import com.aykhedma.service.AiAssistantService;
+import com.aykhedma.service.AiChatAsyncService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -20,6 +23,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -29,6 +33,8 @@ import java.time.LocalTime;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.springframework.http.HttpStatus;
 
 @Slf4j
@@ -37,10 +43,13 @@ import org.springframework.http.HttpStatus;
 @RequiredArgsConstructor
 public class AiChatController {
 
+    private static final long STREAM_TIMEOUT_MS = 120_000;
+
     private final AiAssistantService aiAssistantService;
+    private final AiChatAsyncService aiChatAsyncService;
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<ChatResponse> chatWithVoice(
+    public CompletableFuture<ResponseEntity<ChatResponse>> chatWithVoice(
             @RequestPart(value = "sessionId", required = false) String sessionId,
             @RequestPart(value = "message", required = false) String message,
             @RequestPart(value = "voiceNote", required = false) MultipartFile voiceNote,
@@ -51,51 +60,51 @@ public class AiChatController {
             @RequestPart(value = "location", required = false) LocationDTO location,
             @AuthenticationPrincipal CustomUserDetails userDetails) {
 
-        try {
-            log.info("Chat request - sessionId: {}, voiceNote: {}",
-                    sessionId, voiceNote != null ? "present (" + voiceNote.getSize() + " bytes)" : "null");
-
-            AiChatRequest request = AiChatRequest.builder()
-                    .sessionId(sessionId)
-                    .message(message)
-                    .voiceNote(voiceNote)
-                    .providerId(providerId)
-                    .serviceTypeId(serviceTypeId)
-                    .requestedDate(requestedDate)
-                    .requestedTime(requestedTime)
-                    .location(location)
-                    .build();
+        log.info("Chat request - sessionId: {}, voiceNote: {}",
+                sessionId, voiceNote != null ? "present (" + voiceNote.getSize() + " bytes)" : "null");
+
+        AiChatRequest request = AiChatRequest.builder()
+                .sessionId(sessionId)
+                .message(message)
+                .voiceNote(voiceNote)
+                .providerId(providerId)
+                .serviceTypeId(serviceTypeId)
+                .requestedDate(requestedDate)
+                .requestedTime(requestedTime)
+                .location(location)
+                .build();
+
+        User currentUser = userDetails != null ? userDetails.getUser() : null;
+        return respond(startChat(request, currentUser), "chatWithVoice");
+    }
 
-            User currentUser = userDetails != null ? userDetails.getUser() : null;
-            ChatResponse response = aiAssistantService.chat(request, currentUser);
-            return ResponseEntity.ok(response);
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<ChatResponse>> chat(
+            @Valid @RequestBody AiChatRequest request,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
 
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid argument in chatWithVoice: {}", e.getMessage(), e);
-            return ResponseEntity.badRequest().build();
-        } catch (Exception e) {
-            log.error("Error processing chat with voice: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        User currentUser = userDetails != null ? userDetails.getUser() : null;
+        return respond(startChat(request, currentUser), "chat");
     }
 
-    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<ChatResponse> chat(
+    /**
+     * Same turn as {@link #chat}, sent as server-sent events: {@code delta} events with
+     * reply text as it is generated, then one {@code message} event with the full response.
+     */
+    @PostMapping(value = "/stream", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter chatStream(
             @Valid @RequestBody AiChatRequest request,
             @AuthenticationPrincipal CustomUserDetails userDetails) {
 
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        User currentUser = userDetails != null ? userDetails.getUser() : null;
         try {
-            User currentUser = userDetails != null ? userDetails.getUser() : null;
-            ChatResponse response = aiAssistantService.chat(request, currentUser);
-            return ResponseEntity.ok(response);
-
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid argument in chat: {}", e.getMessage(), e);
-            return ResponseEntity.badRequest().build();
-        } catch (Exception e) {
-            log.error("Error processing chat: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            aiChatAsyncService.stream(request, currentUser, emitter);
+        } catch (TaskRejectedException e) {
+            throw assistantBusy();
         }
+        return emitter;
     }
 
     @PostMapping("/new-chat")
@@ -181,4 +190,31 @@ public class AiChatController {
                     .body(Map.of("error", "An error occurred while deleting the chat session"));
         }
     }
-}
\ No newline at end of file
+
+    private CompletableFuture<ChatResponse> startChat(AiChatRequest request, User currentUser) {
+        try {
+            return aiChatAsyncService.chat(request, currentUser);
+        } catch (TaskRejectedException e) {
+            throw assistantBusy();
+        }
+    }
+
+    private CompletableFuture<ResponseEntity<ChatResponse>> respond(CompletableFuture<ChatResponse> turn,
+            String endpoint) {
+        return turn.thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof IllegalArgumentException) {
+                        log.error("Invalid argument in {}: {}", endpoint, cause.getMessage(), cause);
+                        return ResponseEntity.badRequest().build();
+                    }
+                    log.error("Error processing {}: {}", endpoint, cause.getMessage(), cause);
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                });
+    }
+
+    private TooManyRequestsException assistantBusy() {
+        log.warn("AI chat executor is saturated, rejecting chat request");
+        return new TooManyRequestsException("The assistant is busy, please try again in a moment");
+    }
+}
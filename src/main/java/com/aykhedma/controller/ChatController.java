@@ -140,7 +140,7 @@ public class ChatController {
     ) {
         if (roomId == null || roomId.isBlank()) { throw new BadRequestException("roomId is required"); }
         return ResponseEntity.ok(
-                chatService.getUnreadCount(roomId, user.getUser().getId())
+                chatService.getUnreadCount(roomId, user.getId())
         );
     }
 
@@ -1,22 +1,67 @@
 package com.aykhedma.controller;
 
 import com.aykhedma.dto.request.ChatMessageRequest;
+import com.aykhedma.exception.BadRequestException;
+import com.aykhedma.exception.ForbiddenException;
+import com.aykhedma.exception.ResourceNotFoundException;
+import com.aykhedma.exception.UnauthorizedException;
+import com.aykhedma.model.user.User;
+import com.aykhedma.repository.UserRepository;
+import com.aykhedma.service.ChatRoomMembershipCache;
 import com.aykhedma.service.ChatService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
 import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.stereotype.Controller;
 
+import java.io.IOException;
+import java.security.Principal;
+
 @Controller
+@Slf4j
 @RequiredArgsConstructor
 public class ChatWebSocketController {
 
     private final ChatService chatService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final ChatRoomMembershipCache membershipCache;
+    private final UserRepository userRepository;
 
     @MessageMapping("/chat.send")
-    public void send(ChatMessageRequest request) {
+    public void send(@Payload ChatMessageRequest request, Principal principal) throws IOException {
+        if (principal == null) {
+            throw new UnauthorizedException("User not authenticated");
+        }
+
+        Long senderId = Long.valueOf(principal.getName());
+
+        // Reject non-members from the in-memory membership before touching the database
+        membershipCache.requireParticipant(request.getRoomId(), senderId);
+
+        User sender = userRepository.findById(senderId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+        chatService.sendMessage(sender, request);
+    }
 
+    @MessageExceptionHandler
+    @SendToUser("/queue/errors")
+    public String handleException(Throwable exception) {
+        // Only fixed messages reach the client; anything unexpected is logged instead
+        return switch (exception) {
+            case UnauthorizedException e -> "User not authenticated";
+            case ForbiddenException e -> "You are not allowed in this room";
+            case ResourceNotFoundException e -> "Room or user not found";
+            case BadRequestException e -> "Invalid message";
+            default -> {
+                log.error("Failed to handle chat message", exception);
+                yield "Message could not be sent";
+            }
+        };
     }
 //    @MessageMapping("/typing")
 //    public void typing(TypingEvent event) {
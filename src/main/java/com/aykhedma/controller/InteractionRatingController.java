@@ -23,7 +23,7 @@ public class InteractionRatingController {
     public ResponseEntity<InteractionRatingResponse> submitRating(
             @AuthenticationPrincipal CustomUserDetails currentUser,
             @Valid @RequestBody InteractionRatingRequest request) {
-        return ResponseEntity.ok(interactionRatingService.submitRating(currentUser.getUser().getId(), request));
+        return ResponseEntity.ok(interactionRatingService.submitRating(currentUser.getId(), request));
     }
 
     @GetMapping("/provider/{providerId}")
@@ -34,6 +34,6 @@ public class InteractionRatingController {
     @GetMapping("/me")
     public ResponseEntity<List<InteractionRatingResponse>> getMyRatings(
             @AuthenticationPrincipal CustomUserDetails currentUser) {
-        return ResponseEntity.ok(interactionRatingService.getProviderRatings(currentUser.getUser().getId()));
+        return ResponseEntity.ok(interactionRatingService.getProviderRatings(currentUser.getId()));
     }
 }
@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -17,10 +18,17 @@ public class McpController {
     private final McpServer mcpServer;
 
     @PostMapping
-    public ResponseEntity<Map<String, Object>> handleRequest(@RequestBody Map<String, Object> request) {
-        log.info("MCP request received: {}", request.get("method"));
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<Object> handleRequest(@RequestBody Object request) {
         try {
-            Map<String, Object> response = mcpServer.handleRequest(request);
+            // a JSON-RPC batch is an array of requests, answered with an array of responses
+            if (request instanceof List<?> batch) {
+                log.info("MCP batch received: {} requests", batch.size());
+                return ResponseEntity.ok(mcpServer.handleBatch((List<Map<String, Object>>) batch));
+            }
+            Map<String, Object> single = (Map<String, Object>) request;
+            log.info("MCP request received: {}", single.get("method"));
+            Map<String, Object> response = mcpServer.handleRequest(single);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             log.error("MCP error: {}", e.getMessage(), e);
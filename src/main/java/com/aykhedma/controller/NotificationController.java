@@ -67,7 +67,7 @@ public class NotificationController {
     public ResponseEntity<Map<String, Object>> sendInAppNotification(
             @AuthenticationPrincipal CustomUserDetails userDetails,
             @RequestBody NotificationRequest request) {
-        Long userId = userDetails != null ? userDetails.getUser().getId() : null;
+        Long userId = userDetails != null ? userDetails.getId() : null;
 
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -105,7 +105,7 @@ public class NotificationController {
             @AuthenticationPrincipal CustomUserDetails userDetails,
             @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
 
-        Long userId = userDetails != null ? userDetails.getUser().getId() : null;
+        Long userId = userDetails != null ? userDetails.getId() : null;
 
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -121,7 +121,7 @@ public class NotificationController {
             @AuthenticationPrincipal CustomUserDetails userDetails,
             @PathVariable Long notificationId) {
 
-        Long userId = userDetails != null ? userDetails.getUser().getId() : null;
+        Long userId = userDetails != null ? userDetails.getId() : null;
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
@@ -139,7 +139,7 @@ public class NotificationController {
     public ResponseEntity<java.util.List<NotificationDTO>> getFailedNotifications(
             @AuthenticationPrincipal CustomUserDetails userDetails) {
 
-        Long userId = userDetails != null ? userDetails.getUser().getId() : null;
+        Long userId = userDetails != null ? userDetails.getId() : null;
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
@@ -152,7 +152,7 @@ public class NotificationController {
     public ResponseEntity<Map<String, Long>> getUnreadCount(
             @AuthenticationPrincipal CustomUserDetails userDetails) {
 
-        Long userId = userDetails != null ? userDetails.getUser().getId() : null;
+        Long userId = userDetails != null ? userDetails.getId() : null;
 
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -169,7 +169,7 @@ public class NotificationController {
     public ResponseEntity<NotificationPreferenceDTO> getPreferences(
             @AuthenticationPrincipal CustomUserDetails userDetails) {
 
-        Long userId = userDetails != null ? userDetails.getUser().getId() : null;
+        Long userId = userDetails != null ? userDetails.getId() : null;
 
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -184,7 +184,7 @@ public class NotificationController {
             @AuthenticationPrincipal CustomUserDetails userDetails,
             @RequestBody NotificationPreferenceRequest request) {
 
-        Long userId = userDetails != null ? userDetails.getUser().getId() : null;
+        Long userId = userDetails != null ? userDetails.getId() : null;
 
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -205,7 +205,7 @@ public class NotificationController {
             @AuthenticationPrincipal CustomUserDetails userDetails,
             @PathVariable Long notificationId) {
 
-        Long userId = userDetails != null ? userDetails.getUser().getId() : null;
+        Long userId = userDetails != null ? userDetails.getId() : null;
 
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -224,7 +224,7 @@ public class NotificationController {
             @AuthenticationPrincipal CustomUserDetails userDetails,
             @PathVariable Long notificationId) {
 
-        Long userId = userDetails != null ? userDetails.getUser().getId() : null;
+        Long userId = userDetails != null ? userDetails.getId() : null;
 
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -254,7 +254,7 @@ public class NotificationController {
             @AuthenticationPrincipal CustomUserDetails userDetails,
             @RequestBody Map<String, Object> request) {
 
-        Long userId = userDetails != null ? userDetails.getUser().getId() : null;
+        Long userId = userDetails != null ? userDetails.getId() : null;
 
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -285,7 +285,7 @@ public class NotificationController {
     public ResponseEntity<Map<String, Object>> markAllAsRead(
             @AuthenticationPrincipal CustomUserDetails userDetails) {
 
-        Long userId = userDetails != null ? userDetails.getUser().getId() : null;
+        Long userId = userDetails != null ? userDetails.getId() : null;
 
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -306,7 +306,7 @@ public class NotificationController {
             @AuthenticationPrincipal CustomUserDetails userDetails,
             @PathVariable Long notificationId) {
 
-        Long userId = userDetails != null ? userDetails.getUser().getId() : null;
+        Long userId = userDetails != null ? userDetails.getId() : null;
 
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -329,7 +329,7 @@ public class NotificationController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             @PageableDefault(size = 20) Pageable pageable) {
 
-        Long userId = userDetails != null ? userDetails.getUser().getId() : null;
+        Long userId = userDetails != null ? userDetails.getId() : null;
 
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -344,7 +344,7 @@ public class NotificationController {
     public ResponseEntity<java.util.List<NotificationDTO>> getByType(
             @AuthenticationPrincipal CustomUserDetails userDetails,
             @PathVariable NotificationType type, Pageable pageable) {
-        Long userId = userDetails != null ? userDetails.getUser().getId() : null;
+        Long userId = userDetails != null ? userDetails.getId() : null;
 
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -357,7 +357,7 @@ public class NotificationController {
     @DeleteMapping("/clear/all")
     public ResponseEntity<?> clearAllNotifications(
             @AuthenticationPrincipal CustomUserDetails userDetails) {
-        Long userId = userDetails != null ? userDetails.getUser().getId() : null;
+        Long userId = userDetails != null ? userDetails.getId() : null;
 
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -1,6 +1,7 @@
 package com.aykhedma.controller;
 
 import com.aykhedma.dto.request.ProviderProfileRequest;
+import com.aykhedma.dto.request.RecurringScheduleRequest;
 import com.aykhedma.dto.request.WorkingDayRequest;
 import com.aykhedma.dto.response.*;
 import com.aykhedma.exception.BadRequestException;
@@ -229,6 +230,21 @@ public class ProviderController {
                 return ResponseEntity.status(HttpStatus.CREATED).body(response);
         }
 
+        @PreAuthorize("hasRole('PROVIDER')")
+        @PostMapping("/me/schedule/recurring")
+        @Operation(summary = "Create working days for a date range from weekly hours, skipping exception dates")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "201", description = "Working days created successfully", content = @Content(schema = @Schema(implementation = RecurringScheduleResponse.class))),
+                        @ApiResponse(responseCode = "400", description = "Invalid date range or weekly hours"),
+                        @ApiResponse(responseCode = "404", description = "Provider not found")
+        })
+        public ResponseEntity<RecurringScheduleResponse> generateRecurringSchedule(
+                        @AuthenticationPrincipal(expression = "user.id") Long providerId,
+                        @Parameter(description = "Date range, weekly hours and exception dates", required = true) @Valid @RequestBody RecurringScheduleRequest request) {
+                RecurringScheduleResponse response = providerService.generateRecurringSchedule(providerId, request);
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        }
+
         @PreAuthorize("hasRole('PROVIDER')")
         @PutMapping("/me/schedule/working-days/{workingDayId}")
         @Operation(summary = "Update my existing working day template")
@@ -506,6 +522,24 @@ public class ProviderController {
                 }
         }
 
+        @GetMapping("/available")
+        @PreAuthorize("hasAnyRole('CONSUMER', 'ADMIN')")
+        @Operation(summary = "Find providers of a service type who are free at a given date and time")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Successfully retrieved available providers"),
+                        @ApiResponse(responseCode = "400", description = "Invalid date, time or duration")
+        })
+        public ResponseEntity<List<ProviderSummaryResponse>> findAvailableProviders(
+                        @Parameter(description = "Service type ID", required = true) @RequestParam Long serviceTypeId,
+                        @Parameter(description = "Date (format: yyyy-MM-dd)", required = true) @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                        @Parameter(description = "Start time on a 30-minute boundary (format: HH:mm)", required = true) @RequestParam @DateTimeFormat(pattern = "HH:mm") LocalTime startTime,
+                        @Parameter(description = "Duration in minutes (default = 60)") @RequestParam(defaultValue = "60") Integer durationMinutes,
+                        @Parameter(description = "Consumer ID to only return providers near the consumer") @RequestParam(required = false) Long consumerId,
+                        @Parameter(description = "Search radius in kilometers (default = 10 km, requires consumerId)") @RequestParam(required = false) Double radius) {
+                return ResponseEntity.ok(providerService.findAvailableProviders(
+                                serviceTypeId, date, startTime, durationMinutes, consumerId, radius));
+        }
+
         @GetMapping("/search")
         @Operation(summary = "Search providers with filters and location-based sorting")
         @ApiResponses(value = {
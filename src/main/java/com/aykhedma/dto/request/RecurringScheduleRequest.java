@@ -0,0 +1,55 @@
+package com.aykhedma.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringScheduleRequest {
+
+    @NotNull(message = "Start date is required")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate endDate;
+
+    @NotEmpty(message = "At least one weekly working day is required")
+    @Valid
+    private List<WeeklyHours> weeklyHours;
+
+    // dates inside the range to leave out (holidays, days off)
+    @Builder.Default
+    private List<LocalDate> exceptions = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WeeklyHours {
+
+        @NotNull(message = "Day of week is required")
+        private DayOfWeek dayOfWeek;
+
+        @NotNull(message = "Start time is required")
+        private LocalTime startTime;
+
+        @NotNull(message = "End time is required")
+        private LocalTime endTime;
+    }
+}
@@ -0,0 +1,7 @@
+package com.aykhedma.dto.response;
+
+public interface BookingStatsTotalsProjection {
+    Long getAccepted();
+    Long getCompleted();
+    Long getCancelled();
+}
@@ -0,0 +1,13 @@
+package com.aykhedma.dto.response;
+
+import java.time.LocalDateTime;
+
+public interface ChatInboxProjection {
+    String getRoomId();
+    Long getOtherUserId();
+    String getOtherUserName();
+    String getOtherUserProfileImage();
+    String getLastMessage();
+    LocalDateTime getLastMessageAt();
+    long getUnreadCount();
+}
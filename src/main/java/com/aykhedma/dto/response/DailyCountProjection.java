@@ -0,0 +1,8 @@
+package com.aykhedma.dto.response;
+
+import java.time.LocalDate;
+
+public interface DailyCountProjection {
+    LocalDate getDay();
+    Long getTotal();
+}
@@ -0,0 +1,17 @@
+package com.aykhedma.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyCountResponse {
+    private LocalDate date;
+    private long count;
+}
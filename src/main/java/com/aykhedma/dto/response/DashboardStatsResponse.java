@@ -5,6 +5,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -14,4 +17,7 @@ public class DashboardStatsResponse {
     private long totalProviders;
     private long pendingProviders;
     private long totalServices;
+    private List<DailyCountResponse> signupsPerDay;
+    private List<DailyCountResponse> bookingsPerDay;
+    private LocalDateTime reconciledAt;
 }
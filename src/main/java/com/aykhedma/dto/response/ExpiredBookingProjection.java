@@ -0,0 +1,13 @@
+package com.aykhedma.dto.response;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public interface ExpiredBookingProjection {
+    Long getId();
+    Long getConsumerId();
+    Long getProviderId();
+    Long getTimeSlotId();
+    LocalDate getRequestedDate();
+    LocalTime getRequestedStartTime();
+}
@@ -0,0 +1,7 @@
+package com.aykhedma.dto.response;
+
+public interface ExpiredEmergencyRequestProjection {
+    Long getId();
+    Long getConsumerId();
+    Long getSelectedProviderId();
+}
@@ -0,0 +1,19 @@
+package com.aykhedma.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPageResponse<T> {
+    private List<T> content;
+    // pass back as the cursor to get the next page; null on the last page
+    private Long nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,15 @@
+package com.aykhedma.dto.response;
+
+public interface NearbyProviderProjection {
+    Long getId();
+    String getName();
+    String getProfileImage();
+    String getServiceType();
+    String getServiceTypeAr();
+    Double getAverageRating();
+    Double getPrice();
+    String getPriceType();
+    Double getCancellationRate();
+    String getArea();
+    Double getDistanceKm();
+}
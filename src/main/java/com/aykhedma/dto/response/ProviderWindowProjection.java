@@ -0,0 +1,9 @@
+package com.aykhedma.dto.response;
+
+import java.time.LocalTime;
+
+public interface ProviderWindowProjection {
+    Long getProviderId();
+    LocalTime getStartTime();
+    LocalTime getEndTime();
+}
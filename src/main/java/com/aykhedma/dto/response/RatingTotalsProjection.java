@@ -0,0 +1,11 @@
+package com.aykhedma.dto.response;
+
+public interface RatingTotalsProjection {
+    Double getPunctualitySum();
+    Double getCommitmentSum();
+    Double getQualityOfWorkSum();
+    Double getOverallSum();
+    Long getRatingCount();
+    Double getInteractionSum();
+    Long getInteractionCount();
+}
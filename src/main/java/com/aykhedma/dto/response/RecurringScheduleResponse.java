@@ -0,0 +1,22 @@
+package com.aykhedma.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringScheduleResponse {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int createdDays;
+    private int skippedExistingDays;
+    private int skippedExceptionDays;
+    private List<LocalDate> createdDates;
+}
@@ -0,0 +1,6 @@
+package com.aykhedma.dto.response;
+
+public interface ScheduleOwnerProjection {
+    Long getProviderId();
+    Long getServiceTypeId();
+}
@@ -0,0 +1,28 @@
+package com.aykhedma.dto.response;
+
+import com.aykhedma.model.user.UserDeletionStatus;
+import com.aykhedma.model.user.UserType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDeletionJobResponse {
+    private Long jobId;
+    private Long userId;
+    private UserType userRole;
+    private UserDeletionStatus status;
+    private String currentStep;
+    private long rowsDeleted;
+    private long estimatedRows;
+    private int mediaDeleted;
+    private LocalDateTime requestedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -1,23 +1,53 @@
 package com.aykhedma.mcp.server;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.*;
 
 @Component
 @Slf4j
 public class McpServer {
 
+    public static final int MAX_CACHED_RESULTS = 1_000;
+
     private final ObjectMapper objectMapper;
     private final Map<String, McpToolHandler> toolHandlers = new LinkedHashMap<>();
+    private final Duration toolTimeout;
+    private final Duration resultCacheTtl;
+    // tool calls block on the database, so each one gets its own virtual thread; the caller's
+    // SecurityContext goes with it, since tools such as create_booking act as the signed-in user
+    private final ExecutorService toolExecutor =
+            new DelegatingSecurityContextExecutorService(Executors.newVirtualThreadPerTaskExecutor());
+
+    private final Map<String, CachedResult> resultCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                    return size() > MAX_CACHED_RESULTS;
+                }
+            });
 
-    public McpServer(ObjectMapper objectMapper) {
+    public McpServer(ObjectMapper objectMapper, Duration toolTimeout, Duration resultCacheTtl) {
         this.objectMapper = objectMapper;
+        this.toolTimeout = toolTimeout;
+        this.resultCacheTtl = resultCacheTtl;
         log.info("MCP Server initialized");
     }
 
+    @PreDestroy
+    public void shutdown() {
+        toolExecutor.shutdownNow();
+    }
+
     public void registerTool(McpToolHandler handler) {
         toolHandlers.put(handler.getName(), handler);
         log.info("Registered MCP tool: {}", handler.getName());
@@ -40,6 +70,38 @@ public class McpServer {
     }
 
 
+    /**
+     * Handles a JSON-RPC batch. The {@code tools/call} entries run concurrently, each with
+     * its own timeout; responses come back in request order.
+     */
+    public List<Map<String, Object>> handleBatch(List<Map<String, Object>> requests) {
+        List<Future<Map<String, Object>>> pending = new ArrayList<>();
+        for (Map<String, Object> request : requests) {
+            pending.add(toolExecutor.submit(() -> handleRequest(request)));
+        }
+        List<Map<String, Object>> responses = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i++) {
+            responses.add(await(pending.get(i), requests.get(i)));
+        }
+        return responses;
+    }
+
+    private Map<String, Object> await(Future<Map<String, Object>> response, Map<String, Object> request) {
+        String id = request.get("id") != null ? request.get("id").toString() : "1";
+        try {
+            // handleRequest already bounds each tool call, this only guards against a stuck dispatch
+            return response.get(toolTimeout.toMillis() * 2, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            response.cancel(true);
+            return errorResponse("Request timed out", id);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return errorResponse("Request interrupted", id);
+        } catch (ExecutionException e) {
+            return errorResponse(e.getCause().getMessage(), id);
+        }
+    }
+
     public Map<String, Object> handleRequest(Map<String, Object> request) {
         String method = (String) request.get("method");
         String id = request.get("id") != null ? request.get("id").toString() : "1";
@@ -101,48 +163,102 @@ public class McpServer {
 
         log.info("🔧 Calling MCP tool: {} with args: {}", toolName, arguments);
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("jsonrpc", "2.0");
-        response.put("id", id);
-
+        Map<String, Object> result;
         try {
             McpToolHandler handler = toolHandlers.get(toolName);
             if (handler == null) {
                 throw new IllegalArgumentException("Unknown tool: " + toolName);
             }
-
-            Object result = handler.execute(arguments);
-
-            Map<String, Object> resultObj = new HashMap<>();
-            List<Map<String, Object>> contentList = new ArrayList<>();
-            Map<String, Object> content = new HashMap<>();
-            content.put("type", "text");
-
-            String jsonResult = objectMapper.writeValueAsString(result);
-            content.put("text", jsonResult);
-            contentList.add(content);
-
-            resultObj.put("content", contentList);
-            resultObj.put("isError", false);
-
-            response.put("result", resultObj);
+            result = handler.isCacheable()
+                    ? cachedCall(handler, arguments)
+                    : toolResult(objectMapper.writeValueAsString(execute(handler, arguments)), false);
         } catch (Exception e) {
             log.error("Tool execution failed: {}", e.getMessage(), e);
+            result = toolResult("Error: " + e.getMessage(), true);
+        }
 
-            Map<String, Object> resultObj = new HashMap<>();
-            List<Map<String, Object>> contentList = new ArrayList<>();
-            Map<String, Object> content = new HashMap<>();
-            content.put("type", "text");
-            content.put("text", "Error: " + e.getMessage());
-            contentList.add(content);
+        return Map.of("jsonrpc", "2.0", "id", id, "result", result);
+    }
 
-            resultObj.put("content", contentList);
-            resultObj.put("isError", true);
+    private Map<String, Object> cachedCall(McpToolHandler handler, Map<String, Object> arguments)
+            throws Exception {
+        String key = handler.getName() + ":" + objectMapper.writeValueAsString(normalize(arguments));
+        CachedResult cached = resultCache.get(key);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            log.debug("MCP tool result cache hit: {}", key);
+            return cached.result();
+        }
+        Object output = execute(handler, arguments);
+        Map<String, Object> result = toolResult(objectMapper.writeValueAsString(output), false);
+        // Only results that say they succeeded are kept: an error or "provider not found" may be gone a moment later
+        if (output instanceof Map<?, ?> map && Boolean.TRUE.equals(map.get("success"))) {
+            resultCache.put(key, new CachedResult(result, Instant.now().plus(resultCacheTtl)));
+        }
+        return result;
+    }
 
-            response.put("result", resultObj);
+    /**
+     * Runs the tool on its own thread, giving up on read-only tools after the tool timeout.
+     * A tool that changes data (e.g. a booking) is waited for, since its transaction could
+     * still commit after a timeout was reported and a retry would then repeat the change;
+     * it also drops every cached result, since availability may have changed.
+     */
+    private Object execute(McpToolHandler handler, Map<String, Object> arguments) throws Exception {
+        Future<Object> execution = toolExecutor.submit(() -> handler.execute(arguments));
+        Object result;
+        try {
+            result = handler.isIdempotent()
+                    ? execution.get(toolTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    : execution.get();
+        } catch (TimeoutException e) {
+            execution.cancel(true);
+            throw new TimeoutException("Tool " + handler.getName() + " timed out after " + toolTimeout);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+        if (!handler.isIdempotent()) {
+            resultCache.clear();
         }
+        return result;
+    }
 
-        return response;
+    private static Map<String, Object> toolResult(String text, boolean isError) {
+        return Map.of(
+                "content", List.of(Map.of("type", "text", "text", text)),
+                "isError", isError);
+    }
+
+    /**
+     * Arguments in a canonical form for the cache key: keys sorted, nulls dropped, text
+     * trimmed and lower-cased, lists of text sorted and coordinates rounded to ~10 m.
+     */
+    private static Object normalize(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            map.forEach((k, v) -> {
+                if (v != null) {
+                    sorted.put(k.toString(), normalize(v));
+                }
+            });
+            return sorted;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> items = new ArrayList<>();
+            for (Object item : list) {
+                items.add(normalize(item));
+            }
+            if (items.stream().allMatch(String.class::isInstance)) {
+                items.sort(Comparator.comparing(String.class::cast));
+            }
+            return items;
+        }
+        if (value instanceof String text) {
+            return text.trim().toLowerCase(Locale.ROOT);
+        }
+        if ((value instanceof Double || value instanceof Float) && Double.isFinite(((Number) value).doubleValue())) {
+            return BigDecimal.valueOf(((Number) value).doubleValue()).setScale(4, RoundingMode.HALF_UP);
+        }
+        return value;
     }
 
     private Map<String, Object> errorResponse(String message, String id) {
@@ -157,4 +273,7 @@ public class McpServer {
 
         return response;
     }
-}
\ No newline at end of file
+
+    private record CachedResult(Map<String, Object> result, Instant expiresAt) {
+    }
+}
@@ -9,4 +9,19 @@ public interface McpToolHandler {
     Map<String, Object> getSchema();
 
     Object execute(Map<String, Object> arguments);
+
+    /**
+     * Read-only tools; calling any other tool drops the cached results.
+     */
+    default boolean isIdempotent() {
+        return false;
+    }
+
+    /**
+     * Read-only tools whose results may be served from the short-lived result cache. Tools
+     * reading data that also changes outside MCP, such as bookings and schedules, opt out.
+     */
+    default boolean isCacheable() {
+        return isIdempotent();
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.aykhedma.mcp.tools.tools;
 
+import com.aykhedma.dto.response.ProviderSummaryResponse;
 import com.aykhedma.dto.response.ScheduleResponse;
 import com.aykhedma.mcp.tools.McpTool;
 import com.aykhedma.mcp.tools.McpToolRegistry;
@@ -13,6 +14,7 @@ import org.springframework.stereotype.Component;
 import java.time.format.DateTimeParseException;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 
@@ -38,12 +40,24 @@ public class CheckAvailabilityTool implements McpTool {
         return "check_availability";
     }
 
+    @Override
+    public boolean isIdempotent() {
+        return true;
+    }
+
+    // Slots change with REST bookings and schedule edits too, which never reach the MCP cache
+    @Override
+    public boolean isCacheable() {
+        return false;
+    }
+
     @Override
     public Map<String, Object> getSchema() {
         Map<String, Object> schema = new HashMap<>();
         schema.put("name", getName());
         schema.put("description",
-                "Check available time slots for a specific provider on a given date. If no date is provided, returns availability for the next 7 days.");
+                "Check available time slots for a specific provider on a given date. If no date is provided, returns availability for the next 7 days. "
+                        + "Without a provider, pass serviceTypeId, date and time to list every provider of that service who is free then.");
 
         Map<String, Object> inputSchema = new HashMap<>();
         inputSchema.put("type", "object");
@@ -66,6 +80,22 @@ public class CheckAvailabilityTool implements McpTool {
         dateProp.put("pattern", "^\\d{4}-\\d{2}-\\d{2}$");
         properties.put("date", dateProp);
 
+        Map<String, Object> serviceTypeIdProp = new HashMap<>();
+        serviceTypeIdProp.put("type", "integer");
+        serviceTypeIdProp.put("description", "Service type ID, to search all providers of that service instead of one provider");
+        properties.put("serviceTypeId", serviceTypeIdProp);
+
+        Map<String, Object> timeProp = new HashMap<>();
+        timeProp.put("type", "string");
+        timeProp.put("description", "Start time on a 30-minute boundary (format: HH:mm), used with serviceTypeId");
+        timeProp.put("pattern", "^\\d{2}:\\d{2}$");
+        properties.put("time", timeProp);
+
+        Map<String, Object> durationProp = new HashMap<>();
+        durationProp.put("type", "integer");
+        durationProp.put("description", "Duration in minutes, used with serviceTypeId (default 60)");
+        properties.put("durationMinutes", durationProp);
+
         inputSchema.put("properties", properties);
         inputSchema.put("required", List.of());
 
@@ -95,6 +125,11 @@ public class CheckAvailabilityTool implements McpTool {
                 providerId, providerName, dateStr);
 
         try {
+            Long serviceTypeId = arguments.get("serviceTypeId") instanceof Number number ? number.longValue() : null;
+            if (providerId == null && (providerName == null || providerName.isBlank()) && serviceTypeId != null) {
+                return findFreeProviders(serviceTypeId, dateStr, arguments);
+            }
+
             Long resolvedProviderId = resolveProviderId(providerId, providerName);
             if (resolvedProviderId == null) {
                 log.warn("Provider not found: providerId={}, providerName={}", providerId, providerName);
@@ -157,6 +192,47 @@ public class CheckAvailabilityTool implements McpTool {
         }
     }
 
+    private Object findFreeProviders(Long serviceTypeId, String dateStr, Map<String, Object> arguments) {
+        Object timeObj = arguments.get("time");
+        if (dateStr == null || !(timeObj instanceof String timeStr) || timeStr.isBlank()) {
+            return Map.of("success", false, "error",
+                    "Please provide both date (yyyy-MM-dd) and time (HH:mm) to search by service type.");
+        }
+
+        LocalDate date;
+        LocalTime time;
+        try {
+            date = LocalDate.parse(dateStr, DATE_FORMAT);
+            time = LocalTime.parse(timeStr.trim(), TIME_FORMAT);
+        } catch (DateTimeParseException e) {
+            return Map.of("success", false, "error",
+                    "Invalid date or time format. Please use yyyy-MM-dd and HH:mm.");
+        }
+        Integer duration = arguments.get("durationMinutes") instanceof Number number ? number.intValue() : 60;
+
+        List<ProviderSummaryResponse> providers = providerService.findAvailableProviders(
+                serviceTypeId, date, time, duration, null, null);
+
+        List<Map<String, Object>> result = providers.stream()
+                .map(provider -> {
+                    Map<String, Object> providerMap = new LinkedHashMap<>();
+                    providerMap.put("providerId", provider.getId());
+                    providerMap.put("name", provider.getName());
+                    providerMap.put("averageRating", provider.getAverageRating());
+                    providerMap.put("price", provider.getPrice());
+                    providerMap.put("area", provider.getArea());
+                    return providerMap;
+                })
+                .toList();
+
+        return Map.of(
+                "success", true,
+                "date", date.toString(),
+                "time", time.format(TIME_FORMAT),
+                "providers", result,
+                "count", result.size());
+    }
+
     private Long resolveProviderId(Long providerId, String providerName) {
         if (providerId != null) {
             return providerId;
@@ -33,6 +33,11 @@ public class GetProviderDetailsTool implements McpTool {
         return "get_provider_details";
     }
 
+    @Override
+    public boolean isIdempotent() {
+        return true;
+    }
+
     @Override
     public Map<String, Object> getSchema() {
         Map<String, Object> schema = new HashMap<>();
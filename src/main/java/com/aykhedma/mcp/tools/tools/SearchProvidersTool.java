@@ -1,13 +1,10 @@
 package com.aykhedma.mcp.tools.tools;
 
-import com.aykhedma.dto.response.ProviderSummaryResponse;
-import com.aykhedma.mapper.ProviderMapper;
+import com.aykhedma.dto.response.NearbyProviderProjection;
 import com.aykhedma.mcp.tools.McpTool;
 import com.aykhedma.mcp.tools.McpToolRegistry;
+import com.aykhedma.model.service.PriceType;
 import com.aykhedma.model.service.ServiceType;
-import com.aykhedma.model.location.Location;
-import com.aykhedma.model.user.Provider;
-import com.aykhedma.model.user.VerificationStatus;
 import com.aykhedma.repository.ProviderRepository;
 import com.aykhedma.service.ServiceTypeResolver;
 import jakarta.annotation.PostConstruct;
@@ -23,10 +20,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class SearchProvidersTool implements McpTool {
 
+    private static final int MAX_RESULTS = 10;
+
     private final McpToolRegistry toolRegistry;
     private final ProviderRepository providerRepository;
     private final ServiceTypeResolver serviceTypeResolver;
-    private final ProviderMapper providerMapper;
 
     @PostConstruct
     public void init() {
@@ -44,6 +42,11 @@ public class SearchProvidersTool implements McpTool {
         return "search_providers";
     }
 
+    @Override
+    public boolean isIdempotent() {
+        return true;
+    }
+
     @Override
     public Map<String, Object> getSchema() {
         Map<String, Object> schema = new HashMap<>();
@@ -96,6 +99,7 @@ public class SearchProvidersTool implements McpTool {
         if (serviceTypes == null || serviceTypes.isEmpty()) {
             log.warn("No service types provided");
             Map<String, Object> emptyResult = new LinkedHashMap<>();
+            emptyResult.put("success", false);
             emptyResult.put("providers", List.of());
             emptyResult.put("count", 0);
             emptyResult.put("message", "No service types specified");
@@ -129,6 +133,7 @@ public class SearchProvidersTool implements McpTool {
             if (resolvedServices.isEmpty()) {
                 log.warn("No service types could be resolved for: {}", serviceTypes);
                 Map<String, Object> emptyResult = new LinkedHashMap<>();
+                emptyResult.put("success", false);
                 emptyResult.put("providers", List.of());
                 emptyResult.put("count", 0);
                 emptyResult.put("message", "لم نجد خدمات تطابق طلبك");
@@ -136,51 +141,22 @@ public class SearchProvidersTool implements McpTool {
                 return emptyResult;
             }
 
-            Set<Long> providerIds = new HashSet<>();
-            List<Provider> allProviders = new ArrayList<>();
-
+            Set<Long> serviceTypeIds = new LinkedHashSet<>();
             for (ServiceType service : resolvedServices) {
-                List<Provider> providers = providerRepository
-                        .findByServiceTypeIdAndVerificationStatusWithDetails(service.getId(),
-                                VerificationStatus.VERIFIED);
-                for (Provider p : providers) {
-                    if (providerIds.add(p.getId())) {
-                        allProviders.add(p);
-                    }
-                }
+                serviceTypeIds.add(service.getId());
             }
 
-            if (allProviders.isEmpty()) {
-                log.info("No providers found for services: {}", serviceTypes);
-                Map<String, Object> emptyResult = new LinkedHashMap<>();
-                emptyResult.put("providers", List.of());
-                emptyResult.put("count", 0);
-                emptyResult.put("message", "لم نجد مقدمي خدمة في منطقتك حالياً");
-                emptyResult.put("serviceTypesMatched", matchedServiceNames);
-                return emptyResult;
-            }
-
-            Location consumerLocation = Location.builder()
-                    .latitude(latitude)
-                    .longitude(longitude)
-                    .build();
-
-            int limit = 10;
-            List<Map<String, Object>> responses = allProviders.stream()
-                    .filter(p -> p.getLocation() != null)
-                    .map(provider -> toProviderMap(provider, consumerLocation))
-                    .filter(providerMap -> (double) providerMap.get("distance") <= radiusKm)
-                    .sorted(
-                            Comparator.comparingDouble((Map<String, Object> p) -> (double) p.get("averageRating"))
-                                    .reversed()
-                                    .thenComparingDouble(p -> (double) p.get("distance")))
-                    .limit(limit)
+            List<Map<String, Object>> responses = providerRepository
+                    .findTopRatedNearby(serviceTypeIds, latitude, longitude, radiusKm * 1000.0, MAX_RESULTS)
+                    .stream()
+                    .map(this::toProviderMap)
                     .collect(Collectors.toList());
 
             log.info("Found {} providers within {} km for service types: {}",
                     responses.size(), radiusKm, matchedServiceNames);
 
             Map<String, Object> result = new LinkedHashMap<>();
+            result.put("success", true);
             result.put("providers", responses);
             result.put("count", responses.size());
             result.put("serviceTypesMatched", matchedServiceNames);
@@ -193,6 +169,7 @@ public class SearchProvidersTool implements McpTool {
         } catch (Exception e) {
             log.error("Error in search_providers: {}", e.getMessage(), e);
             Map<String, Object> errorResult = new LinkedHashMap<>();
+            errorResult.put("success", false);
             errorResult.put("providers", List.of());
             errorResult.put("count", 0);
             errorResult.put("message", "حدث خطأ أثناء البحث");
@@ -201,27 +178,24 @@ public class SearchProvidersTool implements McpTool {
         }
     }
 
-    private Map<String, Object> toProviderMap(Provider provider, Location consumerLocation) {
+    private Map<String, Object> toProviderMap(NearbyProviderProjection provider) {
         Map<String, Object> result = new LinkedHashMap<>();
 
-        ProviderSummaryResponse response = providerMapper.toProviderSummaryResponse(provider);
-
-        result.put("id", response.getId());
-        result.put("name", response.getName());
-        result.put("profileImage", response.getProfileImage()); 
-        result.put("serviceType", response.getServiceType());
-        result.put("serviceTypeAr", response.getServiceTypeAr());
-        result.put("averageRating", response.getAverageRating());
-        result.put("price", response.getPrice());
-        result.put("priceType", response.getPriceType());
-        result.put("priceTypeAr", response.getPriceTypeAr());
-        result.put("area", response.getArea());
-        result.put("cancellationRate", response.getCancellationRate()); 
-
-        double distanceKm = 0.0;
-        if (provider.getLocation() != null && consumerLocation != null) {
-            distanceKm = provider.getLocation().calculateDistance(consumerLocation);
-        }
+        PriceType priceType = provider.getPriceType() != null ? PriceType.valueOf(provider.getPriceType()) : null;
+
+        result.put("id", provider.getId());
+        result.put("name", provider.getName());
+        result.put("profileImage", provider.getProfileImage());
+        result.put("serviceType", provider.getServiceType());
+        result.put("serviceTypeAr", provider.getServiceTypeAr());
+        result.put("averageRating", provider.getAverageRating());
+        result.put("price", provider.getPrice());
+        result.put("priceType", priceType);
+        result.put("priceTypeAr", priceType != null ? priceType.getArabicLabel() : null);
+        result.put("area", provider.getArea());
+        result.put("cancellationRate", provider.getCancellationRate());
+
+        double distanceKm = provider.getDistanceKm() != null ? provider.getDistanceKm() : 0.0;
         result.put("distance", Math.round(distanceKm * 10.0) / 10.0);
 
         if (distanceKm > 0) {
@@ -233,4 +207,4 @@ public class SearchProvidersTool implements McpTool {
 
         return result;
     }
-}
\ No newline at end of file
+}
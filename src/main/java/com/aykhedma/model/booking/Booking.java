@@ -1,5 +1,6 @@
 package com.aykhedma.model.booking;
 
+import com.aykhedma.model.listener.DashboardMetricsListener;
 import com.aykhedma.model.service.ServiceType;
 import com.aykhedma.model.user.Consumer;
 import com.aykhedma.model.user.Provider;
@@ -15,7 +16,11 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "bookings")
+@EntityListeners(DashboardMetricsListener.class)
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_booking_status_requested_at", columnList = "status, requested_date, requested_start_time"),
+        @Index(name = "idx_booking_created_at", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,44 @@
+package com.aykhedma.model.booking;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * How many of a provider's bookings requested for one day are currently accepted,
+ * completed or cancelled. Kept in step with booking status transitions so the
+ * dashboard charts read a few rollup rows instead of scanning the booking history.
+ */
+@Entity
+@Table(name = "provider_daily_booking_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_provider_daily_booking_stats_day",
+                columnNames = {"provider_id", "stat_date"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProviderDailyBookingStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "provider_id", nullable = false)
+    private Long providerId;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Builder.Default
+    @Column(name = "accepted_count", nullable = false)
+    private Integer acceptedCount = 0;
+
+    @Builder.Default
+    @Column(name = "completed_count", nullable = false)
+    private Integer completedCount = 0;
+
+    @Builder.Default
+    @Column(name = "cancelled_count", nullable = false)
+    private Integer cancelledCount = 0;
+}
@@ -20,6 +20,13 @@ public class Schedule {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /**
+     * Bumped by every availability write; see AvailabilityEngine#claim.
+     */
+    @Builder.Default
+    @Column(name = "availability_version", nullable = false, updatable = false, columnDefinition = "bigint default 0")
+    private Long availabilityVersion = 0L;
+
     @OneToMany(mappedBy = "schedule", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<WorkingDay> workingDays = new ArrayList<>();
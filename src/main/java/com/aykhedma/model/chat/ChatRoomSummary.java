@@ -0,0 +1,58 @@
+package com.aykhedma.model.chat;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-user inbox row for a chat room. Maintained by ChatRoomSummaryService so the
+ * inbox is a single range scan on (user_id, last_message_at) instead of a
+ * participants join plus an unread count per page. The other user's name and
+ * image are not copied here; the inbox query joins them per page row.
+ */
+@Entity
+@Table(name = "chat_room_summaries",
+        uniqueConstraints = @UniqueConstraint(name = "uk_chat_room_summary_user_room", columnNames = {"user_id", "room_id"}),
+        indexes = {
+                @Index(name = "idx_chat_room_summary_inbox", columnList = "user_id, last_message_at"),
+                @Index(name = "idx_chat_room_summary_room", columnList = "room_id")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatRoomSummary {
+
+    public static final int PREVIEW_LENGTH = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "room_id", nullable = false, length = 36)
+    private String roomId;
+
+    @Column(name = "other_user_id")
+    private Long otherUserId;
+
+    @Column(name = "last_message", length = PREVIEW_LENGTH)
+    private String lastMessage;
+
+    @Column(name = "last_message_at")
+    private LocalDateTime lastMessageAt;
+
+    @Builder.Default
+    @Column(name = "unread_count", nullable = false)
+    private long unreadCount = 0;
+
+    public static String preview(String text) {
+        if (text == null || text.length() <= PREVIEW_LENGTH) {
+            return text;
+        }
+        return text.substring(0, PREVIEW_LENGTH);
+    }
+}
@@ -0,0 +1,43 @@
+package com.aykhedma.model.chat;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * The transcript of a voice note, keyed by the SHA-256 of the uploader's id and the
+ * audio bytes so the same recording uploaded again by the same user is not sent to
+ * the model twice. Rows are per user, so deleting an account can remove them.
+ */
+@Entity
+@Table(name = "voice_transcriptions", indexes = {
+        @Index(name = "idx_voice_transcription_created", columnList = "created_at"),
+        @Index(name = "idx_voice_transcription_uploader", columnList = "uploader_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VoiceTranscription {
+
+    // SHA-256 hex of the uploader id and the audio content
+    @Id
+    @Column(name = "audio_hash", length = 64)
+    private String audioHash;
+
+    // null for voice notes sent without signing in
+    @Column(name = "uploader_id")
+    private Long uploaderId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String transcript;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -14,7 +14,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "emergency_requests")
+@Table(name = "emergency_requests", indexes = {
+        @Index(name = "idx_emergency_request_status_created_at", columnList = "status, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -91,6 +93,9 @@ public class EmergencyRequest {
 
     private LocalDateTime completedAt;
 
+    @PastOrPresent(message = "Expired date cannot be in the future")
+    private LocalDateTime expiredAt;
+
     @PastOrPresent(message = "Created date cannot be in the future")
     @CreationTimestamp
     private LocalDateTime createdAt;
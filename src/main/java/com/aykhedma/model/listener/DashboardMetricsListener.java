@@ -0,0 +1,83 @@
+package com.aykhedma.model.listener;
+
+import com.aykhedma.model.booking.Booking;
+import com.aykhedma.model.service.ServiceType;
+import com.aykhedma.model.user.Provider;
+import com.aykhedma.model.user.User;
+import com.aykhedma.service.metrics.DashboardMetricsService;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds {@link DashboardMetricsService} from entity lifecycle callbacks, so every
+ * path that saves or deletes through JPA is counted without each service having to.
+ * Hibernate creates this listener while building the entity manager factory, before
+ * the repositories the metrics service needs exist, so the service is looked up lazily.
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardMetricsListener {
+
+    private final ObjectProvider<DashboardMetricsService> dashboardMetricsServiceProvider;
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        DashboardMetricsService dashboardMetricsService = dashboardMetricsServiceProvider.getIfAvailable();
+        if (dashboardMetricsService == null) {
+            return;
+        }
+        if (entity instanceof User user) {
+            dashboardMetricsService.userAdded(user.getCreatedAt());
+            if (user instanceof Provider provider) {
+                dashboardMetricsService.providerAdded(provider.getVerificationStatus());
+                provider.setStoredVerificationStatus(provider.getVerificationStatus());
+            }
+        } else if (entity instanceof Booking booking) {
+            dashboardMetricsService.bookingAdded(booking.getCreatedAt());
+        } else if (entity instanceof ServiceType) {
+            dashboardMetricsService.serviceTypesChanged(1);
+        }
+    }
+
+    @PostLoad
+    public void onLoad(Object entity) {
+        if (entity instanceof Provider provider) {
+            provider.setStoredVerificationStatus(provider.getVerificationStatus());
+        }
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        DashboardMetricsService dashboardMetricsService = dashboardMetricsServiceProvider.getIfAvailable();
+        if (entity instanceof Provider provider && dashboardMetricsService != null) {
+            dashboardMetricsService.providerVerificationChanged(provider.getStoredVerificationStatus(),
+                    provider.getVerificationStatus());
+            provider.setStoredVerificationStatus(provider.getVerificationStatus());
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        DashboardMetricsService dashboardMetricsService = dashboardMetricsServiceProvider.getIfAvailable();
+        if (dashboardMetricsService == null) {
+            return;
+        }
+        if (entity instanceof User user) {
+            dashboardMetricsService.userRemoved(user.getCreatedAt());
+            if (user instanceof Provider provider) {
+                dashboardMetricsService.providerRemoved(provider.getStoredVerificationStatus() != null
+                        ? provider.getStoredVerificationStatus()
+                        : provider.getVerificationStatus());
+            }
+        } else if (entity instanceof Booking booking) {
+            dashboardMetricsService.bookingRemoved(booking.getCreatedAt());
+        } else if (entity instanceof ServiceType) {
+            dashboardMetricsService.serviceTypesChanged(-1);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.aykhedma.model.rating;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Running rating totals of one user, so averages are kept with one atomic UPDATE
+ * instead of re-counting rated bookings. Providers use every dimension; consumers
+ * only the overall one.
+ */
+@Entity
+@Table(name = "rating_aggregates")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RatingAggregate {
+
+    @Id
+    private Long userId;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Double punctualitySum = 0.0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Double commitmentSum = 0.0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Double qualityOfWorkSum = 0.0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Double overallSum = 0.0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long ratingCount = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Double interactionSum = 0.0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long interactionCount = 0L;
+}
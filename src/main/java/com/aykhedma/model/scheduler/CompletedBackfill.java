@@ -0,0 +1,28 @@
+package com.aykhedma.model.scheduler;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records that a run-once startup backfill has finished, so no instance runs it again.
+ */
+@Entity
+@Table(name = "completed_backfills")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CompletedBackfill {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime completedAt;
+}
@@ -1,5 +1,6 @@
 package com.aykhedma.model.service;
 
+import com.aykhedma.model.listener.DashboardMetricsListener;
 import com.aykhedma.model.user.Provider;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
@@ -10,6 +11,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(DashboardMetricsListener.class)
 @Table(name = "service_types")
 @Data
 @NoArgsConstructor
@@ -6,6 +6,7 @@ import com.aykhedma.model.document.Document;
 import com.aykhedma.model.location.Location;
 import com.aykhedma.model.service.PriceType;
 import com.aykhedma.model.service.ServiceType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
@@ -41,6 +42,16 @@ public class Provider extends User {
     @Column(nullable = false, length = 20)
     private VerificationStatus verificationStatus = VerificationStatus.PENDING;
 
+    /**
+     * Verification status as last loaded or written, so the dashboard counters can
+     * tell when it changed.
+     */
+    @Transient
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private VerificationStatus storedVerificationStatus;
+
     @Min(value = 1, message = "Average time must be at least 1 minute")
     @Max(value = 480, message = "Average time cannot exceed 8 hours (480 minutes)")
     private Integer averageTime;
@@ -118,33 +129,37 @@ public class Provider extends User {
     @Builder.Default
     @DecimalMin(value = "0.0", message = "Average punctuality cannot be negative")
     @DecimalMax(value = "5.0", message = "Average punctuality cannot exceed 5.0")
+    @Column(updatable = false)
     private Double averagePunctualityRating = 0.0;
 
     @Builder.Default
     @DecimalMin(value = "0.0", message = "Average commitment cannot be negative")
     @DecimalMax(value = "5.0", message = "Average commitment cannot exceed 5.0")
+    @Column(updatable = false)
     private Double averageCommitmentRating = 0.0;
 
     @Builder.Default
     @DecimalMin(value = "0.0", message = "Average quality cannot be negative")
     @DecimalMax(value = "5.0", message = "Average quality cannot exceed 5.0")
+    @Column(updatable = false)
     private Double averageQualityOfWorkRating = 0.0;
 
     @Builder.Default
     @DecimalMin(value = "0.0", message = "Average rating cannot be negative")
     @DecimalMax(value = "5.0", message = "Average rating cannot exceed 5.0")
     // @Column(precision = 3, scale = 2)
+    @Column(updatable = false)
     private Double averageRating = 0.0;
 
     @Builder.Default
     @DecimalMin(value = "0.0", message = "Average interaction rating cannot be negative")
     @DecimalMax(value = "5.0", message = "Average interaction rating cannot exceed 5.0")
-    @Column(nullable = false, columnDefinition = "double precision default 0.0")
+    @Column(nullable = false, updatable = false, columnDefinition = "double precision default 0.0")
     private Double averageInteractionRating = 0.0;
 
     @Builder.Default
     @Min(value = 0, message = "Interaction rating count cannot be negative")
-    @Column(nullable = false, columnDefinition = "integer default 0")
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
     private Integer interactionRatingCount = 0;
 
     @Builder.Default
@@ -8,7 +8,18 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
+/**
+ * A refresh token, stored as the SHA-256 of the value handed to the client.
+ * Each refresh rotates it: the row is marked rotated and a new token of the same
+ * family replaces it, so presenting a rotated token again means it was copied.
+ * Rotated rows stay until they expire, for that check.
+ */
 @Entity
+@Table(name = "refresh_token", indexes = {
+        @Index(name = "idx_refresh_token_expiry", columnList = "expiry_date, id"),
+        @Index(name = "idx_refresh_token_user", columnList = "user_id"),
+        @Index(name = "idx_refresh_token_family", columnList = "family_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -23,8 +34,16 @@ public class RefreshToken {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    // SHA-256 hex of the token; the raw token is never stored
     @Column(unique = true, nullable = false)
     private String token;
 
+    @Column(name = "family_id", length = 36)
+    private String familyId;
+
+    @Column(name = "expiry_date")
     private LocalDateTime expiryDate;
+
+    @Column(name = "rotated_at")
+    private LocalDateTime rotatedAt;
 }
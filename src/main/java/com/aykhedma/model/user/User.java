@@ -1,5 +1,6 @@
 package com.aykhedma.model.user;
 
+import com.aykhedma.model.listener.DashboardMetricsListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
@@ -9,6 +10,7 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(DashboardMetricsListener.class)
 @Table(name = "users", indexes = {
         @Index(name = "idx_user_role", columnList = "role"),
         @Index(name = "idx_user_enabled", columnList = "enabled"),
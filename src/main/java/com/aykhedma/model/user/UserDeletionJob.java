@@ -0,0 +1,64 @@
+package com.aykhedma.model.user;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of an account deletion. The user id is kept as a plain column because
+ * the user row itself is the last thing the deletion removes.
+ */
+@Entity
+@Table(name = "user_deletion_jobs", indexes = {
+        @Index(name = "idx_user_deletion_job_user", columnList = "user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserDeletionJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private UserType userRole;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private UserDeletionStatus status;
+
+    @Column(length = 64)
+    private String currentStep;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long rowsDeleted = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer mediaDeleted = 0;
+
+    @Column(nullable = false)
+    private Long estimatedRows;
+
+    @Column(nullable = false)
+    private LocalDateTime requestedAt;
+
+    // bumped by every committed chunk; a RUNNING job that stops moving has died
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+
+    @Column(length = 500)
+    private String error;
+}
@@ -0,0 +1,8 @@
+package com.aykhedma.model.user;
+
+public enum UserDeletionStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
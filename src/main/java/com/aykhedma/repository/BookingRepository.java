@@ -1,5 +1,7 @@
 package com.aykhedma.repository;
 
+import com.aykhedma.dto.response.DailyCountProjection;
+import com.aykhedma.dto.response.ExpiredBookingProjection;
 import com.aykhedma.model.booking.Booking;
 import com.aykhedma.model.booking.BookingStatus;
 import org.springframework.data.domain.Page;
@@ -13,6 +15,7 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -81,31 +84,36 @@ public interface BookingRepository extends JpaRepository<Booking, Long>
                                           @Param("newStartTime") LocalTime newStartTime,
                                           @Param("newEndTime") LocalTime newEndTime);
 
-    @Modifying(clearAutomatically = true)
-    @Query("UPDATE Booking b " +
-            "SET b.status = 'EXPIRED', b.expiredAt = :currentTimestamp " +
-            "WHERE b.status = 'PENDING' " +
-            "AND " +
-            "(" +
-                "b.requestedDate < :currentDate " +
-                "OR (b.requestedDate = :currentDate AND b.requestedStartTime < :currentTime)" +
-            ")")
-    void expirePendingBookings(@Param("currentTimestamp") LocalDateTime currentTimestamp,
-                               @Param("currentDate") LocalDate currentDate,
-                               @Param("currentTime") LocalTime currentTime);
+    @Query("SELECT b.id FROM Booking b " +
+            "WHERE b.status = :status " +
+            "AND (b.requestedDate < :cutoffDate " +
+                "OR (b.requestedDate = :cutoffDate AND b.requestedStartTime < :cutoffTime)) " +
+            "ORDER BY b.requestedDate, b.requestedStartTime")
+    List<Long> findIdsDueForExpiry(@Param("status") BookingStatus status,
+                                   @Param("cutoffDate") LocalDate cutoffDate,
+                                   @Param("cutoffTime") LocalTime cutoffTime,
+                                   Pageable pageable);
 
     @Modifying(clearAutomatically = true)
-    @Query(value = "UPDATE Booking b " +
-            "SET b.status = 'EXPIRED', b.expiredAt = :currentTimestamp " +
-            "WHERE b.status = 'ACCEPTED' " +
-            "AND " +
-            "(" +
-                "b.requestedDate < :currentDate " +
-                "OR (b.requestedDate = :currentDate AND b.requestedStartTime < :currentTime)" +
-            ")")
-    void expireAcceptedBookings(@Param("currentTimestamp") LocalDateTime currentTimestamp,
-                               @Param("currentDate") LocalDate currentDate,
-                               @Param("currentTime") LocalTime currentTime);
+    @Query("UPDATE Booking b " +
+            "SET b.status = 'EXPIRED', b.expiredAt = :expiredAt " +
+            "WHERE b.id IN :ids AND b.status = :status")
+    int expireByIds(@Param("ids") Collection<Long> ids,
+                    @Param("status") BookingStatus status,
+                    @Param("expiredAt") LocalDateTime expiredAt);
+
+    @Query("SELECT b.id AS id, b.consumer.id AS consumerId, b.provider.id AS providerId, " +
+            "b.timeSlot.id AS timeSlotId, b.requestedDate AS requestedDate, " +
+            "b.requestedStartTime AS requestedStartTime " +
+            "FROM Booking b " +
+            "WHERE b.id IN :ids AND b.status = 'EXPIRED' AND b.expiredAt = :expiredAt")
+    List<ExpiredBookingProjection> findExpiredByIds(@Param("ids") Collection<Long> ids,
+                                                    @Param("expiredAt") LocalDateTime expiredAt);
+
+    @Query(value = "SELECT CAST(created_at AS DATE) AS day, COUNT(*) AS total FROM bookings " +
+            "WHERE created_at >= :from " +
+            "GROUP BY CAST(created_at AS DATE)", nativeQuery = true)
+    List<DailyCountProjection> countCreatedPerDay(@Param("from") LocalDateTime from);
 
     @Query(value = "SELECT " +
             "SUM(CASE WHEN status IN ('COMPLETED', 'ACCEPTED') THEN 1 ELSE 0 END) AS completed_and_accepted, " +
@@ -3,14 +3,14 @@ package com.aykhedma.repository;
 import com.aykhedma.model.chat.ChatMessage;
 import com.aykhedma.model.chat.ChatRoom;
 import com.aykhedma.model.user.User;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -34,20 +34,18 @@ public interface ChatRoomRepository extends JpaRepository<ChatRoom, String> {
     Optional<ChatRoom> findRoomBetweenUsers(@Param("u1") User u1,
             @Param("u2") User u2);
 
+    @Query("SELECT u.id FROM ChatRoom r JOIN r.participants u WHERE r.id = :roomId")
+    Set<Long> findParticipantIds(@Param("roomId") String roomId);
+
+    @Modifying
     @Query("""
-SELECT DISTINCT r
-FROM ChatRoom r
-JOIN FETCH r.participants p
-WHERE EXISTS (
-    SELECT 1
-    FROM r.participants me
-    WHERE me.id = :userId
-)
-AND r.lastMessageAt IS NOT NULL
-ORDER BY r.lastMessageAt DESC
-""")
-    Page<ChatRoom> findUserRooms(
-            @Param("userId") Long userId,
-            Pageable pageable
-    );
+            UPDATE ChatRoom r
+            SET r.lastMessage = :lastMessage,
+                r.lastMessageAt = :lastMessageAt
+            WHERE r.id = :roomId
+              AND (r.lastMessageAt IS NULL OR r.lastMessageAt < :lastMessageAt)
+            """)
+    int updateLastMessage(@Param("roomId") String roomId,
+                          @Param("lastMessage") String lastMessage,
+                          @Param("lastMessageAt") LocalDateTime lastMessageAt);
 }
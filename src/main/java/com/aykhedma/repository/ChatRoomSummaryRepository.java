@@ -0,0 +1,91 @@
+package com.aykhedma.repository;
+
+import com.aykhedma.dto.response.ChatInboxProjection;
+import com.aykhedma.model.chat.ChatRoomSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface ChatRoomSummaryRepository extends JpaRepository<ChatRoomSummary, Long> {
+
+    boolean existsByRoomId(String roomId);
+
+    // The other user's name and image are read live, so profile edits show up in every inbox
+    @Query(value = """
+            SELECT s.roomId AS roomId, s.otherUserId AS otherUserId,
+                   u.name AS otherUserName, u.profileImage AS otherUserProfileImage,
+                   s.lastMessage AS lastMessage, s.lastMessageAt AS lastMessageAt,
+                   s.unreadCount AS unreadCount
+            FROM ChatRoomSummary s
+            LEFT JOIN User u ON u.id = s.otherUserId
+            WHERE s.userId = :userId
+              AND s.lastMessageAt IS NOT NULL
+            ORDER BY s.lastMessageAt DESC
+            """,
+            countQuery = """
+            SELECT COUNT(s) FROM ChatRoomSummary s
+            WHERE s.userId = :userId
+              AND s.lastMessageAt IS NOT NULL
+            """)
+    Page<ChatInboxProjection> findInbox(@Param("userId") Long userId, Pageable pageable);
+
+    // Guarded so out-of-order flushes from different nodes never move the preview backwards
+    @Modifying
+    @Query("""
+            UPDATE ChatRoomSummary s
+            SET s.lastMessage = :lastMessage,
+                s.lastMessageAt = :lastMessageAt
+            WHERE s.roomId = :roomId
+              AND (s.lastMessageAt IS NULL OR s.lastMessageAt < :lastMessageAt)
+            """)
+    int applyLastMessage(@Param("roomId") String roomId,
+                         @Param("lastMessage") String lastMessage,
+                         @Param("lastMessageAt") LocalDateTime lastMessageAt);
+
+    @Modifying
+    @Query("""
+            UPDATE ChatRoomSummary s
+            SET s.unreadCount = s.unreadCount + :delta
+            WHERE s.roomId = :roomId AND s.userId = :userId
+            """)
+    int incrementUnread(@Param("roomId") String roomId,
+                        @Param("userId") Long userId,
+                        @Param("delta") long delta);
+
+    @Modifying
+    @Query("""
+            UPDATE ChatRoomSummary s
+            SET s.unreadCount = 0
+            WHERE s.roomId = :roomId AND s.userId = :userId AND s.unreadCount <> 0
+            """)
+    int resetUnread(@Param("roomId") String roomId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM ChatRoomSummary s WHERE s.roomId IN :roomIds")
+    int deleteByRoomIds(@Param("roomIds") Collection<String> roomIds);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO chat_room_summaries
+                (user_id, room_id, other_user_id, last_message, last_message_at, unread_count)
+            SELECT me.user_id, r.id, other.user_id,
+                   LEFT(r.last_message, 255), r.last_message_at,
+                   (SELECT COUNT(*) FROM chat_messages m
+                     WHERE m.room_id = r.id AND m.sender_id <> me.user_id AND m.is_read = false)
+            FROM chat_rooms r
+            JOIN chat_room_participants me ON me.room_id = r.id
+            JOIN chat_room_participants other ON other.room_id = r.id AND other.user_id <> me.user_id
+            WHERE NOT EXISTS (
+                SELECT 1 FROM chat_room_summaries s
+                WHERE s.user_id = me.user_id AND s.room_id = r.id)
+            """, nativeQuery = true)
+    int backfillMissingSummaries();
+}
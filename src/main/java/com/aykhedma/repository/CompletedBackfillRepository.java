@@ -0,0 +1,9 @@
+package com.aykhedma.repository;
+
+import com.aykhedma.model.scheduler.CompletedBackfill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CompletedBackfillRepository extends JpaRepository<CompletedBackfill, String> {
+}
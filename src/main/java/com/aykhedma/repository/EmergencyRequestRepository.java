@@ -1,7 +1,9 @@
 package com.aykhedma.repository;
 
+import com.aykhedma.dto.response.ExpiredEmergencyRequestProjection;
 import com.aykhedma.model.emergency.EmergencyRequest;
 import com.aykhedma.model.emergency.EmergencyRequestStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -12,6 +14,7 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -49,17 +52,24 @@ public interface EmergencyRequestRepository extends JpaRepository<EmergencyReque
     @Query("DELETE FROM EmergencyRequest er WHERE er.selectedProvider.id = :providerId")
     void deleteBySelectedProviderId(@Param("providerId") Long providerId);
 
-    @Modifying(clearAutomatically = true)
-    @Query("UPDATE EmergencyRequest er " +
-            "SET er.status = 'EXPIRED' " +
-            "WHERE er.status = 'WAITING_ACCEPTANCE' " +
-            "AND er.createdAt + 1 hour < :currentTimestamp ")
-    void expirePendingEmergencyRequests(@Param("currentTimestamp")LocalDateTime currentTimestamp);
+    @Query("SELECT er.id FROM EmergencyRequest er " +
+            "WHERE er.status = :status AND er.createdAt < :createdBefore " +
+            "ORDER BY er.createdAt")
+    List<Long> findIdsDueForExpiry(@Param("status") EmergencyRequestStatus status,
+                                   @Param("createdBefore") LocalDateTime createdBefore,
+                                   Pageable pageable);
 
     @Modifying(clearAutomatically = true)
     @Query("UPDATE EmergencyRequest er " +
-            "SET er.status = 'EXPIRED' " +
-            "WHERE er.status = 'ACCEPTED' " +
-            "AND er.createdAt + 1 day < :currentTimestamp ")
-    void expireAcceptedEmergencyRequests(@Param("currentTimestamp") LocalDateTime currentTimestamp);
+            "SET er.status = 'EXPIRED', er.expiredAt = :expiredAt " +
+            "WHERE er.id IN :ids AND er.status = :status")
+    int expireByIds(@Param("ids") Collection<Long> ids,
+                    @Param("status") EmergencyRequestStatus status,
+                    @Param("expiredAt") LocalDateTime expiredAt);
+
+    @Query("SELECT er.id AS id, er.consumer.id AS consumerId, er.selectedProvider.id AS selectedProviderId " +
+            "FROM EmergencyRequest er " +
+            "WHERE er.id IN :ids AND er.status = 'EXPIRED' AND er.expiredAt = :expiredAt")
+    List<ExpiredEmergencyRequestProjection> findExpiredByIds(@Param("ids") Collection<Long> ids,
+                                                             @Param("expiredAt") LocalDateTime expiredAt);
 }
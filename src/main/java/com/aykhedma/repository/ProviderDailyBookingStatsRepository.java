@@ -0,0 +1,76 @@
+package com.aykhedma.repository;
+
+import com.aykhedma.dto.response.BookingStatsTotalsProjection;
+import com.aykhedma.model.booking.ProviderDailyBookingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ProviderDailyBookingStatsRepository extends JpaRepository<ProviderDailyBookingStats, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO provider_daily_booking_stats " +
+            "(provider_id, stat_date, accepted_count, completed_count, cancelled_count) " +
+            "VALUES (:providerId, :statDate, 0, 0, 0) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("providerId") Long providerId, @Param("statDate") LocalDate statDate);
+
+    @Modifying
+    @Query("UPDATE ProviderDailyBookingStats s SET " +
+            "s.acceptedCount = s.acceptedCount + :accepted, " +
+            "s.completedCount = s.completedCount + :completed, " +
+            "s.cancelledCount = s.cancelledCount + :cancelled " +
+            "WHERE s.providerId = :providerId AND s.statDate = :statDate")
+    int adjust(@Param("providerId") Long providerId,
+               @Param("statDate") LocalDate statDate,
+               @Param("accepted") int accepted,
+               @Param("completed") int completed,
+               @Param("cancelled") int cancelled);
+
+    @Query("SELECT COALESCE(SUM(s.acceptedCount), 0) AS accepted, " +
+            "COALESCE(SUM(s.completedCount), 0) AS completed, " +
+            "COALESCE(SUM(s.cancelledCount), 0) AS cancelled " +
+            "FROM ProviderDailyBookingStats s " +
+            "WHERE s.providerId = :providerId AND s.statDate BETWEEN :from AND :to")
+    BookingStatsTotalsProjection sumBetween(@Param("providerId") Long providerId,
+                                            @Param("from") LocalDate from,
+                                            @Param("to") LocalDate to);
+
+    List<ProviderDailyBookingStats> findByProviderIdAndStatDateBetweenOrderByStatDate(Long providerId,
+                                                                                      LocalDate from,
+                                                                                      LocalDate to);
+
+    /**
+     * Blocks booking transitions from writing the rollup until the transaction ends,
+     * so a rebuild cannot interleave with their increments.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE provider_daily_booking_stats IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query("DELETE FROM ProviderDailyBookingStats s")
+    int deleteAllDays();
+
+    /**
+     * Counts every provider day from the booking history; run on an empty rollup.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO provider_daily_booking_stats " +
+            "(provider_id, stat_date, accepted_count, completed_count, cancelled_count) " +
+            "SELECT b.provider_id, b.requested_date, " +
+            "SUM(CASE WHEN b.status = 'ACCEPTED' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.status = 'COMPLETED' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.status = 'CANCELLED' THEN 1 ELSE 0 END) " +
+            "FROM bookings b " +
+            "WHERE b.status IN ('ACCEPTED', 'COMPLETED', 'CANCELLED') " +
+            "AND b.provider_id IS NOT NULL AND b.requested_date IS NOT NULL " +
+            "GROUP BY b.provider_id, b.requested_date", nativeQuery = true)
+    int insertFromBookings();
+}
@@ -1,20 +1,27 @@
 package com.aykhedma.repository;
 
+import com.aykhedma.dto.response.NearbyProviderProjection;
 import com.aykhedma.dto.response.ProviderDistanceProjection;
+import com.aykhedma.dto.response.ScheduleOwnerProjection;
 import com.aykhedma.model.service.ServiceType;
 import com.aykhedma.model.user.Provider;
 import com.aykhedma.model.user.VerificationStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import org.locationtech.jts.geom.Point;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProviderRepository extends JpaRepository<Provider, Long> {
@@ -31,6 +38,12 @@ public interface ProviderRepository extends JpaRepository<Provider, Long> {
 
     long countByVerificationStatus(VerificationStatus status);
 
+    @Query(value = "SELECT COUNT(*) FROM providers", nativeQuery = true)
+    long countRows();
+
+    @Query(value = "SELECT COUNT(*) FROM providers WHERE verification_status = :status", nativeQuery = true)
+    long countRowsByVerificationStatus(@Param("status") String status);
+
     List<Provider> findByServiceType(ServiceType serviceType);
 
     @Query("SELECT p FROM Provider p WHERE p.serviceType = :serviceType AND p.verificationStatus = 'VERIFIED' AND p.emergencyEnabled = true")
@@ -304,6 +317,55 @@ public interface ProviderRepository extends JpaRepository<Provider, Long> {
             @Param("enabled") Boolean enabled,
             Pageable pageable);
 
+    /**
+     * Admin search page seeking on the primary key: providers with an id below
+     * {@code beforeId} (any id when null), highest id first, without a count query.
+     */
+    @Query("SELECT p FROM Provider p " +
+            "LEFT JOIN FETCH p.serviceType s " +
+            "LEFT JOIN FETCH s.category c " +
+            "LEFT JOIN FETCH p.location l " +
+            "WHERE (:beforeId IS NULL OR p.id < :beforeId) " +
+            "AND (:status IS NULL OR p.verificationStatus = :status) " +
+            "AND (:enabled IS NULL OR p.enabled = :enabled) " +
+            "AND (:keyword IS NULL OR :keyword = '' OR " +
+            "    LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "    LOWER(p.email) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "    LOWER(p.phoneNumber) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "    LOWER(s.name) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+            "ORDER BY p.id DESC")
+    List<Provider> findProvidersForAdminBefore(
+            @Param("keyword") String keyword,
+            @Param("status") VerificationStatus status,
+            @Param("enabled") Boolean enabled,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable);
+
+    /**
+     * Admin export: the same filters in id order, read through a forward-only cursor.
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Provider p " +
+            "LEFT JOIN FETCH p.serviceType s " +
+            "LEFT JOIN FETCH s.category c " +
+            "LEFT JOIN FETCH p.location l " +
+            "WHERE (:status IS NULL OR p.verificationStatus = :status) " +
+            "AND (:enabled IS NULL OR p.enabled = :enabled) " +
+            "AND (:keyword IS NULL OR :keyword = '' OR " +
+            "    LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "    LOWER(p.email) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "    LOWER(p.phoneNumber) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "    LOWER(s.name) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+            "ORDER BY p.id")
+    Stream<Provider> streamProvidersForAdmin(
+            @Param("keyword") String keyword,
+            @Param("status") VerificationStatus status,
+            @Param("enabled") Boolean enabled);
+
     // for AI
     List<Provider> findByServiceTypeIdAndVerificationStatus(Long serviceTypeId, VerificationStatus status);
 
@@ -434,17 +496,87 @@ public interface ProviderRepository extends JpaRepository<Provider, Long> {
             "WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<Provider> findByNameContainingIgnoreCaseWithDetails(@Param("name") String name);
 
-    @Query("SELECT p FROM Provider p " +
-            "LEFT JOIN FETCH p.location " +
-            "LEFT JOIN FETCH p.serviceType " +
-            "WHERE p.serviceType.id = :serviceTypeId " +
-            "AND p.verificationStatus = :status")
-    List<Provider> findByServiceTypeIdAndVerificationStatusWithDetails(
-            @Param("serviceTypeId") Long serviceTypeId,
-            @Param("status") VerificationStatus status);
+    /**
+     * Best rated verified providers of the given trades within {@code radiusMeters}, nearest
+     * first among equal ratings, with only the columns the chatbot shows.
+     */
+    @Query(value = """
+            SELECT
+                p.id AS id,
+                u.name AS name,
+                u.profile_image AS profileImage,
+                st.name AS serviceType,
+                st.name_ar AS serviceTypeAr,
+                p.average_rating AS averageRating,
+                p.price AS price,
+                p.price_type AS priceType,
+                p.cancellation_rate AS cancellationRate,
+                l.area AS area,
+                ST_Distance(
+                    CAST(l.coordinates AS geography),
+                    CAST(ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326) AS geography)
+                ) / 1000.0 AS distanceKm
+            FROM providers p
+            JOIN users u ON p.id = u.id
+            JOIN locations l ON p.location_id = l.id
+            JOIN service_types st ON p.service_type_id = st.id
+            WHERE p.service_type_id IN (:serviceTypeIds)
+            AND p.verification_status = 'VERIFIED'
+            AND ST_DWithin(
+                CAST(l.coordinates AS geography),
+                CAST(ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326) AS geography),
+                :radiusMeters
+            )
+            ORDER BY p.average_rating DESC NULLS LAST,
+                l.coordinates <-> ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326)
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<NearbyProviderProjection> findTopRatedNearby(@Param("serviceTypeIds") Collection<Long> serviceTypeIds,
+            @Param("latitude") double latitude,
+            @Param("longitude") double longitude,
+            @Param("radiusMeters") double radiusMeters,
+            @Param("limit") int limit);
 
     @Query("SELECT p.id FROM Provider p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
     Optional<Long> findIdByNameContainingIgnoreCase(@Param("name") String name);
 
     List<Provider> findByNameContainingIgnoreCase(String name);
-}
\ No newline at end of file
+
+    @Query("SELECT p.id AS providerId, p.serviceType.id AS serviceTypeId FROM Provider p WHERE p.schedule.id = :scheduleId")
+    Optional<ScheduleOwnerProjection> findScheduleOwner(@Param("scheduleId") Long scheduleId);
+
+    @Query("SELECT p.id FROM Provider p " +
+            "WHERE p.id IN :providerIds " +
+            "AND p.enabled = true " +
+            "AND p.verificationStatus = 'VERIFIED' " +
+            "ORDER BY p.averageRating DESC NULLS LAST")
+    List<Long> findBookableIdsIn(@Param("providerIds") Collection<Long> providerIds);
+
+    @Query(value = """
+            SELECT p.id
+            FROM providers p
+            JOIN users u ON p.id = u.id
+            JOIN locations l ON p.location_id = l.id
+            CROSS JOIN (
+                SELECT cl.coordinates AS consumer_coords
+                FROM consumers c
+                JOIN locations cl ON c.location_id = cl.id
+                WHERE c.id = :consumerId
+            ) cl
+            WHERE p.id IN (:providerIds)
+            AND u.enabled = true
+            AND p.verification_status = 'VERIFIED'
+            AND ST_DWithin(
+                CAST(l.coordinates AS geography),
+                CAST(cl.consumer_coords AS geography),
+                :radiusMeters
+            )
+            ORDER BY ST_Distance(
+                CAST(l.coordinates AS geography),
+                CAST(cl.consumer_coords AS geography)
+            )
+            """, nativeQuery = true)
+    List<Long> findBookableIdsNearConsumer(@Param("providerIds") Collection<Long> providerIds,
+            @Param("consumerId") Long consumerId,
+            @Param("radiusMeters") double radiusMeters);
+}
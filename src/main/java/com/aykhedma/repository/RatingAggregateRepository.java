@@ -0,0 +1,132 @@
+package com.aykhedma.repository;
+
+import com.aykhedma.dto.response.RatingTotalsProjection;
+import com.aykhedma.model.rating.RatingAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RatingAggregateRepository extends JpaRepository<RatingAggregate, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO rating_aggregates (user_id, punctuality_sum, commitment_sum, quality_of_work_sum, " +
+            "overall_sum, rating_count, interaction_sum, interaction_count) " +
+            "VALUES (:userId, 0, 0, 0, 0, 0, 0, 0) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE RatingAggregate a SET " +
+            "a.punctualitySum = a.punctualitySum + :punctuality, " +
+            "a.commitmentSum = a.commitmentSum + :commitment, " +
+            "a.qualityOfWorkSum = a.qualityOfWorkSum + :qualityOfWork, " +
+            "a.overallSum = a.overallSum + :overall, " +
+            "a.ratingCount = a.ratingCount + 1 " +
+            "WHERE a.userId = :userId")
+    int addServiceRating(@Param("userId") Long userId,
+                         @Param("punctuality") double punctuality,
+                         @Param("commitment") double commitment,
+                         @Param("qualityOfWork") double qualityOfWork,
+                         @Param("overall") double overall);
+
+    @Modifying
+    @Query("UPDATE RatingAggregate a SET " +
+            "a.overallSum = a.overallSum + :rating, " +
+            "a.ratingCount = a.ratingCount + 1 " +
+            "WHERE a.userId = :userId")
+    int addOverallRating(@Param("userId") Long userId, @Param("rating") double rating);
+
+    @Modifying
+    @Query("UPDATE RatingAggregate a SET " +
+            "a.interactionSum = a.interactionSum + :rating, " +
+            "a.interactionCount = a.interactionCount + 1 " +
+            "WHERE a.userId = :userId")
+    int addInteractionRating(@Param("userId") Long userId, @Param("rating") double rating);
+
+    /**
+     * Lowers the overall average by {@code penalty} (not below zero) by taking
+     * {@code penalty} off every counted rating.
+     */
+    @Modifying
+    @Query("UPDATE RatingAggregate a SET a.overallSum = " +
+            "CASE WHEN a.overallSum > :penalty * a.ratingCount " +
+            "THEN a.overallSum - :penalty * a.ratingCount ELSE 0.0 END " +
+            "WHERE a.userId = :userId")
+    int applyPenalty(@Param("userId") Long userId, @Param("penalty") double penalty);
+
+    @Query("SELECT a.punctualitySum AS punctualitySum, a.commitmentSum AS commitmentSum, " +
+            "a.qualityOfWorkSum AS qualityOfWorkSum, a.overallSum AS overallSum, a.ratingCount AS ratingCount, " +
+            "a.interactionSum AS interactionSum, a.interactionCount AS interactionCount " +
+            "FROM RatingAggregate a WHERE a.userId = :userId")
+    Optional<RatingTotalsProjection> findTotals(@Param("userId") Long userId);
+
+    // Averages shown on profiles and used for ranking; only written from the totals above
+
+    @Modifying
+    @Query(value = "UPDATE providers SET average_punctuality_rating = :punctuality, " +
+            "average_commitment_rating = :commitment, average_quality_of_work_rating = :qualityOfWork, " +
+            "average_rating = :overall WHERE id = :providerId", nativeQuery = true)
+    int writeProviderAverages(@Param("providerId") Long providerId,
+                              @Param("punctuality") double punctuality,
+                              @Param("commitment") double commitment,
+                              @Param("qualityOfWork") double qualityOfWork,
+                              @Param("overall") double overall);
+
+    @Modifying
+    @Query(value = "UPDATE providers SET average_rating = :overall WHERE id = :providerId", nativeQuery = true)
+    int writeProviderOverallAverage(@Param("providerId") Long providerId, @Param("overall") double overall);
+
+    @Modifying
+    @Query(value = "UPDATE providers SET average_interaction_rating = :average, " +
+            "interaction_rating_count = :count WHERE id = :providerId", nativeQuery = true)
+    int writeProviderInteractionAverage(@Param("providerId") Long providerId,
+                                        @Param("average") double average,
+                                        @Param("count") int count);
+
+    @Modifying
+    @Query(value = "UPDATE consumers SET average_rating = :overall WHERE id = :consumerId", nativeQuery = true)
+    int writeConsumerAverage(@Param("consumerId") Long consumerId, @Param("overall") double overall);
+
+    /**
+     * Creates the totals of every rated user that has none yet from the stored ratings.
+     * The overall total is seeded from the average currently shown (so earlier
+     * cancellation penalties carry over) and falls back to the rating history.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO rating_aggregates (user_id, punctuality_sum, commitment_sum, quality_of_work_sum, " +
+            "overall_sum, rating_count, interaction_sum, interaction_count) " +
+            "SELECT r.user_id, SUM(r.punctuality), SUM(r.commitment), SUM(r.quality_of_work), " +
+            "COALESCE((SELECT p.average_rating FROM providers p WHERE p.id = r.user_id), " +
+            "(SELECT c.average_rating FROM consumers c WHERE c.id = r.user_id), " +
+            "SUM(r.overall) / NULLIF(SUM(r.rated), 0), 0) * SUM(r.rated), " +
+            "SUM(r.rated), SUM(r.interaction), SUM(r.interactions) " +
+            "FROM (" +
+            "SELECT b.provider_id AS user_id, COALESCE(b.punctuality_rating, b.consumer_rating) AS punctuality, " +
+            "COALESCE(b.commitment_rating, b.consumer_rating) AS commitment, " +
+            "COALESCE(b.quality_of_work_rating, b.consumer_rating) AS quality_of_work, " +
+            "b.consumer_rating AS overall, 1 AS rated, 0.0 AS interaction, 0 AS interactions " +
+            "FROM bookings b WHERE b.consumer_rating IS NOT NULL " +
+            "UNION ALL " +
+            "SELECT er.selected_provider_id, COALESCE(er.punctuality_rating, er.consumer_rating), " +
+            "COALESCE(er.commitment_rating, er.consumer_rating), " +
+            "COALESCE(er.quality_of_work_rating, er.consumer_rating), er.consumer_rating, 1, 0.0, 0 " +
+            "FROM emergency_requests er WHERE er.consumer_rating IS NOT NULL AND er.selected_provider_id IS NOT NULL " +
+            "UNION ALL " +
+            "SELECT b.consumer_id, 0.0, 0.0, 0.0, b.provider_rating, 1, 0.0, 0 " +
+            "FROM bookings b WHERE b.provider_rating IS NOT NULL " +
+            "UNION ALL " +
+            "SELECT er.consumer_id, 0.0, 0.0, 0.0, er.provider_rating, 1, 0.0, 0 " +
+            "FROM emergency_requests er WHERE er.provider_rating IS NOT NULL " +
+            "UNION ALL " +
+            "SELECT ir.provider_id, 0.0, 0.0, 0.0, 0.0, 0, ir.rating, 1 " +
+            "FROM interaction_ratings ir" +
+            ") r " +
+            "WHERE NOT EXISTS (SELECT 1 FROM rating_aggregates a WHERE a.user_id = r.user_id) " +
+            "GROUP BY r.user_id", nativeQuery = true)
+    int backfillMissingAggregates();
+}
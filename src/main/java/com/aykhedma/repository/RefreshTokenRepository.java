@@ -5,6 +5,8 @@ import com.aykhedma.model.user.User;
 import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -14,11 +16,40 @@ public interface RefreshTokenRepository
 
     Optional<RefreshToken> findByToken(String token);
 
+    /**
+     * The token with its user, in one query, for a refresh.
+     */
+    @Query("SELECT t FROM RefreshToken t JOIN FETCH t.user WHERE t.token = :token")
+    Optional<RefreshToken> findWithUserByToken(@Param("token") String token);
+
+    /**
+     * A token issued before tokens were hashed, matched on its raw value. Only rows
+     * without a family are that old, so a stored hash never works as a token.
+     */
+    @Query("SELECT t FROM RefreshToken t JOIN FETCH t.user WHERE t.token = :token AND t.familyId IS NULL")
+    Optional<RefreshToken> findLegacyWithUserByToken(@Param("token") String token);
+
+    /**
+     * Marks the token rotated unless a concurrent refresh already did; 0 means it lost.
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.rotatedAt = :now WHERE t.id = :id AND t.rotatedAt IS NULL")
+    int markRotated(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.familyId = :familyId")
+    int deleteByFamilyId(@Param("familyId") String familyId);
+
     @Transactional
     @Modifying
     void deleteByUser(User user);
 
+    /**
+     * Deletes up to {@code limit} expired tokens, oldest first, walking the expiry index.
+     */
     @Transactional
     @Modifying
-    void deleteByExpiryDateBefore(LocalDateTime dateTime);
+    @Query("DELETE FROM RefreshToken t WHERE t.id IN (SELECT r.id FROM RefreshToken r " +
+            "WHERE r.expiryDate < :now ORDER BY r.expiryDate, r.id LIMIT :limit)")
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
@@ -2,8 +2,26 @@ package com.aykhedma.repository;
 
 import com.aykhedma.model.booking.Schedule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
-}
\ No newline at end of file
+
+    @Query("SELECT s.availabilityVersion FROM Schedule s WHERE s.id = :scheduleId")
+    Optional<Long> findAvailabilityVersion(@Param("scheduleId") Long scheduleId);
+
+    @Modifying
+    @Query("""
+            UPDATE Schedule s
+            SET s.availabilityVersion = s.availabilityVersion + 1
+            WHERE s.id = :scheduleId
+              AND s.availabilityVersion = :expectedVersion
+            """)
+    int bumpAvailabilityVersion(@Param("scheduleId") Long scheduleId,
+                                @Param("expectedVersion") Long expectedVersion);
+}
@@ -0,0 +1,37 @@
+package com.aykhedma.repository;
+
+import com.aykhedma.model.scheduler.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.owner = :owner, l.leaseUntil = :leaseUntil " +
+            "WHERE l.name = :name AND (l.owner = :owner OR l.leaseUntil < :now)")
+    int tryAcquire(@Param("name") String name,
+                   @Param("owner") String owner,
+                   @Param("now") LocalDateTime now,
+                   @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_leases (name, owner, lease_until) " +
+            "SELECT :name, :owner, :leaseUntil " +
+            "WHERE NOT EXISTS (SELECT 1 FROM scheduler_leases WHERE name = :name)", nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name,
+                       @Param("owner") String owner,
+                       @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.owner = NULL, l.leaseUntil = :now " +
+            "WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now);
+}
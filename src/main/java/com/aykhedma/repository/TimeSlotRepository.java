@@ -1,5 +1,6 @@
 package com.aykhedma.repository;
 
+import com.aykhedma.dto.response.ProviderWindowProjection;
 import com.aykhedma.model.booking.TimeSlot;
 import com.aykhedma.model.booking.TimeSlotStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -78,4 +79,13 @@ public interface TimeSlotRepository extends JpaRepository<TimeSlot, Long> {
     boolean isTimeWithinAvailableSlotByProviderId(@Param("providerId") Long providerId,
                     @Param("date") LocalDate date,
                     @Param("time") LocalTime time);
+
+    @Query("SELECT p.id AS providerId, ts.startTime AS startTime, ts.endTime AS endTime " +
+                    "FROM TimeSlot ts " +
+                    "JOIN Provider p ON p.schedule.id = ts.schedule.id " +
+                    "WHERE p.serviceType.id = :serviceTypeId " +
+                    "AND ts.date = :date " +
+                    "AND ts.status = 'AVAILABLE'")
+    List<ProviderWindowProjection> findAvailableWindowsByServiceType(@Param("serviceTypeId") Long serviceTypeId,
+                    @Param("date") LocalDate date);
 }
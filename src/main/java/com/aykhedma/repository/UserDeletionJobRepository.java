@@ -0,0 +1,47 @@
+package com.aykhedma.repository;
+
+import com.aykhedma.model.user.UserDeletionJob;
+import com.aykhedma.model.user.UserDeletionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface UserDeletionJobRepository extends JpaRepository<UserDeletionJob, Long> {
+
+    Optional<UserDeletionJob> findFirstByUserIdAndStatusInOrderByIdDesc(Long userId,
+                                                                       Collection<UserDeletionStatus> statuses);
+
+    @Modifying
+    @Query("UPDATE UserDeletionJob j SET j.status = :status, j.updatedAt = :now, j.error = NULL " +
+            "WHERE j.id = :id")
+    int markStatus(@Param("id") Long id,
+                   @Param("status") UserDeletionStatus status,
+                   @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE UserDeletionJob j SET j.currentStep = :step, j.rowsDeleted = j.rowsDeleted + :rows, " +
+            "j.updatedAt = :now WHERE j.id = :id")
+    int recordProgress(@Param("id") Long id,
+                       @Param("step") String step,
+                       @Param("rows") long rows,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE UserDeletionJob j SET j.mediaDeleted = j.mediaDeleted + :count WHERE j.id = :id")
+    int recordMediaDeleted(@Param("id") Long id, @Param("count") int count);
+
+    @Modifying
+    @Query("UPDATE UserDeletionJob j SET j.status = :status, j.finishedAt = :now, j.updatedAt = :now, " +
+            "j.error = :error WHERE j.id = :id")
+    int finish(@Param("id") Long id,
+               @Param("status") UserDeletionStatus status,
+               @Param("error") String error,
+               @Param("now") LocalDateTime now);
+}
@@ -1,5 +1,6 @@
 package com.aykhedma.repository;
 
+import com.aykhedma.dto.response.DailyCountProjection;
 import com.aykhedma.model.user.User;
 import com.aykhedma.model.user.UserType;
 import org.springframework.data.jpa.repository.Modifying;
@@ -9,11 +10,12 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>, UserRepositoryCustom {
 
     Optional<User> findByEmail(String email);
 
@@ -37,4 +39,15 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
     @Query("SELECT u FROM User u WHERE u.email = :email AND u.enabled = true")
     Optional<User> findActiveUserByEmail(@Param("email") String email);
 
+    /**
+     * Row count of the base table; {@code count()} joins every subclass table under JOINED inheritance.
+     */
+    @Query(value = "SELECT COUNT(*) FROM users", nativeQuery = true)
+    long countRows();
+
+    @Query(value = "SELECT CAST(created_at AS DATE) AS day, COUNT(*) AS total FROM users " +
+            "WHERE created_at >= :from " +
+            "GROUP BY CAST(created_at AS DATE)", nativeQuery = true)
+    List<DailyCountProjection> countCreatedPerDay(@Param("from") LocalDateTime from);
+
 }
\ No newline at end of file
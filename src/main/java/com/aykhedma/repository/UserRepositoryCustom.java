@@ -0,0 +1,22 @@
+package com.aykhedma.repository;
+
+import com.aykhedma.model.user.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Matching users in id order, read through a forward-only cursor a fetch at a time.
+     * Must be consumed inside a transaction and closed.
+     */
+    Stream<User> streamAll(Specification<User> spec);
+
+    /**
+     * Up to {@code limit} matching users with an id below {@code beforeId} (any id when null),
+     * highest id first. Seeks on the primary key instead of skipping an offset.
+     */
+    List<User> findBeforeId(Specification<User> spec, Long beforeId, int limit);
+}
@@ -0,0 +1,59 @@
+package com.aykhedma.repository;
+
+import com.aykhedma.model.user.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    static final int STREAM_FETCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Stream<User> streamAll(Specification<User> spec) {
+        return query(spec, null, true)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public List<User> findBeforeId(Specification<User> spec, Long beforeId, int limit) {
+        return query(spec, beforeId, false)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private TypedQuery<User> query(Specification<User> spec, Long beforeId, boolean ascending) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<User> query = criteriaBuilder.createQuery(User.class);
+        Root<User> root = query.from(User.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate filter = spec.toPredicate(root, query, criteriaBuilder);
+        if (filter != null) {
+            predicates.add(filter);
+        }
+        if (beforeId != null) {
+            predicates.add(criteriaBuilder.lessThan(root.get("id"), beforeId));
+        }
+
+        query.select(root)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(ascending ? criteriaBuilder.asc(root.get("id")) : criteriaBuilder.desc(root.get("id")));
+        return entityManager.createQuery(query);
+    }
+}
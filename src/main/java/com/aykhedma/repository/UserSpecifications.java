@@ -0,0 +1,57 @@
+package com.aykhedma.repository;
+
+import com.aykhedma.model.user.User;
+import com.aykhedma.model.user.UserType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    /**
+     * The admin user search filters; null filters are not applied.
+     */
+    public static Specification<User> adminSearch(
+            UserType role,
+            Boolean enabled,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String keyword,
+            Long excludeUserId) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (role != null) {
+                predicates.add(criteriaBuilder.equal(root.get("role"), role));
+            }
+            if (enabled != null) {
+                predicates.add(criteriaBuilder.equal(root.get("enabled"), enabled));
+            }
+            if (startDate != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("createdAt"), startDate));
+            }
+            if (endDate != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("createdAt"), endDate));
+            }
+            if (keyword != null) {
+                String pattern = "%" + keyword.toLowerCase(Locale.ROOT) + "%";
+                predicates.add(criteriaBuilder.or(
+                        criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), pattern),
+                        criteriaBuilder.like(criteriaBuilder.lower(root.get("email")), pattern),
+                        criteriaBuilder.like(criteriaBuilder.lower(root.get("phoneNumber")), pattern)));
+            }
+            if (excludeUserId != null) {
+                predicates.add(criteriaBuilder.notEqual(root.get("id"), excludeUserId));
+            }
+
+            return criteriaBuilder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
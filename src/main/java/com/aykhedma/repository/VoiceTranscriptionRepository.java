@@ -0,0 +1,23 @@
+package com.aykhedma.repository;
+
+import com.aykhedma.model.chat.VoiceTranscription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface VoiceTranscriptionRepository extends JpaRepository<VoiceTranscription, String> {
+
+    Optional<VoiceTranscription> findByAudioHashAndCreatedAtAfter(String audioHash, LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM VoiceTranscription t WHERE t.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
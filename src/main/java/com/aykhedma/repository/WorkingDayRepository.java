@@ -13,7 +13,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface WorkingDayRepository extends JpaRepository<WorkingDay, Long> {
+public interface WorkingDayRepository extends JpaRepository<WorkingDay, Long>, WorkingDayRepositoryCustom {
 
     // Find working day by schedule and specific date
     Optional<WorkingDay> findByScheduleIdAndDate(Long scheduleId, LocalDate date);
@@ -41,4 +41,10 @@ public interface WorkingDayRepository extends JpaRepository<WorkingDay, Long> {
 
     // Count working days in date range
     long countByScheduleIdAndDateBetween(Long scheduleId, LocalDate startDate, LocalDate endDate);
-}
\ No newline at end of file
+
+    // Dates already configured in a range, without loading the working days
+    @Query("SELECT w.date FROM WorkingDay w WHERE w.schedule.id = :scheduleId AND w.date BETWEEN :startDate AND :endDate")
+    List<LocalDate> findConfiguredDates(@Param("scheduleId") Long scheduleId,
+                                        @Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,18 @@
+package com.aykhedma.repository;
+
+import com.aykhedma.model.booking.WorkingDay;
+
+import java.util.List;
+
+public interface WorkingDayRepositoryCustom {
+
+    /**
+     * Inserts the working days and one AVAILABLE slot per day as two JDBC batches.
+     * Days already configured for the schedule, and dates that already have slots,
+     * are skipped by the statements themselves.
+     *
+     * @return the working-day insert count for each element of {@code workingDays}, in order;
+     *         {@code 0} means the day already existed and was not inserted
+     */
+    int[] insertWorkingDaysWithSlots(Long scheduleId, List<WorkingDay> workingDays);
+}
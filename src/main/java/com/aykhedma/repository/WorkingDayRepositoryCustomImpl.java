@@ -0,0 +1,61 @@
+package com.aykhedma.repository;
+
+import com.aykhedma.model.booking.TimeSlotStatus;
+import com.aykhedma.model.booking.WorkingDay;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class WorkingDayRepositoryCustomImpl implements WorkingDayRepositoryCustom {
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final String INSERT_WORKING_DAY = """
+            INSERT INTO working_days (date, start_time, end_time, schedule_id)
+            SELECT CAST(? AS date), CAST(? AS time), CAST(? AS time), CAST(? AS bigint)
+            WHERE NOT EXISTS (
+                SELECT 1 FROM working_days w WHERE w.schedule_id = ? AND w.date = CAST(? AS date)
+            )
+            """;
+
+    private static final String INSERT_AVAILABLE_SLOT = """
+            INSERT INTO time_slots (date, start_time, end_time, status, schedule_id)
+            SELECT CAST(? AS date), CAST(? AS time), CAST(? AS time), ?, CAST(? AS bigint)
+            WHERE NOT EXISTS (
+                SELECT 1 FROM time_slots t WHERE t.schedule_id = ? AND t.date = CAST(? AS date)
+            )
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] insertWorkingDaysWithSlots(Long scheduleId, List<WorkingDay> workingDays) {
+        if (workingDays.isEmpty()) {
+            return new int[0];
+        }
+
+        int[][] dayCounts = jdbcTemplate.batchUpdate(INSERT_WORKING_DAY, workingDays, BATCH_SIZE, (ps, day) -> {
+            ps.setObject(1, day.getDate());
+            ps.setObject(2, day.getStartTime());
+            ps.setObject(3, day.getEndTime());
+            ps.setLong(4, scheduleId);
+            ps.setLong(5, scheduleId);
+            ps.setObject(6, day.getDate());
+        });
+
+        jdbcTemplate.batchUpdate(INSERT_AVAILABLE_SLOT, workingDays, BATCH_SIZE, (ps, day) -> {
+            ps.setObject(1, day.getDate());
+            ps.setObject(2, day.getStartTime());
+            ps.setObject(3, day.getEndTime());
+            ps.setString(4, TimeSlotStatus.AVAILABLE.name());
+            ps.setLong(5, scheduleId);
+            ps.setLong(6, scheduleId);
+            ps.setObject(7, day.getDate());
+        });
+
+        return Arrays.stream(dayCounts).flatMapToInt(Arrays::stream).toArray();
+    }
+}
@@ -1,26 +1,46 @@
 package com.aykhedma.scheduler;
 
-import com.aykhedma.repository.BookingRepository;
+import com.aykhedma.service.SchedulerLeaseService;
+import com.aykhedma.service.expiry.ExpiryService;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 
+/**
+ * Expires overdue bookings. Every instance schedules this, but only the holder of
+ * the lease does the work; the others take over if it stops renewing.
+ */
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class BookingExpiryScheduler
 {
-    private final BookingRepository bookingRepository;
+    static final String LEASE_NAME = "booking-expiry";
+    static final Duration LEASE_DURATION = Duration.ofMinutes(3);
 
-    @Scheduled(fixedRate = 60000)
-    @Transactional
+    private final ExpiryService expiryService;
+    private final SchedulerLeaseService schedulerLeaseService;
+
+    @Scheduled(fixedDelay = 60000)
     public void expireBookings ()
     {
-        bookingRepository.expirePendingBookings(LocalDateTime.now(), LocalDate.now(), LocalTime.now());
-        bookingRepository.expireAcceptedBookings(LocalDateTime.now(), LocalDate.now().minusDays(1), LocalTime.now());
+        try {
+            if (!schedulerLeaseService.tryAcquire(LEASE_NAME, LEASE_DURATION))
+                return;
+            expiryService.expireDueBookings(LocalDateTime.now());
+        } catch (RuntimeException ex) {
+            log.error("Failed to expire bookings, will retry: {}", ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void releaseLease ()
+    {
+        schedulerLeaseService.release(LEASE_NAME);
     }
 }
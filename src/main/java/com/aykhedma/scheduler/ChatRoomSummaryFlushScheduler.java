@@ -0,0 +1,37 @@
+package com.aykhedma.scheduler;
+
+import com.aykhedma.service.ChatRoomSummaryService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes coalesced chat room lastMessage / unread updates to the database.
+ * Runs every second, so the inbox lags live messages by at most one flush.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChatRoomSummaryFlushScheduler {
+
+    private final ChatRoomSummaryService chatRoomSummaryService;
+
+    @Scheduled(fixedDelay = 1000)
+    public void flushChatRoomSummaries() {
+        try {
+            int rooms = chatRoomSummaryService.flushPendingUpdates();
+            if (rooms > 0) {
+                log.debug("Flushed summary updates for {} chat rooms", rooms);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Failed to flush chat room summaries, will retry: {}", ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushChatRoomSummaries();
+    }
+}
@@ -1,24 +1,45 @@
 package com.aykhedma.scheduler;
 
-import com.aykhedma.repository.EmergencyRequestRepository;
+import com.aykhedma.service.SchedulerLeaseService;
+import com.aykhedma.service.expiry.ExpiryService;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
+/**
+ * Expires overdue emergency requests on whichever instance holds the lease.
+ */
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class EmergencyRequestExpiryScheduler
 {
-    private final EmergencyRequestRepository emergencyRequestRepository;
+    static final String LEASE_NAME = "emergency-request-expiry";
+    static final Duration LEASE_DURATION = Duration.ofMinutes(3);
 
-    @Scheduled(fixedRate = 60000)
-    @Transactional
+    private final ExpiryService expiryService;
+    private final SchedulerLeaseService schedulerLeaseService;
+
+    @Scheduled(fixedDelay = 60000)
     public void expireEmergencyRequests ()
     {
-        emergencyRequestRepository.expirePendingEmergencyRequests(LocalDateTime.now());
-        emergencyRequestRepository.expireAcceptedEmergencyRequests(LocalDateTime.now());
+        try {
+            if (!schedulerLeaseService.tryAcquire(LEASE_NAME, LEASE_DURATION))
+                return;
+            expiryService.expireDueEmergencyRequests(LocalDateTime.now());
+        } catch (RuntimeException ex) {
+            log.error("Failed to expire emergency requests, will retry: {}", ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void releaseLease ()
+    {
+        schedulerLeaseService.release(LEASE_NAME);
     }
 }
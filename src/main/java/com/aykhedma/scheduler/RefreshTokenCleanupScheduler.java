@@ -5,14 +5,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Scheduled task that periodically cleans up expired refresh tokens.
  * This ensures that users with expired sessions are fully logged out
  * and can log in from other devices without errors.
  *
- * Runs every 30 minutes to remove stale tokens from the database.
+ * Runs every 30 minutes; the service deletes in small batches, each
+ * committed on its own.
  */
 @Component
 @RequiredArgsConstructor
@@ -22,10 +22,14 @@ public class RefreshTokenCleanupScheduler {
     private final RefreshTokenService refreshTokenService;
 
     @Scheduled(fixedRate = 1800000) // every 30 minutes
-    @Transactional
     public void cleanupExpiredRefreshTokens() {
-        log.info("Running expired refresh token cleanup...");
-        refreshTokenService.deleteExpiredTokens();
-        log.info("Expired refresh token cleanup completed.");
+        try {
+            int deleted = refreshTokenService.deleteExpiredTokens();
+            if (deleted > 0) {
+                log.info("Deleted {} expired refresh tokens", deleted);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Expired refresh token cleanup failed, will retry: {}", ex.getMessage());
+        }
     }
 }
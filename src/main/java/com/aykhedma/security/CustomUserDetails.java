@@ -1,6 +1,8 @@
 package com.aykhedma.security;
 
 import com.aykhedma.model.user.User;
+import com.aykhedma.model.user.UserType;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -8,39 +10,72 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Supplier;
 
+/**
+ * The authenticated user. Id, email, role and enabled flag are fixed at authentication;
+ * the {@link User} entity is loaded on the first {@link #getUser()} of the request when
+ * the principal was built from a cached {@link Snapshot}, so it is never stale or shared.
+ */
 @Getter
 public class CustomUserDetails implements UserDetails {
 
-    private final User user;
+    private final Long id;
+    private final String username;
+    private final String password;
+    private final UserType role;
+    private final boolean enabled;
+
+    @Getter(AccessLevel.NONE)
+    private final Supplier<User> userLoader;
+
+    @Getter(AccessLevel.NONE)
+    private User user;
 
     public CustomUserDetails(User user) {
+        this.id = user.getId();
+        this.username = user.getEmail();
+        this.password = user.getPassword();
+        this.role = user.getRole();
+        this.enabled = user.isEnabled();
+        this.userLoader = () -> user;
         this.user = user;
     }
 
-    @Override
-    public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(
-                new SimpleGrantedAuthority("ROLE_" + user.getRole().name())
-        );
+    CustomUserDetails(Snapshot snapshot, Supplier<User> userLoader) {
+        this.id = snapshot.id();
+        this.username = snapshot.email();
+        this.password = null;
+        this.role = snapshot.role();
+        this.enabled = snapshot.enabled();
+        this.userLoader = userLoader;
     }
 
-    @Override
-    public String getPassword() {
-        return user.getPassword();
+    public synchronized User getUser() {
+        if (user == null) {
+            user = userLoader.get();
+        }
+        return user;
     }
 
-    @Override
-    public String getUsername() {
-        return user.getEmail();
+    Snapshot snapshot() {
+        return new Snapshot(id, username, role, enabled);
     }
 
     @Override
-    public boolean isEnabled() {
-        return user.isEnabled();
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(
+                new SimpleGrantedAuthority("ROLE_" + role.name())
+        );
     }
 
     @Override public boolean isAccountNonExpired() { return true; }
     @Override public boolean isAccountNonLocked() { return true; }
     @Override public boolean isCredentialsNonExpired() { return true; }
+
+    /**
+     * What authentication needs of a user, safe to share between requests.
+     */
+    record Snapshot(Long id, String email, UserType role, boolean enabled) {
+    }
 }
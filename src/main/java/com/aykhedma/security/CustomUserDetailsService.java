@@ -3,17 +3,45 @@ package com.aykhedma.security;
 import com.aykhedma.model.user.User;
 import com.aykhedma.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
+    public static final int MAX_CACHED_PRINCIPALS = 10_000;
+
     private final UserRepository userRepository;
 
+    @Value("${jwt.principal-cache-ttl-ms:60000}")
+    private long principalCacheTtlMs;
+
+    /**
+     * Token key -> snapshot of the principal it authenticated as, so a token seen again
+     * within the TTL skips the user lookup. Entries never outlive their token. Only id,
+     * email, role and enabled are kept; the entity is read per request when needed, so
+     * profile edits are seen at once. Evictions are local to this instance, so a
+     * suspension reaches requests served by other instances within the TTL.
+     */
+    private final Map<String, CachedPrincipal> principals = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedPrincipal> eldest) {
+                    return size() > MAX_CACHED_PRINCIPALS;
+                }
+            });
+
     @Override
     public UserDetails loadUserByUsername(String email) {
         User user = userRepository.findByEmail(email)
@@ -21,4 +49,59 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         return new CustomUserDetails(user);
     }
+
+    /**
+     * Principal for a token that has already been verified. The user is only looked up
+     * when the token hasn't been seen within the TTL; disabled users are never cached.
+     */
+    public CustomUserDetails loadUserForToken(String tokenKey, String email, Date tokenExpiresAt) {
+        long now = System.currentTimeMillis();
+        CachedPrincipal cached = principals.get(tokenKey);
+        if (cached != null && cached.expiresAt() > now && cached.snapshot().email().equals(email)) {
+            Long userId = cached.snapshot().id();
+            return new CustomUserDetails(cached.snapshot(), () -> userRepository.findById(userId)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found")));
+        }
+
+        CustomUserDetails details = (CustomUserDetails) loadUserByUsername(email);
+        long expiresAt = now + principalCacheTtlMs;
+        if (tokenExpiresAt != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiresAt.getTime());
+        }
+        if (details.isEnabled() && expiresAt > now) {
+            principals.put(tokenKey, new CachedPrincipal(details.snapshot(), expiresAt));
+        } else {
+            principals.remove(tokenKey);
+        }
+        return details;
+    }
+
+    /**
+     * Drops every cached principal of the user, so a suspension or logout takes effect
+     * on this instance's next request. Inside a transaction it runs again after commit,
+     * in case a request cached the old state in between.
+     */
+    public void evictUser(String email) {
+        if (email == null) {
+            return;
+        }
+        removeUser(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeUser(email);
+                }
+            });
+        }
+    }
+
+    private void removeUser(String email) {
+        synchronized (principals) {
+            principals.values().removeIf(cached -> cached.snapshot().email().equals(email));
+        }
+    }
+
+    private record CachedPrincipal(CustomUserDetails.Snapshot snapshot, long expiresAt) {
+    }
 }
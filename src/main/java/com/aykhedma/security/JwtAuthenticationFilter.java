@@ -1,5 +1,6 @@
 package com.aykhedma.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import lombok.RequiredArgsConstructor;
@@ -35,21 +36,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = header.substring(7);
         try {
-            if (jwtService.isTokenValid(token)) {
-                String username = jwtService.extractUsername(token);
-
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    var userDetails = userDetailsService.loadUserByUsername(username);
-
-                    if (userDetails.isEnabled()) {
-                        var authToken = new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
-                    }
+            // one verification per request; the principal comes from the per-token cache
+            Claims claims = jwtService.parseValidClaims(token);
+            String username = claims != null ? claims.getSubject() : null;
+
+            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                String tokenKey = claims.getId() != null ? claims.getId() : token;
+                var userDetails = userDetailsService.loadUserForToken(tokenKey, username, claims.getExpiration());
+
+                if (userDetails.isEnabled()) {
+                    var authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails,
+                            null,
+                            userDetails.getAuthorities()
+                    );
+
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
             }
         } catch (Exception e) {
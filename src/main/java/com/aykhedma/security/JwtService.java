@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 @Service
 public class JwtService {
@@ -18,12 +19,33 @@ public class JwtService {
     @Value("${jwt.expiration}")
     private long expiration;
 
+    // built on first use from the injected secret; both are immutable and thread-safe
+    private volatile Key signingKey;
+    private volatile JwtParser parser;
+
     private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        Key key = signingKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(secret.getBytes());
+            signingKey = key;
+        }
+        return key;
+    }
+
+    private JwtParser getParser() {
+        JwtParser jwtParser = parser;
+        if (jwtParser == null) {
+            jwtParser = Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build();
+            parser = jwtParser;
+        }
+        return jwtParser;
     }
 
     public String generateToken(User user) {
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(user.getEmail())
                 .claim("role", user.getRole().name())
                 .setIssuedAt(new Date())
@@ -37,18 +59,23 @@ public class JwtService {
     }
 
     public boolean isTokenValid(String token) {
+        return parseValidClaims(token) != null;
+    }
+
+    /**
+     * Verifies the token once and returns its claims, or null when it is malformed,
+     * tampered with or expired.
+     */
+    public Claims parseValidClaims(String token) {
         try {
-            extractClaims(token);
-            return true;
-        } catch (JwtException e) {
-            return false;
+            return extractClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
         }
     }
 
     private Claims extractClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -1,5 +1,6 @@
 package com.aykhedma.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -49,6 +50,9 @@ public class SecurityConfig {
                                 // Authorization rules
                                 .authorizeHttpRequests(auth -> auth
 
+                                                // the request was authorised before streaming started
+                                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                                                 .requestMatchers("/notification-test/**", "/notification-test.html")
                                                 .permitAll()
 
@@ -3,7 +3,9 @@ package com.aykhedma.service;
 import com.aykhedma.dto.request.UpdateUserRequest;
 import com.aykhedma.dto.response.AdminProviderResponse;
 import com.aykhedma.dto.response.DashboardStatsResponse;
+import com.aykhedma.dto.response.KeysetPageResponse;
 import com.aykhedma.dto.response.ProviderResponse;
+import com.aykhedma.dto.response.UserDeletionJobResponse;
 import com.aykhedma.dto.response.UserResponse;
 import com.aykhedma.model.user.UserType;
 import com.aykhedma.model.user.VerificationStatus;
@@ -35,9 +37,28 @@ public interface AdminService {
             VerificationStatus status,
             Boolean enabled,
             Pageable pageable);
+
+    // Keyset-paged variants: pass the previous page's nextCursor to continue
+    KeysetPageResponse<UserResponse> searchUsersAfter(
+            UserType role,
+            Boolean status,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String keyword,
+            Long excludeUserId,
+            Long cursor,
+            int size);
+
+    KeysetPageResponse<AdminProviderResponse> searchProvidersAfter(
+            String keyword,
+            VerificationStatus status,
+            Boolean enabled,
+            Long cursor,
+            int size);
     
     UserResponse updateUser(Long userId, UpdateUserRequest request);
     UserResponse suspendUser(Long userId);
     UserResponse reactivateUser(Long userId);
-    void deleteUser(Long userId);
+    UserDeletionJobResponse deleteUser(Long userId);
+    UserDeletionJobResponse getUserDeletion(Long jobId);
 }
@@ -3,83 +3,62 @@ package com.aykhedma.service;
 import com.aykhedma.dto.request.UpdateUserRequest;
 import com.aykhedma.dto.response.AdminProviderResponse;
 import com.aykhedma.dto.response.DashboardStatsResponse;
+import com.aykhedma.dto.response.KeysetPageResponse;
 import com.aykhedma.dto.response.ProviderResponse;
+import com.aykhedma.dto.response.UserDeletionJobResponse;
 import com.aykhedma.dto.response.UserResponse;
 import com.aykhedma.exception.BadRequestException;
 import com.aykhedma.exception.ResourceNotFoundException;
 import com.aykhedma.mapper.ProviderMapper;
 import com.aykhedma.mapper.UserMapper;
 import com.aykhedma.model.notification.NotificationType;
-import com.aykhedma.model.chat.ChatRoom;
 import com.aykhedma.model.user.Provider;
 import com.aykhedma.model.user.User;
 import com.aykhedma.model.user.UserType;
 import com.aykhedma.model.user.VerificationStatus;
-import com.aykhedma.repository.BookingRepository;
-import com.aykhedma.repository.ChatRoomRepository;
-import com.aykhedma.repository.ChatSessionRepository;
 import com.aykhedma.repository.ConsumerRepository;
-import com.aykhedma.repository.DeviceTokenRepository;
-import com.aykhedma.repository.DocumentRepository;
-import com.aykhedma.repository.EmergencyRequestRepository;
-import com.aykhedma.repository.InteractionRatingRepository;
-import com.aykhedma.repository.NotificationPreferenceRepository;
-import com.aykhedma.repository.NotificationRepository;
-import com.aykhedma.repository.ProviderResponseRepository;
-import com.aykhedma.repository.RefreshTokenRepository;
 import com.aykhedma.repository.ProviderRepository;
-import com.aykhedma.repository.ServiceTypeRepository;
 import com.aykhedma.repository.UserRepository;
+import com.aykhedma.repository.UserSpecifications;
+import com.aykhedma.security.CustomUserDetailsService;
+import com.aykhedma.service.deletion.UserDeletionService;
+import com.aykhedma.service.metrics.DashboardMetricsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import jakarta.persistence.criteria.Predicate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 public class AdminServiceImpl implements AdminService {
 
+    private static final int MAX_KEYSET_PAGE_SIZE = 100;
+
     private final ProviderRepository providerRepository;
     private final ProviderMapper providerMapper;
     private final ProviderService providerService;
     private final NotificationFactory notificationFactory;
     private final ConsumerRepository consumerRepository;
-    private final BookingRepository bookingRepository;
-    private final EmergencyRequestRepository emergencyRequestRepository;
-    private final InteractionRatingRepository interactionRatingRepository;
-    private final ProviderResponseRepository providerResponseRepository;
-    private final DocumentRepository documentRepository;
-    private final NotificationRepository notificationRepository;
-    private final NotificationPreferenceRepository notificationPreferenceRepository;
-    private final DeviceTokenRepository deviceTokenRepository;
-    private final ChatSessionRepository chatSessionRepository;
-    private final ChatRoomRepository chatRoomRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
     private final UserRepository userRepository;
-    private final ServiceTypeRepository serviceTypeRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final DashboardMetricsService dashboardMetricsService;
+    private final UserDeletionService userDeletionService;
+    private final CustomUserDetailsService userDetailsService;
 
     @Override
     public DashboardStatsResponse getDashboardStats() {
-        return DashboardStatsResponse.builder()
-                .totalUsers(userRepository.count())
-                .totalProviders(providerRepository.count())
-                .pendingProviders(providerRepository.countByVerificationStatus(VerificationStatus.PENDING))
-                .totalServices(serviceTypeRepository.countServices())
-                .build();
+        return dashboardMetricsService.getStats();
     }
 
     @Override
@@ -179,47 +158,26 @@ public class AdminServiceImpl implements AdminService {
                 pageable.getPageNumber(), Math.min(pageable.getPageSize(), maxPageSize), pageable.getSort());
 
         Page<User> users = userRepository.findAll(
-                buildUserSearchSpecification(role, status, startDate, endDate, normalizeKeyword(keyword), excludeUserId),
+                UserSpecifications.adminSearch(role, status, startDate, endDate, normalizeKeyword(keyword), excludeUserId),
                 cappedPageable);
 
         return users.map(userMapper::toUserResponse);
     }
 
-    private Specification<User> buildUserSearchSpecification(
-            UserType role,
-            Boolean status,
-            LocalDateTime startDate,
-            LocalDateTime endDate,
-            String keyword,
-            Long excludeUserId) {
-        return (root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = new ArrayList<>();
-
-            if (role != null) {
-                predicates.add(criteriaBuilder.equal(root.get("role"), role));
-            }
-            if (status != null) {
-                predicates.add(criteriaBuilder.equal(root.get("enabled"), status));
-            }
-            if (startDate != null) {
-                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("createdAt"), startDate));
-            }
-            if (endDate != null) {
-                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("createdAt"), endDate));
-            }
-            if (keyword != null) {
-                String pattern = "%" + keyword.toLowerCase(Locale.ROOT) + "%";
-                predicates.add(criteriaBuilder.or(
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), pattern),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("email")), pattern),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("phoneNumber")), pattern)));
-            }
-            if (excludeUserId != null) {
-                predicates.add(criteriaBuilder.notEqual(root.get("id"), excludeUserId));
-            }
-
-            return criteriaBuilder.and(predicates.toArray(Predicate[]::new));
-        };
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPageResponse<UserResponse> searchUsersAfter(
+            UserType role, Boolean status,
+            LocalDateTime startDate, LocalDateTime endDate,
+            String keyword, Long excludeUserId,
+            Long cursor, int size) {
+
+        int limit = keysetPageSize(size);
+        List<User> users = userRepository.findBeforeId(
+                UserSpecifications.adminSearch(role, status, startDate, endDate, normalizeKeyword(keyword), excludeUserId),
+                cursor, limit + 1);
+
+        return keysetPage(users, limit, User::getId, userMapper::toUserResponse);
     }
 
     @Override
@@ -239,6 +197,37 @@ public class AdminServiceImpl implements AdminService {
         return providers.map(providerMapper::toAdminProviderResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPageResponse<AdminProviderResponse> searchProvidersAfter(
+            String keyword, VerificationStatus status,
+            Boolean enabled, Long cursor, int size) {
+
+        int limit = keysetPageSize(size);
+        List<Provider> providers = providerRepository.findProvidersForAdminBefore(
+                normalizeKeyword(keyword), status, enabled, cursor, PageRequest.of(0, limit + 1));
+
+        return keysetPage(providers, limit, Provider::getId, providerMapper::toAdminProviderResponse);
+    }
+
+    private int keysetPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_KEYSET_PAGE_SIZE));
+    }
+
+    /**
+     * Rows were fetched with one extra beyond the page to tell whether another page follows.
+     */
+    private static <E, R> KeysetPageResponse<R> keysetPage(
+            List<E> rows, int limit, Function<E, Long> idOf, Function<E, R> mapper) {
+        boolean hasNext = rows.size() > limit;
+        List<E> page = hasNext ? rows.subList(0, limit) : rows;
+        return KeysetPageResponse.<R>builder()
+                .content(page.stream().map(mapper).toList())
+                .nextCursor(hasNext ? idOf.apply(page.get(page.size() - 1)) : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
     private String normalizeKeyword(String keyword) {
         if (keyword == null || keyword.isBlank()) {
             return null;
@@ -251,6 +240,8 @@ public class AdminServiceImpl implements AdminService {
     public UserResponse updateUser(Long userId, UpdateUserRequest request) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        // cached principals hold the old email, password and enabled flag
+        userDetailsService.evictUser(user.getEmail());
 
         if (request.getName() != null && !request.getName().isBlank()) {
             user.setName(request.getName());
@@ -278,6 +269,7 @@ public class AdminServiceImpl implements AdminService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
         user.setEnabled(false);
+        userDetailsService.evictUser(user.getEmail());
 
         if (user instanceof Provider) {
             notificationFactory.send(userId,
@@ -306,36 +298,13 @@ public class AdminServiceImpl implements AdminService {
     }
 
     @Override
-    @Transactional
-    public void deleteUser(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-
-        notificationPreferenceRepository.deleteByUserId(userId);
-        notificationRepository.deleteByUserId(userId);
-        deviceTokenRepository.deleteByUserId(userId);
-        refreshTokenRepository.deleteByUser(user);
-        chatSessionRepository.deleteByUserId(userId);
-
-        List<ChatRoom> chatRooms = chatRoomRepository.findAllByParticipant(user);
-        if (!chatRooms.isEmpty()) {
-            chatRoomRepository.deleteAll(chatRooms);
-        }
-
-        userRepository.deleteSavedProviderLinks(userId);
-
-        if (user instanceof Provider) {
-            bookingRepository.deleteByProviderId(userId);
-            emergencyRequestRepository.deleteBySelectedProviderId(userId);
-            interactionRatingRepository.deleteByProviderId(userId);
-            providerResponseRepository.deleteByProviderId(userId);
-            documentRepository.deleteByProviderId(userId);
-        } else if (user instanceof com.aykhedma.model.user.Consumer) {
-            bookingRepository.deleteByConsumerId(userId);
-            emergencyRequestRepository.deleteByConsumerId(userId);
-            interactionRatingRepository.deleteByConsumerId(userId);
-        }
+    public UserDeletionJobResponse deleteUser(Long userId) {
+        // not transactional: the deletion commits chunk by chunk
+        return userDeletionService.deleteUser(userId);
+    }
 
-        userRepository.delete(user);
+    @Override
+    public UserDeletionJobResponse getUserDeletion(Long jobId) {
+        return userDeletionService.getJob(jobId);
     }
 }
@@ -34,6 +34,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 import org.springframework.context.annotation.Lazy;
 import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.temporal.TemporalAdjusters;
 
 @Service
@@ -51,17 +52,32 @@ public class AiAssistantMcpService {
     private final ObjectMapper objectMapper;
     private final ChatSessionRepository chatSessionRepository;
     private final ChatMessageRepository chatMessageRepository;
+    private final LlmResponseCache llmResponseCache;
+    private final AssistantIntentClassifier intentClassifier;
+
+    private static final Duration STREAM_TIMEOUT = Duration.ofSeconds(60);
 
     // ===== MAIN MCP CHAT =====
     
     public ChatResponse chatWithMcp(AiChatRequest request, User currentUser) {
+        return chatWithMcp(request, currentUser, null);
+    }
+
+    /**
+     * Like {@link #chatWithMcp(AiChatRequest, User)}, but streams the model's answer and hands
+     * each new piece of its {@code reply} to {@code replyDeltas} as it arrives. The returned
+     * response is still the authoritative message, since tool results can replace that reply.
+     */
+    public ChatResponse chatWithMcp(AiChatRequest request, User currentUser,
+            java.util.function.Consumer<String> replyDeltas) {
         String userMessage = request.getMessage();
         boolean isVoiceNote = request.getVoiceNote() != null && !request.getVoiceNote().isEmpty();
         boolean isVoiceHandled = false;
 
         if (isVoiceNote) {
             try {
-                String transcribedText = speechToTextService.transcribeAudio(request.getVoiceNote());
+                String transcribedText = speechToTextService.transcribeAudio(request.getVoiceNote(),
+                        currentUser != null ? currentUser.getId() : null);
                 if (StringUtils.hasText(transcribedText)) {
                     userMessage = transcribedText;
                     request.setMessage(userMessage);
@@ -141,7 +157,10 @@ public class AiAssistantMcpService {
             List<Map<String, Object>> toolSchemas = mcpServer.getToolSchemas();
             log.info("Available MCP tools: {}", toolSchemas.size());
 
-            McpToolCallResponse toolResponse = getMcpToolCallResponse(request, currentUser, recentHistory, toolSchemas);
+            McpToolCallResponse toolResponse = fastPathToolCall(request.getMessage(), session);
+            if (toolResponse == null) {
+                toolResponse = getMcpToolCallResponse(request, currentUser, recentHistory, toolSchemas, replyDeltas);
+            }
 
             if (toolResponse == null) {
                 log.warn("No tool response from Gemini, falling back to existing implementation");
@@ -244,13 +263,36 @@ public class AiAssistantMcpService {
     }
     // ===== TOOL CALLING =====
 
+    /**
+     * Tool call for a request the local classifier is confident about, skipping the model.
+     * The tool's own reply is built from its results, so none is set here.
+     */
+    private McpToolCallResponse fastPathToolCall(String message, ChatSession session) {
+        AssistantIntentClassifier.IntentMatch match = intentClassifier.classify(message, session);
+        if (match == null) {
+            return null;
+        }
+        McpToolCallResponse response = new McpToolCallResponse();
+        response.arguments = new HashMap<>();
+        if (match.action() == AiAssistantServiceImpl.Action.CHECK_AVAILABILITY) {
+            response.tool = "check_availability";
+            response.arguments.put("providerId", match.providerId());
+        } else {
+            response.tool = "search_providers";
+            response.arguments.put("serviceTypes", new ArrayList<>(List.of(match.serviceType().getName())));
+        }
+        return response;
+    }
+
     private McpToolCallResponse getMcpToolCallResponse(AiChatRequest request, User currentUser,
-            List<ChatMessage> history, List<Map<String, Object>> toolSchemas) {
+            List<ChatMessage> history, List<Map<String, Object>> toolSchemas,
+            java.util.function.Consumer<String> replyDeltas) {
         if (!geminiClient.isEnabled()) {
             return null;
         }
 
-        String systemPrompt = buildMcpSystemPrompt(currentUser, toolSchemas);
+        String instructions = buildMcpInstructions(toolSchemas);
+        String userContext = buildMcpUserContext(currentUser);
         String conversationContext = baseService.buildConversationContext(history);
 
         String userMessage = conversationContext + "\n\nCurrent User Request: " + request.getMessage();
@@ -258,11 +300,80 @@ public class AiAssistantMcpService {
         List<GeminiClient.ConversationTurn> turns = baseService.toConversationTurns(history);
         turns.add(new GeminiClient.ConversationTurn("user", userMessage));
 
-        String modelResponse = geminiClient.generateJson(turns, systemPrompt);
-        return parseMcpToolCallResponse(modelResponse);
+        String intentKey = history.isEmpty() ? buildIntentKey(request.getMessage(), currentUser) : null;
+        String modelResponse = llmResponseCache.get(intentKey);
+        if (modelResponse != null) {
+            log.debug("Reusing cached tool selection for intent {}", intentKey);
+            if (replyDeltas != null) {
+                String reply = new StreamingReplyExtractor().feed(modelResponse);
+                if (!reply.isEmpty()) {
+                    replyDeltas.accept(reply);
+                }
+            }
+        } else {
+            modelResponse = replyDeltas != null
+                    ? streamModelResponse(turns, instructions, userContext, replyDeltas)
+                    : geminiClient.generateJson(turns, instructions, userContext);
+        }
+
+        McpToolCallResponse toolResponse = parseMcpToolCallResponse(modelResponse);
+        if (toolResponse != null) {
+            llmResponseCache.put(intentKey, modelResponse);
+        }
+        return toolResponse;
+    }
+
+    /**
+     * Cache key for an opening message: the same request from the same kind of user in the
+     * same area on the same day gets the same tool call. Later turns depend on the
+     * conversation and are not cached.
+     */
+    private String buildIntentKey(String message, User currentUser) {
+        String normalized = baseService.normalize(message);
+        if (!StringUtils.hasText(normalized)) {
+            return null;
+        }
+        String role = currentUser != null && currentUser.getRole() != null
+                ? currentUser.getRole().name()
+                : "anonymous";
+        String locationCell = "none";
+        if (currentUser instanceof Consumer consumer && consumer.getLocation() != null) {
+            // two decimals is roughly a 1 km cell
+            locationCell = String.format(Locale.ROOT, "%.2f,%.2f",
+                    consumer.getLocation().getLatitude(), consumer.getLocation().getLongitude());
+        }
+        return "mcp:" + role + ":" + LocalDate.now() + ":" + locationCell + ":" + normalized;
     }
 
-    private String buildMcpSystemPrompt(User currentUser, List<Map<String, Object>> tools) {
+    private String streamModelResponse(List<GeminiClient.ConversationTurn> turns, String instructions,
+            String userContext, java.util.function.Consumer<String> replyDeltas) {
+        StreamingReplyExtractor replyExtractor = new StreamingReplyExtractor();
+        StringBuilder modelResponse = new StringBuilder();
+        try {
+            geminiClient.streamJson(turns, instructions, userContext)
+                    .doOnNext(chunk -> {
+                        modelResponse.append(chunk);
+                        String delta = replyExtractor.feed(chunk);
+                        if (!delta.isEmpty()) {
+                            replyDeltas.accept(delta);
+                        }
+                    })
+                    .blockLast(STREAM_TIMEOUT);
+        } catch (RuntimeException ex) {
+            log.warn("Gemini stream failed after {} chars: {}", modelResponse.length(), ex.getMessage());
+        }
+        if (modelResponse.length() == 0) {
+            // the stream never opened, try the regular call once before giving up
+            return geminiClient.generateJson(turns, instructions, userContext);
+        }
+        return modelResponse.toString();
+    }
+
+    /**
+     * The per-user part of the MCP prompt: location and role. Kept apart from
+     * {@link #buildMcpInstructions} so the instructions can be served from Gemini's context cache.
+     */
+    private String buildMcpUserContext(User currentUser) {
         String userRole = (currentUser != null && currentUser.getRole() != null)
                 ? currentUser.getRole().name()
                 : "anonymous";
@@ -288,6 +399,26 @@ public class AiAssistantMcpService {
             }
         }
 
+        return """
+                ## USER CONTEXT:
+
+                ### User location
+                %s
+                - Latitude: %.4f
+                - Longitude: %.4f
+                - ALWAYS use these coordinates when calling search_providers
+                - Do NOT ask the user for their location - you already have it!
+
+                ### User role
+                Current user role: %s
+                """.formatted(userLocationInfo, userLatitude, userLongitude, userRole);
+    }
+
+    /**
+     * The MCP instructions shared by every user: tools, catalog, date rules and output format.
+     * They only change with the day and the catalog.
+     */
+    private String buildMcpInstructions(List<Map<String, Object>> tools) {
         StringBuilder toolsDesc = new StringBuilder();
         toolsDesc.append("## AVAILABLE TOOLS:\n\n");
         for (Map<String, Object> tool : tools) {
@@ -339,13 +470,7 @@ public class AiAssistantMcpService {
 
         return ("""
                 You are Ay Khedma AI Assistant - a comprehensive service marketplace assistant.
-
-                ## USER LOCATION INFORMATION:
-                %s
-                - Latitude: %.4f
-                - Longitude: %.4f
-                - ALWAYS use these coordinates when calling search_providers
-                - Do NOT ask the user for their location - you already have it!
+                The user's location and role are given in the USER CONTEXT section.
 
                 ## YOUR TASK:
                 Analyze the user's message and decide which tool to call.
@@ -415,7 +540,7 @@ public class AiAssistantMcpService {
                         5. If required parameters are missing, set needsClarification=true and list missing fields
                         6. For dates, always use format "yyyy-MM-dd"
                         7. For times, always use format "HH:mm" (24-hour format)
-                        8. For search_providers, ALWAYS include the user's latitude and longitude from above
+                        8. For search_providers, ALWAYS include the user's latitude and longitude from the USER CONTEXT
 
                         ## OUTPUT FORMAT:
                         Return ONLY valid JSON. No extra text, no explanation, no markdown.
@@ -438,7 +563,7 @@ public class AiAssistantMcpService {
                         - Extract serviceTypes from understanding of user message (e.g., "electrician", "plumbing", "AC Repair")
                         - Use consumer location to calculate distance between them
                         - IMPORTANT: serviceTypes must be a JSON ARRAY (list), not a string!
-                        - Example: "محتاج فني تكييف" → tool="search_providers", serviceTypes=["AC Repair", "HVAC", "Air Conditioner Maintenance"], latitude=%.4f, longitude=%.4f
+                        - Example: "محتاج فني تكييف" → tool="search_providers", serviceTypes=["AC Repair", "HVAC", "Air Conditioner Maintenance"], latitude and longitude from the USER CONTEXT
 
                         ### check_availability
                         - Use when user wants to SEE available time slots for a SPECIFIC provider
@@ -459,10 +584,6 @@ public class AiAssistantMcpService {
                         - Example: "عايز معلومات عنه/عن ياسر عبده" → tool="get_provider_details"
 
                         ## CONTEXT:
-                        Current user role: """
-                + userRole
-                + """
-
                         - If role = "anonymous" or role = "null" or role = "ANONYMOUS", user is NOT logged in
                         - The user must be authenticated to access any tool
 
@@ -478,7 +599,6 @@ public class AiAssistantMcpService {
                         - For Arabic user messages, respond in Arabic in the reply field
                         - For English user messages, respond in English
                         """).formatted(
-                        userLocationInfo, userLatitude, userLongitude,
                         today,
                         today, yesterday, tomorrow,
                         today, today,
@@ -487,8 +607,7 @@ public class AiAssistantMcpService {
                         tomorrow,
                         yesterday,
                         nextWeekday(today, DayOfWeek.FRIDAY),
-                        nextWeekday(today, DayOfWeek.SATURDAY),
-                        userLatitude, userLongitude);
+                        nextWeekday(today, DayOfWeek.SATURDAY));
     }
 
     private static LocalDate nextWeekday(LocalDate today, DayOfWeek day) {
@@ -70,7 +70,8 @@ public class AiAssistantOldService {
             log.info("Received voice note in chat request, starting transcription");
 
             try {
-                String transcribedText = speechToTextService.transcribeAudio(request.getVoiceNote());
+                String transcribedText = speechToTextService.transcribeAudio(request.getVoiceNote(),
+                        currentUser != null ? currentUser.getId() : null);
                 if (StringUtils.hasText(transcribedText)) {
                     userMessage = transcribedText;
                     log.info("Voice transcribed to: {}", userMessage);
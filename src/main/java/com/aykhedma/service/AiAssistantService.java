@@ -4,11 +4,18 @@ import com.aykhedma.dto.request.AiChatRequest;
 import com.aykhedma.dto.response.ChatResponse;
 import com.aykhedma.model.user.User;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface AiAssistantService {
 
     ChatResponse chat(AiChatRequest request, User currentUser);
 
+    /**
+     * Like {@link #chat}, handing pieces of the assistant's reply to {@code replyDeltas}
+     * while the model is still writing it.
+     */
+    ChatResponse chatStreaming(AiChatRequest request, User currentUser, Consumer<String> replyDeltas);
+
     ChatResponse startNewChat(User currentUser);
 
     ChatResponse getChat(String sessionId, User currentUser);
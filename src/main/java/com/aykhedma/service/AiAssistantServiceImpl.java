@@ -40,7 +40,6 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import jakarta.annotation.PostConstruct;
@@ -59,7 +58,7 @@ public class AiAssistantServiceImpl implements AiAssistantService {
     public static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
     public static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{IsAlphabetic}\\p{IsDigit}]+");
     public static final Duration CATALOG_CACHE_TTL = Duration.ofMinutes(5);
-    public static final Duration AI_LOOKUP_CACHE_TTL = Duration.ofMinutes(10);
+    private static final String NO_SERVICE_TYPE = "none";
 
     // ===== REPOSITORIES & SERVICES =====
     private final GeminiClient geminiClient;
@@ -78,6 +77,8 @@ public class AiAssistantServiceImpl implements AiAssistantService {
     private final ServiceCategoryRepository categoryRepository;
     private final SpeechToTextService speechToTextService;
     private final TimeSlotRepository timeSlotRepository;
+    private final ServiceTypeLexicon serviceTypeLexicon;
+    private final LlmResponseCache llmResponseCache;
 
     // ===== MCP CONFIGURATION =====
     @Value("${mcp.use-mcp:false}")
@@ -109,10 +110,8 @@ public class AiAssistantServiceImpl implements AiAssistantService {
     }
 
     // ===== CACHES =====
-    private volatile CachedValue<List<ServiceType>> serviceTypesCache;
     private volatile CachedValue<List<ServiceCategory>> categoriesCache;
-    private volatile CachedValue<String> serviceCatalogJsonCache;
-    private final Map<String, CachedValue<Long>> serviceTypeByMeaningCache = new ConcurrentHashMap<>();
+    private volatile CatalogJson serviceCatalogJsonCache;
 
     // ===== INTERFACE METHODS =====
 
@@ -126,6 +125,16 @@ public class AiAssistantServiceImpl implements AiAssistantService {
         return oldService.chatWithExisting(request, currentUser);
     }
 
+    @Override
+    public ChatResponse chatStreaming(AiChatRequest request, User currentUser,
+            java.util.function.Consumer<String> replyDeltas) {
+        if (mcpEnabled && useMcp && mcpServer.isPresent()) {
+            return mcpService.chatWithMcp(request, currentUser, replyDeltas);
+        }
+        // the keyword flow has no model output worth streaming
+        return oldService.chatWithExisting(request, currentUser);
+    }
+
     @Override
     public List<ChatResponse> getUserChats(User currentUser) {
         if (currentUser == null) {
@@ -415,13 +424,7 @@ public class AiAssistantServiceImpl implements AiAssistantService {
     // ===== CACHING =====
 
     public List<ServiceType> getCachedServiceTypes() {
-        CachedValue<List<ServiceType>> cached = serviceTypesCache;
-        if (cached != null && !cached.isExpired()) {
-            return cached.value;
-        }
-        List<ServiceType> fresh = serviceTypeRepository.findAll();
-        serviceTypesCache = new CachedValue<>(fresh, CATALOG_CACHE_TTL);
-        return fresh;
+        return serviceTypeLexicon.all();
     }
 
     public List<ServiceCategory> getCachedCategories() {
@@ -435,12 +438,12 @@ public class AiAssistantServiceImpl implements AiAssistantService {
     }
 
     public String getServiceCatalogJsonOrNull() {
-        CachedValue<String> cached = serviceCatalogJsonCache;
-        if (cached != null && !cached.isExpired()) {
-            return cached.value;
+        List<ServiceType> allServices = getCachedServiceTypes();
+        CatalogJson cached = serviceCatalogJsonCache;
+        if (cached != null && cached.serviceTypes() == allServices) {
+            return cached.json();
         }
 
-        List<ServiceType> allServices = getCachedServiceTypes();
         String json;
         if (allServices.isEmpty() || allServices.size() > MAX_SERVICES_FOR_INLINE_CATALOG) {
             json = null;
@@ -451,7 +454,7 @@ public class AiAssistantServiceImpl implements AiAssistantService {
                     .collect(Collectors.joining(",")) + "]";
         }
 
-        serviceCatalogJsonCache = new CachedValue<>(json, CATALOG_CACHE_TTL);
+        serviceCatalogJsonCache = new CatalogJson(allServices, json);
         return json;
     }
 
@@ -465,14 +468,17 @@ public class AiAssistantServiceImpl implements AiAssistantService {
             return null;
         }
 
-        String cacheKey = normalize(userMessage);
-        CachedValue<Long> cached = StringUtils.hasText(cacheKey) ? serviceTypeByMeaningCache.get(cacheKey) : null;
-        if (cached != null && !cached.isExpired()) {
-            Long cachedId = cached.value;
-            if (cachedId == null) {
-                return null;
-            }
-            return allServices.stream().filter(st -> st.getId().equals(cachedId)).findFirst().orElse(null);
+        ServiceType named = serviceTypeLexicon.resolve(userMessage);
+        if (named != null) {
+            return named;
+        }
+
+        // the model's answers are remembered per wording, "none" included
+        String normalized = normalize(userMessage);
+        String cacheKey = StringUtils.hasText(normalized) ? "service-type:" + normalized : null;
+        String cached = cacheKey != null ? llmResponseCache.get(cacheKey) : null;
+        if (cached != null) {
+            return NO_SERVICE_TYPE.equals(cached) ? null : serviceTypeLexicon.findById(Long.valueOf(cached));
         }
 
         ServiceType resolved;
@@ -482,24 +488,15 @@ public class AiAssistantServiceImpl implements AiAssistantService {
             resolved = resolveServiceTypeWithCategoriesThenAi(userMessage);
         }
 
-        if (StringUtils.hasText(cacheKey)) {
-            serviceTypeByMeaningCache.put(cacheKey,
-                    new CachedValue<>(resolved != null ? resolved.getId() : null, AI_LOOKUP_CACHE_TTL));
+        if (cacheKey != null) {
+            llmResponseCache.put(cacheKey, resolved != null ? String.valueOf(resolved.getId()) : NO_SERVICE_TYPE);
         }
 
         return resolved;
     }
 
     public ServiceType resolveServiceTypeByName(String name) {
-        if (!StringUtils.hasText(name))
-            return null;
-        return getCachedServiceTypes().stream()
-                .filter(st -> name.equalsIgnoreCase(st.getName()) ||
-                        name.equalsIgnoreCase(st.getNameAr()) ||
-                        st.getName().toLowerCase().contains(name.toLowerCase()) ||
-                        st.getNameAr().toLowerCase().contains(name.toLowerCase()))
-                .findFirst()
-                .orElse(null);
+        return serviceTypeLexicon.resolve(name);
     }
 
     public Long resolveProviderIdByName(String providerName) {
@@ -1085,6 +1082,9 @@ public class AiAssistantServiceImpl implements AiAssistantService {
         ASK_CLARIFICATION
     }
 
+    private record CatalogJson(List<ServiceType> serviceTypes, String json) {
+    }
+
     private static class CachedValue<T> {
         final T value;
         final Instant expiresAt;
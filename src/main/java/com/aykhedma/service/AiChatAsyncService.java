@@ -0,0 +1,68 @@
+package com.aykhedma.service;
+
+import com.aykhedma.config.AiChatExecutorConfig;
+import com.aykhedma.dto.request.AiChatRequest;
+import com.aykhedma.dto.response.ChatResponse;
+import com.aykhedma.model.user.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs chatbot turns on the bounded AI chat executor instead of the request thread.
+ * Calls are rejected with a {@link org.springframework.core.task.TaskRejectedException}
+ * when the executor's queue is full.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AiChatAsyncService {
+
+    static final String DELTA_EVENT = "delta";
+    static final String MESSAGE_EVENT = "message";
+
+    private final AiAssistantService aiAssistantService;
+
+    @Async(AiChatExecutorConfig.AI_CHAT_EXECUTOR)
+    public CompletableFuture<ChatResponse> chat(AiChatRequest request, User currentUser) {
+        return CompletableFuture.completedFuture(aiAssistantService.chat(request, currentUser));
+    }
+
+    /**
+     * Pushes the turn to {@code emitter}: {@code delta} events carry reply text as the
+     * model writes it, then a single {@code message} event carries the final response.
+     */
+    @Async(AiChatExecutorConfig.AI_CHAT_EXECUTOR)
+    public void stream(AiChatRequest request, User currentUser, SseEmitter emitter) {
+        try {
+            ChatResponse response = aiAssistantService.chatStreaming(request, currentUser,
+                    delta -> sendDelta(emitter, delta));
+            emitter.send(SseEmitter.event()
+                    .name(MESSAGE_EVENT)
+                    .data(response, MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (Exception ex) {
+            log.error("Error streaming chat: {}", ex.getMessage(), ex);
+            emitter.completeWithError(ex);
+        }
+    }
+
+    private void sendDelta(SseEmitter emitter, String delta) {
+        try {
+            // JSON keeps newlines in the reply from splitting the event
+            emitter.send(SseEmitter.event()
+                    .name(DELTA_EVENT)
+                    .data(Map.of("text", delta), MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException ex) {
+            // the client went away; finish the turn so it is still saved
+            log.debug("Dropping chat delta: {}", ex.getMessage());
+        }
+    }
+}
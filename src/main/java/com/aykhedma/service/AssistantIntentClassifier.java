@@ -0,0 +1,328 @@
+package com.aykhedma.service;
+
+import com.aykhedma.model.chat.ChatSession;
+import com.aykhedma.model.service.ServiceType;
+import com.aykhedma.service.AiAssistantServiceImpl.Action;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+
+/**
+ * Picks the MCP tool for simple chatbot requests without asking the model, e.g.
+ * "I need a plumber near me" or "وريني مواعيده" after a provider was suggested.
+ * Service types are matched by keyword and character trigrams against their English and
+ * Arabic names plus a table of trade synonyms. Anything it cannot fully explain (dates,
+ * names, bookings, prices, several candidate services) scores low and is left to the model.
+ */
+@Component
+@Slf4j
+public class AssistantIntentClassifier {
+
+    private static final int MAX_TOKENS = 14;
+    private static final double FUZZY_THRESHOLD = 0.55;
+    private static final double FUZZY_WEIGHT = 0.9;
+    private static final double PARTIAL_NAME_WEIGHT = 0.9;
+    private static final double AMBIGUITY_MARGIN = 0.15;
+
+    private static final List<Set<String>> SYNONYMS = List.of(
+            words("plumbing plumber plumbers pipe pipes leak leaking drain sink سباكه سباك سباكين مواسير ماسوره "
+                    + "تسريب بيسرب تسريبات حنفيه حوض صرف بلاعه"),
+            words("electrical electrician electricity electric wiring كهرباء كهربا كهربائي كهربه فيشه سلك"),
+            words("ac air hvac conditioner conditioning aircon تكييف تكيف مكيف تكييفات تبريد"),
+            words("carpentry carpenter wood furniture نجاره نجار خشب موبيليا"),
+            words("painting painter paint دهان دهانات نقاش نقاشه"),
+            words("cleaning cleaner clean تنظيف تنضيف نظافه"),
+            words("appliance appliances fridge refrigerator washer اجهزه غساله تلاجه ثلاجه"),
+            words("locksmith lock locks قفل اقفال كالون"),
+            words("pest insects cockroaches مبيدات حشرات صراصير"),
+            words("moving movers نقل عفش"),
+            words("gardening gardener garden جنينه حدائق"),
+            words("satellite dish ستلايت دش"));
+
+    private static final Set<String> FILLERS = words(
+            "i im m s me my he she him they them this that what do does a an the some someone somebody need needs want looking look for find search get please "
+                    + "pls to fix is it are there any who can could you help with near nearby around area close "
+                    + "good best urgent urgently now show see his her their of and in at home house technician "
+                    + "انا محتاج محتاجه عايز عايزه عاوز عاوزه اريد ابغي ابي بدي ابحث دور دورلي شوف شوفلي على علي "
+                    + "عن لي ليا جنبي قريب قريبه مني حد واحد من في ممكن لو سمحت عندي بيت بيتي شقه شقتي ضروري "
+                    + "بسرعه عشان علشان وريني ورني هات فين مين يا و هو هي كويس شاطر منطقتي منطقه حولي اعرف فني "
+                    + "صنايعي عنده عندك");
+
+    private static final Set<String> AVAILABILITY_WORDS = words(
+            "availability available free slots slot schedule times time when "
+                    + "مواعيد ميعاد مواعيده مواعيدها متاح متاحه فاضي فاضيه امتي");
+
+    // requests the model should handle: dates, booking, details, prices, cancellations
+    private static final Set<String> MODEL_ONLY_WORDS = words(
+            "book booking reserve appointment cancel details detail info information about reviews rating price "
+                    + "cost much today tomorrow pm am morning evening sunday monday tuesday wednesday thursday "
+                    + "friday saturday احجز حجز احجزلي الغي الغاء معلومات تفاصيل تقييم تقييمه سعر بكام كام تكلفه "
+                    + "انهارده النهارده اليوم بكره بكرا غدا امبارح الساعه صباحا مساء الصبح بالليل الاحد الاتنين "
+                    + "الاثنين الثلاثاء التلات الاربعاء الاربع الخميس الجمعه السبت");
+
+    private final AiAssistantServiceImpl baseService;
+    private final double minConfidence;
+    private final boolean enabled;
+    private final Counter fastPathHits;
+    private final Counter modelFallbacks;
+    private final Timer classifyTimer;
+
+    private volatile Index index = new Index(null, List.of());
+
+    public AssistantIntentClassifier(AiAssistantServiceImpl baseService, MeterRegistry meterRegistry,
+            @Value("${ai.intent.fast-path.min-confidence:0.8}") double minConfidence,
+            @Value("${ai.intent.fast-path.enabled:true}") boolean enabled) {
+        this.baseService = baseService;
+        this.minConfidence = minConfidence;
+        this.enabled = enabled;
+        this.fastPathHits = Counter.builder("ai.intent.fast_path").tag("result", "hit").register(meterRegistry);
+        this.modelFallbacks = Counter.builder("ai.intent.fast_path").tag("result", "fallback").register(meterRegistry);
+        this.classifyTimer = Timer.builder("ai.intent.classify").register(meterRegistry);
+    }
+
+    /**
+     * The tool to call for {@code message}, or null when the model should decide.
+     */
+    public IntentMatch classify(String message, ChatSession session) {
+        if (!enabled || !StringUtils.hasText(message)) {
+            return null;
+        }
+        IntentMatch match = classifyTimer.record(() -> score(message, session));
+        if (match != null && match.confidence() >= minConfidence) {
+            fastPathHits.increment();
+            log.debug("Intent fast path: {} ({}) confidence {}", match.action(),
+                    match.serviceType() != null ? match.serviceType().getName() : match.providerId(),
+                    match.confidence());
+            return match;
+        }
+        modelFallbacks.increment();
+        return null;
+    }
+
+    /**
+     * Best guess with its confidence, however low; null when nothing matched at all.
+     */
+    IntentMatch score(String message, ChatSession session) {
+        List<String> tokens = tokenize(message);
+        if (tokens.isEmpty() || tokens.size() > MAX_TOKENS) {
+            return null;
+        }
+        for (String token : tokens) {
+            if (MODEL_ONLY_WORDS.contains(token) || token.chars().anyMatch(Character::isDigit)) {
+                return null;
+            }
+        }
+
+        boolean[] explained = new boolean[tokens.size()];
+        boolean asksAvailability = false;
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            if (AVAILABILITY_WORDS.contains(token)) {
+                asksAvailability = true;
+                explained[i] = true;
+            } else if (FILLERS.contains(token)) {
+                explained[i] = true;
+            }
+        }
+
+        ServiceScore best = null;
+        Map<Long, ServiceScore> byService = new HashMap<>();
+        for (Term term : currentIndex().terms()) {
+            ServiceScore candidate = term.match(tokens);
+            if (candidate == null) {
+                continue;
+            }
+            byService.merge(candidate.serviceType().getId(), candidate, ServiceScore::combine);
+        }
+        for (ServiceScore candidate : byService.values()) {
+            if (best == null || candidate.score() > best.score()
+                    || candidate.score() == best.score()
+                    && candidate.matchedTokens().size() > best.matchedTokens().size()) {
+                best = candidate;
+            }
+        }
+
+        if (asksAvailability) {
+            // "show me his schedule" about the provider suggested last; a service or a name means a new search
+            if (best != null || session == null || session.getLastSuggestedProviderId() == null) {
+                return null;
+            }
+            double coverage = coverage(explained);
+            return new IntentMatch(Action.CHECK_AVAILABILITY, null, session.getLastSuggestedProviderId(),
+                    coverage);
+        }
+
+        if (best == null) {
+            return null;
+        }
+        for (int i : best.matchedTokens()) {
+            explained[i] = true;
+        }
+        double confidence = best.score() * coverage(explained);
+        if (isAmbiguous(best, byService.values())) {
+            confidence /= 2;
+        }
+        return new IntentMatch(Action.SEARCH_PROVIDERS, best.serviceType(), null, confidence);
+    }
+
+    /**
+     * Another service scores about as well without the best match explaining more words,
+     * e.g. "cleaning" with both house and office cleaning in the catalog. "Repair" in
+     * "AC repair" does not make a phone repair service a rival.
+     */
+    private static boolean isAmbiguous(ServiceScore best, Collection<ServiceScore> candidates) {
+        for (ServiceScore candidate : candidates) {
+            boolean outmatched = best.matchedTokens().size() > candidate.matchedTokens().size()
+                    && best.matchedTokens().containsAll(candidate.matchedTokens());
+            if (candidate != best && best.score() - candidate.score() < AMBIGUITY_MARGIN && !outmatched) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double coverage(boolean[] explained) {
+        int count = 0;
+        for (boolean e : explained) {
+            if (e) {
+                count++;
+            }
+        }
+        return (double) count / explained.length;
+    }
+
+    private Index currentIndex() {
+        List<ServiceType> serviceTypes = baseService.getCachedServiceTypes();
+        Index current = index;
+        if (current.source() != serviceTypes) {
+            current = Index.build(serviceTypes);
+            index = current;
+        }
+        return current;
+    }
+
+    static List<String> tokenize(String text) {
+        return ServiceTypeLexicon.tokens(text);
+    }
+
+    private static Set<String> words(String words) {
+        Set<String> result = new HashSet<>();
+        for (String word : words.split(" ")) {
+            result.addAll(tokenize(word));
+        }
+        return Set.copyOf(result);
+    }
+
+    /**
+     * Dice coefficient over padded character trigrams.
+     */
+    static double similarity(String a, String b) {
+        if (a.equals(b)) {
+            return 1.0;
+        }
+        if (a.length() < 4 || b.length() < 4) {
+            return 0.0;
+        }
+        Set<String> left = trigrams(a);
+        Set<String> right = trigrams(b);
+        int shared = 0;
+        for (String trigram : left) {
+            if (right.contains(trigram)) {
+                shared++;
+            }
+        }
+        return 2.0 * shared / (left.size() + right.size());
+    }
+
+    private static Set<String> trigrams(String token) {
+        String padded = "#" + token + "#";
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(padded.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    public record IntentMatch(Action action, ServiceType serviceType, Long providerId, double confidence) {
+    }
+
+    private record ServiceScore(ServiceType serviceType, double score, Set<Integer> matchedTokens) {
+
+        /**
+         * Best score of two terms of the same service, with the words either of them explained.
+         */
+        ServiceScore combine(ServiceScore other) {
+            Set<Integer> matched = new HashSet<>(matchedTokens);
+            matched.addAll(other.matchedTokens());
+            return new ServiceScore(serviceType, Math.max(score, other.score()), matched);
+        }
+    }
+
+    /**
+     * One way of naming a service type: its full name, a distinctive word of it, or a synonym.
+     */
+    private record Term(ServiceType serviceType, List<String> tokens, double weight) {
+
+        ServiceScore match(List<String> message) {
+            double total = 0;
+            Set<Integer> matched = new HashSet<>();
+            for (String termToken : tokens) {
+                double bestSimilarity = 0;
+                int bestIndex = -1;
+                for (int i = 0; i < message.size(); i++) {
+                    double similarity = similarity(message.get(i), termToken);
+                    if (similarity < 1.0) {
+                        similarity = similarity >= FUZZY_THRESHOLD ? similarity * FUZZY_WEIGHT : 0;
+                    }
+                    if (similarity > bestSimilarity) {
+                        bestSimilarity = similarity;
+                        bestIndex = i;
+                    }
+                }
+                if (bestIndex < 0) {
+                    return null;
+                }
+                total += bestSimilarity;
+                matched.add(bestIndex);
+            }
+            return new ServiceScore(serviceType, weight * total / tokens.size(), matched);
+        }
+    }
+
+    private record Index(List<ServiceType> source, List<Term> terms) {
+
+        static Index build(List<ServiceType> serviceTypes) {
+            List<Term> terms = new ArrayList<>();
+            for (ServiceType serviceType : serviceTypes) {
+                Set<String> nameTokens = new HashSet<>();
+                for (String name : new String[]{serviceType.getName(), serviceType.getNameAr()}) {
+                    List<String> tokens = tokenize(name);
+                    if (tokens.isEmpty()) {
+                        continue;
+                    }
+                    terms.add(new Term(serviceType, tokens, 1.0));
+                    if (tokens.size() > 1) {
+                        for (String token : tokens) {
+                            terms.add(new Term(serviceType, List.of(token), PARTIAL_NAME_WEIGHT));
+                        }
+                    }
+                    nameTokens.addAll(tokens);
+                }
+                for (Set<String> group : SYNONYMS) {
+                    if (!Collections.disjoint(group, nameTokens)) {
+                        for (String synonym : group) {
+                            terms.add(new Term(serviceType, List.of(synonym), 1.0));
+                        }
+                    }
+                }
+            }
+            return new Index(serviceTypes, List.copyOf(terms));
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.aykhedma.dto.response.BookingResponse;
 import com.aykhedma.dto.response.MonthlyBookingStatsResponse;
 import com.aykhedma.dto.response.WeeklyBookingStatsResponse;
 import com.aykhedma.exception.BadRequestException;
+import com.aykhedma.exception.ConflictException;
 import com.aykhedma.exception.ForbiddenException;
 import com.aykhedma.exception.ResourceNotFoundException;
 import com.aykhedma.mapper.BookingMapper;
@@ -20,17 +21,21 @@ import com.aykhedma.model.user.Provider;
 import com.aykhedma.model.user.User;
 import com.aykhedma.model.user.UserType;
 import com.aykhedma.repository.*;
+import com.aykhedma.service.availability.AvailabilityEngine;
+import com.aykhedma.service.availability.ReservationRetryExecutor;
+import com.aykhedma.service.rating.RatingAggregateService;
+import com.aykhedma.service.stats.ProviderBookingStatsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.Duration;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -39,6 +44,8 @@ import java.util.Map;
 @RequiredArgsConstructor
 @Transactional
 public class BookingServiceImpl implements BookingService {
+    private static final double LATE_CANCELLATION_PENALTY = 0.2;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ConsumerRepository consumerRepository;
@@ -49,10 +56,18 @@ public class BookingServiceImpl implements BookingService {
     private final ProviderService providerService;
     private final NotificationFactory notificationFactory;
     private final EmergencyRequestRepository emergencyRequestRepository;
+    private final AvailabilityEngine availabilityEngine;
+    private final ReservationRetryExecutor reservationRetryExecutor;
+    private final RatingAggregateService ratingAggregateService;
+    private final ProviderBookingStatsService providerBookingStatsService;
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public BookingResponse requestBooking(Long consumerId, BookingRequest bookingRequest) {
+        return reservationRetryExecutor.execute(() -> requestBookingOnce(consumerId, bookingRequest));
+    }
+
+    private BookingResponse requestBookingOnce(Long consumerId, BookingRequest bookingRequest) {
         Consumer consumer = consumerRepository.findById(consumerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Consumer not found"));
 
@@ -74,6 +89,7 @@ public class BookingServiceImpl implements BookingService {
         LocalTime requestedTime = bookingRequest.getRequestedTime();
         providerService.validateHalfHourBoundary(requestedTime);
 
+        availabilityEngine.claim(scheduleId);
         if (!timeSlotRepository.isTimeWithinAvailableSlot(scheduleId, requestedDate, requestedTime))
             throw new BadRequestException("TimeSlot not available");
 
@@ -98,6 +114,8 @@ public class BookingServiceImpl implements BookingService {
                     buffer,
                     false);
             booking.setTimeSlot(reservedForRequest);
+        } catch (ConflictException e) {
+            throw e;
         } catch (Exception ignored) {
         }
 
@@ -179,6 +197,7 @@ public class BookingServiceImpl implements BookingService {
         booking.setStatus(BookingStatus.COMPLETED);
         booking.setCompletedAt(LocalDateTime.now());
         bookingRepository.save(booking);
+        providerBookingStatsService.recordTransition(booking, BookingStatus.ACCEPTED, BookingStatus.COMPLETED);
 
         booking.getProvider().setCompletedJobs
                 ((booking.getProvider().getCompletedJobs() != null ? booking.getProvider().getCompletedJobs() : 0) + 1);
@@ -189,8 +208,12 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public AcceptBookingResponse acceptBooking(Long providerId, AcceptBookingRequest acceptBookingRequest) {
+        return reservationRetryExecutor.execute(() -> acceptBookingOnce(providerId, acceptBookingRequest));
+    }
+
+    private AcceptBookingResponse acceptBookingOnce(Long providerId, AcceptBookingRequest acceptBookingRequest) {
         Provider provider = providerRepository.findById(providerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Provider not found"));
 
@@ -240,6 +263,9 @@ public class BookingServiceImpl implements BookingService {
         else
             scheduleId = schedule.getId();
 
+        // everything below (extension, conflict check, reservation) runs with the schedule claimed
+        availabilityEngine.claim(scheduleId);
+
         WorkingDay workingDay = workingDayRepository.findByScheduleIdAndDate(scheduleId, date)
                     .orElseThrow(() -> new ResourceNotFoundException("Working day by the booking date is not found"));
 
@@ -277,6 +303,7 @@ public class BookingServiceImpl implements BookingService {
         booking.setAcceptedAt(LocalDateTime.now());
         booking.setTimeSlot(reservedBookedSlot);
         bookingRepository.save(booking);
+        providerBookingStatsService.recordTransition(booking, BookingStatus.PENDING, BookingStatus.ACCEPTED);
 
         provider.setTotalBookings((provider.getTotalBookings() != null ? provider.getTotalBookings() : 0) + 1);
         updateProviderRates(provider);
@@ -334,11 +361,16 @@ public class BookingServiceImpl implements BookingService {
 
         slotToExtend.setEndTime(bookingEnd);
         timeSlotRepository.save(slotToExtend);
+        availabilityEngine.invalidate(scheduleId, date);
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public BookingResponse declineBooking(Long providerId, Long bookingId) {
+        return reservationRetryExecutor.execute(() -> declineBookingOnce(providerId, bookingId));
+    }
+
+    private BookingResponse declineBookingOnce(Long providerId, Long bookingId) {
         providerRepository.findById(providerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Provider not found"));
 
@@ -394,46 +426,30 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public WeeklyBookingStatsResponse getWeeklyBookingStats(Long providerId) {
-        Provider provider = providerRepository.findById(providerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Provider not found"));
+        if (!providerRepository.existsById(providerId))
+            throw new ResourceNotFoundException("Provider not found");
 
-        Object[] result = (Object[]) bookingRepository.findBookingStatsCurrentWeek(providerId, LocalDate.now());
-
-        Integer acceptedAndCompletedBookings = result[0] != null ? ((Number) result[0]).intValue() : 0;
-        Integer cancelledBookings = result[1] != null ? ((Number) result[1]).intValue() : 0;
-
-        return WeeklyBookingStatsResponse.builder()
-                .acceptedAndCompletedBookings(acceptedAndCompletedBookings)
-                .cancelledBookings(cancelledBookings)
-                .build();
+        return providerBookingStatsService.getWeeklyStats(providerId, LocalDate.now());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public MonthlyBookingStatsResponse getMonthlyBookingStats(Long providerId) {
-        Provider provider = providerRepository.findById(providerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Provider not found"));
-
-        List<Object[]> results = bookingRepository.findBookingStatsLastSixMonths(providerId, LocalDate.now());
-        List<String> months = new ArrayList<>();
-        List<Integer> completedBookings = new ArrayList<>(), cancelledBookings = new ArrayList<>();
+        if (!providerRepository.existsById(providerId))
+            throw new ResourceNotFoundException("Provider not found");
 
-        for (Object[] row : results) {
-            months.add((String) row[0]);
-            completedBookings.add(row[1] != null ? ((Number) row[1]).intValue() : 0);
-            cancelledBookings.add(row[2] != null ? ((Number) row[2]).intValue() : 0);
-        }
-
-        return MonthlyBookingStatsResponse.builder()
-                .months(months)
-                .completedBookings(completedBookings)
-                .cancelledBookings(cancelledBookings)
-                .build();
+        return providerBookingStatsService.getMonthlyStats(providerId, LocalDate.now());
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public BookingResponse cancelBooking(Long userId, CancelBookingRequest cancelBookingRequest) {
+        return reservationRetryExecutor.execute(() -> cancelBookingOnce(userId, cancelBookingRequest));
+    }
+
+    private BookingResponse cancelBookingOnce(Long userId, CancelBookingRequest cancelBookingRequest) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
@@ -474,17 +490,15 @@ public class BookingServiceImpl implements BookingService {
         else
             booking.setCancelledBy("P");
         bookingRepository.save(booking);
+        providerBookingStatsService.recordTransition(booking, BookingStatus.ACCEPTED, BookingStatus.CANCELLED);
 
         if (isConsumer) {
             Consumer consumer = booking.getConsumer();
             consumer.setCancelledBookings(
                     (consumer.getCancelledBookings() != null ? consumer.getCancelledBookings() : 0) + 1);
 
-            if (applyPenalty) {
-                double currentRating = consumer.getAverageRating() != null ? consumer.getAverageRating() : 0.0;
-                double newRating = Math.max(0.0, currentRating - 0.2);
-                consumer.setAverageRating(Math.round(newRating * 10.0) / 10.0);
-            }
+            if (applyPenalty)
+                ratingAggregateService.applyCancellationPenalty(consumer, LATE_CANCELLATION_PENALTY);
 
             updateConsumerRates(consumer);
             consumerRepository.save(consumer);
@@ -493,11 +507,8 @@ public class BookingServiceImpl implements BookingService {
             provider.setCancelledBookings(
                     (provider.getCancelledBookings() != null ? provider.getCancelledBookings() : 0) + 1);
 
-            if (applyPenalty) {
-                double currentRating = provider.getAverageRating() != null ? provider.getAverageRating() : 0.0;
-                double newRating = Math.max(0.0, currentRating - 0.2);
-                provider.setAverageRating(Math.round(newRating * 10.0) / 10.0);
-            }
+            if (applyPenalty)
+                ratingAggregateService.applyCancellationPenalty(provider, LATE_CANCELLATION_PENALTY);
 
             updateProviderRates(provider);
             providerRepository.save(provider);
@@ -606,47 +617,8 @@ public class BookingServiceImpl implements BookingService {
 
         // Update provider averages
         Provider provider = booking.getProvider();
-        // Since we are adding one more rating, we can calculate it dynamically or
-        // update using formula.
-        // Assuming completedJobs is already incremented when booking was marked
-        // COMPLETED.
-        // If not, we should probably calculate from all completed ratings.
-        long ratedBookingsCount = bookingRepository.countByProviderIdAndConsumerRatingIsNotNull(provider.getId());
-
-        if (ratedBookingsCount <= 1 || provider.getAverageRating() == null || provider.getAverageRating() == 0.0) {
-            provider.setAveragePunctualityRating(booking.getPunctualityRating());
-            provider.setAverageCommitmentRating(booking.getCommitmentRating());
-            provider.setAverageQualityOfWorkRating(booking.getQualityOfWorkRating());
-            provider.setAverageRating(overallRating);
-        } else {
-            // Because completed jobs usually include unrated ones, it's safer to use a
-            // count of rated bookings.
-            // Formula: new_avg = ((old_avg * old_count) + new_rating) / new_count
-            long oldCount = ratedBookingsCount - 1; // since this booking was already saved and is included in the count
-            // However, the count query includes this booking because we just saved it and
-            // the transaction is open.
-            if (oldCount < 1)
-                oldCount = 1;
-
-            double oldPunctuality = provider.getAveragePunctualityRating() != null
-                    ? provider.getAveragePunctualityRating()
-                    : 0.0;
-            double oldCommitment = provider.getAverageCommitmentRating() != null ? provider.getAverageCommitmentRating()
-                    : 0.0;
-            double oldQuality = provider.getAverageQualityOfWorkRating() != null
-                    ? provider.getAverageQualityOfWorkRating()
-                    : 0.0;
-            double oldOverall = provider.getAverageRating() != null ? provider.getAverageRating() : 0.0;
-
-            provider.setAveragePunctualityRating(
-                    ((oldPunctuality * oldCount) + booking.getPunctualityRating()) / ratedBookingsCount);
-            provider.setAverageCommitmentRating(
-                    ((oldCommitment * oldCount) + booking.getCommitmentRating()) / ratedBookingsCount);
-            provider.setAverageQualityOfWorkRating(
-                    ((oldQuality * oldCount) + booking.getQualityOfWorkRating()) / ratedBookingsCount);
-            provider.setAverageRating(
-                    ((oldOverall * oldCount) + overallRating) / ratedBookingsCount);
-        }
+        ratingAggregateService.recordProviderRating(provider, booking.getPunctualityRating(),
+                booking.getCommitmentRating(), booking.getQualityOfWorkRating(), overallRating);
         updateProviderRates(provider);
         providerRepository.save(provider);
 
@@ -684,20 +656,7 @@ public class BookingServiceImpl implements BookingService {
 
         // Update consumer average
         Consumer consumer = booking.getConsumer();
-        long ratedBookingsCount = bookingRepository.countByConsumerIdAndProviderRatingIsNotNull(consumer.getId());
-
-        if (ratedBookingsCount <= 1 || consumer.getAverageRating() == null || consumer.getAverageRating() == 0.0) {
-            consumer.setAverageRating(booking.getProviderRating());
-        } else {
-            long oldCount = ratedBookingsCount - 1;
-            if (oldCount < 1)
-                oldCount = 1;
-
-            double oldOverall = consumer.getAverageRating() != null ? consumer.getAverageRating() : 0.0;
-            consumer.setAverageRating(
-                    ((oldOverall * oldCount) + booking.getProviderRating()) / ratedBookingsCount);
-        }
-        consumerRepository.save(consumer);
+        ratingAggregateService.recordConsumerRating(consumer, booking.getProviderRating());
 
         try {
             notificationFactory.send(consumer.getId(),
@@ -0,0 +1,100 @@
+package com.aykhedma.service;
+
+import com.aykhedma.exception.ForbiddenException;
+import com.aykhedma.exception.ResourceNotFoundException;
+import com.aykhedma.model.chat.ChatRoom;
+import com.aykhedma.repository.ChatRoomRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory room id -> participant ids map used to authorize chat calls
+ * without loading the room and its participants on every message.
+ * Direct rooms never change members, so entries only go stale on deletion.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ChatRoomMembershipCache {
+
+    public static final int MAX_CACHED_ROOMS = 10_000;
+
+    private final ChatRoomRepository chatRoomRepository;
+
+    private final Map<String, RoomMembership> rooms = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, RoomMembership> eldest) {
+                    return size() > MAX_CACHED_ROOMS;
+                }
+            });
+
+    /**
+     * Takes participant ids explicitly: callers may run outside a transaction,
+     * where the room's lazy participants collection cannot be read.
+     */
+    public RoomMembership register(ChatRoom room, Collection<Long> participantIds) {
+        RoomMembership membership = new RoomMembership(
+                room.getId(),
+                Set.copyOf(participantIds),
+                room.getLastMessage(),
+                room.getLastMessageAt());
+        rooms.put(room.getId(), membership);
+        return membership;
+    }
+
+    public RoomMembership get(String roomId) {
+        RoomMembership cached = rooms.get(roomId);
+        if (cached != null) {
+            return cached;
+        }
+
+        ChatRoom room = chatRoomRepository.findById(roomId)
+                .orElseThrow(() -> new ResourceNotFoundException("Room not found"));
+        Set<Long> participantIds = chatRoomRepository.findParticipantIds(roomId);
+        log.debug("Loaded membership for chat room {} into cache", roomId);
+        return register(room, participantIds);
+    }
+
+    public RoomMembership requireParticipant(String roomId, Long userId) {
+        RoomMembership membership = get(roomId);
+        if (userId == null || !membership.participantIds().contains(userId)) {
+            throw new ForbiddenException("You are not allowed in this room");
+        }
+        return membership;
+    }
+
+    public void recordLastMessage(String roomId, String lastMessage, LocalDateTime lastMessageAt) {
+        rooms.computeIfPresent(roomId, (id, current) -> new RoomMembership(
+                id, current.participantIds(), lastMessage, lastMessageAt));
+    }
+
+    public void evict(String roomId) {
+        rooms.remove(roomId);
+    }
+
+    public void evictAll(Collection<String> roomIds) {
+        roomIds.forEach(rooms::remove);
+    }
+
+    public record RoomMembership(String roomId,
+                                 Set<Long> participantIds,
+                                 String lastMessage,
+                                 LocalDateTime lastMessageAt) {
+
+        public Long otherParticipant(Long userId) {
+            return participantIds.stream()
+                    .filter(id -> !id.equals(userId))
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.aykhedma.service;
+
+import com.aykhedma.dto.response.ChatRoomResponse;
+import com.aykhedma.model.chat.ChatRoom;
+import com.aykhedma.model.chat.ChatRoomSummary;
+import com.aykhedma.model.user.User;
+import com.aykhedma.repository.ChatRoomRepository;
+import com.aykhedma.repository.ChatRoomSummaryRepository;
+import com.aykhedma.service.backfill.StartupBackfill;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains the per-user chat inbox (chat_room_summaries) and the room's lastMessage columns.
+ * Message-driven updates are coalesced in memory per room and written behind by
+ * ChatRoomSummaryFlushScheduler, so a busy conversation costs one UPDATE per flush
+ * instead of one row lock on chat_rooms per message.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChatRoomSummaryService implements StartupBackfill {
+
+    private final ChatRoomSummaryRepository summaryRepository;
+    private final ChatRoomRepository chatRoomRepository;
+
+    private final Map<String, PendingRoomUpdate> pending = new ConcurrentHashMap<>();
+    private final Map<String, PendingRoomUpdate> inFlight = new ConcurrentHashMap<>();
+
+    @Transactional
+    public void createForRoom(ChatRoom room) {
+        if (summaryRepository.existsByRoomId(room.getId())) {
+            return;
+        }
+
+        List<ChatRoomSummary> summaries = new ArrayList<>();
+        for (User participant : room.getParticipants()) {
+            User other = room.getParticipants().stream()
+                    .filter(u -> !u.getId().equals(participant.getId()))
+                    .findFirst()
+                    .orElse(null);
+
+            summaries.add(ChatRoomSummary.builder()
+                    .userId(participant.getId())
+                    .roomId(room.getId())
+                    .otherUserId(other != null ? other.getId() : null)
+                    .lastMessage(ChatRoomSummary.preview(room.getLastMessage()))
+                    .lastMessageAt(room.getLastMessageAt())
+                    .build());
+        }
+        summaryRepository.saveAll(summaries);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ChatRoomResponse> getInbox(Long userId, int page, int size) {
+        return summaryRepository.findInbox(userId, PageRequest.of(page, size))
+                .map(entry -> ChatRoomResponse.builder()
+                        .roomId(entry.getRoomId())
+                        .otherUserId(entry.getOtherUserId())
+                        .otherUserName(entry.getOtherUserName() != null ? entry.getOtherUserName() : "Unknown")
+                        .otherUserProfileImage(entry.getOtherUserProfileImage())
+                        .lastMessage(entry.getLastMessage() == null || entry.getLastMessage().isBlank()
+                                ? "No messages yet"
+                                : entry.getLastMessage())
+                        .lastMessageTime(entry.getLastMessageAt())
+                        .unreadCount(entry.getUnreadCount())
+                        .build());
+    }
+
+    /**
+     * Queues the message for the next flush once the surrounding transaction commits,
+     * so a rolled-back message never reaches the inbox.
+     */
+    public void recordMessage(String roomId, Long recipientId, String lastMessage, LocalDateTime sentAt) {
+        String preview = ChatRoomSummary.preview(lastMessage);
+        Runnable enqueue = () -> pending.compute(roomId, (id, current) -> {
+            PendingRoomUpdate update = current != null ? current : new PendingRoomUpdate();
+            update.merge(recipientId, preview, sentAt);
+            return update;
+        });
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue.run();
+            }
+        });
+    }
+
+    /**
+     * Drops the reader's queued increments, including those of a batch being flushed,
+     * before resetting the count, so a flush cannot write them back on top of the reset.
+     */
+    @Transactional
+    public void markRead(String roomId, Long userId) {
+        pending.computeIfPresent(roomId, (id, current) -> {
+            current.unreadDeltas.remove(userId);
+            return current;
+        });
+        PendingRoomUpdate flushing = inFlight.get(roomId);
+        if (flushing != null) {
+            synchronized (flushing) {
+                flushing.unreadDeltas.remove(userId);
+            }
+        }
+        summaryRepository.resetUnread(roomId, userId);
+    }
+
+    @Transactional
+    public void removeRooms(Collection<String> roomIds) {
+        if (roomIds.isEmpty()) {
+            return;
+        }
+        roomIds.forEach(pending::remove);
+        summaryRepository.deleteByRoomIds(roomIds);
+    }
+
+    @Transactional
+    public int flushPendingUpdates() {
+        // Each batch moves to inFlight atomically with leaving pending, so markRead always finds it
+        Map<String, PendingRoomUpdate> drained = new HashMap<>();
+        for (String roomId : List.copyOf(pending.keySet())) {
+            pending.computeIfPresent(roomId, (id, update) -> {
+                inFlight.put(id, update);
+                drained.put(id, update);
+                return null;
+            });
+        }
+
+        try {
+            drained.forEach((roomId, update) -> {
+                if (update.lastMessageAt != null) {
+                    chatRoomRepository.updateLastMessage(roomId, update.lastMessage, update.lastMessageAt);
+                    summaryRepository.applyLastMessage(roomId, update.lastMessage, update.lastMessageAt);
+                }
+                // Holding the batch while writing orders each increment strictly before or after a
+                // concurrent markRead; one written first is row-locked until commit, so the reset lands after it
+                synchronized (update) {
+                    update.unreadDeltas.forEach((userId, delta) ->
+                            summaryRepository.incrementUnread(roomId, userId, delta));
+                }
+            });
+        } catch (RuntimeException ex) {
+            // Put the batch back so the next flush retries it after this transaction rolls back
+            drained.forEach((roomId, update) -> {
+                synchronized (update) {
+                    pending.merge(roomId, update, PendingRoomUpdate::combine);
+                }
+            });
+            throw ex;
+        } finally {
+            drained.keySet().forEach(inFlight::remove);
+        }
+
+        return drained.size();
+    }
+
+    @Override
+    public String backfillName() {
+        return "chat-room-summaries";
+    }
+
+    /**
+     * Adds the summary rows of rooms created before summaries existed; rooms that have them are skipped.
+     */
+    @Override
+    public int backfill() {
+        return summaryRepository.backfillMissingSummaries();
+    }
+
+    private static final class PendingRoomUpdate {
+        private String lastMessage;
+        private LocalDateTime lastMessageAt;
+        private final Map<Long, Long> unreadDeltas = new HashMap<>();
+
+        void merge(Long recipientId, String message, LocalDateTime sentAt) {
+            if (sentAt != null && (lastMessageAt == null || !sentAt.isBefore(lastMessageAt))) {
+                lastMessage = message;
+                lastMessageAt = sentAt;
+            }
+            if (recipientId != null) {
+                unreadDeltas.merge(recipientId, 1L, Long::sum);
+            }
+        }
+
+        static PendingRoomUpdate combine(PendingRoomUpdate newer, PendingRoomUpdate older) {
+            if (older.lastMessageAt != null
+                    && (newer.lastMessageAt == null || older.lastMessageAt.isAfter(newer.lastMessageAt))) {
+                newer.lastMessage = older.lastMessage;
+                newer.lastMessageAt = older.lastMessageAt;
+            }
+            older.unreadDeltas.forEach((userId, delta) -> newer.unreadDeltas.merge(userId, delta, Long::sum));
+            return newer;
+        }
+    }
+}
@@ -37,6 +37,8 @@ public class ChatService {
         private final SimpMessagingTemplate messagingTemplate;
         private final MediaStorageService mediaStorageService;
         private final NotificationFactory notificationFactory;
+        private final ChatRoomMembershipCache membershipCache;
+        private final ChatRoomSummaryService chatRoomSummaryService;
 
         public ChatRoom getOrCreateRoom(User sender, Long receiverId) {
 
@@ -53,6 +55,7 @@ public class ChatService {
                 Optional<ChatRoom> existingRoom = chatRoomRepository.findRoomBetweenUsers(sender, receiver);
 
                 if (existingRoom.isPresent()) {
+                        membershipCache.register(existingRoom.get(), List.of(sender.getId(), receiver.getId()));
                         return existingRoom.get();
                 }
 
@@ -62,7 +65,10 @@ public class ChatService {
                         .roomName(sender.getName() + " & " + receiver.getName())
                         .build();
 
-                return chatRoomRepository.save(newRoom);
+                ChatRoom savedRoom = chatRoomRepository.save(newRoom);
+                membershipCache.register(savedRoom, List.of(sender.getId(), receiver.getId()));
+                chatRoomSummaryService.createForRoom(savedRoom);
+                return savedRoom;
         }
 
         public Page<ChatRoomResponse> getUserRooms(User user, int page, int size) {
@@ -71,49 +77,7 @@ public class ChatService {
                         throw new UnauthorizedException("User not authenticated");
                 }
 
-                Page<ChatRoom> rooms = chatRoomRepository.findUserRooms(
-                        user.getId(),
-                        PageRequest.of(page, size));
-
-                List<String> roomIds = rooms.getContent()
-                        .stream()
-                        .map(ChatRoom::getId)
-                        .toList();
-
-                Map<String, Long> unreadMap = chatMessageRepository
-                        .countUnreadMessagesForRooms(roomIds, user.getId())
-                        .stream()
-                        .collect(Collectors.toMap(
-                                row -> (String) row[0],
-                                row -> (Long) row[1]
-                        ));
-
-                return rooms.map(room -> {
-
-                        User otherUser = null;
-                        for (User participant : room.getParticipants()) {
-                                if (!participant.getId().equals(user.getId())) {
-                                        otherUser = participant;
-                                        break;
-                                }
-                        }
-                        return ChatRoomResponse.builder()
-                                .roomId(room.getId())
-                                .otherUserId(otherUser != null ? otherUser.getId() : null)
-                                .otherUserName(otherUser != null ? otherUser.getName() : "Unknown")
-                                .otherUserProfileImage(otherUser != null
-                                        ? otherUser.getProfileImage()
-                                        : null)
-                                .lastMessage(
-                                        room.getLastMessage() == null ||
-                                                room.getLastMessage().isBlank()
-                                                ? "No messages yet"
-                                                : room.getLastMessage())
-                                .lastMessageTime(room.getLastMessageAt())
-                                .unreadCount(
-                                        unreadMap.getOrDefault(room.getId(), 0L).intValue())
-                                .build();
-                });
+                return chatRoomSummaryService.getInbox(user.getId(), page, size);
         }
 
         @Transactional
@@ -122,20 +86,20 @@ public class ChatService {
                 if (sender == null)
                         throw new UnauthorizedException("User not authenticated");
 
-                ChatRoom room = chatRoomRepository.findById(request.getRoomId())
-                        .orElseThrow(() -> new ResourceNotFoundException("Room not found"));
-
-                boolean allowed = room.getParticipants().stream()
-                        .anyMatch(u -> u.getId().equals(sender.getId()));
-
-                if (!allowed)
-                        throw new ForbiddenException("You are not allowed in this room");
+                ChatRoomMembershipCache.RoomMembership membership =
+                        membershipCache.requireParticipant(request.getRoomId(), sender.getId());
 
                 if ((request.getContent() == null || request.getContent().isBlank())
                         && (request.getMediaFiles() == null || request.getMediaFiles().isEmpty())) {
                         throw new BadRequestException("Message cannot be empty");
                 }
 
+                ChatRoom room = chatRoomRepository.findById(request.getRoomId())
+                        .orElseThrow(() -> {
+                                membershipCache.evict(request.getRoomId());
+                                return new ResourceNotFoundException("Room not found");
+                        });
+
                 List<String> mediaUrls = new ArrayList<>();
 
                 if (request.getMediaFiles() != null) {
@@ -167,18 +131,18 @@ public class ChatService {
                 String lastMessageText = (saved.getContent() != null && !saved.getContent().isBlank())
                         ? saved.getContent()
                         : (mediaUrls.isEmpty() ? "" : "📎 Media message");
-                room.setLastMessage(lastMessageText);
-                room.setLastMessageAt(saved.getTimestamp());
-                chatRoomRepository.save(room);
+                membershipCache.recordLastMessage(room.getId(), lastMessageText, saved.getTimestamp());
 
                 ChatMessageResponse response = ChatMessageResponse.fromEntity(saved, sender.getId(), userRepository);
 
-                User recipient = room.getParticipants().stream()
-                        .filter(user -> !user.getId().equals(sender.getId()))
-                        .findFirst()
-                        .orElseThrow(() -> new ResourceNotFoundException("Recipient not found"));
+                Long recipientId = membership.otherParticipant(sender.getId());
+                if (recipientId == null)
+                        throw new ResourceNotFoundException("Recipient not found");
+
+                // Room lastMessage and inbox rows are written behind in coalesced batches
+                chatRoomSummaryService.recordMessage(room.getId(), recipientId, lastMessageText, saved.getTimestamp());
 
-                notificationFactory.send(recipient.getId(), NotificationType.NEW_MESSAGE, java.util.Map.of(
+                notificationFactory.send(recipientId, NotificationType.NEW_MESSAGE, java.util.Map.of(
                         "title", sender.getName() + " sent you a message",
                         "content", saved.getContent() != null && !saved.getContent().isBlank()
                                 ? saved.getContent()
@@ -202,16 +166,7 @@ public class ChatService {
                 int size
         ) {
 
-                ChatRoom room = chatRoomRepository.findById(roomId)
-                        .orElseThrow(() -> new ResourceNotFoundException("Room not found"));
-
-                boolean isParticipant = room.getParticipants()
-                        .stream()
-                        .anyMatch(u -> u.getId().equals(currentUser.getId()));
-
-                if (!isParticipant) {
-                        throw new ForbiddenException("You are not allowed in this room");
-                }
+                membershipCache.requireParticipant(roomId, currentUser.getId());
 
                 if (chatMessageRepository.existsUnreadMessages(roomId, currentUser.getId())) {
                         chatMessageRepository.markMessagesAsRead(
@@ -219,6 +174,7 @@ public class ChatService {
                                 currentUser.getId(),
                                 LocalDateTime.now()
                         );
+                        chatRoomSummaryService.markRead(roomId, currentUser.getId());
                 }
 
                 Page<ChatMessage> messages = chatMessageRepository.findByChatRoomId(
@@ -244,14 +200,7 @@ public class ChatService {
 
         public long getUnreadCount(String roomId, Long userId) {
 
-                var room = chatRoomRepository.findById(roomId)
-                        .orElseThrow(() -> new ResourceNotFoundException("Room not found"));
-
-                boolean isParticipant = room.getParticipants().stream()
-                        .anyMatch(u -> u.getId().equals(userId));
-
-                if (!isParticipant)
-                        throw new ForbiddenException("You are not allowed in this room");
+                membershipCache.requireParticipant(roomId, userId);
 
                 return chatMessageRepository.countUnreadMessages(roomId, userId);
         }
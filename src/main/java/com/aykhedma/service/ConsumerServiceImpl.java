@@ -12,6 +12,7 @@ import com.aykhedma.model.user.Consumer;
 import com.aykhedma.model.user.Provider;
 import com.aykhedma.repository.ConsumerRepository;
 import com.aykhedma.repository.ProviderRepository;
+import com.aykhedma.security.CustomUserDetailsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,6 +32,7 @@ public class ConsumerServiceImpl implements ConsumerService {
     private final ProviderMapper providerMapper;
     private final FileStorageService fileStorageService;
     private final LocationService locationService;
+    private final CustomUserDetailsService userDetailsService;
 
     @Override
     public ConsumerResponse getConsumerProfile(Long consumerId) {
@@ -48,6 +50,8 @@ public class ConsumerServiceImpl implements ConsumerService {
             consumer.setName(request.getName());
         }
         if (request.getEmail() != null) {
+            // cached principals are keyed to the old email
+            userDetailsService.evictUser(consumer.getEmail());
             consumer.setEmail(request.getEmail());
         }
         if (request.getPhoneNumber() != null) {
@@ -23,6 +23,7 @@ import com.aykhedma.model.user.Provider;
 import com.aykhedma.model.user.User;
 import com.aykhedma.model.user.UserType;
 import com.aykhedma.repository.*;
+import com.aykhedma.service.rating.RatingAggregateService;
 import lombok.RequiredArgsConstructor;
 import org.quartz.*;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -53,7 +54,7 @@ public class EmergencyRequestServiceImpl implements EmergencyRequestService
     private final RestTemplate restTemplate;
     private final SimpMessagingTemplate simpMessagingTemplate;
     private final NotificationFactory notificationFactory;
-    private final BookingRepository bookingRepository;
+    private final RatingAggregateService ratingAggregateService;
 
     @Override
     public EmergencyRequestResponse getCurrentEmergencyRequest(Long consumerId)
@@ -715,29 +716,8 @@ public class EmergencyRequestServiceImpl implements EmergencyRequestService
         // Update provider averages
         Provider provider = emergencyRequest.getSelectedProvider();
         if (provider != null) {
-            long ratedBookingsCount = bookingRepository.countByProviderIdAndConsumerRatingIsNotNull(provider.getId());
-            long ratedEmergencyRequestsCount = emergencyRequestRepository.countBySelectedProviderIdAndConsumerRatingIsNotNull(provider.getId());
-            long totalRatedCount = ratedBookingsCount + ratedEmergencyRequestsCount;
-
-            if (totalRatedCount <= 1 || provider.getAverageRating() == null || provider.getAverageRating() == 0.0) {
-                provider.setAveragePunctualityRating(emergencyRequest.getPunctualityRating());
-                provider.setAverageCommitmentRating(emergencyRequest.getCommitmentRating());
-                provider.setAverageQualityOfWorkRating(emergencyRequest.getQualityOfWorkRating());
-                provider.setAverageRating(overallRating);
-            } else {
-                long oldCount = totalRatedCount - 1;
-                if (oldCount < 1) oldCount = 1;
-
-                double oldPunctuality = provider.getAveragePunctualityRating() != null ? provider.getAveragePunctualityRating() : 0.0;
-                double oldCommitment = provider.getAverageCommitmentRating() != null ? provider.getAverageCommitmentRating() : 0.0;
-                double oldQuality = provider.getAverageQualityOfWorkRating() != null ? provider.getAverageQualityOfWorkRating() : 0.0;
-                double oldOverall = provider.getAverageRating() != null ? provider.getAverageRating() : 0.0;
-
-                provider.setAveragePunctualityRating(((oldPunctuality * oldCount) + emergencyRequest.getPunctualityRating()) / totalRatedCount);
-                provider.setAverageCommitmentRating(((oldCommitment * oldCount) + emergencyRequest.getCommitmentRating()) / totalRatedCount);
-                provider.setAverageQualityOfWorkRating(((oldQuality * oldCount) + emergencyRequest.getQualityOfWorkRating()) / totalRatedCount);
-                provider.setAverageRating(((oldOverall * oldCount) + overallRating) / totalRatedCount);
-            }
+            ratingAggregateService.recordProviderRating(provider, emergencyRequest.getPunctualityRating(),
+                    emergencyRequest.getCommitmentRating(), emergencyRequest.getQualityOfWorkRating(), overallRating);
             updateProviderRates(provider);
             providerRepository.save(provider);
         }
@@ -779,19 +759,7 @@ public class EmergencyRequestServiceImpl implements EmergencyRequestService
         // Update consumer average
         Consumer consumer = emergencyRequest.getConsumer();
         if (consumer != null) {
-            long ratedBookingsCount = bookingRepository.countByConsumerIdAndProviderRatingIsNotNull(consumer.getId());
-            long ratedEmergencyRequestsCount = emergencyRequestRepository.countByConsumerIdAndProviderRatingIsNotNull(consumer.getId());
-            long totalRatedCount = ratedBookingsCount + ratedEmergencyRequestsCount;
-
-            if (totalRatedCount <= 1 || consumer.getAverageRating() == null || consumer.getAverageRating() == 0.0) {
-                consumer.setAverageRating(emergencyRequest.getProviderRating());
-            } else {
-                long oldCount = totalRatedCount - 1;
-                if (oldCount < 1) oldCount = 1;
-                double oldOverall = consumer.getAverageRating() != null ? consumer.getAverageRating() : 0.0;
-                consumer.setAverageRating(((oldOverall * oldCount) + emergencyRequest.getProviderRating()) / totalRatedCount);
-            }
-            consumerRepository.save(consumer);
+            ratingAggregateService.recordConsumerRating(consumer, emergencyRequest.getProviderRating());
         }
 
         return emergencyRequestMapper.toEmergencyRequestResponse(emergencyRequest);
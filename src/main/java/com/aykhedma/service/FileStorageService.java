@@ -3,6 +3,7 @@ package com.aykhedma.service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.Collection;
 
 public interface FileStorageService {
 
@@ -21,6 +22,13 @@ public interface FileStorageService {
      */
     void deleteFile(String fileUrl);
 
+    /**
+     * Delete many files at once; Cloudinary files are removed in batched API calls
+     * @param fileUrls The URLs of the files to delete
+     * @return How many files were deleted
+     */
+    int deleteFiles(Collection<String> fileUrls);
+
     /**
      * Get the file URL by filename
      * @param fileName The name of the file
@@ -4,6 +4,7 @@ import com.aykhedma.exception.BadRequestException;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
 import com.aykhedma.service.FileStorageService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -13,12 +14,16 @@ import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 @Service
+@Slf4j
 public class FileStorageServiceImpl implements FileStorageService {
 
     @Value("${file.upload-dir:uploads}")
@@ -45,6 +50,9 @@ public class FileStorageServiceImpl implements FileStorageService {
     private static final long MAX_IMAGE_SIZE = 5 * 1024 * 1024;
     private static final long MAX_DOCUMENT_SIZE = 10 * 1024 * 1024;
 
+    // Cloudinary's Admin API deletes at most 100 public ids per call
+    private static final int CLOUDINARY_DELETE_BATCH = 100;
+
     @Override
     public String storeFile(MultipartFile file, String directory) throws IOException {
         if (file == null || file.isEmpty()) {
@@ -175,27 +183,79 @@ public class FileStorageServiceImpl implements FileStorageService {
         }
     }
 
+    @Override
+    public int deleteFiles(Collection<String> fileUrls) {
+        Map<String, List<String>> publicIdsByType = new HashMap<>();
+        int deleted = 0;
+        for (String fileUrl : fileUrls) {
+            if (fileUrl == null || fileUrl.isEmpty()) {
+                continue;
+            }
+            if (fileUrl.startsWith("http://") || fileUrl.startsWith("https://")) {
+                CloudinaryAsset asset = cloudinaryAsset(fileUrl);
+                if (asset != null) {
+                    publicIdsByType.computeIfAbsent(asset.resourceType(), type -> new ArrayList<>())
+                            .add(asset.publicId());
+                }
+            } else {
+                deleteLocalFile(fileUrl);
+                deleted++;
+            }
+        }
+
+        for (Map.Entry<String, List<String>> entry : publicIdsByType.entrySet()) {
+            List<String> publicIds = entry.getValue();
+            for (int from = 0; from < publicIds.size(); from += CLOUDINARY_DELETE_BATCH) {
+                List<String> batch = publicIds.subList(from, Math.min(from + CLOUDINARY_DELETE_BATCH, publicIds.size()));
+                try {
+                    Map<?, ?> result = cloudinary.api().deleteResources(batch,
+                            ObjectUtils.asMap("resource_type", entry.getKey()));
+                    Object statuses = result.get("deleted");
+                    if (statuses instanceof Map<?, ?> byId) {
+                        deleted += (int) byId.values().stream().filter("deleted"::equals).count();
+                    }
+                } catch (Exception e) {
+                    log.warn("Failed to delete {} Cloudinary {} files: {}", batch.size(), entry.getKey(), e.getMessage());
+                }
+            }
+        }
+        return deleted;
+    }
+
     private void deleteCloudinaryFile(String fileUrl) throws IOException {
-        URI uri = URI.create(fileUrl);
-        String path = uri.getPath();
+        CloudinaryAsset asset = cloudinaryAsset(fileUrl);
+        if (asset == null) {
+            return;
+        }
+
+        cloudinary.uploader().destroy(asset.publicId(), ObjectUtils.asMap("resource_type", asset.resourceType()));
+    }
+
+    private CloudinaryAsset cloudinaryAsset(String fileUrl) {
+        String path;
+        try {
+            path = URI.create(fileUrl).getPath();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
 
         if (path == null || !path.contains("/upload/")) {
-            return;
+            return null;
         }
 
         String[] segments = path.split("/");
         if (segments.length < 5) {
-            return;
+            return null;
         }
 
         String resourceType = segments[2];
         String publicId = extractPublicId(path);
 
         if (publicId == null || publicId.isBlank()) {
-            return;
+            return null;
         }
 
-        cloudinary.uploader().destroy(publicId, ObjectUtils.asMap("resource_type", resourceType));
+        return new CloudinaryAsset(resourceType, publicId);
     }
 
     private void deleteLocalFile(String fileUrl) {
@@ -249,4 +309,7 @@ public class FileStorageServiceImpl implements FileStorageService {
 
         return filePart;
     }
-}
\ No newline at end of file
+
+    private record CloudinaryAsset(String resourceType, String publicId) {
+    }
+}
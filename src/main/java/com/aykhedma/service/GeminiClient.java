@@ -1,6 +1,7 @@
 package com.aykhedma.service;
 
 import com.aykhedma.service.GeminiClient.ConversationTurn;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -9,58 +10,64 @@ import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.vertexai.gemini.VertexAiGeminiChatModel.GeminiRequest;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.util.retry.RetrySpec;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
 import java.net.UnknownHostException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class GeminiClient {
 
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient geminiWebClient;
     private final ObjectMapper objectMapper;
     private final ObjectProvider<ChatClient.Builder> chatClientBuilderProvider;
+    private final LlmResponseCache llmResponseCache;
+    private final GeminiContextCache geminiContextCache;
+    private final GeminiKeyScheduler keyScheduler;
 
     private volatile ChatClient chatClient;
 
-    private final AtomicInteger keyCursor = new AtomicInteger(0);
-    private final Map<String, Instant> keyCooldownUntil = new ConcurrentHashMap<>();
-
     // track consecutive DNS failures
     private final AtomicInteger consecutiveDnsFailures = new AtomicInteger(0);
     private volatile Instant lastDnsFailureTime = null;
     private static final int MAX_DNS_FAILURES = 3;
     private static final Duration DNS_COOLDOWN = Duration.ofSeconds(30);
 
+    private static final Pattern RETRY_DELAY = Pattern.compile("\"retryDelay\"\\s*:\\s*\"(\\d+(?:\\.\\d+)?)s\"");
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_EVENTS =
+            new ParameterizedTypeReference<>() {
+            };
+
     @Value("#{'${ai.gemini.api-keys:}'.split(',')}")
     private List<String> apiKeys;
 
-    @Value("${ai.gemini.base-url:https://generativelanguage.googleapis.com/v1beta}")
-    private String baseUrl;
-
     @Value("${ai.gemini.model:gemini-2.5-flash}")
     private String model;
 
     @Value("${ai.gemini.use-spring-ai:false}")
     private boolean useSpringAi;
 
-    // cache for successful responses (reduce duplicate calls)
-    private final Map<String, CachedResponse> responseCache = new ConcurrentHashMap<>();
-    private static final Duration CACHE_TTL = Duration.ofMinutes(5);
-
     private List<String> getApiKeys() {
         List<String> keys = new ArrayList<>();
         if (apiKeys == null) {
@@ -98,56 +105,53 @@ public class GeminiClient {
 }
 
     public String generateJson(List<ConversationTurn> history, String systemPrompt) {
+        return generateJson(history, null, systemPrompt);
+    }
+
+    /**
+     * Like {@link #generateJson(List, String)}, with the system prompt split into long
+     * {@code instructions} that rarely change, sent through a Gemini context cache when one
+     * can be created, and a short per-request {@code context} that is always sent inline.
+     */
+    public String generateJson(List<ConversationTurn> history, String instructions, String context) {
         if (!isEnabled()) {
             log.debug("Gemini is disabled");
             return null;
         }
 
-        //  if we are in DNS failure cooldown
-        if (consecutiveDnsFailures.get() >= MAX_DNS_FAILURES) {
-            if (lastDnsFailureTime != null &&
-                    Duration.between(lastDnsFailureTime, Instant.now()).compareTo(DNS_COOLDOWN) < 0) {
-                log.warn("DNS resolution failing, skipping Gemini request (cooldown: {}s remaining)",
-                        DNS_COOLDOWN.getSeconds() - Duration.between(lastDnsFailureTime, Instant.now()).getSeconds());
-                return null;
-            } else {
-                // Reset after cooldown
-                consecutiveDnsFailures.set(0);
-                lastDnsFailureTime = null;
-            }
+        if (inDnsCooldown()) {
+            return null;
         }
 
         // check cache for identical requests
-        String cacheKey = buildCacheKey(history, systemPrompt);
-        if (cacheKey != null) {
-            CachedResponse cached = responseCache.get(cacheKey);
-            if (cached != null && !cached.isExpired()) {
-                log.debug("Returning cached Gemini response");
-                return cached.response;
-            }
+        String cacheKey = buildCacheKey(history, instructions, context);
+        String cached = llmResponseCache.get(cacheKey);
+        if (cached != null) {
+            log.debug("Returning cached Gemini response");
+            return cached;
         }
 
-        String springAiResponse = generateWithSpringAi(history, systemPrompt);
+        String springAiResponse = generateWithSpringAi(history, joinPrompt(instructions, context));
         if (StringUtils.hasText(springAiResponse)) {
             return springAiResponse;
         }
 
-        String response = generateWithWebClient(history, systemPrompt);
+        String response = generateWithWebClient(new Prompt(history, instructions, context));
 
         // Cache successful response
-        if (StringUtils.hasText(response) && cacheKey != null) {
-            responseCache.put(cacheKey, new CachedResponse(response));
+        if (StringUtils.hasText(response)) {
+            llmResponseCache.put(cacheKey, response);
         }
 
         return response;
     }
 
-    private String buildCacheKey(List<ConversationTurn> history, String systemPrompt) {
+    private String buildCacheKey(List<ConversationTurn> history, String instructions, String context) {
         if (history == null || history.isEmpty()) {
             return null;
         }
         // only cache simple single-turn requests
-        if (history.size() == 1 && !StringUtils.hasText(systemPrompt)) {
+        if (history.size() == 1 && !StringUtils.hasText(instructions) && !StringUtils.hasText(context)) {
             String text = history.get(0).text();
             if (StringUtils.hasText(text) && text.length() < 100) {
                 return "single:" + text.trim().toLowerCase();
@@ -156,7 +160,7 @@ public class GeminiClient {
         return null;
     }
 
-    private String generateWithWebClient(List<ConversationTurn> history, String systemPrompt) {
+    private String generateWithWebClient(Prompt prompt) {
         List<String> apiKeys = getApiKeys();
         int size = apiKeys.size();
         if (size == 0) {
@@ -164,45 +168,22 @@ public class GeminiClient {
             return null;
         }
 
-        // build the request once
-        List<GeminiContent> contents = new ArrayList<>();
-
-        if (StringUtils.hasText(systemPrompt)) {
-            contents.add(new GeminiContent("user", List.of(new GeminiPart(systemPrompt))));
-            contents.add(new GeminiContent("model",
-                    List.of(new GeminiPart("Understood. I will follow these instructions."))));
-        }
-
-        for (ConversationTurn turn : history) {
-            String geminiRole = "user".equals(turn.role()) ? "user" : "model";
-            contents.add(new GeminiContent(geminiRole, List.of(new GeminiPart(turn.text()))));
-        }
-
-        GeminiRequest request = new GeminiRequest(
-                contents,
-                new GeminiGenerationConfig(0.2, "application/json"));
-
-        // start from next key in rotation
-        int start = Math.floorMod(keyCursor.getAndIncrement(), size);
-        int triedKeys = 0;
-        int skippedForCooldown = 0;
+        int estimatedTokens = estimateTokens(prompt);
+        Set<String> triedKeys = new HashSet<>();
 
-        for (int offset = 0; offset < size; offset++) {
-            int idx = (start + offset) % size;
-            String currentKey = apiKeys.get(idx);
-
-            Instant cooldownUntil = keyCooldownUntil.get(currentKey);
-            if (cooldownUntil != null && cooldownUntil.isAfter(Instant.now())) {
-                skippedForCooldown++;
-                continue;
+        while (triedKeys.size() < size) {
+            // waits for quota when every remaining key is exhausted instead of sleeping on one
+            GeminiKeyScheduler.Lease lease = keyScheduler.acquire(apiKeys, triedKeys, estimatedTokens);
+            if (lease == null) {
+                break;
             }
+            String currentKey = lease.apiKey();
+            int idx = lease.index();
+            triedKeys.add(currentKey);
 
-            triedKeys++;
-
+            GeminiRequest request = buildRequest(currentKey, prompt).block();
             try {
-                String response = webClientBuilder
-                        .baseUrl(baseUrl)
-                        .build()
+                String response = geminiWebClient
                         .post()
                         .uri(uriBuilder -> uriBuilder
                                 .path("/models/{model}:generateContent")
@@ -217,18 +198,11 @@ public class GeminiClient {
                                         new GeminiHttpException(clientResponse.statusCode().value(), body))))
                         .bodyToMono(String.class)
                         .timeout(Duration.ofSeconds(30))
-                        // Retry on 429 with backoff
-                        .retryWhen(RetrySpec.fixedDelay(2, Duration.ofSeconds(2))
-                                .filter(throwable -> throwable instanceof GeminiHttpException &&
-                                        ((GeminiHttpException) throwable).statusCode == 429)
-                                .onRetryExhaustedThrow((spec, signal) -> {
-                                    log.debug("Retry exhausted for key {}, continuing to next key", idx);
-                                    return signal.failure();
-                                }))
                         .block();
 
                 if (!StringUtils.hasText(response)) {
                     log.debug("Empty response from Gemini with key index {}", idx);
+                    lease.failed(null);
                     continue;
                 }
 
@@ -240,21 +214,12 @@ public class GeminiClient {
                     int errorCode = error.path("code").asInt(0);
 
                     log.warn("Gemini API error with key {}: {} (code: {})", idx, errorMessage, errorCode);
-
-                    if (errorCode == 429) {
-                        keyCooldownUntil.put(currentKey, Instant.now().plus(Duration.ofSeconds(60)));
-                        continue;
-                    } else if (errorCode == 403 || errorCode == 401) {
-                        keyCooldownUntil.put(currentKey, Instant.now().plus(Duration.ofMinutes(10)));
-                        log.error("Key {} invalid, cooling down for 10 min", idx);
-                        continue;
-                    } else if (errorCode == 500 || errorCode == 503) {
-                        keyCooldownUntil.put(currentKey, Instant.now().plus(Duration.ofSeconds(5)));
-                        continue;
-                    }
+                    lease.failed(cooldownFor(errorCode, response, idx));
                     continue;
                 }
 
+                lease.succeeded(root.path("usageMetadata").path("totalTokenCount").asInt(0));
+
                 JsonNode textNode = root.path("candidates")
                         .path(0)
                         .path("content")
@@ -267,8 +232,6 @@ public class GeminiClient {
                     continue;
                 }
 
-                // Success - clear cooldown
-                keyCooldownUntil.remove(currentKey);
                 // Reset DNS failures on success
                 consecutiveDnsFailures.set(0);
                 lastDnsFailureTime = null;
@@ -277,6 +240,7 @@ public class GeminiClient {
                 return textNode.asText();
 
             } catch (WebClientRequestException ex) {
+                lease.failed(null);
                 // DNS or network error
                 if (ex.getCause() instanceof UnknownHostException ||
                         ex.getMessage().contains("Failed to resolve")) {
@@ -294,28 +258,252 @@ public class GeminiClient {
                 continue;
 
             } catch (GeminiHttpException httpEx) {
-                int status = httpEx.statusCode;
-                if (status == 429) {
-                    keyCooldownUntil.put(currentKey, Instant.now().plus(Duration.ofSeconds(60)));
-                } else if (status >= 500) {
-                    keyCooldownUntil.put(currentKey, Instant.now().plus(Duration.ofSeconds(5)));
-                }
+                forgetStaleContextCache(currentKey, request, prompt, httpEx.statusCode);
+                lease.failed(cooldownFor(httpEx.statusCode, httpEx.body, idx));
                 continue;
 
             } catch (Exception ex) {
+                lease.failed(null);
                 log.warn("Error with key {}: {}", idx, ex.getMessage());
                 continue;
             }
         }
 
-        if (triedKeys == 0) {
-            log.warn("All {} API key(s) are in cooldown ({} skipped)", size, skippedForCooldown);
+        if (triedKeys.isEmpty()) {
+            log.warn("No Gemini API key had quota within the wait limit ({} configured)", size);
         } else {
-            log.warn("All {} eligible API key(s) failed", triedKeys);
+            log.warn("All {} tried Gemini API key(s) failed", triedKeys.size());
         }
         return null;
     }
 
+    /**
+     * Streams the model's JSON answer from {@code :streamGenerateContent} as text chunks.
+     * Keys are scheduled and cooled down like {@link #generateJson}, but only until the first
+     * chunk arrives; a failure after that ends the stream. Completes empty when no key works.
+     */
+    public Flux<String> streamJson(List<ConversationTurn> history, String systemPrompt) {
+        return streamJson(history, null, systemPrompt);
+    }
+
+    /**
+     * Streaming counterpart of {@link #generateJson(List, String, String)}.
+     */
+    public Flux<String> streamJson(List<ConversationTurn> history, String instructions, String context) {
+        if (!isEnabled() || inDnsCooldown()) {
+            return Flux.empty();
+        }
+        List<String> keys = getApiKeys();
+        if (keys.isEmpty()) {
+            log.debug("No valid API keys configured");
+            return Flux.empty();
+        }
+        Prompt prompt = new Prompt(history, instructions, context);
+        return streamWithKey(keys, ConcurrentHashMap.newKeySet(), prompt, estimateTokens(prompt));
+    }
+
+    private Flux<String> streamWithKey(List<String> keys, Set<String> triedKeys, Prompt prompt,
+            int estimatedTokens) {
+        // the scheduler may wait for quota, so it is asked off the event loop
+        return Mono.fromCallable(() -> keyScheduler.acquire(keys, triedKeys, estimatedTokens))
+                .subscribeOn(Schedulers.boundedElastic())
+                .switchIfEmpty(Mono.fromRunnable(() -> log.warn("No Gemini API key could open a stream")))
+                .flatMapMany(lease -> {
+                    triedKeys.add(lease.apiKey());
+                    return streamWithLease(lease, keys, triedKeys, prompt, estimatedTokens);
+                });
+    }
+
+    private Flux<String> streamWithLease(GeminiKeyScheduler.Lease lease, List<String> keys, Set<String> triedKeys,
+            Prompt prompt, int estimatedTokens) {
+        String currentKey = lease.apiKey();
+        AtomicBoolean started = new AtomicBoolean(false);
+        return buildRequest(currentKey, prompt).flatMapMany(request -> geminiWebClient
+                .post()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/models/{model}:streamGenerateContent")
+                        .queryParam("alt", "sse")
+                        .build(model))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("X-goog-api-key", currentKey)
+                .bodyValue(request)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, clientResponse -> clientResponse.bodyToMono(String.class)
+                        .defaultIfEmpty("")
+                        .flatMap(body -> Mono.error(
+                                new GeminiHttpException(clientResponse.statusCode().value(), body))))
+                .bodyToFlux(SSE_EVENTS)
+                // time allowed between chunks, not for the whole answer
+                .timeout(Duration.ofSeconds(30))
+                .mapNotNull(event -> chunkText(event.data()))
+                .doOnNext(chunk -> started.set(true))
+                .doOnComplete(() -> {
+                    lease.succeeded(0);
+                    if (started.get()) {
+                        consecutiveDnsFailures.set(0);
+                        lastDnsFailureTime = null;
+                    }
+                })
+                .onErrorResume(ex -> {
+                    if (started.get()) {
+                        lease.failed(null);
+                        return Flux.error(ex);
+                    }
+                    if (ex instanceof GeminiHttpException httpEx) {
+                        forgetStaleContextCache(currentKey, request, prompt, httpEx.statusCode);
+                    }
+                    coolDownAfterFailure(lease, ex);
+                    if (consecutiveDnsFailures.get() >= MAX_DNS_FAILURES) {
+                        return Flux.empty();
+                    }
+                    return streamWithKey(keys, triedKeys, prompt, estimatedTokens);
+                })
+                // a cancelled stream still gives its key back
+                .doFinally(signal -> lease.release()));
+    }
+
+    /**
+     * Text of one streamed {@code GenerateContentResponse}, or null when it carries none.
+     */
+    private String chunkText(String data) {
+        if (!StringUtils.hasText(data)) {
+            return null;
+        }
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(data);
+        } catch (IOException ex) {
+            log.debug("Skipping unreadable Gemini stream event: {}", ex.getMessage());
+            return null;
+        }
+        JsonNode error = root.path("error");
+        if (!error.isMissingNode()) {
+            throw new GeminiHttpException(error.path("code").asInt(0), error.path("message").asText(""));
+        }
+        StringBuilder text = new StringBuilder();
+        for (JsonNode part : root.path("candidates").path(0).path("content").path("parts")) {
+            text.append(part.path("text").asText(""));
+        }
+        return text.length() > 0 ? text.toString() : null;
+    }
+
+    private void coolDownAfterFailure(GeminiKeyScheduler.Lease lease, Throwable ex) {
+        int idx = lease.index();
+        if (ex instanceof GeminiHttpException httpEx) {
+            lease.failed(cooldownFor(httpEx.statusCode, httpEx.body, idx));
+        } else {
+            lease.failed(null);
+            if (ex instanceof WebClientRequestException
+                    && (ex.getCause() instanceof UnknownHostException
+                            || String.valueOf(ex.getMessage()).contains("Failed to resolve"))) {
+                log.warn("DNS resolution failed for key {}: {}", idx, ex.getMessage());
+                consecutiveDnsFailures.incrementAndGet();
+                lastDnsFailureTime = Instant.now();
+                return;
+            }
+        }
+        log.warn("Gemini stream failed with key {}: {}", idx, ex.getMessage());
+    }
+
+    /**
+     * How long a key sits out after Gemini answered {@code status}, or null to keep it in
+     * rotation. A 429 honours the {@code retryDelay} Gemini sends with it.
+     */
+    private Duration cooldownFor(int status, String body, int idx) {
+        if (status == 429) {
+            Matcher retryDelay = RETRY_DELAY.matcher(body != null ? body : "");
+            return retryDelay.find()
+                    ? Duration.ofMillis((long) (Double.parseDouble(retryDelay.group(1)) * 1000))
+                    : Duration.ofSeconds(60);
+        }
+        if (status == 401 || status == 403) {
+            log.error("Key {} invalid, cooling down for 10 min", idx);
+            return Duration.ofMinutes(10);
+        }
+        if (status >= 500) {
+            return Duration.ofSeconds(5);
+        }
+        return null;
+    }
+
+    /**
+     * Rough prompt size for the per-minute token quota, about four characters per token;
+     * corrected from {@code usageMetadata} once Gemini answers.
+     */
+    private static int estimateTokens(Prompt prompt) {
+        long chars = length(prompt.instructions()) + length(prompt.context());
+        for (ConversationTurn turn : prompt.history()) {
+            chars += length(turn.text());
+        }
+        return (int) Math.min(chars / 4 + 1, Integer.MAX_VALUE);
+    }
+
+    private static int length(String text) {
+        return text != null ? text.length() : 0;
+    }
+
+    /**
+     * Request for {@code apiKey}: the instructions are referenced through the key's cached
+     * content when there is one, otherwise they are sent inline ahead of the context.
+     */
+    private Mono<GeminiRequest> buildRequest(String apiKey, Prompt prompt) {
+        return geminiContextCache.cachedContentName(apiKey, model, prompt.instructions())
+                .map(cachedContent -> buildRequest(prompt.history(), prompt.context(), cachedContent))
+                .switchIfEmpty(Mono.fromSupplier(() -> buildRequest(prompt.history(),
+                        joinPrompt(prompt.instructions(), prompt.context()), null)));
+    }
+
+    private GeminiRequest buildRequest(List<ConversationTurn> history, String systemPrompt, String cachedContent) {
+        List<GeminiContent> contents = new ArrayList<>();
+
+        if (StringUtils.hasText(systemPrompt)) {
+            contents.add(new GeminiContent("user", List.of(new GeminiPart(systemPrompt))));
+            contents.add(new GeminiContent("model",
+                    List.of(new GeminiPart("Understood. I will follow these instructions."))));
+        }
+
+        for (ConversationTurn turn : history) {
+            String geminiRole = "user".equals(turn.role()) ? "user" : "model";
+            contents.add(new GeminiContent(geminiRole, List.of(new GeminiPart(turn.text()))));
+        }
+
+        return new GeminiRequest(
+                contents,
+                new GeminiGenerationConfig(0.2, "application/json"),
+                cachedContent);
+    }
+
+    private static String joinPrompt(String instructions, String context) {
+        if (!StringUtils.hasText(instructions)) {
+            return context;
+        }
+        return StringUtils.hasText(context) ? instructions + "\n\n" + context : instructions;
+    }
+
+    private void forgetStaleContextCache(String apiKey, GeminiRequest request, Prompt prompt, int status) {
+        // the cached content expired early or was deleted; the next call re-creates it
+        if (request != null && request.cachedContent() != null && (status == 400 || status == 404)) {
+            geminiContextCache.invalidate(apiKey, model, prompt.instructions());
+        }
+    }
+
+    private boolean inDnsCooldown() {
+        //  if we are in DNS failure cooldown
+        if (consecutiveDnsFailures.get() >= MAX_DNS_FAILURES) {
+            if (lastDnsFailureTime != null &&
+                    Duration.between(lastDnsFailureTime, Instant.now()).compareTo(DNS_COOLDOWN) < 0) {
+                log.warn("DNS resolution failing, skipping Gemini request (cooldown: {}s remaining)",
+                        DNS_COOLDOWN.getSeconds() - Duration.between(lastDnsFailureTime, Instant.now()).getSeconds());
+                return true;
+            }
+            // Reset after cooldown
+            consecutiveDnsFailures.set(0);
+            lastDnsFailureTime = null;
+        }
+        return false;
+    }
+
     private String generateWithSpringAi(List<ConversationTurn> history, String systemPrompt) {
         if (!useSpringAi) {
             return null;
@@ -381,13 +569,18 @@ public class GeminiClient {
     }
 
     public void clearCache() {
-        responseCache.clear();
+        llmResponseCache.clear();
     }
 
     public record ConversationTurn(String role, String text) {
     }
 
-    private record GeminiRequest(List<GeminiContent> contents, GeminiGenerationConfig generationConfig) {
+    private record Prompt(List<ConversationTurn> history, String instructions, String context) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private record GeminiRequest(List<GeminiContent> contents, GeminiGenerationConfig generationConfig,
+            String cachedContent) {
     }
 
     private record GeminiContent(String role, List<GeminiPart> parts) {
@@ -409,18 +602,4 @@ public class GeminiClient {
             this.body = body;
         }
     }
-
-    private static class CachedResponse {
-        final String response;
-        final Instant expiresAt;
-
-        CachedResponse(String response) {
-            this.response = response;
-            this.expiresAt = Instant.now().plus(CACHE_TTL);
-        }
-
-        boolean isExpired() {
-            return Instant.now().isAfter(expiresAt);
-        }
-    }
 }
\ No newline at end of file
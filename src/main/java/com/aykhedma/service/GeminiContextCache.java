@@ -0,0 +1,115 @@
+package com.aykhedma.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Uploads long, rarely changing instructions (the MCP tool schema, catalog and rules) once
+ * per API key as a Gemini {@code cachedContents} resource, so requests can reference it by
+ * name instead of re-sending the text. Creation failures (e.g. a prompt below the model's
+ * caching minimum) are remembered for a while and callers fall back to sending it inline.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class GeminiContextCache {
+
+    private static final Duration REFRESH_MARGIN = Duration.ofMinutes(1);
+    private static final Duration FAILURE_BACKOFF = Duration.ofMinutes(10);
+
+    private final WebClient geminiWebClient;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Value("${ai.gemini.context-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ai.gemini.context-cache.ttl:PT1H}")
+    private Duration ttl;
+
+    /**
+     * Name of the cached content holding {@code instructions} for {@code model} under
+     * {@code apiKey}, creating it when missing or about to expire; empty when unavailable.
+     */
+    public Mono<String> cachedContentName(String apiKey, String model, String instructions) {
+        if (!enabled || !StringUtils.hasText(instructions)) {
+            return Mono.empty();
+        }
+        Instant now = Instant.now();
+        entries.values().removeIf(entry -> entry.refreshAt().isBefore(now.minus(ttl)));
+
+        String key = cacheKey(apiKey, model, instructions);
+        return entries.compute(key, (k, current) -> current != null && current.refreshAt().isAfter(now)
+                ? current
+                : create(k, apiKey, model, instructions, now)).name();
+    }
+
+    /**
+     * Forgets the cached content for these instructions, e.g. after Gemini reported it gone.
+     */
+    public void invalidate(String apiKey, String model, String instructions) {
+        if (StringUtils.hasText(instructions)) {
+            entries.remove(cacheKey(apiKey, model, instructions));
+        }
+    }
+
+    private Entry create(String key, String apiKey, String model, String instructions, Instant now) {
+        Map<String, Object> body = Map.of(
+                "model", "models/" + model,
+                "systemInstruction", Map.of("parts", List.of(Map.of("text", instructions))),
+                "ttl", ttl.toSeconds() + "s");
+
+        Instant refreshAt = now.plus(ttl).minus(REFRESH_MARGIN);
+        Mono<String> name = geminiWebClient
+                .post()
+                .uri("/cachedContents")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-goog-api-key", apiKey)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(Duration.ofSeconds(30))
+                .mapNotNull(response -> StringUtils.hasText(response.path("name").asText(null))
+                        ? response.path("name").asText()
+                        : null)
+                .doOnNext(contentName -> log.info("Created Gemini cached content {}", contentName))
+                .onErrorResume(ex -> {
+                    log.warn("Could not create Gemini cached content, sending instructions inline: {}",
+                            ex.getMessage());
+                    return Mono.empty();
+                })
+                .doOnSuccess(contentName -> {
+                    if (contentName == null) {
+                        entries.computeIfPresent(key, (k, entry) -> entry.refreshAt().equals(refreshAt)
+                                ? new Entry(Mono.empty(), Instant.now().plus(FAILURE_BACKOFF))
+                                : entry);
+                    }
+                })
+                // concurrent callers share one upload
+                .cache();
+        return new Entry(name, refreshAt);
+    }
+
+    private static String cacheKey(String apiKey, String model, String instructions) {
+        return apiKey + ":" + model + ":"
+                + DigestUtils.md5DigestAsHex(instructions.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record Entry(Mono<String> name, Instant refreshAt) {
+    }
+}
@@ -0,0 +1,320 @@
+package com.aykhedma.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out Gemini API keys. Each key has request and token buckets refilled at its
+ * per-minute quota, an in-flight count, a latency average and an optional cooldown.
+ * The least loaded key with quota left is chosen; when every key is exhausted, callers
+ * wait in line until one refills or the wait deadline passes. Per-key utilization is
+ * published as {@code ai.gemini.key.*} gauges tagged with the key's position.
+ */
+@Component
+@Slf4j
+public class GeminiKeyScheduler {
+
+    private static final double LATENCY_SMOOTHING = 0.2;
+    private static final long DEFAULT_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final MeterRegistry meterRegistry;
+    private final int requestsPerMinute;
+    private final int tokensPerMinute;
+    private final Duration maxWait;
+    private final LongSupplier nanoTime;
+
+    private final Map<String, KeyState> keys = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition capacityFreed = lock.newCondition();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Counter waitTimeouts;
+
+    @Autowired
+    public GeminiKeyScheduler(MeterRegistry meterRegistry,
+            @Value("${ai.gemini.keys.requests-per-minute:10}") int requestsPerMinute,
+            @Value("${ai.gemini.keys.tokens-per-minute:250000}") int tokensPerMinute,
+            @Value("${ai.gemini.keys.max-wait:PT10S}") Duration maxWait) {
+        this(meterRegistry, requestsPerMinute, tokensPerMinute, maxWait, System::nanoTime);
+    }
+
+    GeminiKeyScheduler(MeterRegistry meterRegistry, int requestsPerMinute, int tokensPerMinute,
+            Duration maxWait, LongSupplier nanoTime) {
+        this.meterRegistry = meterRegistry;
+        this.requestsPerMinute = requestsPerMinute;
+        this.tokensPerMinute = tokensPerMinute;
+        this.maxWait = maxWait;
+        this.nanoTime = nanoTime;
+        this.waitTimeouts = Counter.builder("ai.gemini.keys.wait.timeouts").register(meterRegistry);
+        Gauge.builder("ai.gemini.keys.waiting", waiting, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Takes the best key in {@code apiKeys} that is not in {@code exclude}, waiting up to the
+     * configured deadline for quota or a cooldown to free up. Returns null when the deadline
+     * passes or every key is excluded.
+     */
+    public Lease acquire(List<String> apiKeys, Collection<String> exclude, int estimatedTokens) {
+        long deadline = nanoTime.getAsLong() + maxWait.toNanos();
+        lock.lock();
+        try {
+            while (true) {
+                long now = nanoTime.getAsLong();
+                Lease lease = pick(apiKeys, exclude, estimatedTokens, now);
+                if (lease != null) {
+                    return lease;
+                }
+                long untilAvailable = nanosUntilAvailable(apiKeys, exclude, estimatedTokens, now);
+                long remaining = deadline - now;
+                if (untilAvailable < 0) {
+                    return null;
+                }
+                if (remaining <= 0 || untilAvailable > remaining) {
+                    waitTimeouts.increment();
+                    log.warn("No Gemini API key frees up within {}", maxWait);
+                    return null;
+                }
+                waiting.incrementAndGet();
+                try {
+                    capacityFreed.awaitNanos(Math.max(untilAvailable, 1));
+                } finally {
+                    waiting.decrementAndGet();
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Like {@link #acquire}, but returns null at once instead of waiting.
+     */
+    public Lease tryAcquire(List<String> apiKeys, Collection<String> exclude, int estimatedTokens) {
+        lock.lock();
+        try {
+            return pick(apiKeys, exclude, estimatedTokens, nanoTime.getAsLong());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Lease pick(List<String> apiKeys, Collection<String> exclude, int estimatedTokens, long now) {
+        KeyState best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (int i = 0; i < apiKeys.size(); i++) {
+            String apiKey = apiKeys.get(i);
+            if (exclude.contains(apiKey)) {
+                continue;
+            }
+            KeyState state = state(apiKey, i);
+            if (state.nanosUntilAvailable(estimatedTokens, now) > 0) {
+                continue;
+            }
+            // expected wait behind the key's own in-flight calls, favouring spare quota on ties
+            double score = (state.inFlight.get() + 1) * (double) state.latencyNanos
+                    / (1 + state.requests.available(now));
+            if (score < bestScore) {
+                best = state;
+                bestScore = score;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        int tokens = Math.min(Math.max(estimatedTokens, 1), tokensPerMinute);
+        best.requests.take(1, now);
+        best.tokens.take(tokens, now);
+        best.inFlight.incrementAndGet();
+        return new Lease(best, tokens, now);
+    }
+
+    private long nanosUntilAvailable(List<String> apiKeys, Collection<String> exclude, int estimatedTokens,
+            long now) {
+        long soonest = -1;
+        for (int i = 0; i < apiKeys.size(); i++) {
+            String apiKey = apiKeys.get(i);
+            if (!exclude.contains(apiKey)) {
+                long wait = state(apiKey, i).nanosUntilAvailable(estimatedTokens, now);
+                soonest = soonest < 0 ? wait : Math.min(soonest, wait);
+            }
+        }
+        return soonest;
+    }
+
+    private KeyState state(String apiKey, int index) {
+        return keys.computeIfAbsent(apiKey, k -> new KeyState(k, index));
+    }
+
+    private void signalCapacity() {
+        lock.lock();
+        try {
+            capacityFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * One call's hold on a key. Finish it with {@link #succeeded} or {@link #failed};
+     * {@link #release} only gives the in-flight slot back and is safe to repeat.
+     */
+    public final class Lease {
+
+        private final KeyState state;
+        private final int reservedTokens;
+        private final long startedAt;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(KeyState state, int reservedTokens, long startedAt) {
+            this.state = state;
+            this.reservedTokens = reservedTokens;
+            this.startedAt = startedAt;
+        }
+
+        public String apiKey() {
+            return state.apiKey;
+        }
+
+        public int index() {
+            return state.index;
+        }
+
+        /**
+         * Records the call's latency and clears any cooldown. {@code totalTokens} replaces
+         * the estimate charged to the key when the response reported it (0 when unknown).
+         */
+        public void succeeded(int totalTokens) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            long now = nanoTime.getAsLong();
+            state.recordLatency(now - startedAt);
+            state.cooldownUntil = 0;
+            if (totalTokens > 0) {
+                state.tokens.take(totalTokens - reservedTokens, now);
+            }
+            state.inFlight.decrementAndGet();
+            signalCapacity();
+        }
+
+        /**
+         * Gives the key back, keeping it out of rotation for {@code cooldown} when set.
+         */
+        public void failed(Duration cooldown) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            if (cooldown != null && !cooldown.isZero()) {
+                state.cooldownUntil = nanoTime.getAsLong() + cooldown.toNanos();
+                state.cooldowns.increment();
+            }
+            state.inFlight.decrementAndGet();
+            signalCapacity();
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                state.inFlight.decrementAndGet();
+                signalCapacity();
+            }
+        }
+    }
+
+    private final class KeyState {
+
+        final String apiKey;
+        final int index;
+        final TokenBucket requests = new TokenBucket(requestsPerMinute);
+        final TokenBucket tokens = new TokenBucket(tokensPerMinute);
+        final AtomicInteger inFlight = new AtomicInteger();
+        final Counter cooldowns;
+        volatile long latencyNanos = DEFAULT_LATENCY_NANOS;
+        volatile long cooldownUntil;
+
+        KeyState(String apiKey, int index) {
+            this.apiKey = apiKey;
+            this.index = index;
+            String key = "key-" + index;
+            this.cooldowns = Counter.builder("ai.gemini.key.cooldowns").tag("key", key).register(meterRegistry);
+            Gauge.builder("ai.gemini.key.in_flight", inFlight, AtomicInteger::get)
+                    .tag("key", key).register(meterRegistry);
+            Gauge.builder("ai.gemini.key.requests.utilization", this,
+                            s -> s.requests.utilization(nanoTime.getAsLong()))
+                    .tag("key", key).register(meterRegistry);
+            Gauge.builder("ai.gemini.key.tokens.utilization", this,
+                            s -> s.tokens.utilization(nanoTime.getAsLong()))
+                    .tag("key", key).register(meterRegistry);
+            Gauge.builder("ai.gemini.key.latency", this, s -> s.latencyNanos / 1_000_000.0)
+                    .tag("key", key).baseUnit("milliseconds").register(meterRegistry);
+        }
+
+        long nanosUntilAvailable(int estimatedTokens, long now) {
+            int tokensNeeded = Math.min(Math.max(estimatedTokens, 1), tokensPerMinute);
+            long cooldown = Math.max(cooldownUntil - now, 0);
+            return Math.max(cooldown, Math.max(requests.nanosUntil(1, now), tokens.nanosUntil(tokensNeeded, now)));
+        }
+
+        void recordLatency(long nanos) {
+            latencyNanos = (long) (latencyNanos * (1 - LATENCY_SMOOTHING) + nanos * LATENCY_SMOOTHING);
+        }
+    }
+
+    /**
+     * Quota that refills continuously to {@code perMinute} over a minute. Calls that run
+     * over quota (more tokens than estimated) leave it negative until it refills.
+     */
+    private static final class TokenBucket {
+
+        private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+        private final double capacity;
+        private double available;
+        private long refilledAt = Long.MIN_VALUE;
+
+        TokenBucket(int perMinute) {
+            this.capacity = Math.max(perMinute, 1);
+            this.available = capacity;
+        }
+
+        synchronized double available(long now) {
+            if (refilledAt == Long.MIN_VALUE) {
+                refilledAt = now;
+            }
+            available = Math.min(capacity, available + (now - refilledAt) * capacity / MINUTE_NANOS);
+            refilledAt = now;
+            return available;
+        }
+
+        synchronized void take(double amount, long now) {
+            available = available(now) - amount;
+        }
+
+        synchronized long nanosUntil(double amount, long now) {
+            double missing = amount - available(now);
+            return missing <= 0 ? 0 : (long) Math.ceil(missing * MINUTE_NANOS / capacity);
+        }
+
+        synchronized double utilization(long now) {
+            return 1 - Math.max(available(now), 0) / capacity;
+        }
+    }
+}
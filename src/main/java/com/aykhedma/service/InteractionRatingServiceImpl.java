@@ -11,6 +11,7 @@ import com.aykhedma.model.user.Provider;
 import com.aykhedma.repository.ConsumerRepository;
 import com.aykhedma.repository.InteractionRatingRepository;
 import com.aykhedma.repository.ProviderRepository;
+import com.aykhedma.service.rating.RatingAggregateService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,6 +27,7 @@ public class InteractionRatingServiceImpl implements InteractionRatingService {
     private final ConsumerRepository consumerRepository;
     private final InteractionRatingMapper interactionRatingMapper;
     private final NotificationFactory notificationFactory;
+    private final RatingAggregateService ratingAggregateService;
 
     @Override
     @Transactional
@@ -46,7 +48,7 @@ public class InteractionRatingServiceImpl implements InteractionRatingService {
         InteractionRating savedRating = interactionRatingRepository.save(rating);
 
         // Update provider interaction metrics
-        updateProviderInteractionMetrics(provider, request.getRating().doubleValue());
+        ratingAggregateService.recordInteractionRating(provider, request.getRating().doubleValue());
 
         try {
             notificationFactory.send(provider.getId(),
@@ -72,16 +74,4 @@ public class InteractionRatingServiceImpl implements InteractionRatingService {
         List<InteractionRating> ratings = interactionRatingRepository.findByProviderId(providerId);
         return interactionRatingMapper.toResponseList(ratings);
     }
-
-    private void updateProviderInteractionMetrics(Provider provider, double newRating) {
-        int oldCount = provider.getInteractionRatingCount() != null ? provider.getInteractionRatingCount() : 0;
-        double oldAvg = provider.getAverageInteractionRating() != null ? provider.getAverageInteractionRating() : 0.0;
-
-        int newCount = oldCount + 1;
-        double newAvg = ((oldAvg * oldCount) + newRating) / newCount;
-
-        provider.setInteractionRatingCount(newCount);
-        provider.setAverageInteractionRating(Math.round(newAvg * 10.0) / 10.0);
-        providerRepository.save(provider);
-    }
 }
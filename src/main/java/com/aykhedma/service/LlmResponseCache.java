@@ -0,0 +1,95 @@
+package com.aykhedma.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Model answers keyed by what was asked rather than by the exact prompt, e.g. a first
+ * chatbot message normalized together with the day, the user's location cell and role.
+ * Entries expire after the TTL and the least recently used are dropped past
+ * {@link #MAX_ENTRIES}. Lookups are counted in {@code ai.llm.cache.requests} by result.
+ */
+@Component
+public class LlmResponseCache {
+
+    public static final int MAX_ENTRIES = 5_000;
+
+    private final Duration ttl;
+    private final Clock clock;
+    private final Counter hits;
+    private final Counter misses;
+
+    private final Map<String, Entry> entries = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            });
+
+    @Autowired
+    public LlmResponseCache(MeterRegistry meterRegistry, @Value("${ai.llm-cache.ttl:PT10M}") Duration ttl) {
+        this(meterRegistry, ttl, Clock.systemUTC());
+    }
+
+    LlmResponseCache(MeterRegistry meterRegistry, Duration ttl, Clock clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+        this.hits = Counter.builder("ai.llm.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("ai.llm.cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("ai.llm.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    public String get(String key) {
+        if (key == null) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt().isAfter(clock.instant())) {
+            hits.increment();
+            return entry.response();
+        }
+        if (entry != null) {
+            entries.remove(key);
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(String key, String response) {
+        if (key != null && response != null) {
+            entries.put(key, new Entry(response, clock.instant().plus(ttl)));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ai.llm-cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        Instant now = clock.instant();
+        synchronized (entries) {
+            entries.values().removeIf(entry -> !entry.expiresAt().isAfter(now));
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private record Entry(String response, Instant expiresAt) {
+    }
+}
@@ -2,6 +2,7 @@ package com.aykhedma.service;
 
 import com.aykhedma.dto.location.LocationDTO;
 import com.aykhedma.dto.request.ProviderProfileRequest;
+import com.aykhedma.dto.request.RecurringScheduleRequest;
 import com.aykhedma.dto.request.WorkingDayRequest;
 import com.aykhedma.dto.response.*;
 import com.aykhedma.model.booking.Booking;
@@ -51,6 +52,8 @@ public interface ProviderService {
 
         ScheduleResponse updateWorkingDay(Long providerId, Long workingDayId, WorkingDayRequest request);
 
+        RecurringScheduleResponse generateRecurringSchedule(Long providerId, RecurringScheduleRequest request);
+
         WeeklyScheduleResponse getWeeklySchedule(Long providerId);
 
         ScheduleResponse getSchedule(Long providerId);
@@ -85,6 +88,9 @@ public interface ProviderService {
 
         List<ScheduleResponse.TimeSlotResponse> getUpcomingAvailableSlots(Long providerId, Integer days);
 
+        List<ProviderSummaryResponse> findAvailableProviders(Long serviceTypeId, LocalDate date, LocalTime startTime,
+                        Integer durationMinutes, Long consumerId, Double radius);
+
         // Documents
         DocumentResponse uploadDocument(Long providerId, MultipartFile file, String documentType) throws IOException;
 
@@ -2,6 +2,7 @@ package com.aykhedma.service;
 
 import com.aykhedma.dto.location.LocationDTO;
 import com.aykhedma.dto.request.ProviderProfileRequest;
+import com.aykhedma.dto.request.RecurringScheduleRequest;
 import com.aykhedma.dto.request.WorkingDayRequest;
 import com.aykhedma.dto.response.*;
 import com.aykhedma.exception.BadRequestException;
@@ -25,6 +26,10 @@ import com.aykhedma.model.user.VerificationStatus;
 import com.aykhedma.repository.*;
 import com.aykhedma.service.FileStorageService;
 import com.aykhedma.service.ProviderService;
+import com.aykhedma.service.availability.AvailabilityEngine;
+import com.aykhedma.service.availability.ProviderAvailabilityIndex;
+import com.aykhedma.service.rating.RatingAggregateService;
+import com.aykhedma.service.stats.ProviderBookingStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -54,6 +59,7 @@ public class ProviderServiceImpl implements ProviderService {
 
     private static final int SLOT_STEP_MINUTES = 30;
     private static final long BUFFER_MINUTES = 30L;
+    private static final int MAX_RECURRING_DAYS = 180;
 
     private final ProviderRepository providerRepository;
     private final ServiceTypeRepository serviceTypeRepository;
@@ -66,6 +72,10 @@ public class ProviderServiceImpl implements ProviderService {
     private final ScheduleMapper scheduleMapper;
     private final FileStorageService fileStorageService;
     private final LocationService locationService;
+    private final AvailabilityEngine availabilityEngine;
+    private final ProviderAvailabilityIndex providerAvailabilityIndex;
+    private final RatingAggregateService ratingAggregateService;
+    private final ProviderBookingStatsService providerBookingStatsService;
 
     @Override
     public ProviderResponse getProviderProfile(Long providerId) {
@@ -412,8 +422,8 @@ public Page<SearchResponse> topRatedNearMe(
         }
 
         // working day already exists for this specific date?
-        boolean exists = schedule.getWorkingDays().stream()
-                .anyMatch(wd -> wd.getDate().equals(request.getDate()));
+        boolean exists = schedule.getId() != null
+                && workingDayRepository.existsByScheduleIdAndDate(schedule.getId(), request.getDate());
 
         if (exists) {
             throw new BadRequestException("Working day already configured for date: " + request.getDate());
@@ -430,12 +440,107 @@ public Page<SearchResponse> topRatedNearMe(
         schedule.getWorkingDays().add(workingDay);
 
         generateTimeSlotsForSpecificDate(schedule, workingDay);
+        availabilityEngine.invalidate(schedule.getId(), workingDay.getDate());
 
         providerRepository.save(provider);
 
         return scheduleMapper.toScheduleResponse(schedule);
     }
 
+    @Override
+    public RecurringScheduleResponse generateRecurringSchedule(Long providerId, RecurringScheduleRequest request) {
+        Provider provider = providerRepository.findById(providerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Provider not found"));
+
+        LocalDate startDate = request.getStartDate();
+        LocalDate endDate = request.getEndDate();
+        if (startDate.isBefore(LocalDate.now())) {
+            throw new BadRequestException("Cannot set working days for past dates");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new BadRequestException("End date must not be before start date");
+        }
+        if (startDate.plusDays(MAX_RECURRING_DAYS).isBefore(endDate)) {
+            throw new BadRequestException("Recurring schedule can cover at most " + MAX_RECURRING_DAYS + " days");
+        }
+
+        Map<DayOfWeek, RecurringScheduleRequest.WeeklyHours> template = new EnumMap<>(DayOfWeek.class);
+        for (RecurringScheduleRequest.WeeklyHours hours : request.getWeeklyHours()) {
+            if (!hours.getStartTime().isBefore(hours.getEndTime())) {
+                throw new BadRequestException("Start time must be before end time for " + hours.getDayOfWeek());
+            }
+            if (template.put(hours.getDayOfWeek(), hours) != null) {
+                throw new BadRequestException("Working hours given twice for " + hours.getDayOfWeek());
+            }
+        }
+
+        Schedule schedule = provider.getSchedule();
+        if (schedule == null) {
+            schedule = Schedule.builder()
+                    .workingDays(new ArrayList<>())
+                    .timeSlots(new ArrayList<>())
+                    .build();
+            provider.setSchedule(schedule);
+            providerRepository.saveAndFlush(provider);
+        }
+        Long scheduleId = schedule.getId();
+
+        // serialize with bookings and other schedule edits of this provider
+        availabilityEngine.claim(scheduleId);
+
+        Set<LocalDate> exceptions = request.getExceptions() == null
+                ? Set.of()
+                : new HashSet<>(request.getExceptions());
+        Set<LocalDate> configured = new HashSet<>(
+                workingDayRepository.findConfiguredDates(scheduleId, startDate, endDate));
+
+        List<WorkingDay> toCreate = new ArrayList<>();
+        int skippedExisting = 0;
+        int skippedExceptions = 0;
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            RecurringScheduleRequest.WeeklyHours hours = template.get(date.getDayOfWeek());
+            if (hours == null) {
+                continue;
+            }
+            if (exceptions.contains(date)) {
+                skippedExceptions++;
+            } else if (configured.contains(date)) {
+                skippedExisting++;
+            } else {
+                toCreate.add(WorkingDay.builder()
+                        .date(date)
+                        .startTime(hours.getStartTime())
+                        .endTime(hours.getEndTime())
+                        .build());
+            }
+        }
+
+        // the inserts re-check existence, so a day configured concurrently reports 0 rows
+        int[] insertCounts = workingDayRepository.insertWorkingDaysWithSlots(scheduleId, toCreate);
+        List<LocalDate> createdDates = new ArrayList<>();
+        for (int i = 0; i < toCreate.size(); i++) {
+            LocalDate date = toCreate.get(i).getDate();
+            availabilityEngine.invalidate(scheduleId, date);
+            if (insertCounts[i] > 0) {
+                createdDates.add(date);
+            } else {
+                skippedExisting++;
+            }
+        }
+
+        log.info("Recurring schedule for provider {}: {} days created, {} existing, {} exceptions ({} - {})",
+                providerId, createdDates.size(), skippedExisting, skippedExceptions, startDate, endDate);
+
+        return RecurringScheduleResponse.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .createdDays(createdDates.size())
+                .skippedExistingDays(skippedExisting)
+                .skippedExceptionDays(skippedExceptions)
+                .createdDates(createdDates)
+                .build();
+    }
+
     /**
      * Generate time slots for a specific date only
      **/
@@ -443,8 +548,8 @@ public Page<SearchResponse> topRatedNearMe(
         LocalDate targetDate = workingDay.getDate();
 
         // check if slot already exists for this date
-        boolean exists = schedule.getTimeSlots().stream()
-                .anyMatch(slot -> slot.getDate().equals(targetDate));
+        boolean exists = schedule.getId() != null
+                && timeSlotRepository.existsByScheduleIdAndDate(schedule.getId(), targetDate);
 
         if (!exists) {
             TimeSlot timeSlot = TimeSlot.builder()
@@ -485,6 +590,7 @@ public Page<SearchResponse> topRatedNearMe(
 
         workingDayRepository.delete(workingDay);
         provider.getSchedule().getWorkingDays().remove(workingDay);
+        availabilityEngine.invalidate(provider.getSchedule().getId(), targetDate);
 
         return scheduleMapper.toScheduleResponse(provider.getSchedule());
     }
@@ -518,14 +624,16 @@ public Page<SearchResponse> topRatedNearMe(
         }
 
         // Check if another working day exists for this date (excluding current)
-        boolean exists = provider.getSchedule().getWorkingDays().stream()
+        boolean exists = workingDayRepository.findByScheduleIdAndDate(provider.getSchedule().getId(), request.getDate())
                 .filter(wd -> !wd.getId().equals(workingDayId))
-                .anyMatch(wd -> wd.getDate().equals(request.getDate()));
+                .isPresent();
 
         if (exists) {
             throw new BadRequestException("Another working day already configured for date: " + request.getDate());
         }
 
+        LocalDate previousDate = workingDay.getDate();
+
         // Update the working day
         workingDay.setDate(request.getDate());
         workingDay.setStartTime(request.getStartTime());
@@ -535,6 +643,8 @@ public Page<SearchResponse> topRatedNearMe(
 
         // Remove old time slot and create new one
         regenerateTimeSlotForSpecificDate(provider.getSchedule(), workingDay);
+        availabilityEngine.invalidate(provider.getSchedule().getId(), previousDate);
+        availabilityEngine.invalidate(provider.getSchedule().getId(), workingDay.getDate());
 
         providerRepository.save(provider);
 
@@ -665,8 +775,7 @@ public Page<SearchResponse> topRatedNearMe(
         if (provider.getSchedule() == null) {
             return List.of();
         }
-        List<TimeSlot> slots = timeSlotRepository.findByScheduleIdAndDateAndStatus(
-                provider.getSchedule().getId(), date, TimeSlotStatus.AVAILABLE);
+        List<TimeSlot> slots = availabilityEngine.availableSlots(provider.getSchedule().getId(), date);
 
         return toDiscreteStartTimeResponses(slots, date);
     }
@@ -761,6 +870,7 @@ public Page<SearchResponse> topRatedNearMe(
                     booking.getRequestedStartTime());
             boolean applyPenalty = now.isAfter(bookingStartTime.minusHours(2));
 
+            BookingStatus previousStatus = booking.getStatus();
             booking.setStatus(BookingStatus.CANCELLED);
             booking.setCancelledAt(now);
             booking.setCancelledBy("P");
@@ -770,15 +880,14 @@ public Page<SearchResponse> topRatedNearMe(
             }
 
             bookingRepository.save(booking);
+            providerBookingStatsService.recordTransition(booking, previousStatus, BookingStatus.CANCELLED);
 
             Provider provider = booking.getProvider();
             provider.setCancelledBookings(
                     (provider.getCancelledBookings() != null ? provider.getCancelledBookings() : 0) + 1);
 
             if (applyPenalty) {
-                double currentRating = provider.getAverageRating() != null ? provider.getAverageRating() : 0.0;
-                double newRating = Math.max(0.0, currentRating - 0.2);
-                provider.setAverageRating(Math.round(newRating * 10.0) / 10.0);
+                ratingAggregateService.applyCancellationPenalty(provider, 0.2);
             }
             providerRepository.save(provider);
         } else {
@@ -803,80 +912,8 @@ public Page<SearchResponse> topRatedNearMe(
             LocalTime bookingEnd,
             long bufferMinutes,
             boolean applyPostBuffer) {
-        List<TimeSlot> availableSlots = timeSlotRepository
-                .findByScheduleIdAndDateAndStatus(scheduleId, date, TimeSlotStatus.AVAILABLE)
-                .stream()
-                .sorted(Comparator.comparing(TimeSlot::getStartTime))
-                .toList();
-
-        TimeSlot containingSlot = availableSlots.stream()
-                .filter(slot -> !bookingStart.isBefore(slot.getStartTime())
-                        && !bookingEnd.isAfter(slot.getEndTime()))
-                .findFirst()
-                .orElseThrow(() -> new BadRequestException("Selected start time with duration is not available"));
-
-        LocalTime blockedStart = maxTime(containingSlot.getStartTime(), bookingStart.minusMinutes(bufferMinutes));
-        LocalTime blockedEnd = applyPostBuffer ? bookingEnd.plusMinutes(bufferMinutes) : bookingEnd;
-
-        timeSlotRepository.delete(containingSlot);
-
-        List<TimeSlot> slotsToSave = new ArrayList<>();
-
-        if (containingSlot.getStartTime().isBefore(blockedStart)) {
-            slotsToSave.add(TimeSlot.builder()
-                    .date(date)
-                    .startTime(containingSlot.getStartTime())
-                    .endTime(blockedStart)
-                    .status(TimeSlotStatus.AVAILABLE)
-                    .schedule(containingSlot.getSchedule())
-                    .build());
-        }
-
-        if (blockedStart.isBefore(bookingStart)) {
-            slotsToSave.add(TimeSlot.builder()
-                    .date(date)
-                    .startTime(blockedStart)
-                    .endTime(bookingStart)
-                    .status(TimeSlotStatus.UNAVAILABLE)
-                    .schedule(containingSlot.getSchedule())
-                    .build());
-        }
-
-        TimeSlot bookedSlot = TimeSlot.builder()
-                .date(date)
-                .startTime(bookingStart)
-                .endTime(bookingEnd)
-                .status(TimeSlotStatus.BOOKED)
-                .schedule(containingSlot.getSchedule())
-                .build();
-        slotsToSave.add(bookedSlot);
-
-        if (bookingEnd.isBefore(blockedEnd)) {
-            slotsToSave.add(TimeSlot.builder()
-                    .date(date)
-                    .startTime(bookingEnd)
-                    .endTime(blockedEnd)
-                    .status(TimeSlotStatus.UNAVAILABLE)
-                    .schedule(containingSlot.getSchedule())
-                    .build());
-        }
-
-        if (blockedEnd.isBefore(containingSlot.getEndTime())) {
-            slotsToSave.add(TimeSlot.builder()
-                    .date(date)
-                    .startTime(blockedEnd)
-                    .endTime(containingSlot.getEndTime())
-                    .status(TimeSlotStatus.AVAILABLE)
-                    .schedule(containingSlot.getSchedule())
-                    .build());
-        }
-
-        List<TimeSlot> savedSlots = timeSlotRepository.saveAll(slotsToSave);
-
-        return savedSlots.stream()
-                .filter(slot -> slot.getStatus() == TimeSlotStatus.BOOKED)
-                .findFirst()
-                .orElseThrow(() -> new BadRequestException("Failed to reserve booked time slot"));
+        return availabilityEngine.reserve(scheduleId, date, bookingStart, bookingEnd, bufferMinutes,
+                applyPostBuffer);
     }
 
     @Override
@@ -889,68 +926,18 @@ public Page<SearchResponse> topRatedNearMe(
 
     @Override
     public void restoreAvailabilityForCancelledBooking(Booking booking) {
-        if (booking.getTimeSlot() == null) {
+        TimeSlot bookedSlot = booking.getTimeSlot();
+        if (bookedSlot == null) {
             return;
         }
 
-        TimeSlot bookedSlot = timeSlotRepository.findById(booking.getTimeSlot().getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Booked time slot not found"));
-
-        List<TimeSlot> daySlots = timeSlotRepository.findByScheduleIdAndDate(
-                bookedSlot.getSchedule().getId(),
-                bookedSlot.getDate());
-
-        LocalTime bookingStart = bookedSlot.getStartTime();
-        LocalTime bookingEnd = bookedSlot.getEndTime();
-
-        daySlots.stream()
-                .filter(slot -> slot.getStatus() == TimeSlotStatus.UNAVAILABLE)
-                .filter(slot -> slot.getEndTime().equals(bookingStart) || slot.getStartTime().equals(bookingEnd))
-                .forEach(slot -> slot.setStatus(TimeSlotStatus.AVAILABLE));
-
-        bookedSlot.setStatus(TimeSlotStatus.AVAILABLE);
         booking.setTimeSlot(null);
-
-        timeSlotRepository.saveAll(daySlots);
-        mergeContiguousAvailableSlots(bookedSlot.getSchedule().getId(), bookedSlot.getDate());
+        availabilityEngine.release(bookedSlot);
     }
 
     @Override
     public void mergeContiguousAvailableSlots(Long scheduleId, LocalDate date) {
-        List<TimeSlot> allDaySlots = timeSlotRepository.findByScheduleIdAndDate(scheduleId, date)
-                .stream()
-                .sorted(Comparator.comparing(TimeSlot::getStartTime))
-                .toList();
-
-        List<TimeSlot> availableSlots = allDaySlots.stream()
-                .filter(slot -> slot.getStatus() == TimeSlotStatus.AVAILABLE)
-                .sorted(Comparator.comparing(TimeSlot::getStartTime))
-                .toList();
-
-        if (availableSlots.size() < 2) {
-            return;
-        }
-
-        List<TimeSlot> slotsToDelete = new ArrayList<>();
-        TimeSlot current = availableSlots.get(0);
-
-        for (int i = 1; i < availableSlots.size(); i++) {
-            TimeSlot next = availableSlots.get(i);
-
-            if (!next.getStartTime().isAfter(current.getEndTime())) {
-                if (next.getEndTime().isAfter(current.getEndTime())) {
-                    current.setEndTime(next.getEndTime());
-                }
-                slotsToDelete.add(next);
-            } else {
-                current = next;
-            }
-        }
-
-        if (!slotsToDelete.isEmpty()) {
-            timeSlotRepository.saveAll(availableSlots);
-            timeSlotRepository.deleteAll(slotsToDelete);
-        }
+        availabilityEngine.merge(scheduleId, date);
     }
 
     @Override
@@ -974,11 +961,10 @@ public Page<SearchResponse> topRatedNearMe(
         LocalDate today = LocalDate.now();
         LocalDate endDate = today.plusDays(days);
 
-        List<TimeSlot> availableSlots = timeSlotRepository.findByScheduleIdAndDateBetweenAndStatus(
+        List<TimeSlot> availableSlots = availabilityEngine.availableSlots(
                 provider.getSchedule().getId(),
                 today,
-                endDate,
-                TimeSlotStatus.AVAILABLE);
+                endDate);
 
         return toDiscreteStartTimeResponses(availableSlots, null).stream()
                 .sorted(Comparator
@@ -987,6 +973,48 @@ public Page<SearchResponse> topRatedNearMe(
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProviderSummaryResponse> findAvailableProviders(Long serviceTypeId, LocalDate date,
+            LocalTime startTime, Integer durationMinutes, Long consumerId, Double radius) {
+        if (serviceTypeId == null || date == null) {
+            throw new BadRequestException("Service type and date are required");
+        }
+        if (date.isBefore(LocalDate.now())) {
+            throw new BadRequestException("Date must be today or a future date");
+        }
+        validateHalfHourBoundary(startTime);
+        if (date.isEqual(LocalDate.now()) && startTime.isBefore(LocalTime.now())) {
+            throw new BadRequestException("Start time must be in the future");
+        }
+
+        int duration = durationMinutes == null || durationMinutes <= 0 ? SLOT_STEP_MINUTES : durationMinutes;
+        LocalTime endTime = startTime.plusMinutes(duration);
+        if (!endTime.isAfter(startTime)) {
+            throw new BadRequestException("Duration must end on the same day");
+        }
+
+        List<Long> freeIds = providerAvailabilityIndex.findAvailableProviderIds(serviceTypeId, date, startTime,
+                endTime);
+        if (freeIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> orderedIds = consumerId != null
+                ? providerRepository.findBookableIdsNearConsumer(freeIds, consumerId,
+                        (radius != null ? radius : 10.0) * 1000)
+                : providerRepository.findBookableIdsIn(freeIds);
+
+        Map<Long, Provider> providersById = providerRepository.findAllById(orderedIds).stream()
+                .collect(Collectors.toMap(Provider::getId, p -> p));
+
+        return orderedIds.stream()
+                .map(providersById::get)
+                .filter(Objects::nonNull)
+                .map(providerMapper::toProviderSummaryResponse)
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ScheduleResponse.TimeSlotResponse> getAvailableTimeSlotsForDateRange(Long providerId,
@@ -998,11 +1026,10 @@ public Page<SearchResponse> topRatedNearMe(
             return new ArrayList<>();
         }
 
-        List<TimeSlot> availableSlots = timeSlotRepository.findByScheduleIdAndDateBetweenAndStatus(
+        List<TimeSlot> availableSlots = availabilityEngine.availableSlots(
                 provider.getSchedule().getId(),
                 startDate,
-                endDate,
-                TimeSlotStatus.AVAILABLE);
+                endDate);
 
         if (availableSlots.isEmpty()) {
             return new ArrayList<>();
@@ -1106,11 +1133,10 @@ public Page<SearchResponse> topRatedNearMe(
             return new ArrayList<>();
         }
 
-        List<TimeSlot> availableSlots = timeSlotRepository.findByScheduleIdAndDateBetweenAndStatus(
+        List<TimeSlot> availableSlots = availabilityEngine.availableSlots(
                 provider.getSchedule().getId(),
                 startDate,
-                endDate,
-                TimeSlotStatus.AVAILABLE);
+                endDate);
 
         if (availableSlots.isEmpty()) {
             return new ArrayList<>();
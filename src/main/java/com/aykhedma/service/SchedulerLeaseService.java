@@ -0,0 +1,84 @@
+package com.aykhedma.service;
+
+import com.aykhedma.repository.SchedulerLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Database leases for scheduled jobs that must run on one instance at a time.
+ * The holder renews the lease on every run; if it dies, another instance takes
+ * over once the lease has lapsed. Each call commits on its own so the lease is
+ * visible to other instances before the job does any work.
+ */
+@Service
+@Slf4j
+public class SchedulerLeaseService {
+
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String instanceId;
+
+    public SchedulerLeaseService(SchedulerLeaseRepository schedulerLeaseRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.schedulerLeaseRepository = schedulerLeaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.instanceId = hostName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Takes or renews the named lease for {@code duration}. Returns {@code false} while
+     * another instance holds it.
+     */
+    public boolean tryAcquire(String name, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plus(duration);
+
+        Integer renewed = transactionTemplate.execute(status ->
+                schedulerLeaseRepository.tryAcquire(name, instanceId, now, leaseUntil));
+        if (renewed != null && renewed > 0) {
+            return true;
+        }
+
+        try {
+            Integer created = transactionTemplate.execute(status ->
+                    schedulerLeaseRepository.insertIfAbsent(name, instanceId, leaseUntil));
+            return created != null && created > 0;
+        } catch (DataIntegrityViolationException e) {
+            // another instance created the lease first
+            return false;
+        }
+    }
+
+    /**
+     * Gives the lease up early, if this instance holds it.
+     */
+    public void release(String name) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    schedulerLeaseRepository.release(name, instanceId, LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            log.warn("Failed to release scheduler lease {}: {}", name, e.getMessage());
+        }
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
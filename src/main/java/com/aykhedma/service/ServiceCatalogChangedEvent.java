@@ -0,0 +1,7 @@
+package com.aykhedma.service;
+
+/**
+ * Published after a service type is created, updated or deleted.
+ */
+public record ServiceCatalogChangedEvent(Long serviceTypeId) {
+}
@@ -11,6 +11,7 @@ import com.aykhedma.repository.ServiceCategoryRepository;
 import com.aykhedma.repository.ServiceTypeRepository;
 import com.cloudinary.Cloudinary;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -28,6 +29,7 @@ public class ServiceCategoryService {
     private final ProviderRepository providerRepository;
     private final Cloudinary cloudinary;
     private final FileStorageService fileStorageService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<ServiceCategoryDTO> getAllCategories() {
         return categoryRepository.findAllWithServiceTypes()
@@ -101,6 +103,8 @@ public class ServiceCategoryService {
         }
 
         ServiceCategory saved = categoryRepository.save(category);
+        saved.getServiceTypes().forEach(serviceType ->
+                eventPublisher.publishEvent(new ServiceCatalogChangedEvent(serviceType.getId())));
 
         return mapToDTO(saved);
     }
@@ -180,6 +184,8 @@ public class ServiceCategoryService {
         }
 
         serviceTypeRepository.deleteAll(types);
+        types.forEach(serviceType ->
+                eventPublisher.publishEvent(new ServiceCatalogChangedEvent(serviceType.getId())));
 
         categoryRepository.delete(category);
     }
@@ -16,6 +16,7 @@ import com.aykhedma.repository.ServiceCategoryRepository;
 import com.aykhedma.repository.ServiceTypeRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,6 +34,7 @@ public class ServiceManagementServiceImpl {
     private final LocationService locationService;
     private final ProviderRepository providerRepository;
     private final ProviderMapper providerMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<ServiceTypeDTO> getAllTypes() {
         return typeRepository.findAll()
@@ -75,7 +77,9 @@ public class ServiceManagementServiceImpl {
                 .estimatedDuration(dto.getEstimatedDuration())
                 .build();
 
-        return mapToDTO(typeRepository.save(type));
+        ServiceType saved = typeRepository.save(type);
+        eventPublisher.publishEvent(new ServiceCatalogChangedEvent(saved.getId()));
+        return mapToDTO(saved);
     }
 
     public ServiceTypeDTO updateType(Long id, ServiceTypeDTO dto) {
@@ -105,7 +109,9 @@ public class ServiceManagementServiceImpl {
             type.setCategory(category);
         }
 
-        return mapToDTO(typeRepository.save(type));
+        ServiceType saved = typeRepository.save(type);
+        eventPublisher.publishEvent(new ServiceCatalogChangedEvent(saved.getId()));
+        return mapToDTO(saved);
     }
 
     public void deleteType(Long id) {
@@ -120,6 +126,7 @@ public class ServiceManagementServiceImpl {
         }
 
         typeRepository.deleteById(id);
+        eventPublisher.publishEvent(new ServiceCatalogChangedEvent(id));
     }
 
     public long countTypes() {
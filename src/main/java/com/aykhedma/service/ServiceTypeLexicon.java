@@ -0,0 +1,232 @@
+package com.aykhedma.service;
+
+import com.aykhedma.model.service.ServiceType;
+import com.aykhedma.repository.ServiceTypeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * The service type catalog held in memory: loaded at startup, reloaded after
+ * {@link ServiceCatalogChangedEvent}, and searchable by English or Arabic name.
+ * Names are folded (case, diacritics, alef/ya/ta marbuta variants, the "ال" article),
+ * candidates come from a character trigram index and are ranked by edit distance.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ServiceTypeLexicon {
+
+    public static final double MIN_RESOLVE_SCORE = 0.75;
+    private static final double CONTAINED_NAME_SCORE = 0.85;
+    private static final int MAX_RANKED_CANDIDATES = 20;
+
+    private static final Pattern DIACRITICS = Pattern.compile("[\\u064B-\\u065F\\u0670\\u0640]");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{IsAlphabetic}\\p{IsDigit}]+");
+
+    private final ServiceTypeRepository serviceTypeRepository;
+
+    private volatile Snapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(ServiceCatalogChangedEvent event) {
+        refresh();
+    }
+
+    public synchronized void refresh() {
+        snapshot = Snapshot.build(serviceTypeRepository.findAll());
+        log.info("Service type lexicon loaded with {} service types", snapshot.serviceTypes().size());
+    }
+
+    /**
+     * Every service type. The list is replaced, never modified, when the catalog changes.
+     */
+    public List<ServiceType> all() {
+        return current().serviceTypes();
+    }
+
+    public ServiceType findById(Long id) {
+        return id != null ? current().byId().get(id) : null;
+    }
+
+    /**
+     * The service type {@code text} names, or null when nothing scores at least
+     * {@link #MIN_RESOLVE_SCORE}.
+     */
+    public ServiceType resolve(String text) {
+        List<Match> matches = search(text, 1);
+        return !matches.isEmpty() && matches.get(0).score() >= MIN_RESOLVE_SCORE
+                ? matches.get(0).serviceType()
+                : null;
+    }
+
+    /**
+     * Up to {@code limit} service types ranked by how well one of their names matches
+     * {@code text}, best first, each with a score between 0 and 1.
+     */
+    public List<Match> search(String text, int limit) {
+        String query = normalize(text);
+        if (query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Snapshot current = current();
+
+        Integer exact = current.exactNames().get(query);
+        if (exact != null && limit == 1) {
+            return List.of(new Match(current.names().get(exact).serviceType(), 1.0));
+        }
+
+        // only the names whose trigrams the query covers best are worth an edit distance
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String trigram : trigrams(query)) {
+            for (int name : current.trigramIndex().getOrDefault(trigram, List.of())) {
+                shared.merge(name, 1, Integer::sum);
+            }
+        }
+        List<Integer> candidates = new ArrayList<>(shared.keySet());
+        candidates.sort(Comparator.comparingDouble(
+                (Integer name) -> (double) shared.get(name) / current.names().get(name).trigramCount()).reversed());
+
+        Map<Long, Match> best = new LinkedHashMap<>();
+        for (int i = 0; i < candidates.size() && i < MAX_RANKED_CANDIDATES; i++) {
+            Name name = current.names().get(candidates.get(i));
+            double score = score(query, name.normalized());
+            best.merge(name.serviceType().getId(), new Match(name.serviceType(), score),
+                    (a, b) -> a.score() >= b.score() ? a : b);
+        }
+        return best.values().stream()
+                .sorted(Comparator.comparingDouble(Match::score).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            refresh();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private static double score(String query, String name) {
+        if (query.equals(name)) {
+            return 1.0;
+        }
+        double similarity = 1.0 - (double) editDistance(query, name) / Math.max(query.length(), name.length());
+        // "plumb" for Plumbing, or a whole sentence mentioning the service
+        boolean contained = (query.length() >= 3 && name.contains(query))
+                || (" " + query + " ").contains(" " + name + " ");
+        return contained ? Math.max(similarity, CONTAINED_NAME_SCORE) : similarity;
+    }
+
+    static int editDistance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] row = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            row[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                row[j] = Math.min(substitution, Math.min(previous[j], row[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = row;
+            row = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * {@code text} as comparable words: lower case, no diacritics or tatweel, alef forms as
+     * "ا", "ى" as "ي", "ة" as "ه", hamza seats dropped, and "ال"/"لل" cut from longer words.
+     */
+    public static List<String> tokens(String text) {
+        if (!StringUtils.hasText(text)) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(text.toLowerCase(Locale.ROOT)).replaceAll("")
+                .replace('أ', 'ا').replace('إ', 'ا').replace('آ', 'ا').replace('ٱ', 'ا')
+                .replace('ى', 'ي').replace('ة', 'ه').replace('ؤ', 'و').replace('ئ', 'ي');
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_ALPHANUMERIC.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(stripArticle(token));
+            }
+        }
+        return tokens;
+    }
+
+    public static String normalize(String text) {
+        return String.join(" ", tokens(text));
+    }
+
+    private static String stripArticle(String token) {
+        if (token.length() > 4 && (token.startsWith("ال") || token.startsWith("لل"))) {
+            return token.substring(2);
+        }
+        return token;
+    }
+
+    static Set<String> trigrams(String normalized) {
+        Set<String> result = new HashSet<>();
+        for (String token : normalized.split(" ")) {
+            String padded = "#" + token + "#";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                result.add(padded.substring(i, i + 3));
+            }
+        }
+        return result;
+    }
+
+    public record Match(ServiceType serviceType, double score) {
+    }
+
+    private record Name(ServiceType serviceType, String normalized, int trigramCount) {
+    }
+
+    private record Snapshot(List<ServiceType> serviceTypes, Map<Long, ServiceType> byId, List<Name> names,
+            Map<String, Integer> exactNames, Map<String, List<Integer>> trigramIndex) {
+
+        static Snapshot build(List<ServiceType> serviceTypes) {
+            Map<Long, ServiceType> byId = new HashMap<>();
+            List<Name> names = new ArrayList<>();
+            Map<String, Integer> exactNames = new HashMap<>();
+            Map<String, List<Integer>> trigramIndex = new HashMap<>();
+            for (ServiceType serviceType : serviceTypes) {
+                if (serviceType.getId() != null) {
+                    byId.put(serviceType.getId(), serviceType);
+                }
+                for (String name : new String[]{serviceType.getName(), serviceType.getNameAr()}) {
+                    String normalized = normalize(name);
+                    if (normalized.isEmpty()) {
+                        continue;
+                    }
+                    int index = names.size();
+                    Set<String> trigrams = trigrams(normalized);
+                    names.add(new Name(serviceType, normalized, trigrams.size()));
+                    exactNames.putIfAbsent(normalized, index);
+                    for (String trigram : trigrams) {
+                        trigramIndex.computeIfAbsent(trigram, k -> new ArrayList<>()).add(index);
+                    }
+                }
+            }
+            return new Snapshot(List.copyOf(serviceTypes), Map.copyOf(byId), List.copyOf(names),
+                    Map.copyOf(exactNames), Map.copyOf(trigramIndex));
+        }
+    }
+}
@@ -1,20 +1,32 @@
 package com.aykhedma.service;
 
+import com.aykhedma.model.chat.VoiceTranscription;
+import com.aykhedma.repository.VoiceTranscriptionRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.*;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -27,6 +39,7 @@ public class SpeechToTextService {
 
     private final RestTemplate restTemplate = new RestTemplate();
     private final ObjectMapper objectMapper;
+    private final VoiceTranscriptionRepository transcriptionRepository;
 
     @Value("#{'${ai.gemini.api-keys:}'.split(',')}")
     private List<String> apiKeys;
@@ -37,6 +50,9 @@ public class SpeechToTextService {
     @Value("${ai.gemini.model:gemini-2.5-flash}")
     private String model;
 
+    @Value("${ai.transcription.cache-ttl:P30D}")
+    private Duration transcriptionCacheTtl;
+
     private final AtomicInteger keyCursor = new AtomicInteger(0);
 
     private final Map<String, Instant> keyCooldownUntil = new ConcurrentHashMap<>();
@@ -72,11 +88,26 @@ public class SpeechToTextService {
     }
 
     public String transcribeAudio(MultipartFile audioFile) throws IOException {
+        return transcribeAudio(audioFile, null);
+    }
+
+    /**
+     * Transcribes a voice note uploaded by {@code uploaderId} ({@code null} when not signed in).
+     * Cached transcripts are per uploader, so they go away with the account.
+     */
+    public String transcribeAudio(MultipartFile audioFile, Long uploaderId) throws IOException {
         if (audioFile == null || audioFile.isEmpty()) {
             log.warn("Audio file is null or empty");
             return null;
         }
 
+        String audioHash = hashAudio(uploaderId, audioFile);
+        Optional<String> cached = cachedTranscript(audioHash);
+        if (cached.isPresent()) {
+            log.info("Voice note {} already transcribed, skipping the model", audioHash);
+            return cached.get();
+        }
+
         if (consecutiveFailures.get() >= MAX_CONSECUTIVE_FAILURES) {
             if (lastFailureTime != null &&
                     Duration.between(lastFailureTime, Instant.now()).compareTo(FAILURE_COOLDOWN) < 0) {
@@ -95,7 +126,69 @@ public class SpeechToTextService {
         log.info("Processing voice note: filename={}, size={} bytes, type={}",
                 filename, audioFile.getSize(), contentType);
 
-        return transcribeWithGemini(audioFile);
+        String transcript = transcribeWithGemini(audioFile);
+        if (StringUtils.hasText(transcript)) {
+            rememberTranscript(audioHash, uploaderId, transcript);
+        }
+        return transcript;
+    }
+
+    /**
+     * SHA-256 hex of the uploader id and the audio bytes, read in one streaming pass.
+     */
+    private String hashAudio(Long uploaderId, MultipartFile audioFile) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        digest.update((uploaderId != null ? "user:" + uploaderId : "anonymous").getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        try (InputStream in = audioFile.getInputStream()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private Optional<String> cachedTranscript(String audioHash) {
+        try {
+            return transcriptionRepository
+                    .findByAudioHashAndCreatedAtAfter(audioHash, LocalDateTime.now().minus(transcriptionCacheTtl))
+                    .map(VoiceTranscription::getTranscript);
+        } catch (RuntimeException e) {
+            log.warn("Transcription cache lookup failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void rememberTranscript(String audioHash, Long uploaderId, String transcript) {
+        try {
+            transcriptionRepository.save(VoiceTranscription.builder()
+                    .audioHash(audioHash)
+                    .uploaderId(uploaderId)
+                    .transcript(transcript)
+                    .build());
+        } catch (RuntimeException e) {
+            // a concurrent upload of the same audio may have stored it first
+            log.warn("Could not cache transcription {}: {}", audioHash, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ai.transcription.purge-interval-ms:3600000}")
+    public void purgeExpiredTranscriptions() {
+        try {
+            int deleted = transcriptionRepository.deleteCreatedBefore(LocalDateTime.now().minus(transcriptionCacheTtl));
+            if (deleted > 0) {
+                log.info("Deleted {} expired voice transcriptions", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.error("Voice transcription cleanup failed, will retry: {}", e.getMessage());
+        }
     }
 
     private String transcribeWithGemini(MultipartFile audioFile) throws IOException {
@@ -105,8 +198,6 @@ public class SpeechToTextService {
             return null;
         }
 
-        byte[] audioBytes = audioFile.getBytes();
-        String base64Audio = Base64.getEncoder().encodeToString(audioBytes);
         String mimeType = detectMimeType(audioFile);
         log.info("Detected MIME type: {} for file: {}", mimeType, audioFile.getOriginalFilename());
 
@@ -124,20 +215,10 @@ public class SpeechToTextService {
                 - الدقة أهم من السرعة
                 """;
 
-        String requestBody = String.format("""
-                {
-                    "contents": [{
-                        "parts": [
-                            {"text": "%s"},
-                            {"inline_data": {"mime_type": "%s", "data": "%s"}}
-                        ]
-                    }],
-                    "generationConfig": {
-                        "temperature": 0.0,
-                        "responseMimeType": "text/plain"
-                    }
-                }
-                """, escapeJson(prompt), mimeType, base64Audio);
+        Resource requestBody = new AudioRequestBody(audioFile,
+                "{\"contents\":[{\"parts\":[{\"text\":\"" + escapeJson(prompt) + "\"},"
+                        + "{\"inline_data\":{\"mime_type\":\"" + escapeJson(mimeType) + "\",\"data\":\"",
+                "\"}}]}],\"generationConfig\":{\"temperature\":0.0,\"responseMimeType\":\"text/plain\"}}");
 
         int size = apiKeys.size();
         int start = Math.floorMod(keyCursor.getAndIncrement(), size);
@@ -163,7 +244,7 @@ public class SpeechToTextService {
                 headers.set("X-Goog-Api-Key", currentKey);
 
                 String url = baseUrl + "/models/" + model + ":generateContent";
-                HttpEntity<String> entity = new HttpEntity<>(requestBody, headers);
+                HttpEntity<Resource> entity = new HttpEntity<>(requestBody, headers);
 
                 log.debug("Attempting transcription with key index {}", idx);
                 ResponseEntity<String> response = restTemplate.exchange(
@@ -302,4 +383,94 @@ public class SpeechToTextService {
                 .replace("\n", "\\n")
                 .replace("\r", "\\r");
     }
-}
\ No newline at end of file
+
+    /**
+     * The generateContent JSON with the audio Base64-encoded while it is written, so the
+     * request never holds the recording, its encoding and the JSON as separate copies.
+     * Each read starts over, which lets a request be retried with the next key.
+     */
+    private static final class AudioRequestBody extends AbstractResource {
+
+        private final MultipartFile audioFile;
+        private final byte[] prefix;
+        private final byte[] suffix;
+
+        AudioRequestBody(MultipartFile audioFile, String prefix, String suffix) {
+            this.audioFile = audioFile;
+            this.prefix = prefix.getBytes(StandardCharsets.UTF_8);
+            this.suffix = suffix.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new SequenceInputStream(Collections.enumeration(List.of(
+                    new ByteArrayInputStream(prefix),
+                    new Base64EncodingInputStream(audioFile.getInputStream()),
+                    new ByteArrayInputStream(suffix))));
+        }
+
+        @Override
+        public long contentLength() {
+            return prefix.length + 4 * ((audioFile.getSize() + 2) / 3) + suffix.length;
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public String getDescription() {
+            return "Gemini transcription request for " + audioFile.getOriginalFilename();
+        }
+    }
+
+    private static final class Base64EncodingInputStream extends InputStream {
+
+        // a multiple of 3, so only the last chunk can need padding
+        private static final int CHUNK_BYTES = 3 * 1024;
+
+        private final InputStream source;
+        private byte[] encoded = new byte[0];
+        private int position;
+        private boolean sourceDone;
+
+        Base64EncodingInputStream(InputStream source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (position == encoded.length) {
+                if (sourceDone) {
+                    return -1;
+                }
+                byte[] chunk = source.readNBytes(CHUNK_BYTES);
+                sourceDone = chunk.length < CHUNK_BYTES;
+                encoded = Base64.getEncoder().encode(chunk);
+                position = 0;
+                if (encoded.length == 0) {
+                    return -1;
+                }
+            }
+            int count = Math.min(length, encoded.length - position);
+            System.arraycopy(encoded, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            source.close();
+        }
+    }
+}
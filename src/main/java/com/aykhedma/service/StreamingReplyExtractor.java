@@ -0,0 +1,140 @@
+package com.aykhedma.service;
+
+/**
+ * Pulls the top-level {@code "reply"} string out of a tool-call JSON object while the
+ * model is still producing it, so the reply can be shown before the object is complete.
+ * Feed the chunks in order; each call returns the reply characters that chunk completed.
+ * Anything outside the first object (code fences, trailing text) is ignored.
+ */
+final class StreamingReplyExtractor {
+
+    private static final String REPLY_KEY = "reply";
+
+    private int depth;
+    private boolean finished;
+    private boolean inString;
+    private boolean escaped;
+    private StringBuilder unicode;
+
+    private boolean expectingKey;
+    private boolean readingKey;
+    private final StringBuilder key = new StringBuilder();
+    private String lastKey;
+
+    private boolean expectingReply;
+    private boolean readingReply;
+    private boolean replySeen;
+
+    String feed(String chunk) {
+        StringBuilder out = new StringBuilder();
+        if (chunk == null || finished) {
+            return "";
+        }
+        for (int i = 0; i < chunk.length() && !finished; i++) {
+            char c = chunk.charAt(i);
+            if (inString) {
+                string(c, out);
+            } else {
+                structural(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private void structural(char c) {
+        if (depth == 0 && c != '{') {
+            return;
+        }
+        switch (c) {
+            case '{' -> {
+                depth++;
+                expectingReply = false;
+                expectingKey = depth == 1;
+            }
+            case '[' -> {
+                depth++;
+                expectingReply = false;
+            }
+            case '}', ']' -> {
+                depth--;
+                if (depth == 0) {
+                    finished = true;
+                }
+            }
+            case ',' -> expectingKey = depth == 1;
+            case ':' -> {
+                if (depth == 1) {
+                    expectingKey = false;
+                    expectingReply = !replySeen && REPLY_KEY.equals(lastKey);
+                }
+            }
+            case '"' -> {
+                inString = true;
+                if (depth == 1 && expectingKey) {
+                    readingKey = true;
+                    key.setLength(0);
+                } else if (depth == 1 && expectingReply) {
+                    readingReply = true;
+                    replySeen = true;
+                    expectingReply = false;
+                }
+            }
+            default -> {
+                // a null, number or boolean reply has nothing to stream
+                if (!Character.isWhitespace(c)) {
+                    expectingReply = false;
+                }
+            }
+        }
+    }
+
+    private void string(char c, StringBuilder out) {
+        if (unicode != null) {
+            unicode.append(c);
+            if (unicode.length() == 4) {
+                char decoded;
+                try {
+                    decoded = (char) Integer.parseInt(unicode.toString(), 16);
+                } catch (NumberFormatException ex) {
+                    decoded = '\uFFFD';
+                }
+                unicode = null;
+                append(decoded, out);
+            }
+            return;
+        }
+        if (escaped) {
+            escaped = false;
+            switch (c) {
+                case 'u' -> unicode = new StringBuilder(4);
+                case 'n' -> append('\n', out);
+                case 't' -> append('\t', out);
+                case 'r' -> append('\r', out);
+                case 'b' -> append('\b', out);
+                case 'f' -> append('\f', out);
+                default -> append(c, out);
+            }
+            return;
+        }
+        if (c == '\\') {
+            escaped = true;
+        } else if (c == '"') {
+            inString = false;
+            if (readingKey) {
+                lastKey = key.toString();
+                readingKey = false;
+            }
+            readingReply = false;
+        } else {
+            append(c, out);
+        }
+    }
+
+    private void append(char c, StringBuilder out) {
+        if (readingKey) {
+            key.append(c);
+        } else if (readingReply) {
+            out.append(c);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.aykhedma.service.availability;
+
+import com.aykhedma.exception.ConflictException;
+import com.aykhedma.exception.ResourceNotFoundException;
+import com.aykhedma.model.booking.TimeSlot;
+import com.aykhedma.model.booking.TimeSlotStatus;
+import com.aykhedma.repository.ScheduleRepository;
+import com.aykhedma.repository.TimeSlotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reserve / release / merge for provider time slots, done on a {@link SlotIntervalSet}
+ * per schedule/day and written back as a diff.
+ * Writes first {@link #claim} the schedule and then start from the rows in the current
+ * transaction; the available windows of each day are cached for reads and replaced when
+ * a write commits, which also updates the {@link ProviderAvailabilityIndex}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AvailabilityEngine {
+
+    static final Duration CACHE_TTL = Duration.ofSeconds(30);
+    static final int MAX_CACHED_DAYS = 50_000;
+
+    private final TimeSlotRepository timeSlotRepository;
+    private final ScheduleRepository scheduleRepository;
+    private final ProviderAvailabilityIndex availabilityIndex;
+
+    private final Map<DayKey, CachedDay> days = new ConcurrentHashMap<>();
+
+    /**
+     * Moves the schedule's availability version from the value read to the next one.
+     * The update holds the schedule row until commit, so concurrent writers of the same
+     * schedule queue behind it and then miss the version they read; they get a
+     * {@link ConflictException} and are retried by {@link ReservationRetryExecutor}.
+     * Claiming again in the same transaction is cheap and always succeeds.
+     */
+    @Transactional
+    public void claim(Long scheduleId) {
+        Long version = scheduleRepository.findAvailabilityVersion(scheduleId)
+                .orElseThrow(() -> new ResourceNotFoundException("Schedule not found"));
+        if (scheduleRepository.bumpAvailabilityVersion(scheduleId, version) == 0) {
+            log.debug("Availability of schedule {} changed concurrently (version {})", scheduleId, version);
+            throw new ConflictException("Provider availability changed, please try again");
+        }
+    }
+
+    @Transactional
+    public TimeSlot reserve(Long scheduleId, LocalDate date, LocalTime bookingStart, LocalTime bookingEnd,
+                            long bufferMinutes, boolean applyPostBuffer) {
+        claim(scheduleId);
+        SlotIntervalSet day = loadForUpdate(scheduleId, date);
+        SlotIntervalSet.Interval booked = day.reserve(bookingStart, bookingEnd, bufferMinutes, applyPostBuffer);
+        persist(scheduleId, day);
+        return booked.getSlot();
+    }
+
+    @Transactional
+    public void release(TimeSlot bookedSlot) {
+        Long scheduleId = bookedSlot.getSchedule().getId();
+        claim(scheduleId);
+        SlotIntervalSet day = loadForUpdate(scheduleId, bookedSlot.getDate());
+        day.release(bookedSlot.getId());
+        persist(scheduleId, day);
+    }
+
+    @Transactional
+    public void merge(Long scheduleId, LocalDate date) {
+        claim(scheduleId);
+        SlotIntervalSet day = loadForUpdate(scheduleId, date);
+        day.mergeAvailable();
+        persist(scheduleId, day);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TimeSlot> availableSlots(Long scheduleId, LocalDate date) {
+        DayKey key = new DayKey(scheduleId, date);
+        CachedDay cached = days.get(key);
+        if (cached != null && !cached.isExpired()) {
+            return cached.toSlots(date);
+        }
+
+        List<TimeSlot> slots = timeSlotRepository.findByScheduleIdAndDateAndStatus(
+                scheduleId, date, TimeSlotStatus.AVAILABLE);
+        cacheIfUnchanged(key, cached, CachedDay.of(slots));
+        return slots;
+    }
+
+    /**
+     * Available slots for {@code [startDate, endDate]}; days missing from the cache are
+     * loaded together with a single range query.
+     */
+    @Transactional(readOnly = true)
+    public List<TimeSlot> availableSlots(Long scheduleId, LocalDate startDate, LocalDate endDate) {
+        List<TimeSlot> result = new ArrayList<>();
+        Map<LocalDate, CachedDay> missing = new LinkedHashMap<>();
+
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            CachedDay cached = days.get(new DayKey(scheduleId, date));
+            if (cached != null && !cached.isExpired()) {
+                result.addAll(cached.toSlots(date));
+            } else {
+                missing.put(date, cached);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        LocalDate firstMissing = missing.keySet().iterator().next();
+        LocalDate lastMissing = firstMissing;
+        for (LocalDate date : missing.keySet()) {
+            lastMissing = date;
+        }
+
+        Map<LocalDate, List<TimeSlot>> loadedByDate = timeSlotRepository
+                .findByScheduleIdAndDateBetweenAndStatus(scheduleId, firstMissing, lastMissing,
+                        TimeSlotStatus.AVAILABLE)
+                .stream()
+                .collect(Collectors.groupingBy(TimeSlot::getDate));
+
+        missing.forEach((date, seen) -> {
+            List<TimeSlot> daySlots = loadedByDate.getOrDefault(date, List.of());
+            cacheIfUnchanged(new DayKey(scheduleId, date), seen, CachedDay.of(daySlots));
+            result.addAll(daySlots);
+        });
+        return result;
+    }
+
+    /**
+     * Drops the cached day now and again when the surrounding transaction ends,
+     * for writes that bypass the engine (working day edits).
+     */
+    public void invalidate(Long scheduleId, LocalDate date) {
+        if (scheduleId == null || date == null) {
+            return;
+        }
+        DayKey key = new DayKey(scheduleId, date);
+        days.put(key, CachedDay.stale());
+        availabilityIndex.invalidate(scheduleId, date);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    days.put(key, CachedDay.stale());
+                }
+            });
+        }
+    }
+
+    private SlotIntervalSet loadForUpdate(Long scheduleId, LocalDate date) {
+        return SlotIntervalSet.of(date, timeSlotRepository.findByScheduleIdAndDate(scheduleId, date));
+    }
+
+    private void persist(Long scheduleId, SlotIntervalSet day) {
+        SlotIntervalSet.Diff diff = day.diff();
+        if (!diff.isEmpty()) {
+            List<TimeSlot> upserts = new ArrayList<>(diff.created());
+            upserts.addAll(diff.updated());
+            if (!upserts.isEmpty()) {
+                timeSlotRepository.saveAll(upserts);
+            }
+            if (!diff.removed().isEmpty()) {
+                timeSlotRepository.deleteAll(diff.removed());
+            }
+            log.debug("Availability {} {}: {} created, {} updated, {} removed", scheduleId, day.getDate(),
+                    diff.created().size(), diff.updated().size(), diff.removed().size());
+        }
+
+        DayKey key = new DayKey(scheduleId, day.getDate());
+        List<SlotIntervalSet.Interval> available = day.available();
+        CachedDay committed = CachedDay.ofIntervals(available);
+        ProviderAvailabilityIndex.Owner owner = availabilityIndex.ownerOf(scheduleId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            days.put(key, committed);
+            availabilityIndex.update(owner, day.getDate(), available);
+            return;
+        }
+
+        days.put(key, CachedDay.stale());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    days.put(key, committed);
+                    availabilityIndex.update(owner, day.getDate(), available);
+                } else {
+                    days.put(key, CachedDay.stale());
+                }
+            }
+        });
+    }
+
+    private void cacheIfUnchanged(DayKey key, CachedDay seen, CachedDay fresh) {
+        if (days.size() >= MAX_CACHED_DAYS) {
+            days.values().removeIf(CachedDay::isExpired);
+            if (days.size() >= MAX_CACHED_DAYS) {
+                log.debug("Availability cache full, skipping {}", key);
+                return;
+            }
+        }
+        // a write that landed while we were reading replaced the entry; keep its version
+        days.compute(key, (k, current) -> current == seen ? fresh : current);
+    }
+
+    private record DayKey(Long scheduleId, LocalDate date) {
+    }
+
+    private record Window(Long id, LocalTime start, LocalTime end) {
+    }
+
+    private static final class CachedDay {
+
+        final List<Window> windows;
+        final Instant expiresAt;
+
+        private CachedDay(List<Window> windows, Instant expiresAt) {
+            this.windows = windows;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * A fresh instance each time, so a concurrent read can tell it was invalidated.
+         */
+        static CachedDay stale() {
+            return new CachedDay(List.of(), Instant.EPOCH);
+        }
+
+        static CachedDay of(List<TimeSlot> slots) {
+            return new CachedDay(slots.stream()
+                    .map(slot -> new Window(slot.getId(), slot.getStartTime(), slot.getEndTime()))
+                    .toList(), Instant.now().plus(CACHE_TTL));
+        }
+
+        static CachedDay ofIntervals(List<SlotIntervalSet.Interval> intervals) {
+            return new CachedDay(intervals.stream()
+                    .map(interval -> new Window(interval.getSlot().getId(), interval.getStart(), interval.getEnd()))
+                    .toList(), Instant.now().plus(CACHE_TTL));
+        }
+
+        boolean isExpired() {
+            return Instant.now().isAfter(expiresAt);
+        }
+
+        List<TimeSlot> toSlots(LocalDate date) {
+            return windows.stream()
+                    .map(window -> TimeSlot.builder()
+                            .id(window.id())
+                            .date(date)
+                            .startTime(window.start())
+                            .endTime(window.end())
+                            .status(TimeSlotStatus.AVAILABLE)
+                            .build())
+                    .toList();
+        }
+    }
+}
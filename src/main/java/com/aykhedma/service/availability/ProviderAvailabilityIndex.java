@@ -0,0 +1,249 @@
+package com.aykhedma.service.availability;
+
+import com.aykhedma.dto.response.ProviderWindowProjection;
+import com.aykhedma.repository.ProviderRepository;
+import com.aykhedma.repository.TimeSlotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Which providers of a service type are free in each half-hour of a day, kept as one
+ * bitmap per (service type, date, bucket) over the day's providers. Bits are dense
+ * per-day ordinals rather than provider ids, which come from the shared users sequence,
+ * so a day costs bits for its own providers only. "Who is free from T for D minutes"
+ * is the AND of the buckets covering {@code [T, T + D)}.
+ * A day is loaded with one query on first use and then kept current by
+ * {@link AvailabilityEngine} as slot writes commit.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ProviderAvailabilityIndex {
+
+    static final int BUCKET_MINUTES = 30;
+    static final int BUCKETS_PER_DAY = 24 * 60 / BUCKET_MINUTES;
+    static final Duration DAY_TTL = Duration.ofMinutes(5);
+    static final int MAX_INDEXED_DAYS = 10_000;
+
+    private final TimeSlotRepository timeSlotRepository;
+    private final ProviderRepository providerRepository;
+
+    private final Map<DayKey, DayIndex> days = new ConcurrentHashMap<>();
+    private final Map<Long, Owner> owners = new ConcurrentHashMap<>();
+
+    /**
+     * Providers of {@code serviceTypeId} available for every half-hour of
+     * {@code [start, end)} on {@code date}, in ascending id order.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findAvailableProviderIds(Long serviceTypeId, LocalDate date, LocalTime start, LocalTime end) {
+        if (!end.isAfter(start)) {
+            return List.of();
+        }
+        DayKey key = new DayKey(serviceTypeId, date);
+        DayIndex index = days.get(key);
+        if (index == null || index.isExpired()) {
+            index = load(key, index);
+        }
+
+        return index.providersCoveringAll(floorBucket(start), ceilBucket(end));
+    }
+
+    /**
+     * The provider and service type owning a schedule, or {@code null} when no provider
+     * uses it. Service types don't change after registration, so this is cached for good.
+     */
+    public Owner ownerOf(Long scheduleId) {
+        Owner owner = owners.get(scheduleId);
+        if (owner != null) {
+            return owner;
+        }
+        owner = providerRepository.findScheduleOwner(scheduleId)
+                .map(row -> new Owner(row.getProviderId(), row.getServiceTypeId()))
+                .orElse(null);
+        if (owner != null && owner.serviceTypeId() != null) {
+            owners.put(scheduleId, owner);
+        }
+        return owner;
+    }
+
+    /**
+     * Replaces the provider's row of the day with the given committed available intervals.
+     */
+    void update(Owner owner, LocalDate date, List<SlotIntervalSet.Interval> available) {
+        if (owner == null || owner.serviceTypeId() == null) {
+            return;
+        }
+        DayKey key = new DayKey(owner.serviceTypeId(), date);
+        DayIndex index = days.get(key);
+        if (index == null || index.isExpired()) {
+            // not loaded (or being loaded): make sure a load that started earlier is discarded
+            days.put(key, DayIndex.stale());
+            return;
+        }
+        BitSet covered = new BitSet(BUCKETS_PER_DAY);
+        for (SlotIntervalSet.Interval interval : available) {
+            markCovered(covered, interval.getStart(), interval.getEnd());
+        }
+        index.replace(owner.providerId(), covered);
+    }
+
+    /**
+     * Drops the day of the schedule's service type now and when the surrounding
+     * transaction ends, for slot writes that don't go through the engine.
+     */
+    void invalidate(Long scheduleId, LocalDate date) {
+        Owner owner = ownerOf(scheduleId);
+        if (owner == null || owner.serviceTypeId() == null) {
+            return;
+        }
+        DayKey key = new DayKey(owner.serviceTypeId(), date);
+        days.put(key, DayIndex.stale());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    days.put(key, DayIndex.stale());
+                }
+            });
+        }
+    }
+
+    private DayIndex load(DayKey key, DayIndex seen) {
+        DayIndex fresh = DayIndex.empty();
+        // ordinals follow provider ids, so query results come out in id order
+        Map<Long, BitSet> byProvider = new TreeMap<>();
+        for (ProviderWindowProjection window : timeSlotRepository
+                .findAvailableWindowsByServiceType(key.serviceTypeId(), key.date())) {
+            markCovered(byProvider.computeIfAbsent(window.getProviderId(), id -> new BitSet(BUCKETS_PER_DAY)),
+                    window.getStartTime(), window.getEndTime());
+        }
+        byProvider.forEach(fresh::replace);
+
+        if (days.size() >= MAX_INDEXED_DAYS) {
+            days.values().removeIf(DayIndex::isExpired);
+            if (days.size() >= MAX_INDEXED_DAYS) {
+                log.debug("Provider availability index full, not keeping {}", key);
+                return fresh;
+            }
+        }
+        // a commit that landed while we were reading replaced the entry; keep its version
+        days.compute(key, (k, current) -> current == seen ? fresh : current);
+        log.debug("Indexed availability of {} providers for service type {} on {}", byProvider.size(),
+                key.serviceTypeId(), key.date());
+        return fresh;
+    }
+
+    private static void markCovered(BitSet covered, LocalTime start, LocalTime end) {
+        if (start == null || end == null) {
+            return;
+        }
+        int from = ceilBucket(start);
+        int to = end.equals(LocalTime.MAX) ? BUCKETS_PER_DAY : floorBucket(end);
+        if (from < to) {
+            covered.set(from, to);
+        }
+    }
+
+    private static int floorBucket(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / BUCKET_MINUTES;
+    }
+
+    private static int ceilBucket(LocalTime time) {
+        int minutes = time.getHour() * 60 + time.getMinute() + (time.getSecond() > 0 || time.getNano() > 0 ? 1 : 0);
+        return Math.min(BUCKETS_PER_DAY, (minutes + BUCKET_MINUTES - 1) / BUCKET_MINUTES);
+    }
+
+    public record Owner(Long providerId, Long serviceTypeId) {
+    }
+
+    private record DayKey(Long serviceTypeId, LocalDate date) {
+    }
+
+    private static final class DayIndex {
+
+        private final BitSet[] buckets;
+        private final Instant expiresAt;
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private long[] providerIds = new long[0];
+        private boolean idsAscending = true;
+
+        private DayIndex(Instant expiresAt) {
+            this.buckets = new BitSet[BUCKETS_PER_DAY];
+            for (int i = 0; i < BUCKETS_PER_DAY; i++) {
+                buckets[i] = new BitSet();
+            }
+            this.expiresAt = expiresAt;
+        }
+
+        static DayIndex empty() {
+            return new DayIndex(Instant.now().plus(DAY_TTL));
+        }
+
+        /**
+         * A fresh instance each time, so a concurrent load can tell it was invalidated.
+         */
+        static DayIndex stale() {
+            return new DayIndex(Instant.EPOCH);
+        }
+
+        boolean isExpired() {
+            return Instant.now().isAfter(expiresAt);
+        }
+
+        synchronized void replace(Long providerId, BitSet covered) {
+            Integer ordinal = ordinals.get(providerId);
+            if (ordinal == null) {
+                if (covered.isEmpty()) {
+                    return;
+                }
+                ordinal = ordinals.size();
+                if (ordinal == providerIds.length) {
+                    providerIds = Arrays.copyOf(providerIds, Math.max(16, ordinal * 2));
+                }
+                idsAscending &= ordinal == 0 || providerIds[ordinal - 1] < providerId;
+                providerIds[ordinal] = providerId;
+                ordinals.put(providerId, ordinal);
+            }
+            for (int bucket = 0; bucket < BUCKETS_PER_DAY; bucket++) {
+                buckets[bucket].set(ordinal, covered.get(bucket));
+            }
+        }
+
+        synchronized List<Long> providersCoveringAll(int fromBucket, int toBucket) {
+            if (fromBucket >= toBucket) {
+                return List.of();
+            }
+            BitSet matching = (BitSet) buckets[fromBucket].clone();
+            for (int bucket = fromBucket + 1; bucket < toBucket && !matching.isEmpty(); bucket++) {
+                matching.and(buckets[bucket]);
+            }
+            List<Long> result = new ArrayList<>(matching.cardinality());
+            for (int ordinal = matching.nextSetBit(0); ordinal >= 0; ordinal = matching.nextSetBit(ordinal + 1)) {
+                result.add(providerIds[ordinal]);
+            }
+            if (!idsAscending) {
+                // a provider first seen after the load took the next ordinal
+                result.sort(null);
+            }
+            return result;
+        }
+    }
+}
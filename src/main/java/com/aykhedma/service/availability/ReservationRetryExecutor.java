@@ -0,0 +1,69 @@
+package com.aykhedma.service.availability;
+
+import com.aykhedma.exception.ConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a booking flow in its own transaction and re-runs it from scratch when it lost
+ * a schedule claim (or hit a lock/optimistic failure), with a short jittered backoff.
+ * Inside an existing transaction the flow runs once; the outer caller owns the retry.
+ */
+@Component
+@Slf4j
+public class ReservationRetryExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public ReservationRetryExecutor(PlatformTransactionManager transactionManager,
+                                    @Value("${booking.reservation.max-attempts:5}") int maxAttempts,
+                                    @Value("${booking.reservation.backoff-ms:20}") long backoffMillis) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = Math.max(0, backoffMillis);
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (ConflictException | ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Reservation still conflicting after {} attempts: {}", attempt, e.getMessage());
+                    throw e instanceof ConflictException conflict
+                            ? conflict
+                            : new ConflictException("Provider availability changed, please try again");
+                }
+                log.debug("Reservation attempt {} conflicted, retrying: {}", attempt, e.getMessage());
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        if (backoffMillis == 0) {
+            return;
+        }
+        long delay = backoffMillis * attempt + ThreadLocalRandom.current().nextLong(backoffMillis);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Reservation interrupted");
+        }
+    }
+}
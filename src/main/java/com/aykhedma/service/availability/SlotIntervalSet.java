@@ -0,0 +1,266 @@
+package com.aykhedma.service.availability;
+
+import com.aykhedma.exception.BadRequestException;
+import com.aykhedma.exception.ResourceNotFoundException;
+import com.aykhedma.model.booking.Schedule;
+import com.aykhedma.model.booking.TimeSlot;
+import com.aykhedma.model.booking.TimeSlotStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One schedule/day of time slots kept as a list of intervals sorted by start time.
+ * Reserve, release and merge only touch the intervals involved; {@link #diff()}
+ * then reports the rows that were created, changed or dropped so callers write
+ * back just those instead of deleting and re-inserting the day.
+ */
+public class SlotIntervalSet {
+
+    private static final Comparator<Interval> ORDER = Comparator
+            .comparing(Interval::getStart)
+            .thenComparing(Interval::getEnd);
+
+    private final LocalDate date;
+    private final List<Interval> intervals;
+    private final List<TimeSlot> removed = new ArrayList<>();
+
+    private SlotIntervalSet(LocalDate date, List<Interval> intervals) {
+        this.date = date;
+        this.intervals = intervals;
+    }
+
+    public static SlotIntervalSet of(LocalDate date, List<TimeSlot> slots) {
+        List<Interval> intervals = new ArrayList<>(slots.size() + 4);
+        for (TimeSlot slot : slots) {
+            intervals.add(new Interval(slot, slot.getSchedule(), slot.getStartTime(), slot.getEndTime(),
+                    slot.getStatus()));
+        }
+        intervals.sort(ORDER);
+        return new SlotIntervalSet(date, intervals);
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public List<Interval> intervals() {
+        return List.copyOf(intervals);
+    }
+
+    public List<Interval> available() {
+        return intervals.stream()
+                .filter(interval -> interval.status == TimeSlotStatus.AVAILABLE)
+                .toList();
+    }
+
+    /**
+     * Carves {@code [bookingStart, bookingEnd)} out of the available interval that contains it,
+     * blocking {@code bufferMinutes} before it (and after it when {@code applyPostBuffer}).
+     * Buffers never reach outside the containing interval. The containing row is reused for
+     * the booked piece, so only the leftovers become new rows.
+     */
+    public Interval reserve(LocalTime bookingStart, LocalTime bookingEnd, long bufferMinutes,
+                            boolean applyPostBuffer) {
+        int index = findContainingAvailable(bookingStart, bookingEnd);
+        if (index < 0) {
+            throw new BadRequestException("Selected start time with duration is not available");
+        }
+
+        Interval containing = intervals.remove(index);
+        long bufferSeconds = bufferMinutes * 60;
+
+        LocalTime blockedStart = bookingStart.toSecondOfDay() - bufferSeconds <= containing.start.toSecondOfDay()
+                ? containing.start
+                : bookingStart.minusMinutes(bufferMinutes);
+        LocalTime blockedEnd = !applyPostBuffer
+                ? bookingEnd
+                : bookingEnd.toSecondOfDay() + bufferSeconds >= containing.end.toSecondOfDay()
+                        ? containing.end
+                        : bookingEnd.plusMinutes(bufferMinutes);
+
+        Interval booked = new Interval(containing.source, containing.schedule, bookingStart, bookingEnd,
+                TimeSlotStatus.BOOKED);
+
+        insert(booked);
+        if (containing.start.isBefore(blockedStart)) {
+            insert(containing.split(containing.start, blockedStart, TimeSlotStatus.AVAILABLE));
+        }
+        if (blockedStart.isBefore(bookingStart)) {
+            insert(containing.split(blockedStart, bookingStart, TimeSlotStatus.UNAVAILABLE));
+        }
+        if (bookingEnd.isBefore(blockedEnd)) {
+            insert(containing.split(bookingEnd, blockedEnd, TimeSlotStatus.UNAVAILABLE));
+        }
+        if (blockedEnd.isBefore(containing.end)) {
+            insert(containing.split(blockedEnd, containing.end, TimeSlotStatus.AVAILABLE));
+        }
+        return booked;
+    }
+
+    /**
+     * Frees the booked row and the buffers touching it, then merges the day.
+     */
+    public void release(Long bookedSlotId) {
+        Interval booked = intervals.stream()
+                .filter(interval -> interval.source != null && Objects.equals(interval.source.getId(), bookedSlotId))
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Booked time slot not found"));
+
+        for (Interval interval : intervals) {
+            if (interval.status == TimeSlotStatus.UNAVAILABLE
+                    && (interval.end.equals(booked.start) || interval.start.equals(booked.end))) {
+                interval.status = TimeSlotStatus.AVAILABLE;
+            }
+        }
+        booked.status = TimeSlotStatus.AVAILABLE;
+
+        mergeAvailable();
+    }
+
+    /**
+     * Folds overlapping or touching available intervals into the earliest one.
+     */
+    public void mergeAvailable() {
+        Interval current = null;
+        for (int i = 0; i < intervals.size(); i++) {
+            Interval next = intervals.get(i);
+            if (next.status != TimeSlotStatus.AVAILABLE) {
+                continue;
+            }
+            if (current != null && !next.start.isAfter(current.end)) {
+                if (next.end.isAfter(current.end)) {
+                    current.end = next.end;
+                }
+                intervals.remove(i--);
+                if (next.source != null) {
+                    removed.add(next.source);
+                }
+            } else {
+                current = next;
+            }
+        }
+    }
+
+    /**
+     * Applies pending changes to the entities and returns what has to be written.
+     */
+    public Diff diff() {
+        List<TimeSlot> created = new ArrayList<>();
+        List<TimeSlot> updated = new ArrayList<>();
+
+        for (Interval interval : intervals) {
+            if (interval.source == null) {
+                interval.source = TimeSlot.builder()
+                        .date(date)
+                        .startTime(interval.start)
+                        .endTime(interval.end)
+                        .status(interval.status)
+                        .schedule(interval.schedule)
+                        .build();
+                created.add(interval.source);
+            } else if (interval.isChanged()) {
+                interval.source.setStartTime(interval.start);
+                interval.source.setEndTime(interval.end);
+                interval.source.setStatus(interval.status);
+                updated.add(interval.source);
+            }
+        }
+
+        Diff diff = new Diff(created, updated, List.copyOf(removed));
+        removed.clear();
+        return diff;
+    }
+
+    private int findContainingAvailable(LocalTime start, LocalTime end) {
+        int low = 0;
+        int high = intervals.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (intervals.get(mid).start.isAfter(start)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        // candidates all start at or before the booking; the closest one is almost always it
+        for (int i = low - 1; i >= 0; i--) {
+            Interval candidate = intervals.get(i);
+            if (candidate.status == TimeSlotStatus.AVAILABLE && !end.isAfter(candidate.end)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(Interval interval) {
+        int low = 0;
+        int high = intervals.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ORDER.compare(intervals.get(mid), interval) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        intervals.add(low, interval);
+    }
+
+    public static final class Interval {
+
+        private TimeSlot source;
+        private final Schedule schedule;
+        private LocalTime start;
+        private LocalTime end;
+        private TimeSlotStatus status;
+
+        private Interval(TimeSlot source, Schedule schedule, LocalTime start, LocalTime end, TimeSlotStatus status) {
+            this.source = source;
+            this.schedule = schedule;
+            this.start = start;
+            this.end = end;
+            this.status = status;
+        }
+
+        private Interval split(LocalTime from, LocalTime to, TimeSlotStatus pieceStatus) {
+            return new Interval(null, schedule, from, to, pieceStatus);
+        }
+
+        private boolean isChanged() {
+            return !start.equals(source.getStartTime())
+                    || !end.equals(source.getEndTime())
+                    || status != source.getStatus();
+        }
+
+        public LocalTime getStart() {
+            return start;
+        }
+
+        public LocalTime getEnd() {
+            return end;
+        }
+
+        public TimeSlotStatus getStatus() {
+            return status;
+        }
+
+        /**
+         * The backing entity; only set for new intervals once {@link SlotIntervalSet#diff()} ran.
+         */
+        public TimeSlot getSlot() {
+            return source;
+        }
+    }
+
+    public record Diff(List<TimeSlot> created, List<TimeSlot> updated, List<TimeSlot> removed) {
+
+        public boolean isEmpty() {
+            return created.isEmpty() && updated.isEmpty() && removed.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.aykhedma.service.backfill;
+
+/**
+ * A data backfill that {@link StartupBackfillRunner} runs once the application is ready.
+ */
+public interface StartupBackfill {
+
+    /**
+     * Stable name, used in logs and as the completion marker of a run-once backfill.
+     */
+    String backfillName();
+
+    /**
+     * Writes the missing rows, in the runner's transaction, and returns how many it wrote.
+     */
+    int backfill();
+
+    /**
+     * {@code true} if the backfill must run until it succeeds once and never again;
+     * otherwise it runs on every start and has to skip rows that already exist.
+     */
+    default boolean backfillOnce() {
+        return false;
+    }
+}
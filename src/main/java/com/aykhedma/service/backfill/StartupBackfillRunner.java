@@ -0,0 +1,66 @@
+package com.aykhedma.service.backfill;
+
+import com.aykhedma.model.scheduler.CompletedBackfill;
+import com.aykhedma.repository.CompletedBackfillRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Runs every {@link StartupBackfill} once the application is ready. Each backfill gets
+ * its own transaction, so one that fails rolls back on its own, is logged, and does
+ * not stop the others or startup. A run-once backfill commits its completion marker
+ * in the same transaction as its rows, so it is retried on the next start until it
+ * has fully succeeded.
+ */
+@Service
+@Slf4j
+public class StartupBackfillRunner {
+
+    private final List<StartupBackfill> backfills;
+    private final CompletedBackfillRepository completedBackfillRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public StartupBackfillRunner(List<StartupBackfill> backfills,
+                                 CompletedBackfillRepository completedBackfillRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.backfills = backfills;
+        this.completedBackfillRepository = completedBackfillRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void runBackfills() {
+        backfills.forEach(this::run);
+    }
+
+    void run(StartupBackfill backfill) {
+        String name = backfill.backfillName();
+        try {
+            Integer written = transactionTemplate.execute(status -> {
+                if (backfill.backfillOnce() && completedBackfillRepository.existsById(name)) {
+                    return 0;
+                }
+                int rows = backfill.backfill();
+                if (backfill.backfillOnce()) {
+                    completedBackfillRepository.save(CompletedBackfill.builder()
+                            .name(name)
+                            .completedAt(LocalDateTime.now())
+                            .build());
+                }
+                return rows;
+            });
+            if (written != null && written > 0) {
+                log.info("Backfill {} wrote {} rows", name, written);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Backfill {} failed, will retry on next start: {}", name, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.aykhedma.service.deletion;
+
+import com.aykhedma.model.user.Provider;
+import com.aykhedma.model.user.UserDeletionJob;
+import com.aykhedma.model.user.UserDeletionStatus;
+import com.aykhedma.repository.UserDeletionJobRepository;
+import com.aykhedma.repository.UserRepository;
+import com.aykhedma.service.ChatRoomMembershipCache;
+import com.aykhedma.service.ChatRoomSummaryService;
+import com.aykhedma.service.FileStorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs a {@link UserDeletionPlan} for one job. Every chunk is its own transaction
+ * and records its progress on the job, so a long deletion never holds locks for
+ * long, shows how far it got, and can simply be run again after a failure: the
+ * statements only ever match what is left. Media of committed chunks is removed
+ * from storage in batches as it accumulates.
+ */
+@Component
+@Slf4j
+public class UserDeletionEngine {
+
+    static final int MEDIA_BATCH = 100;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final UserDeletionJobRepository jobRepository;
+    private final FileStorageService fileStorageService;
+    private final ChatRoomSummaryService chatRoomSummaryService;
+    private final ChatRoomMembershipCache chatRoomMembershipCache;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserDeletionEngine(NamedParameterJdbcTemplate jdbcTemplate,
+                              UserRepository userRepository,
+                              UserDeletionJobRepository jobRepository,
+                              FileStorageService fileStorageService,
+                              ChatRoomSummaryService chatRoomSummaryService,
+                              ChatRoomMembershipCache chatRoomMembershipCache,
+                              PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.jobRepository = jobRepository;
+        this.fileStorageService = fileStorageService;
+        this.chatRoomSummaryService = chatRoomSummaryService;
+        this.chatRoomMembershipCache = chatRoomMembershipCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Async
+    public void runAsync(Long jobId) {
+        run(jobId);
+    }
+
+    /**
+     * Must not be called inside a transaction, or the chunks would all join it.
+     */
+    public void run(Long jobId) {
+        UserDeletionJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(tx ->
+                jobRepository.markStatus(jobId, UserDeletionStatus.RUNNING, LocalDateTime.now()));
+
+        List<String> media = new ArrayList<>();
+        try {
+            for (UserDeletionPlan.Step step : UserDeletionPlan.STEPS) {
+                if (step.appliesTo(job.getUserRole())) {
+                    runStep(job, step, media);
+                }
+            }
+            deleteAccount(job, media);
+            transactionTemplate.executeWithoutResult(tx -> jobRepository.finish(jobId,
+                    UserDeletionStatus.COMPLETED, null, LocalDateTime.now()));
+            log.info("Deleted user {} ({})", job.getUserId(), job.getUserRole());
+        } catch (RuntimeException ex) {
+            log.error("Deletion of user {} failed: {}", job.getUserId(), ex.getMessage(), ex);
+            String error = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+            transactionTemplate.executeWithoutResult(tx -> jobRepository.finish(jobId,
+                    UserDeletionStatus.FAILED, error.length() > 500 ? error.substring(0, 500) : error,
+                    LocalDateTime.now()));
+        } finally {
+            deleteMedia(jobId, media);
+        }
+    }
+
+    private void runStep(UserDeletionJob job, UserDeletionPlan.Step step, List<String> media) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", job.getUserId());
+        params.put("limit", step.chunkSize());
+
+        if (!step.chunked()) {
+            transactionTemplate.executeWithoutResult(tx ->
+                    recordProgress(job, step, deleteRows(step, params)));
+            return;
+        }
+
+        while (true) {
+            List<String> chunkMedia = new ArrayList<>();
+            List<Object> ids = transactionTemplate.execute(tx -> {
+                List<Object> chunk = jdbcTemplate.queryForList(step.selectIds(), params, Object.class);
+                if (chunk.isEmpty()) {
+                    return chunk;
+                }
+                Map<String, Object> chunkParams = new HashMap<>(params);
+                chunkParams.put("ids", chunk);
+                if (step.selectMedia() != null) {
+                    chunkMedia.addAll(jdbcTemplate.queryForList(step.selectMedia(), chunkParams, String.class));
+                }
+                if (UserDeletionPlan.CHAT_ROOMS.equals(step.name())) {
+                    chatRoomSummaryService.removeRooms(roomIds(chunk));
+                }
+                step.adjustments().forEach(adjustment -> jdbcTemplate.update(adjustment, chunkParams));
+                recordProgress(job, step, deleteRows(step, chunkParams));
+                return chunk;
+            });
+            if (ids == null || ids.isEmpty()) {
+                return;
+            }
+
+            if (UserDeletionPlan.CHAT_ROOMS.equals(step.name())) {
+                chatRoomMembershipCache.evictAll(roomIds(ids));
+            }
+            media.addAll(chunkMedia);
+            if (media.size() >= MEDIA_BATCH) {
+                deleteMedia(job.getId(), media);
+            }
+            if (ids.size() < step.chunkSize()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * The user row goes through JPA so entity listeners see it; everything that
+     * cascades from it has already been emptied by the plan.
+     */
+    private void deleteAccount(UserDeletionJob job, List<String> media) {
+        List<String> accountMedia = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(tx -> userRepository.findById(job.getUserId()).ifPresent(user -> {
+            accountMedia.add(user.getProfileImage());
+            if (user instanceof Provider provider) {
+                accountMedia.add(provider.getNationalIdFrontImage());
+                accountMedia.add(provider.getNationalIdBackImage());
+                accountMedia.add(provider.getSelfieImage());
+            }
+            userRepository.delete(user);
+            jobRepository.recordProgress(job.getId(), "account", 1, LocalDateTime.now());
+        }));
+        media.addAll(accountMedia);
+    }
+
+    private int deleteRows(UserDeletionPlan.Step step, Map<String, Object> params) {
+        int rows = 0;
+        for (String delete : step.deletes()) {
+            rows += jdbcTemplate.update(delete, params);
+        }
+        return rows;
+    }
+
+    private void recordProgress(UserDeletionJob job, UserDeletionPlan.Step step, int rows) {
+        jobRepository.recordProgress(job.getId(), step.name(), rows, LocalDateTime.now());
+    }
+
+    private void deleteMedia(Long jobId, List<String> media) {
+        Set<String> urls = new LinkedHashSet<>();
+        for (String url : media) {
+            if (url != null && !url.isBlank()) {
+                urls.add(url);
+            }
+        }
+        media.clear();
+        if (urls.isEmpty()) {
+            return;
+        }
+        try {
+            int deleted = fileStorageService.deleteFiles(urls);
+            if (deleted > 0) {
+                transactionTemplate.executeWithoutResult(tx -> jobRepository.recordMediaDeleted(jobId, deleted));
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Failed to delete {} media files of deletion job {}: {}", urls.size(), jobId, ex.getMessage());
+        }
+    }
+
+    private static List<String> roomIds(List<Object> ids) {
+        return ids.stream().map(String::valueOf).toList();
+    }
+}
@@ -0,0 +1,299 @@
+package com.aykhedma.service.deletion;
+
+import com.aykhedma.model.user.UserType;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The tables an account owns rows in, in an order that never deletes a row
+ * something else still points at. Each step selects a chunk of ids owned by
+ * the user ({@code :userId}, {@code :limit}) and deletes the rows hanging off
+ * them and then the rows themselves ({@code :ids}); steps without an id query
+ * run their statements once. The user row goes last, through JPA.
+ * <p>
+ * Rows that feed a rollup (provider_daily_booking_stats, rating_aggregates) are
+ * first taken off the other party's totals by the step's adjustments, in the
+ * same chunk transaction as the delete. The deleted user's own rollup rows are
+ * simply dropped.
+ */
+final class UserDeletionPlan {
+
+    private static final Set<UserType> ALL = EnumSet.allOf(UserType.class);
+    private static final Set<UserType> PROVIDER = EnumSet.of(UserType.PROVIDER);
+    private static final Set<UserType> CONSUMER = EnumSet.of(UserType.CONSUMER);
+
+    static final String CHAT_ROOMS = "chat rooms";
+
+    // Ratings held by the rows of a chunk, shaped like the rows RatingAggregateRepository backfills from:
+    // (user_id, punctuality, commitment, quality_of_work, overall, rated, interaction, interactions)
+
+    private static final String PROVIDER_RATINGS_FROM_BOOKINGS =
+            "SELECT b.provider_id AS user_id, COALESCE(b.punctuality_rating, b.consumer_rating) AS punctuality, "
+                    + "COALESCE(b.commitment_rating, b.consumer_rating) AS commitment, "
+                    + "COALESCE(b.quality_of_work_rating, b.consumer_rating) AS quality_of_work, "
+                    + "b.consumer_rating AS overall, 1 AS rated, 0.0 AS interaction, 0 AS interactions "
+                    + "FROM bookings b WHERE b.id IN (:ids) AND b.consumer_rating IS NOT NULL";
+
+    private static final String PROVIDER_RATINGS_FROM_EMERGENCIES =
+            "SELECT er.selected_provider_id AS user_id, "
+                    + "COALESCE(er.punctuality_rating, er.consumer_rating) AS punctuality, "
+                    + "COALESCE(er.commitment_rating, er.consumer_rating) AS commitment, "
+                    + "COALESCE(er.quality_of_work_rating, er.consumer_rating) AS quality_of_work, "
+                    + "er.consumer_rating AS overall, 1 AS rated, 0.0 AS interaction, 0 AS interactions "
+                    + "FROM emergency_requests er WHERE er.id IN (:ids) AND er.consumer_rating IS NOT NULL "
+                    + "AND er.selected_provider_id IS NOT NULL";
+
+    private static final String CONSUMER_RATINGS_FROM_BOOKINGS =
+            "SELECT b.consumer_id AS user_id, 0.0 AS punctuality, 0.0 AS commitment, 0.0 AS quality_of_work, "
+                    + "b.provider_rating AS overall, 1 AS rated, 0.0 AS interaction, 0 AS interactions "
+                    + "FROM bookings b WHERE b.id IN (:ids) AND b.provider_rating IS NOT NULL";
+
+    private static final String CONSUMER_RATINGS_FROM_EMERGENCIES =
+            "SELECT er.consumer_id AS user_id, 0.0 AS punctuality, 0.0 AS commitment, 0.0 AS quality_of_work, "
+                    + "er.provider_rating AS overall, 1 AS rated, 0.0 AS interaction, 0 AS interactions "
+                    + "FROM emergency_requests er WHERE er.id IN (:ids) AND er.provider_rating IS NOT NULL";
+
+    private static final String INTERACTION_RATINGS =
+            "SELECT ir.provider_id AS user_id, 0.0 AS punctuality, 0.0 AS commitment, 0.0 AS quality_of_work, "
+                    + "0.0 AS overall, 0 AS rated, ir.rating AS interaction, 1 AS interactions "
+                    + "FROM interaction_ratings ir WHERE ir.id IN (:ids)";
+
+    /**
+     * Takes a consumer's bookings off their providers' daily counts, like
+     * ProviderBookingStatsService does when a booking leaves a counted status.
+     */
+    private static final String SUBTRACT_BOOKING_STATS = """
+            UPDATE provider_daily_booking_stats s
+            SET accepted_count = s.accepted_count - d.accepted,
+                completed_count = s.completed_count - d.completed,
+                cancelled_count = s.cancelled_count - d.cancelled
+            FROM (SELECT b.provider_id, b.requested_date,
+                         SUM(CASE WHEN b.status = 'ACCEPTED' THEN 1 ELSE 0 END) AS accepted,
+                         SUM(CASE WHEN b.status = 'COMPLETED' THEN 1 ELSE 0 END) AS completed,
+                         SUM(CASE WHEN b.status = 'CANCELLED' THEN 1 ELSE 0 END) AS cancelled
+                  FROM bookings b
+                  WHERE b.id IN (:ids) AND b.status IN ('ACCEPTED', 'COMPLETED', 'CANCELLED')
+                  GROUP BY b.provider_id, b.requested_date) d
+            WHERE s.provider_id = d.provider_id AND s.stat_date = d.requested_date
+            """;
+
+    static final List<Step> STEPS = List.of(
+            // sign the account out everywhere first
+            byIds("refresh tokens", ALL, 500,
+                    "SELECT id FROM refresh_token WHERE user_id = :userId LIMIT :limit",
+                    "DELETE FROM refresh_token WHERE id IN (:ids)"),
+            byIds("device tokens", ALL, 500,
+                    "SELECT id FROM device_tokens WHERE user_id = :userId LIMIT :limit",
+                    "DELETE FROM device_tokens WHERE id IN (:ids)"),
+            byIds("notification preferences", ALL, 500,
+                    "SELECT id FROM notification_preferences WHERE user_id = :userId LIMIT :limit",
+                    "DELETE FROM notification_preferences WHERE id IN (:ids)"),
+            byIds("notifications", ALL, 500,
+                    "SELECT id FROM notifications WHERE user_id = :userId LIMIT :limit",
+                    "DELETE FROM notification_methods WHERE notification_id IN (:ids)",
+                    "DELETE FROM notification_data WHERE notification_id IN (:ids)",
+                    "DELETE FROM notifications WHERE id IN (:ids)"),
+            withMedia("assistant sessions", ALL, 50,
+                    "SELECT session_id FROM chat_sessions WHERE user_id = :userId LIMIT :limit",
+                    "SELECT u.media_urls FROM chat_message_media_urls u "
+                            + "JOIN chat_messages m ON m.id = u.chat_message_id WHERE m.session_id IN (:ids)",
+                    "DELETE FROM chat_message_media_urls WHERE chat_message_id IN "
+                            + "(SELECT id FROM chat_messages WHERE session_id IN (:ids))",
+                    "DELETE FROM chat_messages WHERE session_id IN (:ids)",
+                    "DELETE FROM chat_sessions WHERE session_id IN (:ids)"),
+            once("voice transcripts", ALL,
+                    "DELETE FROM voice_transcriptions WHERE uploader_id = :userId"),
+            // room summaries and cached memberships are dropped by the engine alongside
+            withMedia(CHAT_ROOMS, ALL, 50,
+                    "SELECT room_id FROM chat_room_participants WHERE user_id = :userId LIMIT :limit",
+                    "SELECT u.media_urls FROM chat_message_media_urls u "
+                            + "JOIN chat_messages m ON m.id = u.chat_message_id WHERE m.room_id IN (:ids)",
+                    "DELETE FROM chat_message_media_urls WHERE chat_message_id IN "
+                            + "(SELECT id FROM chat_messages WHERE room_id IN (:ids))",
+                    "DELETE FROM chat_messages WHERE room_id IN (:ids)",
+                    "DELETE FROM chat_room_participants WHERE room_id IN (:ids)",
+                    "DELETE FROM chat_rooms WHERE id IN (:ids)"),
+            once("saved providers", ALL,
+                    "DELETE FROM consumer_saved_providers WHERE consumer_id = :userId OR provider_id = :userId"),
+
+            byIds("emergency requests taken", PROVIDER, 500,
+                    "SELECT id FROM emergency_requests WHERE selected_provider_id = :userId LIMIT :limit",
+                    "DELETE FROM provider_responses WHERE emergency_request_id IN (:ids)",
+                    "DELETE FROM emergency_requests WHERE id IN (:ids)")
+                    .adjusting(
+                            subtractRatings(CONSUMER_RATINGS_FROM_EMERGENCIES),
+                            consumerAverages("SELECT consumer_id FROM emergency_requests "
+                                    + "WHERE id IN (:ids) AND provider_rating IS NOT NULL")),
+            byIds("emergency responses", PROVIDER, 500,
+                    "SELECT id FROM provider_responses WHERE provider_id = :userId LIMIT :limit",
+                    "DELETE FROM provider_responses WHERE id IN (:ids)"),
+            byIds("provider bookings", PROVIDER, 500,
+                    "SELECT id FROM bookings WHERE provider_id = :userId LIMIT :limit",
+                    "DELETE FROM bookings WHERE id IN (:ids)")
+                    .adjusting(
+                            subtractRatings(CONSUMER_RATINGS_FROM_BOOKINGS),
+                            consumerAverages("SELECT consumer_id FROM bookings "
+                                    + "WHERE id IN (:ids) AND provider_rating IS NOT NULL")),
+            byIds("provider interaction ratings", PROVIDER, 500,
+                    "SELECT id FROM interaction_ratings WHERE provider_id = :userId LIMIT :limit",
+                    "DELETE FROM interaction_ratings WHERE id IN (:ids)"),
+            withMedia("documents", PROVIDER, 500,
+                    "SELECT id FROM documents WHERE provider_id = :userId LIMIT :limit",
+                    "SELECT file_path FROM documents WHERE id IN (:ids)",
+                    "DELETE FROM documents WHERE id IN (:ids)"),
+            byIds("booking stats", PROVIDER, 500,
+                    "SELECT id FROM provider_daily_booking_stats WHERE provider_id = :userId LIMIT :limit",
+                    "DELETE FROM provider_daily_booking_stats WHERE id IN (:ids)"),
+            byIds("time slots", PROVIDER, 1000,
+                    "SELECT t.id FROM time_slots t JOIN providers p ON p.schedule_id = t.schedule_id "
+                            + "WHERE p.id = :userId LIMIT :limit",
+                    "DELETE FROM time_slots WHERE id IN (:ids)"),
+            byIds("working days", PROVIDER, 1000,
+                    "SELECT w.id FROM working_days w JOIN providers p ON p.schedule_id = w.schedule_id "
+                            + "WHERE p.id = :userId LIMIT :limit",
+                    "DELETE FROM working_days WHERE id IN (:ids)"),
+
+            byIds("emergency requests", CONSUMER, 500,
+                    "SELECT id FROM emergency_requests WHERE consumer_id = :userId LIMIT :limit",
+                    "DELETE FROM provider_responses WHERE emergency_request_id IN (:ids)",
+                    "DELETE FROM emergency_requests WHERE id IN (:ids)")
+                    .adjusting(
+                            subtractRatings(PROVIDER_RATINGS_FROM_EMERGENCIES),
+                            providerAverages("SELECT selected_provider_id FROM emergency_requests "
+                                    + "WHERE id IN (:ids) AND consumer_rating IS NOT NULL")),
+            byIds("consumer bookings", CONSUMER, 500,
+                    "SELECT id FROM bookings WHERE consumer_id = :userId LIMIT :limit",
+                    "DELETE FROM bookings WHERE id IN (:ids)")
+                    .adjusting(
+                            SUBTRACT_BOOKING_STATS,
+                            subtractRatings(PROVIDER_RATINGS_FROM_BOOKINGS),
+                            providerAverages("SELECT provider_id FROM bookings "
+                                    + "WHERE id IN (:ids) AND consumer_rating IS NOT NULL")),
+            byIds("consumer interaction ratings", CONSUMER, 500,
+                    "SELECT id FROM interaction_ratings WHERE consumer_id = :userId LIMIT :limit",
+                    "DELETE FROM interaction_ratings WHERE id IN (:ids)")
+                    .adjusting(
+                            subtractRatings(INTERACTION_RATINGS),
+                            providerAverages("SELECT provider_id FROM interaction_ratings WHERE id IN (:ids)")),
+
+            once("rating totals", ALL,
+                    "DELETE FROM rating_aggregates WHERE user_id = :userId"));
+
+    /**
+     * Rows a deletion will roughly touch, to decide whether it can run inside the request.
+     */
+    static final String ESTIMATE_ROWS = """
+            SELECT (SELECT COUNT(*) FROM bookings WHERE consumer_id = :userId)
+                 + (SELECT COUNT(*) FROM bookings WHERE provider_id = :userId)
+                 + (SELECT COUNT(*) FROM emergency_requests WHERE consumer_id = :userId)
+                 + (SELECT COUNT(*) FROM emergency_requests WHERE selected_provider_id = :userId)
+                 + (SELECT COUNT(*) FROM notifications WHERE user_id = :userId)
+                 + (SELECT COUNT(*) FROM chat_messages m
+                        JOIN chat_room_participants p ON p.room_id = m.room_id
+                        WHERE p.user_id = :userId)
+                 + (SELECT COUNT(*) FROM time_slots t
+                        JOIN providers p ON p.schedule_id = t.schedule_id
+                        WHERE p.id = :userId)
+            """;
+
+    private UserDeletionPlan() {
+    }
+
+    /**
+     * Takes the ratings selected by {@code ratings} off their users' totals. The overall
+     * total stays at or above zero, as cancellation penalties may have lowered it already.
+     */
+    private static String subtractRatings(String ratings) {
+        return """
+                UPDATE rating_aggregates a
+                SET punctuality_sum = a.punctuality_sum - r.punctuality,
+                    commitment_sum = a.commitment_sum - r.commitment,
+                    quality_of_work_sum = a.quality_of_work_sum - r.quality_of_work,
+                    overall_sum = GREATEST(a.overall_sum - r.overall, 0),
+                    rating_count = a.rating_count - r.rated,
+                    interaction_sum = a.interaction_sum - r.interaction,
+                    interaction_count = a.interaction_count - r.interactions
+                FROM (SELECT user_id, SUM(punctuality) AS punctuality, SUM(commitment) AS commitment,
+                             SUM(quality_of_work) AS quality_of_work, SUM(overall) AS overall,
+                             SUM(rated) AS rated, SUM(interaction) AS interaction,
+                             SUM(interactions) AS interactions
+                      FROM (%s) x
+                      GROUP BY user_id) r
+                WHERE a.user_id = r.user_id
+                """.formatted(ratings);
+    }
+
+    /**
+     * Rewrites the averages of the providers selected by {@code providerIds} from their
+     * totals, the way RatingAggregateService computes them.
+     */
+    private static String providerAverages(String providerIds) {
+        return """
+                UPDATE providers p
+                SET average_punctuality_rating = %s,
+                    average_commitment_rating = %s,
+                    average_quality_of_work_rating = %s,
+                    average_rating = %s,
+                    average_interaction_rating = CASE WHEN a.interaction_count > 0
+                        THEN ROUND(CAST(a.interaction_sum / a.interaction_count AS NUMERIC), 1) ELSE 0 END,
+                    interaction_rating_count = a.interaction_count
+                FROM rating_aggregates a
+                WHERE a.user_id = p.id AND p.id IN (%s)
+                """.formatted(average("a.punctuality_sum"), average("a.commitment_sum"),
+                average("a.quality_of_work_sum"), average("a.overall_sum"), providerIds);
+    }
+
+    private static String consumerAverages(String consumerIds) {
+        return """
+                UPDATE consumers c
+                SET average_rating = %s
+                FROM rating_aggregates a
+                WHERE a.user_id = c.id AND c.id IN (%s)
+                """.formatted(average("a.overall_sum"), consumerIds);
+    }
+
+    private static String average(String sum) {
+        return "CASE WHEN a.rating_count > 0 THEN LEAST(GREATEST(%s / a.rating_count, 0), 5) ELSE 0 END"
+                .formatted(sum);
+    }
+
+    private static Step byIds(String name, Set<UserType> roles, int chunkSize, String selectIds,
+                              String... deletes) {
+        return new Step(name, roles, chunkSize, selectIds, null, List.of(), List.of(deletes));
+    }
+
+    private static Step withMedia(String name, Set<UserType> roles, int chunkSize, String selectIds,
+                                  String selectMedia, String... deletes) {
+        return new Step(name, roles, chunkSize, selectIds, selectMedia, List.of(), List.of(deletes));
+    }
+
+    private static Step once(String name, Set<UserType> roles, String... deletes) {
+        return new Step(name, roles, 0, null, null, List.of(), List.of(deletes));
+    }
+
+    record Step(String name,
+                Set<UserType> roles,
+                int chunkSize,
+                String selectIds,
+                String selectMedia,
+                List<String> adjustments,
+                List<String> deletes) {
+
+        /**
+         * Statements run before the deletes, in the same transaction, to keep rollups in step.
+         */
+        Step adjusting(String... statements) {
+            return new Step(name, roles, chunkSize, selectIds, selectMedia, List.of(statements), deletes);
+        }
+
+        boolean appliesTo(UserType role) {
+            return roles.contains(role);
+        }
+
+        boolean chunked() {
+            return selectIds != null;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.aykhedma.service.deletion;
+
+import com.aykhedma.dto.response.UserDeletionJobResponse;
+import com.aykhedma.exception.ResourceNotFoundException;
+import com.aykhedma.model.user.User;
+import com.aykhedma.model.user.UserDeletionJob;
+import com.aykhedma.model.user.UserDeletionStatus;
+import com.aykhedma.repository.UserDeletionJobRepository;
+import com.aykhedma.repository.UserRepository;
+import com.aykhedma.security.CustomUserDetailsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Entry point for deleting an account. The account is disabled and a job recorded
+ * straight away; accounts with little data are then deleted before the call
+ * returns, larger ones in the background with progress readable from the job.
+ */
+@Service
+@Slf4j
+public class UserDeletionService {
+
+    static final long INLINE_ROW_LIMIT = 2_000;
+    static final Duration STALE_AFTER = Duration.ofMinutes(10);
+
+    private final UserRepository userRepository;
+    private final UserDeletionJobRepository jobRepository;
+    private final UserDeletionEngine engine;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final CustomUserDetailsService userDetailsService;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserDeletionService(UserRepository userRepository,
+                               UserDeletionJobRepository jobRepository,
+                               UserDeletionEngine engine,
+                               NamedParameterJdbcTemplate jdbcTemplate,
+                               CustomUserDetailsService userDetailsService,
+                               PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.jobRepository = jobRepository;
+        this.engine = engine;
+        this.jdbcTemplate = jdbcTemplate;
+        this.userDetailsService = userDetailsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Returns the job, COMPLETED when the account was deleted inline. Asking again
+     * while a job is still making progress returns that job; a failed or stalled
+     * one is started over, picking up whatever is left.
+     */
+    public UserDeletionJobResponse deleteUser(Long userId) {
+        Optional<UserDeletionJob> running = jobRepository.findFirstByUserIdAndStatusInOrderByIdDesc(userId,
+                EnumSet.of(UserDeletionStatus.QUEUED, UserDeletionStatus.RUNNING));
+        if (running.isPresent() && !isStale(running.get())) {
+            return toResponse(running.get());
+        }
+
+        UserDeletionJob job = transactionTemplate.execute(tx -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+            // nobody can sign in or act as the user while the deletion runs
+            user.setEnabled(false);
+            userDetailsService.evictUser(user.getEmail());
+
+            Long estimatedRows = jdbcTemplate.queryForObject(UserDeletionPlan.ESTIMATE_ROWS,
+                    Map.of("userId", userId), Long.class);
+            LocalDateTime now = LocalDateTime.now();
+            running.ifPresent(stalled -> jobRepository.finish(stalled.getId(), UserDeletionStatus.FAILED,
+                    "Stalled; superseded by a new deletion request", now));
+            return jobRepository.save(UserDeletionJob.builder()
+                    .userId(userId)
+                    .userRole(user.getRole())
+                    .status(UserDeletionStatus.QUEUED)
+                    .estimatedRows(estimatedRows != null ? estimatedRows : 0L)
+                    .requestedAt(now)
+                    .updatedAt(now)
+                    .build());
+        });
+
+        if (job.getEstimatedRows() <= INLINE_ROW_LIMIT) {
+            engine.run(job.getId());
+            return getJob(job.getId());
+        }
+        log.info("Deleting user {} in the background, about {} rows", userId, job.getEstimatedRows());
+        engine.runAsync(job.getId());
+        return toResponse(job);
+    }
+
+    public UserDeletionJobResponse getJob(Long jobId) {
+        return jobRepository.findById(jobId)
+                .map(UserDeletionService::toResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Deletion job not found with id: " + jobId));
+    }
+
+    private static boolean isStale(UserDeletionJob job) {
+        return job.getUpdatedAt() == null || job.getUpdatedAt().isBefore(LocalDateTime.now().minus(STALE_AFTER));
+    }
+
+    private static UserDeletionJobResponse toResponse(UserDeletionJob job) {
+        return UserDeletionJobResponse.builder()
+                .jobId(job.getId())
+                .userId(job.getUserId())
+                .userRole(job.getUserRole())
+                .status(job.getStatus())
+                .currentStep(job.getCurrentStep())
+                .rowsDeleted(job.getRowsDeleted() != null ? job.getRowsDeleted() : 0)
+                .estimatedRows(job.getEstimatedRows() != null ? job.getEstimatedRows() : 0)
+                .mediaDeleted(job.getMediaDeleted() != null ? job.getMediaDeleted() : 0)
+                .requestedAt(job.getRequestedAt())
+                .finishedAt(job.getFinishedAt())
+                .error(job.getError())
+                .build();
+    }
+}
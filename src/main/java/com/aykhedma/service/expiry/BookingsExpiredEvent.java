@@ -0,0 +1,12 @@
+package com.aykhedma.service.expiry;
+
+import com.aykhedma.dto.response.ExpiredBookingProjection;
+import com.aykhedma.model.booking.BookingStatus;
+
+import java.util.List;
+
+/**
+ * Published once per committed expiry chunk, with the bookings it moved to EXPIRED.
+ */
+public record BookingsExpiredEvent(BookingStatus previousStatus, List<ExpiredBookingProjection> bookings) {
+}
@@ -0,0 +1,13 @@
+package com.aykhedma.service.expiry;
+
+import com.aykhedma.dto.response.ExpiredEmergencyRequestProjection;
+import com.aykhedma.model.emergency.EmergencyRequestStatus;
+
+import java.util.List;
+
+/**
+ * Published once per committed expiry chunk, with the emergency requests it moved to EXPIRED.
+ */
+public record EmergencyRequestsExpiredEvent(EmergencyRequestStatus previousStatus,
+                                            List<ExpiredEmergencyRequestProjection> requests) {
+}
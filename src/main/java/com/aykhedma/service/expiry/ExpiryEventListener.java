@@ -0,0 +1,117 @@
+package com.aykhedma.service.expiry;
+
+import com.aykhedma.dto.response.ExpiredBookingProjection;
+import com.aykhedma.dto.response.ExpiredEmergencyRequestProjection;
+import com.aykhedma.model.booking.BookingStatus;
+import com.aykhedma.model.emergency.EmergencyRequestStatus;
+import com.aykhedma.model.notification.NotificationType;
+import com.aykhedma.repository.BookingRepository;
+import com.aykhedma.service.NotificationFactory;
+import com.aykhedma.service.ProviderService;
+import com.aykhedma.service.availability.ReservationRetryExecutor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Follow-up work for expired bookings and emergency requests: gives held time slots
+ * back to the provider's schedule and tells the people involved. Runs after the
+ * expiry chunk committed, off the scheduler thread.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExpiryEventListener {
+
+    private final BookingRepository bookingRepository;
+    private final ProviderService providerService;
+    private final ReservationRetryExecutor reservationRetryExecutor;
+    private final NotificationFactory notificationFactory;
+
+    @Async
+    @TransactionalEventListener
+    public void releaseTimeSlots(BookingsExpiredEvent event) {
+        for (ExpiredBookingProjection expired : event.bookings()) {
+            if (expired.getTimeSlotId() == null) {
+                continue;
+            }
+            try {
+                reservationRetryExecutor.execute(() -> {
+                    bookingRepository.findById(expired.getId())
+                            .filter(booking -> booking.getStatus() == BookingStatus.EXPIRED)
+                            .ifPresent(booking -> {
+                                providerService.restoreAvailabilityForCancelledBooking(booking);
+                                bookingRepository.save(booking);
+                            });
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                log.warn("Failed to release time slot {} of expired booking {}: {}",
+                        expired.getTimeSlotId(), expired.getId(), e.getMessage());
+            }
+        }
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void notifyBookingExpired(BookingsExpiredEvent event) {
+        boolean wasPending = event.previousStatus() == BookingStatus.PENDING;
+        for (ExpiredBookingProjection expired : event.bookings()) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("bookingId", expired.getId());
+            params.put("requestedDate", String.valueOf(expired.getRequestedDate()));
+            params.put("requestedTime", String.valueOf(expired.getRequestedStartTime()));
+
+            Map<String, Object> consumerParams = new HashMap<>(params);
+            consumerParams.put("title", "Booking Expired");
+            consumerParams.put("content", wasPending
+                    ? "Your booking request expired before the provider responded."
+                    : "Your booking was not completed and has expired.");
+            send(expired.getConsumerId(), consumerParams);
+
+            Map<String, Object> providerParams = new HashMap<>(params);
+            providerParams.put("title", "Booking Expired");
+            providerParams.put("content", wasPending
+                    ? "A booking request expired before you responded."
+                    : "An accepted booking was not completed and has expired.");
+            send(expired.getProviderId(), providerParams);
+        }
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void notifyEmergencyRequestExpired(EmergencyRequestsExpiredEvent event) {
+        boolean wasWaiting = event.previousStatus() == EmergencyRequestStatus.WAITING_ACCEPTANCE;
+        for (ExpiredEmergencyRequestProjection expired : event.requests()) {
+            Map<String, Object> params = new HashMap<>();
+            params.put("emergencyId", expired.getId());
+            params.put("title", "Emergency Request Expired");
+            params.put("content", wasWaiting
+                    ? "Your emergency request expired before it was confirmed."
+                    : "Your emergency request was not completed and has expired.");
+            send(expired.getConsumerId(), params);
+
+            if (!wasWaiting && expired.getSelectedProviderId() != null) {
+                Map<String, Object> providerParams = new HashMap<>(params);
+                providerParams.put("content", "An accepted emergency request was not completed and has expired.");
+                send(expired.getSelectedProviderId(), providerParams);
+            }
+        }
+    }
+
+    private void send(Long userId, Map<String, Object> params) {
+        if (userId == null) {
+            return;
+        }
+        try {
+            notificationFactory.send(userId, NotificationType.STATUS_UPDATE, params);
+        } catch (RuntimeException e) {
+            log.warn("Failed to send expiry notification to user {}: {}", userId, e.getMessage());
+        }
+    }
+}
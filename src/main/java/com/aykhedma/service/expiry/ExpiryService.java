@@ -0,0 +1,147 @@
+package com.aykhedma.service.expiry;
+
+import com.aykhedma.dto.response.ExpiredBookingProjection;
+import com.aykhedma.dto.response.ExpiredEmergencyRequestProjection;
+import com.aykhedma.model.booking.BookingStatus;
+import com.aykhedma.model.emergency.EmergencyRequestStatus;
+import com.aykhedma.repository.BookingRepository;
+import com.aykhedma.repository.EmergencyRequestRepository;
+import com.aykhedma.service.stats.ProviderBookingStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Expires bookings and emergency requests whose deadline has passed.
+ * Due rows are found through the (status, deadline) indexes, oldest first, and
+ * expired in chunks of {@link #CHUNK_SIZE}, each in its own transaction. Every
+ * committed chunk publishes an event with exactly the rows it expired, so slot
+ * release and notifications happen downstream. A run stops after
+ * {@link #MAX_CHUNKS_PER_RUN} chunks; whatever is left is picked up next run.
+ */
+@Service
+@Slf4j
+public class ExpiryService {
+
+    static final int CHUNK_SIZE = 500;
+    static final int MAX_CHUNKS_PER_RUN = 20;
+    static final Duration ACCEPTED_BOOKING_GRACE = Duration.ofDays(1);
+    static final Duration EMERGENCY_ACCEPTANCE_WINDOW = Duration.ofHours(1);
+    static final Duration ACCEPTED_EMERGENCY_GRACE = Duration.ofDays(1);
+
+    private final BookingRepository bookingRepository;
+    private final EmergencyRequestRepository emergencyRequestRepository;
+    private final ProviderBookingStatsService providerBookingStatsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public ExpiryService(BookingRepository bookingRepository,
+                         EmergencyRequestRepository emergencyRequestRepository,
+                         ProviderBookingStatsService providerBookingStatsService,
+                         ApplicationEventPublisher eventPublisher,
+                         PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.emergencyRequestRepository = emergencyRequestRepository;
+        this.providerBookingStatsService = providerBookingStatsService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Pending bookings expire at their requested start, accepted ones a day after it.
+     * Returns the number of bookings expired.
+     */
+    public int expireDueBookings(LocalDateTime now) {
+        LocalDateTime expiredAt = now.withNano(0);
+        LocalDateTime acceptedCutoff = now.minus(ACCEPTED_BOOKING_GRACE);
+        return expireBookings(BookingStatus.PENDING, now, expiredAt)
+                + expireBookings(BookingStatus.ACCEPTED, acceptedCutoff, expiredAt);
+    }
+
+    /**
+     * Requests waiting for acceptance expire an hour after creation, accepted ones a day after.
+     * Returns the number of requests expired.
+     */
+    public int expireDueEmergencyRequests(LocalDateTime now) {
+        LocalDateTime expiredAt = now.withNano(0);
+        return expireEmergencyRequests(EmergencyRequestStatus.WAITING_ACCEPTANCE,
+                now.minus(EMERGENCY_ACCEPTANCE_WINDOW), expiredAt)
+                + expireEmergencyRequests(EmergencyRequestStatus.ACCEPTED,
+                now.minus(ACCEPTED_EMERGENCY_GRACE), expiredAt);
+    }
+
+    private int expireBookings(BookingStatus status, LocalDateTime cutoff, LocalDateTime expiredAt) {
+        Pageable chunk = PageRequest.of(0, CHUNK_SIZE);
+        return inChunks("booking", status, () -> {
+            List<Long> ids = bookingRepository.findIdsDueForExpiry(status, cutoff.toLocalDate(),
+                    cutoff.toLocalTime(), chunk);
+            if (ids.isEmpty()) {
+                return Chunk.EMPTY;
+            }
+            bookingRepository.expireByIds(ids, status, expiredAt);
+            List<ExpiredBookingProjection> expired = bookingRepository.findExpiredByIds(ids, expiredAt);
+            if (!expired.isEmpty()) {
+                providerBookingStatsService.recordExpired(status, expired);
+                eventPublisher.publishEvent(new BookingsExpiredEvent(status, expired));
+            }
+            return new Chunk(ids.size(), expired.size());
+        });
+    }
+
+    private int expireEmergencyRequests(EmergencyRequestStatus status, LocalDateTime createdBefore,
+                                        LocalDateTime expiredAt) {
+        Pageable chunk = PageRequest.of(0, CHUNK_SIZE);
+        return inChunks("emergency request", status, () -> {
+            List<Long> ids = emergencyRequestRepository.findIdsDueForExpiry(status, createdBefore, chunk);
+            if (ids.isEmpty()) {
+                return Chunk.EMPTY;
+            }
+            emergencyRequestRepository.expireByIds(ids, status, expiredAt);
+            List<ExpiredEmergencyRequestProjection> expired =
+                    emergencyRequestRepository.findExpiredByIds(ids, expiredAt);
+            if (!expired.isEmpty()) {
+                eventPublisher.publishEvent(new EmergencyRequestsExpiredEvent(status, expired));
+            }
+            return new Chunk(ids.size(), expired.size());
+        });
+    }
+
+    /**
+     * Runs {@code chunk} until a short one shows nothing more is due. Rows leave the
+     * due set once expired, so each chunk starts at the oldest remaining deadline.
+     */
+    private int inChunks(String kind, Enum<?> status, Supplier<Chunk> chunk) {
+        int total = 0;
+        for (int round = 0; round < MAX_CHUNKS_PER_RUN; round++) {
+            Chunk result = transactionTemplate.execute(tx -> chunk.get());
+            if (result == null) {
+                break;
+            }
+            total += result.expired();
+            if (result.picked() < CHUNK_SIZE) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Expired {} {} {}s", total, status, kind);
+        }
+        return total;
+    }
+
+    /**
+     * Due rows picked up by a chunk, and how many of them it actually expired
+     * (the rest changed status in the meantime).
+     */
+    private record Chunk(int picked, int expired) {
+        static final Chunk EMPTY = new Chunk(0, 0);
+    }
+}
@@ -0,0 +1,131 @@
+package com.aykhedma.service.export;
+
+import com.aykhedma.dto.response.AdminProviderResponse;
+import com.aykhedma.dto.response.UserResponse;
+import com.aykhedma.mapper.ProviderMapper;
+import com.aykhedma.mapper.UserMapper;
+import com.aykhedma.model.user.Provider;
+import com.aykhedma.model.user.User;
+import com.aykhedma.model.user.UserType;
+import com.aykhedma.model.user.VerificationStatus;
+import com.aykhedma.repository.ProviderRepository;
+import com.aykhedma.repository.UserRepository;
+import com.aykhedma.repository.UserSpecifications;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Admin exports of every matching user or provider. Rows come off a forward-only
+ * cursor, are written to the response and detached straight away, so neither the
+ * heap nor the persistence context grows with the size of the export.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdminExportService {
+
+    static final int FLUSH_EVERY = 500;
+
+    private static final LinkedHashMap<String, Function<UserResponse, Object>> USER_COLUMNS = new LinkedHashMap<>();
+    private static final LinkedHashMap<String, Function<AdminProviderResponse, Object>> PROVIDER_COLUMNS =
+            new LinkedHashMap<>();
+
+    static {
+        USER_COLUMNS.put("id", UserResponse::getId);
+        USER_COLUMNS.put("name", UserResponse::getName);
+        USER_COLUMNS.put("email", UserResponse::getEmail);
+        USER_COLUMNS.put("phoneNumber", UserResponse::getPhoneNumber);
+        USER_COLUMNS.put("role", UserResponse::getRole);
+        USER_COLUMNS.put("enabled", UserResponse::isEnabled);
+        USER_COLUMNS.put("preferredLanguage", UserResponse::getPreferredLanguage);
+        USER_COLUMNS.put("createdAt", UserResponse::getCreatedAt);
+
+        PROVIDER_COLUMNS.put("id", AdminProviderResponse::getId);
+        PROVIDER_COLUMNS.put("name", AdminProviderResponse::getName);
+        PROVIDER_COLUMNS.put("email", AdminProviderResponse::getEmail);
+        PROVIDER_COLUMNS.put("phoneNumber", AdminProviderResponse::getPhoneNumber);
+        PROVIDER_COLUMNS.put("enabled", AdminProviderResponse::isEnabled);
+        PROVIDER_COLUMNS.put("verificationStatus", AdminProviderResponse::getVerificationStatus);
+        PROVIDER_COLUMNS.put("serviceType", AdminProviderResponse::getServiceType);
+        PROVIDER_COLUMNS.put("serviceCategory", AdminProviderResponse::getServiceCategory);
+        PROVIDER_COLUMNS.put("area", AdminProviderResponse::getArea);
+        PROVIDER_COLUMNS.put("completedJobs", AdminProviderResponse::getCompletedJobs);
+        PROVIDER_COLUMNS.put("totalBookings", AdminProviderResponse::getTotalBookings);
+        PROVIDER_COLUMNS.put("averageRating", AdminProviderResponse::getAverageRating);
+        PROVIDER_COLUMNS.put("acceptanceRate", AdminProviderResponse::getAcceptanceRate);
+        PROVIDER_COLUMNS.put("cancellationRate", AdminProviderResponse::getCancellationRate);
+        PROVIDER_COLUMNS.put("createdAt", AdminProviderResponse::getCreatedAt);
+    }
+
+    private final UserRepository userRepository;
+    private final ProviderRepository providerRepository;
+    private final UserMapper userMapper;
+    private final ProviderMapper providerMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    /**
+     * Takes the same filters as the admin user search. The cursor needs the transaction
+     * open for the whole export, so call this from the thread writing the response.
+     */
+    @Transactional(readOnly = true)
+    public void exportUsers(UserType role, Boolean enabled, LocalDateTime startDate, LocalDateTime endDate,
+                            String keyword, Long excludeUserId, ExportFormat format, OutputStream out)
+            throws IOException {
+        try (Stream<User> users = userRepository.streamAll(UserSpecifications.adminSearch(
+                     role, enabled, startDate, endDate, normalizeKeyword(keyword), excludeUserId));
+             ExportWriter<UserResponse> writer = ExportWriter.open(format, out, objectMapper, USER_COLUMNS)) {
+            long rows = writeAll(users, userMapper::toUserResponse, writer);
+            log.info("Exported {} users as {}", rows, format);
+        }
+    }
+
+    /**
+     * Takes the same filters as the admin provider search.
+     */
+    @Transactional(readOnly = true)
+    public void exportProviders(String keyword, VerificationStatus status, Boolean enabled,
+                                ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Provider> providers = providerRepository.streamProvidersForAdmin(
+                     normalizeKeyword(keyword), status, enabled);
+             ExportWriter<AdminProviderResponse> writer =
+                     ExportWriter.open(format, out, objectMapper, PROVIDER_COLUMNS)) {
+            long rows = writeAll(providers, providerMapper::toAdminProviderResponse, writer);
+            log.info("Exported {} providers as {}", rows, format);
+        }
+    }
+
+    private <E, R> long writeAll(Stream<E> entities, Function<E, R> mapper, ExportWriter<R> writer)
+            throws IOException {
+        long rows = 0;
+        Iterator<E> iterator = entities.iterator();
+        while (iterator.hasNext()) {
+            E entity = iterator.next();
+            writer.write(mapper.apply(entity));
+            entityManager.detach(entity);
+            if (++rows % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        return rows;
+    }
+
+    private String normalizeKeyword(String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            return null;
+        }
+        return keyword.trim();
+    }
+}
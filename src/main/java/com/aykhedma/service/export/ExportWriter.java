@@ -0,0 +1,114 @@
+package com.aykhedma.service.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.function.Function;
+
+/**
+ * Writes export rows to the response as they are produced: a CSV line per row,
+ * or one element of a JSON array. Nothing is held beyond the current row.
+ */
+public abstract class ExportWriter<T> implements Closeable {
+
+    public static <T> ExportWriter<T> open(ExportFormat format, OutputStream out, ObjectMapper objectMapper,
+                                           LinkedHashMap<String, Function<T, Object>> csvColumns) throws IOException {
+        return format == ExportFormat.JSON
+                ? new JsonExportWriter<>(objectMapper, out)
+                : new CsvExportWriter<>(csvColumns, out);
+    }
+
+    public abstract void write(T row) throws IOException;
+
+    public abstract void flush() throws IOException;
+
+    private static final class CsvExportWriter<T> extends ExportWriter<T> {
+
+        private final LinkedHashMap<String, Function<T, Object>> columns;
+        private final Writer writer;
+
+        private CsvExportWriter(LinkedHashMap<String, Function<T, Object>> columns, OutputStream out)
+                throws IOException {
+            this.columns = columns;
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writeLine(columns.keySet());
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            writeLine(columns.values().stream().map(column -> column.apply(row)).toList());
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        private void writeLine(Iterable<?> values) throws IOException {
+            boolean first = true;
+            for (Object value : values) {
+                if (!first) {
+                    writer.write(',');
+                }
+                writer.write(escape(value));
+                first = false;
+            }
+            writer.write("\r\n");
+        }
+    }
+
+    private static final class JsonExportWriter<T> extends ExportWriter<T> {
+
+        private final JsonGenerator generator;
+
+        private JsonExportWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            generator.writeObject(row);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.writeEndArray();
+            generator.close();
+        }
+    }
+
+    static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        // Spreadsheets run cells starting with these as formulas; numbers are left alone so -5 stays -5
+        if (!(value instanceof Number) && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,194 @@
+package com.aykhedma.service.metrics;
+
+import com.aykhedma.dto.response.DailyCountProjection;
+import com.aykhedma.dto.response.DailyCountResponse;
+import com.aykhedma.dto.response.DashboardStatsResponse;
+import com.aykhedma.model.listener.DashboardMetricsListener;
+import com.aykhedma.model.user.VerificationStatus;
+import com.aykhedma.repository.BookingRepository;
+import com.aykhedma.repository.ProviderRepository;
+import com.aykhedma.repository.ServiceTypeRepository;
+import com.aykhedma.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admin dashboard counters served from memory. Entity lifecycle callbacks
+ * ({@link DashboardMetricsListener}) adjust them as registrations, approvals,
+ * deletions and bookings commit; a background reconciliation re-counts from the
+ * database so bulk statements and other instances' writes are caught up with.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardMetricsService {
+
+    static final int SERIES_DAYS = 30;
+
+    private final UserRepository userRepository;
+    private final ProviderRepository providerRepository;
+    private final ServiceTypeRepository serviceTypeRepository;
+    private final BookingRepository bookingRepository;
+
+    private final AtomicLong totalUsers = new AtomicLong();
+    private final AtomicLong totalProviders = new AtomicLong();
+    private final AtomicLong pendingProviders = new AtomicLong();
+    private final AtomicLong totalServices = new AtomicLong();
+    private volatile Map<LocalDate, AtomicLong> signupsPerDay = new ConcurrentHashMap<>();
+    private volatile Map<LocalDate, AtomicLong> bookingsPerDay = new ConcurrentHashMap<>();
+    private volatile LocalDateTime reconciledAt;
+
+    public DashboardStatsResponse getStats() {
+        if (reconciledAt == null) {
+            reconcile();
+        }
+        return DashboardStatsResponse.builder()
+                .totalUsers(totalUsers.get())
+                .totalProviders(totalProviders.get())
+                .pendingProviders(pendingProviders.get())
+                .totalServices(totalServices.get())
+                .signupsPerDay(series(signupsPerDay))
+                .bookingsPerDay(series(bookingsPerDay))
+                .reconciledAt(reconciledAt)
+                .build();
+    }
+
+    /**
+     * Re-counts everything. Changes committing while this runs may be counted twice
+     * or not at all until the next run.
+     */
+    @Scheduled(fixedDelayString = "${admin.dashboard.reconcile-interval-ms:600000}")
+    public synchronized void reconcile() {
+        try {
+            LocalDateTime from = LocalDate.now().minusDays(SERIES_DAYS - 1L).atStartOfDay();
+            totalUsers.set(userRepository.countRows());
+            totalProviders.set(providerRepository.countRows());
+            pendingProviders.set(providerRepository.countRowsByVerificationStatus(VerificationStatus.PENDING.name()));
+            totalServices.set(serviceTypeRepository.countServices());
+            signupsPerDay = buckets(userRepository.countCreatedPerDay(from));
+            bookingsPerDay = buckets(bookingRepository.countCreatedPerDay(from));
+            reconciledAt = LocalDateTime.now();
+        } catch (RuntimeException ex) {
+            log.warn("Dashboard metrics reconciliation failed: {}", ex.getMessage());
+            if (reconciledAt == null) {
+                throw ex;
+            }
+        }
+    }
+
+    public void userAdded(LocalDateTime createdAt) {
+        afterCommit(() -> {
+            totalUsers.incrementAndGet();
+            bump(signupsPerDay, createdAt, 1);
+        });
+    }
+
+    public void userRemoved(LocalDateTime createdAt) {
+        afterCommit(() -> {
+            totalUsers.decrementAndGet();
+            bump(signupsPerDay, createdAt, -1);
+        });
+    }
+
+    public void providerAdded(VerificationStatus status) {
+        afterCommit(() -> {
+            totalProviders.incrementAndGet();
+            if (status == VerificationStatus.PENDING) {
+                pendingProviders.incrementAndGet();
+            }
+        });
+    }
+
+    public void providerRemoved(VerificationStatus status) {
+        afterCommit(() -> {
+            totalProviders.decrementAndGet();
+            if (status == VerificationStatus.PENDING) {
+                pendingProviders.decrementAndGet();
+            }
+        });
+    }
+
+    public void providerVerificationChanged(VerificationStatus from, VerificationStatus to) {
+        if (from == null || from == to) {
+            return;
+        }
+        afterCommit(() -> {
+            if (from == VerificationStatus.PENDING) {
+                pendingProviders.decrementAndGet();
+            } else if (to == VerificationStatus.PENDING) {
+                pendingProviders.incrementAndGet();
+            }
+        });
+    }
+
+    public void serviceTypesChanged(int delta) {
+        afterCommit(() -> totalServices.addAndGet(delta));
+    }
+
+    public void bookingAdded(LocalDateTime createdAt) {
+        afterCommit(() -> bump(bookingsPerDay, createdAt, 1));
+    }
+
+    public void bookingRemoved(LocalDateTime createdAt) {
+        afterCommit(() -> bump(bookingsPerDay, createdAt, -1));
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private static void bump(Map<LocalDate, AtomicLong> buckets, LocalDateTime at, int delta) {
+        LocalDate day = at != null ? at.toLocalDate() : LocalDate.now();
+        if (day.isBefore(LocalDate.now().minusDays(SERIES_DAYS - 1L))) {
+            return;
+        }
+        buckets.computeIfAbsent(day, d -> new AtomicLong()).addAndGet(delta);
+    }
+
+    private static Map<LocalDate, AtomicLong> buckets(List<DailyCountProjection> rows) {
+        Map<LocalDate, AtomicLong> buckets = new ConcurrentHashMap<>();
+        for (DailyCountProjection row : rows) {
+            if (row.getDay() != null && row.getTotal() != null) {
+                buckets.put(row.getDay(), new AtomicLong(row.getTotal()));
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * One entry per day of the last {@link #SERIES_DAYS} days, oldest first, zero-filled.
+     */
+    private static List<DailyCountResponse> series(Map<LocalDate, AtomicLong> buckets) {
+        LocalDate today = LocalDate.now();
+        List<DailyCountResponse> series = new ArrayList<>(SERIES_DAYS);
+        for (LocalDate day = today.minusDays(SERIES_DAYS - 1L); !day.isAfter(today); day = day.plusDays(1)) {
+            AtomicLong count = buckets.get(day);
+            series.add(DailyCountResponse.builder()
+                    .date(day)
+                    .count(count != null ? Math.max(0, count.get()) : 0)
+                    .build());
+        }
+        return series;
+    }
+}
@@ -0,0 +1,149 @@
+package com.aykhedma.service.rating;
+
+import com.aykhedma.dto.response.RatingTotalsProjection;
+import com.aykhedma.model.user.Consumer;
+import com.aykhedma.model.user.Provider;
+import com.aykhedma.repository.RatingAggregateRepository;
+import com.aykhedma.service.backfill.StartupBackfill;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps provider and consumer rating averages from per-user sums and counts.
+ * A new rating is one atomic UPDATE of the user's totals; that row stays locked
+ * until commit, so the averages written from it can't lose a concurrent rating.
+ * The averages on the user are written only from here, and also set on the
+ * passed entity so the caller's response shows them.
+ */
+@Service
+@RequiredArgsConstructor
+public class RatingAggregateService implements StartupBackfill {
+
+    private final RatingAggregateRepository ratingAggregateRepository;
+
+    /**
+     * A consumer's rating of a provider, from a booking or an emergency request.
+     */
+    @Transactional
+    public void recordProviderRating(Provider provider, double punctuality, double commitment,
+                                     double qualityOfWork, double overall) {
+        Long providerId = provider.getId();
+        ratingAggregateRepository.insertIfAbsent(providerId);
+        ratingAggregateRepository.addServiceRating(providerId, punctuality, commitment, qualityOfWork, overall);
+        writeProviderAverages(provider, totals(providerId));
+    }
+
+    /**
+     * A provider's rating of a consumer, from a booking or an emergency request.
+     */
+    @Transactional
+    public void recordConsumerRating(Consumer consumer, double rating) {
+        Long consumerId = consumer.getId();
+        ratingAggregateRepository.insertIfAbsent(consumerId);
+        ratingAggregateRepository.addOverallRating(consumerId, rating);
+        writeConsumerAverage(consumer, totals(consumerId));
+    }
+
+    @Transactional
+    public void recordInteractionRating(Provider provider, double rating) {
+        Long providerId = provider.getId();
+        ratingAggregateRepository.insertIfAbsent(providerId);
+        ratingAggregateRepository.addInteractionRating(providerId, rating);
+
+        RatingTotalsProjection totals = totals(providerId);
+        int count = Math.toIntExact(totals.getInteractionCount());
+        double average = round(totals.getInteractionSum() / count);
+        ratingAggregateRepository.writeProviderInteractionAverage(providerId, average, count);
+        provider.setInteractionRatingCount(count);
+        provider.setAverageInteractionRating(average);
+    }
+
+    /**
+     * Late-cancellation penalty: lowers the provider's overall average by {@code penalty}.
+     */
+    @Transactional
+    public void applyCancellationPenalty(Provider provider, double penalty) {
+        RatingTotalsProjection totals = penalize(provider.getId(), penalty);
+        if (totals == null) {
+            return;
+        }
+        double overall = average(totals.getOverallSum(), totals.getRatingCount());
+        ratingAggregateRepository.writeProviderOverallAverage(provider.getId(), overall);
+        provider.setAverageRating(overall);
+    }
+
+    /**
+     * Late-cancellation penalty: lowers the consumer's average by {@code penalty}.
+     */
+    @Transactional
+    public void applyCancellationPenalty(Consumer consumer, double penalty) {
+        RatingTotalsProjection totals = penalize(consumer.getId(), penalty);
+        if (totals == null) {
+            return;
+        }
+        writeConsumerAverage(consumer, totals);
+    }
+
+    @Override
+    public String backfillName() {
+        return "rating-aggregates";
+    }
+
+    /**
+     * Adds totals for users rated before aggregates existed; users that have a row are skipped.
+     */
+    @Override
+    public int backfill() {
+        return ratingAggregateRepository.backfillMissingAggregates();
+    }
+
+    /**
+     * Applies the penalty to the user's totals; {@code null} while the user has no ratings,
+     * in which case there is no average to lower.
+     */
+    private RatingTotalsProjection penalize(Long userId, double penalty) {
+        if (ratingAggregateRepository.applyPenalty(userId, penalty) == 0) {
+            return null;
+        }
+        RatingTotalsProjection totals = totals(userId);
+        return totals.getRatingCount() > 0 ? totals : null;
+    }
+
+    private RatingTotalsProjection totals(Long userId) {
+        return ratingAggregateRepository.findTotals(userId)
+                .orElseThrow(() -> new IllegalStateException("Rating totals missing for user " + userId));
+    }
+
+    private void writeProviderAverages(Provider provider, RatingTotalsProjection totals) {
+        long count = totals.getRatingCount();
+        double punctuality = average(totals.getPunctualitySum(), count);
+        double commitment = average(totals.getCommitmentSum(), count);
+        double qualityOfWork = average(totals.getQualityOfWorkSum(), count);
+        double overall = average(totals.getOverallSum(), count);
+
+        ratingAggregateRepository.writeProviderAverages(provider.getId(), punctuality, commitment, qualityOfWork,
+                overall);
+        provider.setAveragePunctualityRating(punctuality);
+        provider.setAverageCommitmentRating(commitment);
+        provider.setAverageQualityOfWorkRating(qualityOfWork);
+        provider.setAverageRating(overall);
+    }
+
+    private void writeConsumerAverage(Consumer consumer, RatingTotalsProjection totals) {
+        double overall = average(totals.getOverallSum(), totals.getRatingCount());
+        ratingAggregateRepository.writeConsumerAverage(consumer.getId(), overall);
+        consumer.setAverageRating(overall);
+    }
+
+    private static double average(Double sum, long count) {
+        if (count <= 0 || sum == null) {
+            return 0.0;
+        }
+        return Math.max(0.0, Math.min(5.0, sum / count));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10.0) / 10.0;
+    }
+}
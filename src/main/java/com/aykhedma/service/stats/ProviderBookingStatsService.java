@@ -0,0 +1,178 @@
+package com.aykhedma.service.stats;
+
+import com.aykhedma.dto.response.BookingStatsTotalsProjection;
+import com.aykhedma.dto.response.ExpiredBookingProjection;
+import com.aykhedma.dto.response.MonthlyBookingStatsResponse;
+import com.aykhedma.dto.response.WeeklyBookingStatsResponse;
+import com.aykhedma.model.booking.Booking;
+import com.aykhedma.model.booking.BookingStatus;
+import com.aykhedma.model.booking.ProviderDailyBookingStats;
+import com.aykhedma.repository.ProviderDailyBookingStatsRepository;
+import com.aykhedma.service.backfill.StartupBackfill;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-provider daily booking counts behind the provider dashboard charts.
+ * Every booking status transition moves the booking between the accepted,
+ * completed and cancelled counters of its requested day, so reading a week or
+ * six months is a handful of rollup rows whatever the booking history size.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProviderBookingStatsService implements StartupBackfill {
+
+    static final int CHART_MONTHS = 6;
+
+    private final ProviderDailyBookingStatsRepository statsRepository;
+
+    /**
+     * Call in the transaction that changes the booking's status, with the status it had before.
+     */
+    @Transactional
+    public void recordTransition(Booking booking, BookingStatus from, BookingStatus to) {
+        if (from == to || booking.getProvider() == null || booking.getRequestedDate() == null) {
+            return;
+        }
+        int[] delta = new int[3];
+        count(delta, from, -1);
+        count(delta, to, 1);
+        if (isZero(delta)) {
+            return;
+        }
+        apply(booking.getProvider().getId(), booking.getRequestedDate(), delta, 1);
+    }
+
+    /**
+     * Bookings moved to EXPIRED by a bulk update; only accepted ones were counted.
+     */
+    @Transactional
+    public void recordExpired(BookingStatus previousStatus, List<ExpiredBookingProjection> expired) {
+        int[] delta = new int[3];
+        count(delta, previousStatus, -1);
+        if (isZero(delta)) {
+            return;
+        }
+        // one update per provider day, in key order so concurrent chunks lock rows alike
+        Map<DayKey, Integer> perDay = new TreeMap<>(Comparator.comparing(DayKey::providerId)
+                .thenComparing(DayKey::date));
+        for (ExpiredBookingProjection booking : expired) {
+            if (booking.getProviderId() != null && booking.getRequestedDate() != null) {
+                perDay.merge(new DayKey(booking.getProviderId(), booking.getRequestedDate()), 1, Integer::sum);
+            }
+        }
+        perDay.forEach((day, bookings) -> apply(day.providerId(), day.date(), delta, bookings));
+    }
+
+    /**
+     * Bookings of the current Saturday-to-Friday week: accepted or completed, and cancelled.
+     */
+    @Transactional(readOnly = true)
+    public WeeklyBookingStatsResponse getWeeklyStats(Long providerId, LocalDate today) {
+        LocalDate weekStart = today.with(DayOfWeek.MONDAY).minusDays(2);
+        BookingStatsTotalsProjection totals = statsRepository.sumBetween(providerId, weekStart, weekStart.plusDays(6));
+
+        return WeeklyBookingStatsResponse.builder()
+                .acceptedAndCompletedBookings(toInt(totals.getAccepted()) + toInt(totals.getCompleted()))
+                .cancelledBookings(toInt(totals.getCancelled()))
+                .build();
+    }
+
+    /**
+     * Completed and cancelled bookings of each of the six months before the current one.
+     */
+    @Transactional(readOnly = true)
+    public MonthlyBookingStatsResponse getMonthlyStats(Long providerId, LocalDate today) {
+        YearMonth current = YearMonth.from(today);
+        Map<YearMonth, int[]> byMonth = new LinkedHashMap<>();
+        for (int i = CHART_MONTHS; i >= 1; i--) {
+            byMonth.put(current.minusMonths(i), new int[2]);
+        }
+
+        LocalDate from = current.minusMonths(CHART_MONTHS).atDay(1);
+        LocalDate to = current.minusMonths(1).atEndOfMonth();
+        for (ProviderDailyBookingStats day : statsRepository
+                .findByProviderIdAndStatDateBetweenOrderByStatDate(providerId, from, to)) {
+            int[] month = byMonth.get(YearMonth.from(day.getStatDate()));
+            month[0] += day.getCompletedCount();
+            month[1] += day.getCancelledCount();
+        }
+
+        List<String> months = new ArrayList<>();
+        List<Integer> completedBookings = new ArrayList<>(), cancelledBookings = new ArrayList<>();
+        byMonth.forEach((month, counts) -> {
+            months.add(month.getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH));
+            completedBookings.add(counts[0]);
+            cancelledBookings.add(counts[1]);
+        });
+
+        return MonthlyBookingStatsResponse.builder()
+                .months(months)
+                .completedBookings(completedBookings)
+                .cancelledBookings(cancelledBookings)
+                .build();
+    }
+
+    @Override
+    public String backfillName() {
+        return "provider-daily-booking-stats";
+    }
+
+    @Override
+    public boolean backfillOnce() {
+        return true;
+    }
+
+    /**
+     * Rebuilds the whole rollup from the booking history. Rows written by transitions
+     * before this ran only hold post-deploy deltas, so they are replaced, not kept.
+     */
+    @Override
+    public int backfill() {
+        statsRepository.lockForRebuild();
+        statsRepository.deleteAllDays();
+        return statsRepository.insertFromBookings();
+    }
+
+    private void apply(Long providerId, LocalDate date, int[] delta, int times) {
+        statsRepository.insertIfAbsent(providerId, date);
+        statsRepository.adjust(providerId, date, delta[0] * times, delta[1] * times, delta[2] * times);
+    }
+
+    private static void count(int[] delta, BookingStatus status, int sign) {
+        if (status == null) {
+            return;
+        }
+        switch (status) {
+            case ACCEPTED -> delta[0] += sign;
+            case COMPLETED -> delta[1] += sign;
+            case CANCELLED -> delta[2] += sign;
+            default -> {
+            }
+        }
+    }
+
+    private static boolean isZero(int[] delta) {
+        return delta[0] == 0 && delta[1] == 0 && delta[2] == 0;
+    }
+
+    private static int toInt(Long value) {
+        return value != null ? value.intValue() : 0;
+    }
+
+    private record DayKey(Long providerId, LocalDate date) {
+    }
+}
@@ -4,7 +4,6 @@ import com.aykhedma.dto.response.verification.FaceMatchResponse;
 import com.aykhedma.dto.response.verification.NidExtractionResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.MultipartBodyBuilder;
@@ -19,23 +18,18 @@ import org.springframework.web.reactive.function.client.WebClient;
 @RequiredArgsConstructor
 public class VerificationServiceImpl implements VerificationService {
 
-    private final WebClient.Builder webClientBuilder;
-
-    @Value("${verification.service.url:http://127.0.0.1:8000}")
-    private String verificationServiceUrl;
+    private final WebClient verificationWebClient;
 
     @Override
     public NidExtractionResponse extractNid(MultipartFile idImage) {
         try {
-            WebClient webClient = webClientBuilder.baseUrl(verificationServiceUrl).build();
-
             MultipartBodyBuilder builder = new MultipartBodyBuilder();
             builder.part("file", idImage.getResource())
                    .filename(idImage.getOriginalFilename());
 
             MultiValueMap<String, HttpEntity<?>> multipartBody = builder.build();
 
-            return webClient.post()
+            return verificationWebClient.post()
                     .uri("/extract-nid")
                     .contentType(MediaType.MULTIPART_FORM_DATA)
                     .body(BodyInserters.fromMultipartData(multipartBody))
@@ -54,8 +48,6 @@ public class VerificationServiceImpl implements VerificationService {
     @Override
     public FaceMatchResponse matchFaces(MultipartFile idImage, MultipartFile selfieImage) {
         try {
-            WebClient webClient = webClientBuilder.baseUrl(verificationServiceUrl).build();
-
             MultipartBodyBuilder builder = new MultipartBodyBuilder();
             builder.part("id_image", idImage.getResource())
                    .filename(idImage.getOriginalFilename());
@@ -64,7 +56,7 @@ public class VerificationServiceImpl implements VerificationService {
 
             MultiValueMap<String, HttpEntity<?>> multipartBody = builder.build();
 
-            return webClient.post()
+            return verificationWebClient.post()
                     .uri("/face-match")
                     .contentType(MediaType.MULTIPART_FORM_DATA)
                     .body(BodyInserters.fromMultipartData(multipartBody))
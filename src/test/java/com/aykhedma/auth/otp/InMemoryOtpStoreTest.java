@@ -0,0 +1,97 @@
+package com.aykhedma.auth.otp;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("InMemoryOtpStore Unit Tests")
+class InMemoryOtpStoreTest {
+
+    private final TestClock clock = new TestClock();
+    private final InMemoryOtpStore store = new InMemoryOtpStore(clock);
+
+    @Test
+    @DisplayName("a code can no longer be used once its TTL has passed")
+    void verify_afterTtl_notFound() {
+        store.save("a@mail.com", "123456", Duration.ofSeconds(30));
+
+        clock.advance(Duration.ofSeconds(31));
+
+        assertThat(store.verify("a@mail.com", "123456", 5)).isEqualTo(OtpVerification.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("the wheel drops expired entries, and only those")
+    void advance_dropsOnlyExpiredEntries() {
+        store.save("short@mail.com", "111111", Duration.ofSeconds(5));
+        store.save("long@mail.com", "222222", Duration.ofMinutes(20));
+
+        clock.advance(Duration.ofSeconds(7));
+        store.advance();
+        assertThat(store.size()).isEqualTo(1);
+
+        // a full turn of the wheel later, the long-lived code is still kept until it is due
+        clock.advance(Duration.ofSeconds(InMemoryOtpStore.WHEEL_SLOTS));
+        store.advance();
+        assertThat(store.size()).isEqualTo(1);
+
+        clock.advance(Duration.ofMinutes(20));
+        store.advance();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("the last allowed wrong guess burns the code")
+    void verify_wrongGuessesBurnCode() {
+        store.save("a@mail.com", "123456", Duration.ofMinutes(10));
+
+        assertThat(store.verify("a@mail.com", "000000", 2)).isEqualTo(OtpVerification.INVALID);
+        assertThat(store.verify("a@mail.com", "000000", 2)).isEqualTo(OtpVerification.TOO_MANY_ATTEMPTS);
+        assertThat(store.verify("a@mail.com", "123456", 2)).isEqualTo(OtpVerification.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("a bucket allows its capacity at once and then one per refill period")
+    void tryAcquire_tokenBucket() {
+        Duration refill = Duration.ofMinutes(1);
+
+        assertThat(store.tryAcquire("ip", 2, refill)).isTrue();
+        assertThat(store.tryAcquire("ip", 2, refill)).isTrue();
+        assertThat(store.tryAcquire("ip", 2, refill)).isFalse();
+
+        clock.advance(Duration.ofSeconds(61));
+        assertThat(store.tryAcquire("ip", 2, refill)).isTrue();
+        assertThat(store.tryAcquire("ip", 2, refill)).isFalse();
+    }
+
+    private static final class TestClock extends Clock {
+
+        private Instant now = Instant.parse("2026-07-01T10:00:00.250Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.aykhedma.benchmark;
+
+import com.aykhedma.model.booking.Schedule;
+import com.aykhedma.model.booking.TimeSlot;
+import com.aykhedma.model.booking.TimeSlotStatus;
+import com.aykhedma.service.availability.SlotIntervalSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reserve + release of one booking on a provider day, interval set vs. the previous
+ * sort-and-rebuild list handling. Day layouts: 08:00-20:00 with 0-6 accepted bookings.
+ * Run {@link #main} from the test classpath; not part of {@code mvn test}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AvailabilityBenchmark {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 1);
+    private static final long BUFFER_MINUTES = 30;
+
+    @Param({"0", "3", "6"})
+    public int bookingsPerDay;
+
+    private final Schedule schedule = Schedule.builder().id(1L).build();
+    private List<TimeSlot> layout;
+    private LocalTime bookingStart;
+    private LocalTime bookingEnd;
+
+    @Setup
+    public void setUp() {
+        SlotIntervalSet day = SlotIntervalSet.of(DATE, List.of(slot(1L, LocalTime.of(8, 0), LocalTime.of(20, 0),
+                TimeSlotStatus.AVAILABLE)));
+        for (int i = 0; i < bookingsPerDay; i++) {
+            LocalTime start = LocalTime.of(8, 30).plusMinutes(100L * i);
+            day.reserve(start, start.plusMinutes(30), BUFFER_MINUTES, true);
+        }
+        day.diff();
+
+        layout = new ArrayList<>();
+        long id = 1;
+        for (SlotIntervalSet.Interval interval : day.intervals()) {
+            layout.add(slot(id++, interval.getStart(), interval.getEnd(), interval.getStatus()));
+        }
+
+        SlotIntervalSet.Interval widest = day.available().stream()
+                .max(Comparator.comparing(interval -> interval.getEnd().toSecondOfDay()
+                        - interval.getStart().toSecondOfDay()))
+                .orElseThrow();
+        bookingStart = widest.getStart().plusMinutes(BUFFER_MINUTES);
+        bookingEnd = bookingStart.plusMinutes(30);
+    }
+
+    @Benchmark
+    public void intervalSet(Blackhole blackhole) {
+        SlotIntervalSet day = SlotIntervalSet.of(DATE, copyLayout());
+        SlotIntervalSet.Interval booked = day.reserve(bookingStart, bookingEnd, BUFFER_MINUTES, true);
+        Long bookedId = booked.getSlot().getId();
+        blackhole.consume(day.diff());
+
+        day.release(bookedId);
+        blackhole.consume(day.diff());
+    }
+
+    @Benchmark
+    public void sortAndRebuild(Blackhole blackhole) {
+        List<TimeSlot> day = copyLayout();
+        TimeSlot booked = legacyReserve(day);
+        blackhole.consume(day);
+
+        legacyRelease(day, booked);
+        blackhole.consume(day);
+    }
+
+    private TimeSlot legacyReserve(List<TimeSlot> day) {
+        TimeSlot containing = day.stream()
+                .filter(slot -> slot.getStatus() == TimeSlotStatus.AVAILABLE)
+                .sorted(Comparator.comparing(TimeSlot::getStartTime))
+                .filter(slot -> !bookingStart.isBefore(slot.getStartTime()) && !bookingEnd.isAfter(slot.getEndTime()))
+                .findFirst()
+                .orElseThrow();
+        LocalTime blockedStart = bookingStart.minusMinutes(BUFFER_MINUTES).isBefore(containing.getStartTime())
+                ? containing.getStartTime() : bookingStart.minusMinutes(BUFFER_MINUTES);
+        LocalTime blockedEnd = bookingEnd.plusMinutes(BUFFER_MINUTES);
+
+        day.remove(containing);
+        List<TimeSlot> pieces = new ArrayList<>();
+        if (containing.getStartTime().isBefore(blockedStart)) {
+            pieces.add(slot(null, containing.getStartTime(), blockedStart, TimeSlotStatus.AVAILABLE));
+        }
+        if (blockedStart.isBefore(bookingStart)) {
+            pieces.add(slot(null, blockedStart, bookingStart, TimeSlotStatus.UNAVAILABLE));
+        }
+        TimeSlot booked = slot(null, bookingStart, bookingEnd, TimeSlotStatus.BOOKED);
+        pieces.add(booked);
+        pieces.add(slot(null, bookingEnd, blockedEnd, TimeSlotStatus.UNAVAILABLE));
+        if (blockedEnd.isBefore(containing.getEndTime())) {
+            pieces.add(slot(null, blockedEnd, containing.getEndTime(), TimeSlotStatus.AVAILABLE));
+        }
+        day.addAll(pieces);
+        return booked;
+    }
+
+    private void legacyRelease(List<TimeSlot> day, TimeSlot booked) {
+        day.stream()
+                .filter(slot -> slot.getStatus() == TimeSlotStatus.UNAVAILABLE)
+                .filter(slot -> slot.getEndTime().equals(booked.getStartTime())
+                        || slot.getStartTime().equals(booked.getEndTime()))
+                .forEach(slot -> slot.setStatus(TimeSlotStatus.AVAILABLE));
+        booked.setStatus(TimeSlotStatus.AVAILABLE);
+
+        List<TimeSlot> available = day.stream()
+                .sorted(Comparator.comparing(TimeSlot::getStartTime))
+                .toList()
+                .stream()
+                .filter(slot -> slot.getStatus() == TimeSlotStatus.AVAILABLE)
+                .sorted(Comparator.comparing(TimeSlot::getStartTime))
+                .toList();
+        List<TimeSlot> toDelete = new ArrayList<>();
+        TimeSlot current = available.get(0);
+        for (int i = 1; i < available.size(); i++) {
+            TimeSlot next = available.get(i);
+            if (!next.getStartTime().isAfter(current.getEndTime())) {
+                if (next.getEndTime().isAfter(current.getEndTime())) {
+                    current.setEndTime(next.getEndTime());
+                }
+                toDelete.add(next);
+            } else {
+                current = next;
+            }
+        }
+        day.removeAll(toDelete);
+    }
+
+    private List<TimeSlot> copyLayout() {
+        List<TimeSlot> copy = new ArrayList<>(layout.size());
+        for (TimeSlot slot : layout) {
+            copy.add(slot(slot.getId(), slot.getStartTime(), slot.getEndTime(), slot.getStatus()));
+        }
+        return copy;
+    }
+
+    private TimeSlot slot(Long id, LocalTime start, LocalTime end, TimeSlotStatus status) {
+        return TimeSlot.builder()
+                .id(id)
+                .date(DATE)
+                .startTime(start)
+                .endTime(end)
+                .status(status)
+                .schedule(schedule)
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AvailabilityBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -5,7 +5,10 @@ import com.aykhedma.dto.request.RejectProviderRequest;
 import com.aykhedma.dto.response.ProviderResponse;
 import com.aykhedma.exception.BadRequestException;
 import com.aykhedma.model.user.VerificationStatus;
+import com.aykhedma.model.user.UserType;
 import com.aykhedma.service.AdminService;
+import com.aykhedma.service.export.AdminExportService;
+import com.aykhedma.service.export.ExportFormat;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,11 +16,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -32,6 +41,9 @@ class AdminControllerTest {
     @Mock
     private AuthService authService;
 
+    @Mock
+    private AdminExportService adminExportService;
+
     @InjectMocks
     private AdminController adminController;
 
@@ -78,6 +90,30 @@ class AdminControllerTest {
         assertThat(request.getReason()).isEqualTo("National ID image is not readable");
     }
 
+    @Test
+    @DisplayName("exportProviders should reject unknown formats before streaming starts")
+    void exportProviders_rejectsUnknownFormat() {
+        assertThatThrownBy(() -> adminController.exportProviders(null, null, null, null, null, null, "xlsx"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Invalid export format");
+
+        verifyNoInteractions(adminExportService);
+    }
+
+    @Test
+    @DisplayName("exportUsers should stream an attachment in the requested format")
+    void exportUsers_streamsAttachment() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = adminController.exportUsers(
+                "consumer", null, null, null, null, null, null, null, "JSON", 1L);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(response.getHeaders().getContentDisposition().getFilename()).startsWith("users-").endsWith(".json");
+
+        response.getBody().writeTo(OutputStream.nullOutputStream());
+        verify(adminExportService).exportUsers(eq(UserType.CONSUMER), isNull(), isNull(), isNull(), isNull(),
+                eq(1L), eq(ExportFormat.JSON), any());
+    }
+
     @Test
     @DisplayName("rejectProvider should reject too-short reasons before service call")
     void rejectProvider_rejectsInvalidReason() {
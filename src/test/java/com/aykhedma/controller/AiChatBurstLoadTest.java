@@ -0,0 +1,151 @@
+package com.aykhedma.controller;
+
+import com.aykhedma.dto.response.ChatResponse;
+import com.aykhedma.model.user.Consumer;
+import com.aykhedma.model.user.UserType;
+import com.aykhedma.repository.UserRepository;
+import com.aykhedma.security.JwtService;
+import com.aykhedma.service.AiAssistantServiceImpl;
+import com.aykhedma.service.NotificationFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Holds a burst of AI chat turns open on a deliberately small Tomcat pool and checks
+ * that plain REST requests are still answered quickly while the turns are in flight.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.threads.max=" + AiChatBurstLoadTest.TOMCAT_THREADS,
+        "server.tomcat.threads.min-spare=1",
+        "ai.chat.max-concurrency=" + AiChatBurstLoadTest.AI_CONCURRENCY,
+        "ai.chat.queue-capacity=64"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Tag("load")
+@DisplayName("AI Chat Burst Load Test")
+class AiChatBurstLoadTest {
+
+    static final int TOMCAT_THREADS = 4;
+    static final int AI_CONCURRENCY = 4;
+    private static final int AI_CHATS = 20;
+    private static final int REST_CALLS = 10;
+    private static final Duration REST_BUDGET = Duration.ofSeconds(2);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private AiAssistantServiceImpl aiAssistantService;
+
+    @MockBean
+    private NotificationFactory notificationFactory;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final CountDownLatch turnsStarted = new CountDownLatch(AI_CONCURRENCY);
+    private final CountDownLatch releaseTurns = new CountDownLatch(1);
+    private Consumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = userRepository.save(Consumer.builder()
+                .name("Burst Consumer")
+                .email("burst_" + UUID.randomUUID() + "@mail.com")
+                .phoneNumber(String.format("012%08d", System.nanoTime() % 100_000_000L))
+                .password("hashedpassword")
+                .role(UserType.CONSUMER)
+                .enabled(true)
+                .credentialsNonExpired(true)
+                .totalBookings(0)
+                .build());
+
+        // a model round trip that lasts until the test lets it finish
+        when(aiAssistantService.chat(any(), any())).thenAnswer(invocation -> {
+            turnsStarted.countDown();
+            releaseTurns.await(30, TimeUnit.SECONDS);
+            return ChatResponse.builder().sessionId("burst").message("done").build();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseTurns.countDown();
+        userRepository.deleteById(consumer.getId());
+    }
+
+    @Test
+    @DisplayName("REST latency stays low while AI chats outnumber the Tomcat workers")
+    void restStaysResponsiveDuringAiChatBurst() throws Exception {
+        String token = jwtService.generateToken(consumer);
+        List<CompletableFuture<HttpResponse<String>>> chats = new ArrayList<>();
+        for (int i = 0; i < AI_CHATS; i++) {
+            chats.add(http.sendAsync(HttpRequest.newBuilder(uri("/api/chatbot"))
+                            .header("Authorization", "Bearer " + token)
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString("{\"message\":\"I need a plumber\"}"))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+        assertThat(turnsStarted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        long slowest = 0;
+        for (int i = 0; i < REST_CALLS; i++) {
+            long start = System.nanoTime();
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(uri("/api/services/categories"))
+                            .timeout(Duration.ofSeconds(10))
+                            .GET()
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertThat(response.statusCode()).isEqualTo(200);
+            slowest = Math.max(slowest, elapsedMs);
+        }
+        log.info("Slowest REST call during a burst of {} AI chats: {} ms", AI_CHATS, slowest);
+        assertThat(slowest).isLessThan(REST_BUDGET.toMillis());
+
+        releaseTurns.countDown();
+        for (CompletableFuture<HttpResponse<String>> chat : chats) {
+            assertThat(chat.get(30, TimeUnit.SECONDS).statusCode()).isEqualTo(200);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -3,9 +3,11 @@ package com.aykhedma.controller;
 import com.aykhedma.dto.location.LocationDTO;
 import com.aykhedma.dto.request.AiChatRequest;
 import com.aykhedma.dto.response.ChatResponse;
+import com.aykhedma.exception.TooManyRequestsException;
 import com.aykhedma.model.user.User;
 import com.aykhedma.security.CustomUserDetails;
 import com.aykhedma.service.AiAssistantService;
+import com.aykhedma.service.AiChatAsyncService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,17 +17,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -36,6 +42,9 @@ class AiChatControllerTest {
     @Mock
     private AiAssistantService aiAssistantService;
 
+    @Mock
+    private AiChatAsyncService aiChatAsyncService;
+
     @Mock
     private CustomUserDetails userDetails;
 
@@ -87,10 +96,10 @@ class AiChatControllerTest {
         void chat_ValidRequest_ReturnsChatResponse() {
             CustomUserDetails authenticatedUser = createAuthenticatedUserDetails();
 
-            when(aiAssistantService.chat(any(AiChatRequest.class), any(User.class)))
-                    .thenReturn(mockChatResponse);
+            when(aiChatAsyncService.chat(any(AiChatRequest.class), any(User.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockChatResponse));
 
-            ResponseEntity<ChatResponse> response = aiChatController.chat(mockRequest, authenticatedUser);
+            ResponseEntity<ChatResponse> response = aiChatController.chat(mockRequest, authenticatedUser).join();
 
             assertThat(response).isNotNull();
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -98,21 +107,21 @@ class AiChatControllerTest {
             assertThat(response.getBody().getSessionId()).isEqualTo(SESSION_ID);
             assertThat(response.getBody().getMessage()).isEqualTo(AI_RESPONSE);
 
-            verify(aiAssistantService).chat(mockRequest, mockUser);
+            verify(aiChatAsyncService).chat(mockRequest, mockUser);
         }
 
         @Test
         @DisplayName("Should handle null user details gracefully")
         void chat_NullUserDetails_ProcessesRequest() {
-            when(aiAssistantService.chat(any(AiChatRequest.class), isNull()))
-                    .thenReturn(mockChatResponse);
+            when(aiChatAsyncService.chat(any(AiChatRequest.class), isNull()))
+                    .thenReturn(CompletableFuture.completedFuture(mockChatResponse));
 
-            ResponseEntity<ChatResponse> response = aiChatController.chat(mockRequest, null);
+            ResponseEntity<ChatResponse> response = aiChatController.chat(mockRequest, null).join();
 
             assertThat(response).isNotNull();
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
 
-            verify(aiAssistantService).chat(mockRequest, null);
+            verify(aiChatAsyncService).chat(mockRequest, null);
         }
 
         @Test
@@ -135,15 +144,15 @@ class AiChatControllerTest {
                     .location(location)
                     .build();
 
-            when(aiAssistantService.chat(any(AiChatRequest.class), any(User.class)))
-                    .thenReturn(mockChatResponse);
+            when(aiChatAsyncService.chat(any(AiChatRequest.class), any(User.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockChatResponse));
 
-            ResponseEntity<ChatResponse> response = aiChatController.chat(fullRequest, authenticatedUser);
+            ResponseEntity<ChatResponse> response = aiChatController.chat(fullRequest, authenticatedUser).join();
 
             assertThat(response).isNotNull();
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
 
-            verify(aiAssistantService).chat(eq(fullRequest), any(User.class));
+            verify(aiChatAsyncService).chat(eq(fullRequest), any(User.class));
         }
 
         @Test
@@ -161,15 +170,32 @@ class AiChatControllerTest {
                     .message("Please provide a message")
                     .build();
 
-            when(aiAssistantService.chat(any(AiChatRequest.class), any(User.class)))
-                    .thenReturn(emptyResponse);
+            when(aiChatAsyncService.chat(any(AiChatRequest.class), any(User.class)))
+                    .thenReturn(CompletableFuture.completedFuture(emptyResponse));
 
-            ResponseEntity<ChatResponse> response = aiChatController.chat(emptyRequest, authenticatedUser);
+            ResponseEntity<ChatResponse> response = aiChatController.chat(emptyRequest, authenticatedUser).join();
 
             assertThat(response).isNotNull();
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
 
-            verify(aiAssistantService).chat(emptyRequest, mockUser);
+            verify(aiChatAsyncService).chat(emptyRequest, mockUser);
+        }
+    }
+
+    @Nested
+    @DisplayName("Chat Stream Endpoint Tests")
+    class ChatStreamEndpointTests {
+
+        @Test
+        @DisplayName("Should hand the turn to the async service and return its emitter")
+        void chatStream_ValidRequest_StartsStreaming() {
+            CustomUserDetails authenticatedUser = createAuthenticatedUserDetails();
+
+            SseEmitter emitter = aiChatController.chatStream(mockRequest, authenticatedUser);
+
+            assertThat(emitter).isNotNull();
+            verify(aiChatAsyncService).stream(mockRequest, mockUser, emitter);
+            verifyNoInteractions(aiAssistantService);
         }
     }
 
@@ -182,8 +208,8 @@ class AiChatControllerTest {
         void chatWithVoice_TextOnly_ReturnsResponse() throws Exception {
             CustomUserDetails authenticatedUser = createAuthenticatedUserDetails();
 
-            when(aiAssistantService.chat(any(AiChatRequest.class), any(User.class)))
-                    .thenReturn(mockChatResponse);
+            when(aiChatAsyncService.chat(any(AiChatRequest.class), any(User.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockChatResponse));
 
             ResponseEntity<ChatResponse> response = aiChatController.chatWithVoice(
                     SESSION_ID,
@@ -194,13 +220,13 @@ class AiChatControllerTest {
                     null,
                     null,
                     null,
-                    authenticatedUser);
+                    authenticatedUser).join();
 
             assertThat(response).isNotNull();
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
             assertThat(response.getBody().getMessage()).isEqualTo(AI_RESPONSE);
 
-            verify(aiAssistantService).chat(any(AiChatRequest.class), eq(mockUser));
+            verify(aiChatAsyncService).chat(any(AiChatRequest.class), eq(mockUser));
         }
 
         @Test
@@ -214,8 +240,8 @@ class AiChatControllerTest {
                     "audio/wav",
                     "test audio content".getBytes());
 
-            when(aiAssistantService.chat(any(AiChatRequest.class), any(User.class)))
-                    .thenReturn(mockChatResponse);
+            when(aiChatAsyncService.chat(any(AiChatRequest.class), any(User.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockChatResponse));
 
             ResponseEntity<ChatResponse> response = aiChatController.chatWithVoice(
                     SESSION_ID,
@@ -226,12 +252,12 @@ class AiChatControllerTest {
                     null,
                     null,
                     null,
-                    authenticatedUser);
+                    authenticatedUser).join();
 
             assertThat(response).isNotNull();
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
 
-            verify(aiAssistantService).chat(any(AiChatRequest.class), eq(mockUser));
+            verify(aiChatAsyncService).chat(any(AiChatRequest.class), eq(mockUser));
         }
 
         @Test
@@ -250,8 +276,8 @@ class AiChatControllerTest {
                     "audio/wav",
                     "test audio content".getBytes());
 
-            when(aiAssistantService.chat(any(AiChatRequest.class), any(User.class)))
-                    .thenReturn(mockChatResponse);
+            when(aiChatAsyncService.chat(any(AiChatRequest.class), any(User.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockChatResponse));
 
             ResponseEntity<ChatResponse> response = aiChatController.chatWithVoice(
                     SESSION_ID,
@@ -262,19 +288,19 @@ class AiChatControllerTest {
                     LocalDate.now().plusDays(1),
                     LocalTime.of(10, 0),
                     location,
-                    authenticatedUser);
+                    authenticatedUser).join();
 
             assertThat(response).isNotNull();
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
 
-            verify(aiAssistantService).chat(any(AiChatRequest.class), eq(mockUser));
+            verify(aiChatAsyncService).chat(any(AiChatRequest.class), eq(mockUser));
         }
 
         @Test
         @DisplayName("Should handle null user details in multipart request")
         void chatWithVoice_NullUserDetails_ProcessesRequest() throws Exception {
-            when(aiAssistantService.chat(any(AiChatRequest.class), isNull()))
-                    .thenReturn(mockChatResponse);
+            when(aiChatAsyncService.chat(any(AiChatRequest.class), isNull()))
+                    .thenReturn(CompletableFuture.completedFuture(mockChatResponse));
 
             ResponseEntity<ChatResponse> response = aiChatController.chatWithVoice(
                     SESSION_ID,
@@ -285,12 +311,12 @@ class AiChatControllerTest {
                     null,
                     null,
                     null,
-                    null);
+                    null).join();
 
             assertThat(response).isNotNull();
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
 
-            verify(aiAssistantService).chat(any(AiChatRequest.class), isNull());
+            verify(aiChatAsyncService).chat(any(AiChatRequest.class), isNull());
         }
 
         @Test
@@ -298,8 +324,8 @@ class AiChatControllerTest {
         void chatWithVoice_NullSessionId_ReturnsResponse() throws Exception {
             CustomUserDetails authenticatedUser = createAuthenticatedUserDetails();
 
-            when(aiAssistantService.chat(any(AiChatRequest.class), any(User.class)))
-                    .thenReturn(mockChatResponse);
+            when(aiChatAsyncService.chat(any(AiChatRequest.class), any(User.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockChatResponse));
 
             ResponseEntity<ChatResponse> response = aiChatController.chatWithVoice(
                     null,
@@ -310,12 +336,12 @@ class AiChatControllerTest {
                     null,
                     null,
                     null,
-                    authenticatedUser);
+                    authenticatedUser).join();
 
             assertThat(response).isNotNull();
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
 
-            verify(aiAssistantService).chat(any(AiChatRequest.class), eq(mockUser));
+            verify(aiChatAsyncService).chat(any(AiChatRequest.class), eq(mockUser));
         }
     }
 
@@ -548,15 +574,15 @@ class AiChatControllerTest {
                     .message(longMessage)
                     .build();
 
-            when(aiAssistantService.chat(any(AiChatRequest.class), any(User.class)))
-                    .thenReturn(mockChatResponse);
+            when(aiChatAsyncService.chat(any(AiChatRequest.class), any(User.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockChatResponse));
 
-            ResponseEntity<ChatResponse> response = aiChatController.chat(longRequest, authenticatedUser);
+            ResponseEntity<ChatResponse> response = aiChatController.chat(longRequest, authenticatedUser).join();
 
             assertThat(response).isNotNull();
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
 
-            verify(aiAssistantService).chat(longRequest, mockUser);
+            verify(aiChatAsyncService).chat(longRequest, mockUser);
         }
 
         @Test
@@ -570,32 +596,54 @@ class AiChatControllerTest {
                     .message(specialMessage)
                     .build();
 
-            when(aiAssistantService.chat(any(AiChatRequest.class), any(User.class)))
-                    .thenReturn(mockChatResponse);
+            when(aiChatAsyncService.chat(any(AiChatRequest.class), any(User.class)))
+                    .thenReturn(CompletableFuture.completedFuture(mockChatResponse));
 
-            ResponseEntity<ChatResponse> response = aiChatController.chat(specialRequest, authenticatedUser);
+            ResponseEntity<ChatResponse> response = aiChatController.chat(specialRequest, authenticatedUser).join();
 
             assertThat(response).isNotNull();
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
 
-            verify(aiAssistantService).chat(specialRequest, mockUser);
+            verify(aiChatAsyncService).chat(specialRequest, mockUser);
         }
 
         @Test
-        @DisplayName("Should handle service exception gracefully")
-        void chat_ServiceThrowsException_PropagatesException() {
+        @DisplayName("Should answer 500 when the chat turn fails")
+        void chat_ServiceThrowsException_ReturnsInternalServerError() {
             CustomUserDetails authenticatedUser = createAuthenticatedUserDetails();
 
-            when(aiAssistantService.chat(any(AiChatRequest.class), any(User.class)))
-                    .thenThrow(new RuntimeException("Service error"));
+            when(aiChatAsyncService.chat(any(AiChatRequest.class), any(User.class)))
+                    .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Service error")));
+
+            ResponseEntity<ChatResponse> response = aiChatController.chat(mockRequest, authenticatedUser).join();
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+            verify(aiChatAsyncService).chat(mockRequest, mockUser);
+        }
+
+        @Test
+        @DisplayName("Should answer 400 when the chat turn rejects its arguments")
+        void chat_IllegalArgument_ReturnsBadRequest() {
+            CustomUserDetails authenticatedUser = createAuthenticatedUserDetails();
+
+            when(aiChatAsyncService.chat(any(AiChatRequest.class), any(User.class)))
+                    .thenReturn(CompletableFuture.failedFuture(new IllegalArgumentException("bad")));
+
+            ResponseEntity<ChatResponse> response = aiChatController.chat(mockRequest, authenticatedUser).join();
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+
+        @Test
+        @DisplayName("Should reject with 429 when the AI chat executor is full")
+        void chat_ExecutorSaturated_ThrowsTooManyRequests() {
+            CustomUserDetails authenticatedUser = createAuthenticatedUserDetails();
 
-            try {
-                aiChatController.chat(mockRequest, authenticatedUser);
-            } catch (RuntimeException e) {
-                assertThat(e.getMessage()).contains("Service error");
-            }
+            when(aiChatAsyncService.chat(any(AiChatRequest.class), any(User.class)))
+                    .thenThrow(new TaskRejectedException("queue full"));
 
-            verify(aiAssistantService).chat(mockRequest, mockUser);
+            assertThatThrownBy(() -> aiChatController.chat(mockRequest, authenticatedUser))
+                    .isInstanceOf(TooManyRequestsException.class);
         }
     }
 }
\ No newline at end of file
@@ -62,9 +62,7 @@ class NotificationControllerTest {
 
     private CustomUserDetails createMockUserDetails(Long userId) {
         CustomUserDetails userDetails = mock(CustomUserDetails.class);
-        com.aykhedma.model.user.User user = mock(com.aykhedma.model.user.User.class);
-        when(user.getId()).thenReturn(userId);
-        when(userDetails.getUser()).thenReturn(user);
+        when(userDetails.getId()).thenReturn(userId);
         return userDetails;
     }
 
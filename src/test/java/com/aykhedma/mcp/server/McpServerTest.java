@@ -0,0 +1,243 @@
+package com.aykhedma.mcp.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("MCP Server Tests")
+class McpServerTest {
+
+    private McpServer server;
+
+    @BeforeEach
+    void setUp() {
+        server = new McpServer(new ObjectMapper(), Duration.ofMillis(500), Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.shutdown();
+    }
+
+    private static Map<String, Object> call(String id, String tool, Map<String, Object> arguments) {
+        return Map.of("jsonrpc", "2.0", "id", id, "method", "tools/call",
+                "params", Map.of("name", tool, "arguments", arguments));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> result(Map<String, Object> response) {
+        return (Map<String, Object>) response.get("result");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String text(Map<String, Object> response) {
+        List<Map<String, Object>> content = (List<Map<String, Object>>) result(response).get("content");
+        return (String) content.get(0).get("text");
+    }
+
+    @Test
+    @DisplayName("tool calls in a batch run at the same time and answer in request order")
+    void handleBatch_runsToolsConcurrently() {
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        Function<Map<String, Object>, Object> waitForOther = arguments -> {
+            bothRunning.countDown();
+            try {
+                return Map.of("together", bothRunning.await(400, TimeUnit.MILLISECONDS), "tool", arguments.get("n"));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        server.registerTool(new TestTool("first", false, waitForOther));
+        server.registerTool(new TestTool("second", false, waitForOther));
+
+        List<Map<String, Object>> responses = server.handleBatch(List.of(
+                call("a", "first", Map.of("n", 1)),
+                call("b", "second", Map.of("n", 2))));
+
+        assertThat(responses).extracting(response -> response.get("id")).containsExactly("a", "b");
+        assertThat(text(responses.get(0))).contains("\"together\":true", "\"tool\":1");
+        assertThat(text(responses.get(1))).contains("\"together\":true", "\"tool\":2");
+    }
+
+    @Test
+    @DisplayName("a read-only tool that runs past its timeout fails alone")
+    void handleBatch_timesOutSlowTool() {
+        server.registerTool(new TestTool("slow", true, arguments -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Map.of();
+        }));
+        server.registerTool(new TestTool("fast", false, arguments -> Map.of("ok", true)));
+
+        long start = System.nanoTime();
+        List<Map<String, Object>> responses = server.handleBatch(List.of(
+                call("1", "slow", Map.of()),
+                call("2", "fast", Map.of())));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(result(responses.get(0)).get("isError")).isEqualTo(true);
+        assertThat(text(responses.get(0))).contains("timed out");
+        assertThat(result(responses.get(1)).get("isError")).isEqualTo(false);
+    }
+
+    @Test
+    @DisplayName("read-only tools reuse results for equivalent arguments until something is booked")
+    void handleRequest_cachesIdempotentResults() {
+        AtomicInteger searches = new AtomicInteger();
+        server.registerTool(new TestTool("search_providers", true,
+                arguments -> Map.of("success", true, "providers", List.of(), "run", searches.incrementAndGet())));
+        server.registerTool(new TestTool("create_booking", false, arguments -> Map.of("success", true)));
+
+        server.handleRequest(call("1", "search_providers",
+                Map.of("serviceTypes", List.of("Plumbing", "Pipes"), "latitude", 30.04441, "longitude", 31.2357)));
+        Map<String, Object> repeated = server.handleRequest(call("2", "search_providers",
+                Map.of("longitude", 31.23571, "latitude", 30.0444, "serviceTypes", List.of(" pipes", "plumbing"))));
+
+        assertThat(searches).hasValue(1);
+        assertThat(repeated.get("id")).isEqualTo("2");
+        assertThat(text(repeated)).contains("\"run\":1");
+
+        server.handleRequest(call("3", "create_booking", Map.of("providerId", 7)));
+        server.handleRequest(call("4", "search_providers",
+                Map.of("serviceTypes", List.of("Plumbing", "Pipes"), "latitude", 30.0444, "longitude", 31.2357)));
+
+        assertThat(searches).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("unsuccessful read-only results are not cached")
+    void handleRequest_doesNotCacheFailures() {
+        AtomicInteger lookups = new AtomicInteger();
+        server.registerTool(new TestTool("get_provider_details", true, arguments -> {
+            lookups.incrementAndGet();
+            return Map.of("success", false, "error", "Provider not found");
+        }));
+
+        server.handleRequest(call("1", "get_provider_details", Map.of("providerName", "Ahmed")));
+        server.handleRequest(call("2", "get_provider_details", Map.of("providerName", "Ahmed")));
+
+        assertThat(lookups).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("results without an explicit success are not cached")
+    void handleRequest_doesNotCacheUnmarkedResults() {
+        AtomicInteger searches = new AtomicInteger();
+        server.registerTool(new TestTool("search_providers", true, arguments -> {
+            searches.incrementAndGet();
+            return Map.of("providers", List.of(), "message", "search failed");
+        }));
+
+        server.handleRequest(call("1", "search_providers", Map.of("serviceTypes", List.of("Plumbing"))));
+        server.handleRequest(call("2", "search_providers", Map.of("serviceTypes", List.of("Plumbing"))));
+
+        assertThat(searches).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("a tool that changes data is waited for past the timeout")
+    void handleRequest_waitsForNonIdempotentTool() {
+        server.registerTool(new TestTool("create_booking", false, arguments -> {
+            try {
+                Thread.sleep(800);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Map.of("success", false);
+            }
+            return Map.of("success", true);
+        }));
+
+        Map<String, Object> response = server.handleRequest(call("1", "create_booking", Map.of("providerId", 7)));
+
+        assertThat(result(response).get("isError")).isEqualTo(false);
+        assertThat(text(response)).contains("\"success\":true");
+    }
+
+    @Test
+    @DisplayName("read-only tools that opt out of caching always run and keep other cached results")
+    void handleRequest_skipsCacheForUncacheableTools() {
+        AtomicInteger searches = new AtomicInteger();
+        AtomicInteger checks = new AtomicInteger();
+        server.registerTool(new TestTool("search_providers", true,
+                arguments -> Map.of("success", true, "run", searches.incrementAndGet())));
+        server.registerTool(new TestTool("check_availability", true, false,
+                arguments -> Map.of("run", checks.incrementAndGet())));
+
+        server.handleRequest(call("1", "search_providers", Map.of("serviceTypeId", 3)));
+        server.handleRequest(call("2", "check_availability", Map.of("providerId", 7)));
+        server.handleRequest(call("3", "check_availability", Map.of("providerId", 7)));
+        server.handleRequest(call("4", "search_providers", Map.of("serviceTypeId", 3)));
+
+        assertThat(checks).hasValue(2);
+        assertThat(searches).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("tools run with the caller's security context")
+    void handleRequest_propagatesSecurityContext() {
+        server.registerTool(new TestTool("whoami", false, arguments -> Map.of("user",
+                String.valueOf(SecurityContextHolder.getContext().getAuthentication().getName()))));
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("consumer@example.com", null, List.of()));
+        try {
+            Map<String, Object> single = server.handleRequest(call("1", "whoami", Map.of()));
+            List<Map<String, Object>> batch = server.handleBatch(List.of(call("2", "whoami", Map.of())));
+
+            assertThat(text(single)).contains("consumer@example.com");
+            assertThat(text(batch.get(0))).contains("consumer@example.com");
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private record TestTool(String name, boolean idempotent, boolean cacheable,
+                            Function<Map<String, Object>, Object> body) implements McpToolHandler {
+
+        TestTool(String name, boolean idempotent, Function<Map<String, Object>, Object> body) {
+            this(name, idempotent, idempotent, body);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Map<String, Object> getSchema() {
+            return Map.of("name", name);
+        }
+
+        @Override
+        public Object execute(Map<String, Object> arguments) {
+            return body.apply(arguments);
+        }
+
+        @Override
+        public boolean isIdempotent() {
+            return idempotent;
+        }
+
+        @Override
+        public boolean isCacheable() {
+            return cacheable;
+        }
+    }
+}
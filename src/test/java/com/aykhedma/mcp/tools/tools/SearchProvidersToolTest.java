@@ -0,0 +1,121 @@
+package com.aykhedma.mcp.tools.tools;
+
+import com.aykhedma.dto.response.NearbyProviderProjection;
+import com.aykhedma.mcp.tools.McpToolRegistry;
+import com.aykhedma.model.service.ServiceType;
+import com.aykhedma.repository.ProviderRepository;
+import com.aykhedma.service.ServiceTypeResolver;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Search Providers Tool Tests")
+class SearchProvidersToolTest {
+
+    @Mock
+    private McpToolRegistry toolRegistry;
+
+    @Mock
+    private ProviderRepository providerRepository;
+
+    @Mock
+    private ServiceTypeResolver serviceTypeResolver;
+
+    @InjectMocks
+    private SearchProvidersTool searchProvidersTool;
+
+    private static NearbyProviderProjection nearby(Long id, double distanceKm) {
+        NearbyProviderProjection provider = mock(NearbyProviderProjection.class);
+        when(provider.getId()).thenReturn(id);
+        when(provider.getName()).thenReturn("Provider " + id);
+        when(provider.getServiceType()).thenReturn("Plumbing");
+        when(provider.getAverageRating()).thenReturn(4.5);
+        when(provider.getPriceType()).thenReturn("HOUR");
+        when(provider.getDistanceKm()).thenReturn(distanceKm);
+        return provider;
+    }
+
+    @Test
+    @DisplayName("asks the database for the top ten providers in the radius across all matched trades")
+    @SuppressWarnings("unchecked")
+    void execute_queriesTopRatedNearby() {
+        ServiceType plumbing = ServiceType.builder().id(1L).name("Plumbing").nameAr("سباكة").build();
+        ServiceType pipes = ServiceType.builder().id(2L).name("Pipe Installation").nameAr("تركيب مواسير").build();
+        when(serviceTypeResolver.resolveByMeaning("Plumbing")).thenReturn(plumbing);
+        when(serviceTypeResolver.resolveByMeaning("Pipes")).thenReturn(pipes);
+        NearbyProviderProjection near = nearby(7L, 1.24);
+        when(providerRepository.findTopRatedNearby(any(), anyDouble(), anyDouble(), anyDouble(), anyInt()))
+                .thenReturn(List.of(near));
+
+        Map<String, Object> result = (Map<String, Object>) searchProvidersTool.execute(Map.of(
+                "serviceTypes", List.of("Plumbing", "Pipes"),
+                "latitude", 30.0444,
+                "longitude", 31.2357,
+                "radiusKm", 5));
+
+        verify(providerRepository).findTopRatedNearby(eq(Set.of(1L, 2L)), eq(30.0444), eq(31.2357), eq(5_000.0),
+                eq(10));
+        assertThat(result.get("success")).isEqualTo(true);
+        assertThat(result.get("count")).isEqualTo(1);
+        List<Map<String, Object>> providers = (List<Map<String, Object>>) result.get("providers");
+        assertThat(providers).singleElement().satisfies(provider -> {
+            assertThat(provider.get("id")).isEqualTo(7L);
+            assertThat(provider.get("distance")).isEqualTo(1.2);
+            assertThat(provider.get("estimatedArrivalTime")).isEqualTo(7);
+            assertThat(provider.get("priceTypeAr")).isEqualTo("بالساعة");
+        });
+    }
+
+    @Test
+    @DisplayName("does not query providers when no trade matches")
+    @SuppressWarnings("unchecked")
+    void execute_unknownServiceType_returnsEmpty() {
+        when(serviceTypeResolver.resolveByMeaning("Unicorn grooming")).thenReturn(null);
+
+        Map<String, Object> result = (Map<String, Object>) searchProvidersTool.execute(Map.of(
+                "serviceTypes", List.of("Unicorn grooming"),
+                "latitude", 30.0444,
+                "longitude", 31.2357));
+
+        assertThat(result.get("success")).isEqualTo(false);
+        assertThat(result.get("count")).isEqualTo(0);
+        verify(providerRepository, never())
+                .findTopRatedNearby(any(), anyDouble(), anyDouble(), anyDouble(), anyInt());
+    }
+
+    @Test
+    @DisplayName("a failed search is marked unsuccessful so it is not cached")
+    @SuppressWarnings("unchecked")
+    void execute_databaseError_marksFailure() {
+        when(serviceTypeResolver.resolveByMeaning("Plumbing"))
+                .thenReturn(ServiceType.builder().id(1L).name("Plumbing").nameAr("سباكة").build());
+        when(providerRepository.findTopRatedNearby(any(), anyDouble(), anyDouble(), anyDouble(), anyInt()))
+                .thenThrow(new IllegalStateException("connection reset"));
+
+        Map<String, Object> result = (Map<String, Object>) searchProvidersTool.execute(Map.of(
+                "serviceTypes", List.of("Plumbing"),
+                "latitude", 30.0444,
+                "longitude", 31.2357));
+
+        assertThat(result.get("success")).isEqualTo(false);
+        assertThat(result.get("count")).isEqualTo(0);
+    }
+}
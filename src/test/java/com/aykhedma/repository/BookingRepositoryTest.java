@@ -25,6 +25,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureTestEntityManager;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
@@ -125,6 +126,16 @@ class BookingRepositoryTest
                 .build();
     }
 
+    private void expireDueBookings(BookingStatus status, LocalDateTime cutoff)
+    {
+        List<Long> ids = bookingRepository.findIdsDueForExpiry(status, cutoff.toLocalDate(),
+                cutoff.toLocalTime(), PageRequest.of(0, 100));
+        if (!ids.isEmpty())
+        {
+            bookingRepository.expireByIds(ids, status, cutoff.withNano(0));
+        }
+    }
+
     @Nested
     @DisplayName("Find Conflicting Bookings Tests")
     class FindConflictingBookingsTest
@@ -188,7 +199,7 @@ class BookingRepositoryTest
             Booking expiring = buildBooking(BookingStatus.PENDING, date, time);
             bookingRepository.save(expiring);
 
-            bookingRepository.expirePendingBookings(LocalDateTime.now(), LocalDate.now(), LocalTime.now());
+            expireDueBookings(BookingStatus.PENDING, LocalDateTime.now());
             entityManager.flush();
             entityManager.clear();
 
@@ -210,7 +221,7 @@ class BookingRepositoryTest
             Booking pending = buildBooking(BookingStatus.PENDING, date, time);
             bookingRepository.save(pending);
 
-            bookingRepository.expirePendingBookings(LocalDateTime.now(), LocalDate.now(), LocalTime.now());
+            expireDueBookings(BookingStatus.PENDING, LocalDateTime.now());
             entityManager.flush();
             entityManager.clear();
 
@@ -237,7 +248,7 @@ class BookingRepositoryTest
             Booking expiring = buildBooking(BookingStatus.ACCEPTED, date, time);
             bookingRepository.save(expiring);
 
-            bookingRepository.expireAcceptedBookings(LocalDateTime.now(), LocalDate.now(), LocalTime.now());
+            expireDueBookings(BookingStatus.ACCEPTED, LocalDateTime.now());
             entityManager.flush();
             entityManager.clear();
 
@@ -259,7 +270,7 @@ class BookingRepositoryTest
             Booking accepted = buildBooking(BookingStatus.ACCEPTED, date, time);
             bookingRepository.save(accepted);
 
-            bookingRepository.expireAcceptedBookings(LocalDateTime.now(), LocalDate.now(), LocalTime.now());
+            expireDueBookings(BookingStatus.ACCEPTED, LocalDateTime.now());
             entityManager.flush();
             entityManager.clear();
 
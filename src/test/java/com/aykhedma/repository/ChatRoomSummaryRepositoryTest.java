@@ -0,0 +1,67 @@
+package com.aykhedma.repository;
+
+import com.aykhedma.dto.response.ChatInboxProjection;
+import com.aykhedma.model.chat.ChatRoomSummary;
+import com.aykhedma.model.user.Consumer;
+import com.aykhedma.util.TestDataFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureTestEntityManager;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureTestEntityManager
+@Transactional
+@ActiveProfiles("test")
+class ChatRoomSummaryRepositoryTest {
+
+    @Autowired
+    private ChatRoomSummaryRepository summaryRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private Consumer createUser(Long id) {
+        return em.merge(TestDataFactory.createConsumer(id));
+    }
+
+    @Test
+    void findInbox_shouldReadOtherUserProfileLive() {
+
+        Consumer me = createUser(1L);
+        Consumer other = createUser(2L);
+
+        em.persist(ChatRoomSummary.builder()
+                .userId(me.getId())
+                .roomId("room-" + System.nanoTime())
+                .otherUserId(other.getId())
+                .lastMessage("hello")
+                .lastMessageAt(LocalDateTime.now())
+                .unreadCount(2)
+                .build());
+        other.setName("Renamed User");
+        other.setProfileImage("new.png");
+        em.flush();
+        em.clear();
+
+        Page<ChatInboxProjection> inbox = summaryRepository.findInbox(me.getId(), PageRequest.of(0, 10));
+
+        assertEquals(1, inbox.getTotalElements());
+        ChatInboxProjection entry = inbox.getContent().get(0);
+        assertEquals(other.getId(), entry.getOtherUserId());
+        assertEquals("Renamed User", entry.getOtherUserName());
+        assertEquals("new.png", entry.getOtherUserProfileImage());
+        assertEquals(2, entry.getUnreadCount());
+    }
+}
@@ -21,10 +21,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureTestEntityManager;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -95,6 +97,16 @@ class EmergencyRequestRepositoryTest
                 .build();
     }
 
+    private void expireDueRequests(EmergencyRequestStatus status, LocalDateTime createdBefore)
+    {
+        List<Long> ids = emergencyRequestRepository.findIdsDueForExpiry(status, createdBefore,
+                PageRequest.of(0, 100));
+        if (!ids.isEmpty())
+        {
+            emergencyRequestRepository.expireByIds(ids, status, LocalDateTime.now().withNano(0));
+        }
+    }
+
     @Nested
     @DisplayName("Expire Pending Emergency Requests Tests")
     class ExpirePendingEmergencyRequestsTest
@@ -108,7 +120,7 @@ class EmergencyRequestRepositoryTest
             EmergencyRequest expiring = buildEmergencyRequest(EmergencyRequestStatus.WAITING_ACCEPTANCE);
             emergencyRequestRepository.save(expiring);
 
-            emergencyRequestRepository.expirePendingEmergencyRequests(LocalDateTime.now().plusHours(2).withNano(0));
+            expireDueRequests(EmergencyRequestStatus.WAITING_ACCEPTANCE, LocalDateTime.now().plusHours(1));
             entityManager.flush();
             entityManager.clear();
 
@@ -125,7 +137,7 @@ class EmergencyRequestRepositoryTest
             EmergencyRequest recent = buildEmergencyRequest(EmergencyRequestStatus.WAITING_ACCEPTANCE);
             emergencyRequestRepository.save(recent);
 
-            emergencyRequestRepository.expirePendingEmergencyRequests(LocalDateTime.now());
+            expireDueRequests(EmergencyRequestStatus.WAITING_ACCEPTANCE, LocalDateTime.now().minusHours(1));
             entityManager.flush();
             entityManager.clear();
 
@@ -147,7 +159,7 @@ class EmergencyRequestRepositoryTest
             EmergencyRequest expiring = buildEmergencyRequest(EmergencyRequestStatus.ACCEPTED);
             emergencyRequestRepository.save(expiring);
 
-            emergencyRequestRepository.expireAcceptedEmergencyRequests(LocalDateTime.now().plusDays(2).withNano(0));
+            expireDueRequests(EmergencyRequestStatus.ACCEPTED, LocalDateTime.now().plusDays(1));
             entityManager.flush();
             entityManager.clear();
 
@@ -164,7 +176,7 @@ class EmergencyRequestRepositoryTest
             EmergencyRequest recent = buildEmergencyRequest(EmergencyRequestStatus.ACCEPTED);
             emergencyRequestRepository.save(recent);
 
-            emergencyRequestRepository.expireAcceptedEmergencyRequests(LocalDateTime.now());
+            expireDueRequests(EmergencyRequestStatus.ACCEPTED, LocalDateTime.now().minusDays(1));
             entityManager.flush();
             entityManager.clear();
 
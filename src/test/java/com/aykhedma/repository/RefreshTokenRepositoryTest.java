@@ -101,4 +101,33 @@ class RefreshTokenRepositoryTest {
         // Verify it's gone
         assertThat(refreshTokenRepository.findByToken("token-to-delete")).isEmpty();
     }
+
+    // ═══════════════════════════════════════════════════════
+    // deleteExpiredBatch
+    // ═══════════════════════════════════════════════════════
+    @Test
+    @DisplayName("deleteExpiredBatch() should delete at most the limit, and only expired tokens")
+    void deleteExpiredBatch_deletesBoundedExpiredTokens() {
+        for (int i = 0; i < 3; i++) {
+            entityManager.persist(RefreshToken.builder()
+                    .token("expired-" + i)
+                    .user(savedUser)
+                    .expiryDate(LocalDateTime.now().minusDays(1 + i))
+                    .build());
+        }
+        entityManager.persistAndFlush(RefreshToken.builder()
+                .token("live")
+                .user(savedUser)
+                .expiryDate(LocalDateTime.now().plusDays(7))
+                .build());
+
+        int first = refreshTokenRepository.deleteExpiredBatch(LocalDateTime.now(), 2);
+        int second = refreshTokenRepository.deleteExpiredBatch(LocalDateTime.now(), 2);
+        entityManager.clear();
+
+        assertThat(first).isEqualTo(2);
+        assertThat(second).isEqualTo(1);
+        assertThat(refreshTokenRepository.findByToken("live")).isPresent();
+        assertThat(refreshTokenRepository.count()).isEqualTo(1);
+    }
 }
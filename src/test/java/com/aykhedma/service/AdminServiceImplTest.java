@@ -1,53 +1,45 @@
 package com.aykhedma.service;
 
-import com.aykhedma.model.chat.ChatRoom;
 import com.aykhedma.model.service.PriceType;
 import com.aykhedma.model.service.RiskLevel;
 import com.aykhedma.model.service.ServiceType;
 import com.aykhedma.model.user.Consumer;
 import com.aykhedma.model.user.Provider;
-import com.aykhedma.model.user.User;
+import com.aykhedma.model.user.UserDeletionStatus;
 import com.aykhedma.model.user.UserType;
 import com.aykhedma.model.user.VerificationStatus;
-import com.aykhedma.repository.BookingRepository;
-import com.aykhedma.repository.ChatRoomRepository;
-import com.aykhedma.repository.ChatSessionRepository;
 import com.aykhedma.repository.ConsumerRepository;
-import com.aykhedma.repository.DeviceTokenRepository;
-import com.aykhedma.repository.DocumentRepository;
-import com.aykhedma.repository.EmergencyRequestRepository;
-import com.aykhedma.repository.InteractionRatingRepository;
-import com.aykhedma.repository.NotificationPreferenceRepository;
-import com.aykhedma.repository.NotificationRepository;
 import com.aykhedma.repository.ProviderRepository;
-import com.aykhedma.repository.ProviderResponseRepository;
-import com.aykhedma.repository.RefreshTokenRepository;
-import com.aykhedma.repository.ServiceTypeRepository;
 import com.aykhedma.repository.UserRepository;
+import com.aykhedma.security.CustomUserDetailsService;
+import com.aykhedma.service.deletion.UserDeletionService;
+import com.aykhedma.service.metrics.DashboardMetricsService;
 import com.aykhedma.mapper.ProviderMapper;
 import com.aykhedma.mapper.UserMapper;
 import com.aykhedma.model.location.Location;
 import com.aykhedma.model.notification.NotificationType;
+import com.aykhedma.dto.response.AdminProviderResponse;
+import com.aykhedma.dto.response.KeysetPageResponse;
 import com.aykhedma.dto.response.ProviderResponse;
+import com.aykhedma.dto.response.UserDeletionJobResponse;
+import com.aykhedma.dto.response.UserResponse;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.ArgumentMatchers.same;
-import static org.mockito.Mockito.inOrder;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -60,19 +52,10 @@ class AdminServiceImplTest {
     @Mock private ProviderService providerService;
     @Mock private NotificationFactory notificationFactory;
     @Mock private ConsumerRepository consumerRepository;
-    @Mock private BookingRepository bookingRepository;
-    @Mock private EmergencyRequestRepository emergencyRequestRepository;
-    @Mock private InteractionRatingRepository interactionRatingRepository;
-    @Mock private ProviderResponseRepository providerResponseRepository;
-    @Mock private DocumentRepository documentRepository;
-    @Mock private NotificationRepository notificationRepository;
-    @Mock private NotificationPreferenceRepository notificationPreferenceRepository;
-    @Mock private DeviceTokenRepository deviceTokenRepository;
-    @Mock private ChatSessionRepository chatSessionRepository;
-    @Mock private ChatRoomRepository chatRoomRepository;
-    @Mock private RefreshTokenRepository refreshTokenRepository;
     @Mock private UserRepository userRepository;
-    @Mock private ServiceTypeRepository serviceTypeRepository;
+    @Mock private DashboardMetricsService dashboardMetricsService;
+    @Mock private UserDeletionService userDeletionService;
+    @Mock private CustomUserDetailsService userDetailsService;
     @Mock private UserMapper userMapper;
     @Mock private PasswordEncoder passwordEncoder;
 
@@ -107,80 +90,62 @@ class AdminServiceImplTest {
     }
 
     @Test
-    @DisplayName("deleteUser should purge provider-linked data before deleting the provider")
-    void deleteUser_providerPurgesRelatedData() {
-        Long userId = 10L;
-        Provider provider = buildProvider(userId);
-        Consumer otherConsumer = buildConsumer(11L);
-        ChatRoom chatRoom = ChatRoom.builder()
-                .id("room-1")
-                .participants(new ArrayList<>(List.of(provider, otherConsumer)))
-                .isActive(true)
-                .build();
+    @DisplayName("searchProvidersAfter should fetch one extra row to tell whether another page follows")
+    void searchProvidersAfter_returnsCursorWhenMoreRowsExist() {
+        List<Provider> rows = List.of(buildProvider(9L), buildProvider(8L), buildProvider(7L));
+        when(providerRepository.findProvidersForAdminBefore(eq("plumb"), isNull(), eq(true), eq(10L),
+                eq(PageRequest.of(0, 3)))).thenReturn(rows);
+        when(providerMapper.toAdminProviderResponse(any(Provider.class)))
+                .thenAnswer(invocation -> AdminProviderResponse.builder()
+                        .id(invocation.<Provider>getArgument(0).getId())
+                        .build());
+
+        KeysetPageResponse<AdminProviderResponse> page = adminService.searchProvidersAfter(" plumb ", null, true, 10L, 2);
+
+        assertThat(page.getContent()).extracting(AdminProviderResponse::getId).containsExactly(9L, 8L);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getNextCursor()).isEqualTo(8L);
+    }
+
+    @Test
+    @DisplayName("searchUsersAfter should cap the page size and report the last page")
+    void searchUsersAfter_capsSizeAndEndsWithoutCursor() {
+        Consumer consumer = buildConsumer(5L);
+        when(userRepository.findBeforeId(any(), isNull(), eq(101))).thenReturn(List.of(consumer));
+        when(userMapper.toUserResponse(consumer)).thenReturn(UserResponse.builder().id(5L).build());
+
+        KeysetPageResponse<UserResponse> page = adminService.searchUsersAfter(
+                null, null, null, null, null, 1L, null, 5000);
+
+        assertThat(page.getContent()).extracting(UserResponse::getId).containsExactly(5L);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("suspendUser should disable the account and drop its cached sessions")
+    void suspendUser_disablesAndEvictsCachedPrincipals() {
+        Consumer consumer = buildConsumer(5L);
+        when(userRepository.findById(5L)).thenReturn(Optional.of(consumer));
+
+        adminService.suspendUser(5L);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(provider));
-        when(chatRoomRepository.findAllByParticipant(provider)).thenReturn(List.of(chatRoom));
-
-        assertThatCode(() -> adminService.deleteUser(userId)).doesNotThrowAnyException();
-
-        InOrder inOrder = inOrder(
-                notificationPreferenceRepository,
-                notificationRepository,
-                deviceTokenRepository,
-                refreshTokenRepository,
-                chatSessionRepository,
-                chatRoomRepository,
-                userRepository,
-                bookingRepository,
-                emergencyRequestRepository,
-                interactionRatingRepository,
-                providerResponseRepository,
-                documentRepository);
-
-        inOrder.verify(notificationPreferenceRepository).deleteByUserId(userId);
-        inOrder.verify(notificationRepository).deleteByUserId(userId);
-        inOrder.verify(deviceTokenRepository).deleteByUserId(userId);
-        inOrder.verify(refreshTokenRepository).deleteByUser(provider);
-        inOrder.verify(chatSessionRepository).deleteByUserId(userId);
-        inOrder.verify(chatRoomRepository).findAllByParticipant(same(provider));
-        inOrder.verify(chatRoomRepository).deleteAll(List.of(chatRoom));
-        inOrder.verify(userRepository).deleteSavedProviderLinks(userId);
-        inOrder.verify(bookingRepository).deleteByProviderId(userId);
-        inOrder.verify(emergencyRequestRepository).deleteBySelectedProviderId(userId);
-        inOrder.verify(interactionRatingRepository).deleteByProviderId(userId);
-        inOrder.verify(providerResponseRepository).deleteByProviderId(userId);
-        inOrder.verify(documentRepository).deleteByProviderId(userId);
-        inOrder.verify(userRepository).delete(provider);
+        assertThat(consumer.isEnabled()).isFalse();
+        verify(userDetailsService).evictUser(consumer.getEmail());
+        verify(notificationFactory, never()).send(any(), any(), any());
     }
 
     @Test
-    @DisplayName("deleteUser should purge consumer-linked data before deleting the consumer")
-    void deleteUser_consumerPurgesRelatedData() {
-        Long userId = 20L;
-        Consumer consumer = buildConsumer(userId);
-        Provider otherProvider = buildProvider(21L);
-        ChatRoom chatRoom = ChatRoom.builder()
-                .id("room-2")
-                .participants(new ArrayList<>(List.of(consumer, otherProvider)))
-                .isActive(true)
+    @DisplayName("deleteUser should hand the account to the deletion engine")
+    void deleteUser_delegatesToDeletionService() {
+        UserDeletionJobResponse job = UserDeletionJobResponse.builder()
+                .jobId(1L)
+                .userId(10L)
+                .status(UserDeletionStatus.COMPLETED)
                 .build();
+        when(userDeletionService.deleteUser(10L)).thenReturn(job);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(consumer));
-        when(chatRoomRepository.findAllByParticipant(consumer)).thenReturn(List.of(chatRoom));
-
-        assertThatCode(() -> adminService.deleteUser(userId)).doesNotThrowAnyException();
-
-        verify(notificationPreferenceRepository).deleteByUserId(userId);
-        verify(notificationRepository).deleteByUserId(userId);
-        verify(deviceTokenRepository).deleteByUserId(userId);
-        verify(refreshTokenRepository).deleteByUser(consumer);
-        verify(chatSessionRepository).deleteByUserId(userId);
-        verify(chatRoomRepository).deleteAll(List.of(chatRoom));
-        verify(userRepository).deleteSavedProviderLinks(userId);
-        verify(bookingRepository).deleteByConsumerId(userId);
-        verify(emergencyRequestRepository).deleteByConsumerId(userId);
-        verify(interactionRatingRepository).deleteByConsumerId(userId);
-        verify(userRepository).delete(consumer);
+        assertThat(adminService.deleteUser(10L)).isSameAs(job);
     }
 
     private Consumer buildConsumer(Long id) {
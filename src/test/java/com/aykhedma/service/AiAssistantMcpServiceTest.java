@@ -10,6 +10,7 @@ import com.aykhedma.model.chat.ChatSession;
 import com.aykhedma.model.chat.MessageRole;
 import com.aykhedma.model.chat.MessageType;
 import com.aykhedma.model.location.Location;
+import com.aykhedma.model.service.ServiceType;
 import com.aykhedma.model.user.Consumer;
 import com.aykhedma.model.user.User;
 import com.aykhedma.model.user.UserType;
@@ -69,6 +70,12 @@ class AiAssistantMcpServiceTest {
     @Mock
     private ChatMessageRepository chatMessageRepository;
 
+    @Mock
+    private LlmResponseCache llmResponseCache;
+
+    @Mock
+    private AssistantIntentClassifier intentClassifier;
+
     @InjectMocks
     private AiAssistantMcpService aiAssistantMcpService;
 
@@ -146,7 +153,7 @@ class AiAssistantMcpServiceTest {
             when(baseService.buildConversationContext(anyList())).thenReturn("Context");
             when(baseService.toConversationTurns(anyList())).thenReturn(new ArrayList<>());
             when(geminiClient.isEnabled()).thenReturn(true);
-            when(geminiClient.generateJson(anyList(), anyString())).thenReturn(toolResponse);
+            when(geminiClient.generateJson(anyList(), anyString(), anyString())).thenReturn(toolResponse);
             when(baseService.extractJson(anyString())).thenReturn(toolResponse);
             when(objectMapper.readTree(anyString())).thenReturn(mock(com.fasterxml.jackson.databind.JsonNode.class));
             when(mcpServer.getToolSchemas()).thenReturn(new ArrayList<>());
@@ -175,6 +182,66 @@ class AiAssistantMcpServiceTest {
             assertThat(response.getSessionId()).isEqualTo(SESSION_ID);
         }
 
+        @Test
+        @DisplayName("Should reuse a cached tool selection for a repeated opening message")
+        void chatWithMcp_CachedIntent_SkipsGemini() throws Exception {
+            String toolResponse = "{\"tool\":\"search_providers\",\"arguments\":{\"serviceTypes\":[\"Plumbing\"]},\"needsClarification\":false,\"reply\":\"Searching for providers\"}";
+
+            when(baseService.resolveSession(any(), any())).thenReturn(mockSession);
+            when(baseService.detectLanguage(anyString())).thenReturn("en");
+            when(baseService.getRecentHistory(anyList(), anyInt())).thenReturn(new ArrayList<>());
+            when(baseService.getCachedServiceTypes()).thenReturn(new ArrayList<>());
+            when(baseService.getCachedCategories()).thenReturn(new ArrayList<>());
+            when(baseService.buildConversationContext(anyList())).thenReturn("Context");
+            when(baseService.toConversationTurns(anyList())).thenReturn(new ArrayList<>());
+            when(baseService.normalize(TEST_MESSAGE)).thenReturn("i need a plumber");
+            when(baseService.extractJson(anyString())).thenReturn(toolResponse);
+            when(geminiClient.isEnabled()).thenReturn(true);
+            when(llmResponseCache.get(anyString())).thenReturn(toolResponse);
+            when(objectMapper.readTree(anyString()))
+                    .thenAnswer(invocation -> new ObjectMapper().readTree(invocation.<String>getArgument(0)));
+            when(mcpServer.getToolSchemas()).thenReturn(new ArrayList<>());
+            when(mcpServer.handleRequest(anyMap())).thenReturn(Map.of("result",
+                    Map.of("isError", false, "content", List.of(Map.of("text", "{\"providers\":[]}")))));
+            when(oldService.chatWithExisting(any(), any())).thenReturn(
+                    ChatResponse.builder().sessionId(SESSION_ID).message("Fallback").build());
+
+            aiAssistantMcpService.chatWithMcp(mockRequest, mockConsumer);
+
+            verify(llmResponseCache).get(argThat(key -> key.startsWith("mcp:CONSUMER:")
+                    && key.contains(":30.04,31.24:") && key.endsWith(":i need a plumber")));
+            verify(geminiClient, never()).generateJson(anyList(), any(), any());
+            verify(mcpServer).handleRequest(anyMap());
+        }
+
+        @Test
+        @DisplayName("Should call the tool directly when the intent classifier is confident")
+        void chatWithMcp_ConfidentIntent_SkipsGemini() throws Exception {
+            ServiceType plumbing = ServiceType.builder().id(1L).name("Plumbing").nameAr("سباكة").build();
+
+            when(baseService.resolveSession(any(), any())).thenReturn(mockSession);
+            when(baseService.detectLanguage(anyString())).thenReturn("en");
+            when(baseService.getRecentHistory(anyList(), anyInt())).thenReturn(new ArrayList<>());
+            when(baseService.getCachedServiceTypes()).thenReturn(new ArrayList<>());
+            when(intentClassifier.classify(TEST_MESSAGE, mockSession)).thenReturn(
+                    new AssistantIntentClassifier.IntentMatch(AiAssistantServiceImpl.Action.SEARCH_PROVIDERS,
+                            plumbing, null, 1.0));
+            when(mcpServer.getToolSchemas()).thenReturn(new ArrayList<>());
+            when(mcpServer.handleRequest(anyMap())).thenReturn(Map.of("result",
+                    Map.of("isError", false, "content", List.of(Map.of("text", "{\"providers\":[]}")))));
+
+            ChatResponse response = aiAssistantMcpService.chatWithMcp(mockRequest, mockConsumer);
+
+            assertThat(response.getResponseType()).isEqualTo(ChatResponseType.PROVIDER_LIST);
+            verify(geminiClient, never()).generateJson(anyList(), any(), any());
+            verify(mcpServer).handleRequest(argThat(request -> {
+                Map<?, ?> arguments = (Map<?, ?>) ((Map<?, ?>) request.get("params")).get("arguments");
+                return "search_providers".equals(((Map<?, ?>) request.get("params")).get("name"))
+                        && List.of("Plumbing").equals(arguments.get("serviceTypes"))
+                        && Double.valueOf(30.0444).equals(arguments.get("latitude"));
+            }));
+        }
+
         @Test
         @DisplayName("Should process voice note successfully")
         void chatWithMcp_VoiceNote_ReturnsChatResponse() throws Exception {
@@ -191,7 +258,7 @@ class AiAssistantMcpServiceTest {
 
             String toolResponse = "{\"tool\":\"search_providers\",\"arguments\":{\"serviceTypes\":[\"Plumbing\"]},\"needsClarification\":false,\"reply\":\"Searching for providers\"}";
 
-            when(speechToTextService.transcribeAudio(any())).thenReturn("Transcribed text");
+            when(speechToTextService.transcribeAudio(any(), any())).thenReturn("Transcribed text");
             when(baseService.resolveSession(any(), any())).thenReturn(mockSession);
             when(baseService.detectLanguage(anyString())).thenReturn("en");
             when(baseService.getRecentHistory(anyList(), anyInt())).thenReturn(new ArrayList<>());
@@ -200,7 +267,7 @@ class AiAssistantMcpServiceTest {
             when(baseService.buildConversationContext(anyList())).thenReturn("Context");
             when(baseService.toConversationTurns(anyList())).thenReturn(new ArrayList<>());
             when(geminiClient.isEnabled()).thenReturn(true);
-            when(geminiClient.generateJson(anyList(), anyString())).thenReturn(toolResponse);
+            when(geminiClient.generateJson(anyList(), anyString(), anyString())).thenReturn(toolResponse);
             when(baseService.extractJson(anyString())).thenReturn(toolResponse);
             when(objectMapper.readTree(anyString())).thenReturn(mock(com.fasterxml.jackson.databind.JsonNode.class));
             when(mcpServer.getToolSchemas()).thenReturn(new ArrayList<>());
@@ -227,7 +294,7 @@ class AiAssistantMcpServiceTest {
 
             assertThat(response).isNotNull();
             assertThat(response.getSessionId()).isEqualTo(SESSION_ID);
-            verify(speechToTextService).transcribeAudio(any());
+            verify(speechToTextService).transcribeAudio(any(), any());
         }
 
         @Test
@@ -244,7 +311,7 @@ class AiAssistantMcpServiceTest {
                     .voiceNote(voiceNote)
                     .build();
 
-            when(speechToTextService.transcribeAudio(any())).thenReturn("");
+            when(speechToTextService.transcribeAudio(any(), any())).thenReturn("");
             when(baseService.resolveSession(any(), any())).thenReturn(mockSession);
             when(baseService.detectLanguage(anyString())).thenReturn("ar");
             when(chatMessageRepository.save(any(ChatMessage.class))).thenReturn(mockMessage);
@@ -271,7 +338,7 @@ class AiAssistantMcpServiceTest {
                     .voiceNote(voiceNote)
                     .build();
 
-            when(speechToTextService.transcribeAudio(any())).thenThrow(new IOException("Transcription failed"));
+            when(speechToTextService.transcribeAudio(any(), any())).thenThrow(new IOException("Transcription failed"));
             when(baseService.resolveSession(any(), any())).thenReturn(mockSession);
 
             ChatResponse response = aiAssistantMcpService.chatWithMcp(voiceRequest, mockUser);
@@ -326,7 +393,7 @@ class AiAssistantMcpServiceTest {
             when(baseService.buildConversationContext(anyList())).thenReturn("Context");
             when(baseService.toConversationTurns(anyList())).thenReturn(new ArrayList<>());
             when(geminiClient.isEnabled()).thenReturn(true);
-            when(geminiClient.generateJson(anyList(), anyString())).thenReturn(toolResponse);
+            when(geminiClient.generateJson(anyList(), anyString(), anyString())).thenReturn(toolResponse);
             when(baseService.extractJson(anyString())).thenReturn(toolResponse);
             when(objectMapper.readTree(anyString())).thenReturn(mock(com.fasterxml.jackson.databind.JsonNode.class));
             when(oldService.chatWithExisting(any(), any())).thenReturn(
@@ -211,7 +211,7 @@ class AiAssistantOldServiceTest {
                     .voiceNote(voiceNote)
                     .build();
 
-            when(speechToTextService.transcribeAudio(any())).thenReturn("Transcribed text");
+            when(speechToTextService.transcribeAudio(any(), any())).thenReturn("Transcribed text");
             when(baseService.resolveSession(any(), any())).thenReturn(mockSession);
             when(baseService.detectLanguage(anyString())).thenReturn("en");
             when(chatMessageRepository.findByChatSessionSessionIdOrderByTimestampAsc(anyString()))
@@ -232,7 +232,7 @@ class AiAssistantOldServiceTest {
 
             assertThat(result).isNotNull();
             assertThat(result.getSessionId()).isEqualTo(SESSION_ID);
-            verify(speechToTextService).transcribeAudio(any());
+            verify(speechToTextService).transcribeAudio(any(), any());
         }
 
         @Test
@@ -249,7 +249,7 @@ class AiAssistantOldServiceTest {
                     .voiceNote(voiceNote)
                     .build();
 
-            when(speechToTextService.transcribeAudio(any())).thenReturn("");
+            when(speechToTextService.transcribeAudio(any(), any())).thenReturn("");
             when(baseService.resolveSession(any(), any())).thenReturn(mockSession);
             when(baseService.detectLanguage(anyString())).thenReturn("ar");
 
@@ -90,6 +90,9 @@ class AiAssistantServiceImplTest {
     @Mock
     private TimeSlotRepository timeSlotRepository;
 
+    @Mock
+    private LlmResponseCache llmResponseCache;
+
     @Mock
     private McpServer mcpServer;
 
@@ -117,6 +120,9 @@ class AiAssistantServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(aiAssistantService, "serviceTypeLexicon",
+                new ServiceTypeLexicon(serviceTypeRepository));
+
         mockUser = new User();
         mockUser.setId(USER_ID);
         mockUser.setName("Test User");
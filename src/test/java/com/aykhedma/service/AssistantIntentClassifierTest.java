@@ -0,0 +1,186 @@
+package com.aykhedma.service;
+
+import com.aykhedma.model.chat.ChatSession;
+import com.aykhedma.model.service.ServiceType;
+import com.aykhedma.service.AiAssistantServiceImpl.Action;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("Assistant Intent Classifier Tests")
+class AssistantIntentClassifierTest {
+
+    private static final String AVAILABILITY = "availability";
+    private static final String MODEL = "model";
+
+    // utterance -> expected service name, AVAILABILITY, or MODEL when the model should decide
+    private static final String[][] LABELED = {
+            {"I need a plumber", "Plumbing"},
+            {"plumber near me", "Plumbing"},
+            {"looking for a plumbr", "Plumbing"},
+            {"my sink is leaking", "Plumbing"},
+            {"محتاج سباك", "Plumbing"},
+            {"عايز سباك قريب مني", "Plumbing"},
+            {"السباكه", "Plumbing"},
+            {"need an electrician", "Electrical"},
+            {"محتاج كهربائي", "Electrical"},
+            {"عايز فني كهربا", "Electrical"},
+            {"my ac needs repair", "AC Repair"},
+            {"air conditioner repair", "AC Repair"},
+            {"صيانة تكييف", "AC Repair"},
+            {"التكييف عايز صيانه", "AC Repair"},
+            {"house cleaning please", "House Cleaning"},
+            {"clean my house", "House Cleaning"},
+            {"تنظيف المنازل", "House Cleaning"},
+            {"office cleaning", "Office Cleaning"},
+            {"تنظيف مكاتب", "Office Cleaning"},
+            {"نجار", "Carpentry"},
+            {"I need a carpenter", "Carpentry"},
+            {"painter", "Painting"},
+            {"عايز نقاش", "Painting"},
+            {"phone repair", "Phone Repair"},
+            {"show me his availability", AVAILABILITY},
+            {"وريني مواعيده", AVAILABILITY},
+            {"is he available", AVAILABILITY},
+            {"when is he free", AVAILABILITY},
+            {"cleaning", MODEL},
+            {"تنظيف", MODEL},
+            {"عندي تسريب في الحمام", MODEL},
+            {"fix my phone screen", MODEL},
+            {"book a plumber tomorrow at 5pm", MODEL},
+            {"احجز سباك بكره", MODEL},
+            {"how much does a plumber cost", MODEL},
+            {"tell me about Ahmed Ibrahim", MODEL},
+            {"I need a plumber and an electrician", MODEL},
+            {"plumber available now", MODEL},
+            {"hello", MODEL},
+            {"مرحبا", MODEL},
+    };
+
+    @Mock
+    private AiAssistantServiceImpl baseService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AssistantIntentClassifier classifier;
+    private ChatSession session;
+
+    @BeforeEach
+    void setUp() {
+        when(baseService.getCachedServiceTypes()).thenReturn(List.of(
+                serviceType(1L, "Plumbing", "سباكة"),
+                serviceType(2L, "Electrical", "كهرباء"),
+                serviceType(3L, "AC Repair", "صيانة تكييف"),
+                serviceType(4L, "House Cleaning", "تنظيف المنازل"),
+                serviceType(5L, "Office Cleaning", "تنظيف المكاتب"),
+                serviceType(6L, "Carpentry", "نجارة"),
+                serviceType(7L, "Painting", "دهانات"),
+                serviceType(8L, "Phone Repair", "تصليح موبايلات")));
+        classifier = new AssistantIntentClassifier(baseService, meterRegistry, 0.8, true);
+        session = ChatSession.builder().sessionId("session-1").lastSuggestedProviderId(42L).build();
+    }
+
+    private static ServiceType serviceType(Long id, String name, String nameAr) {
+        return ServiceType.builder().id(id).name(name).nameAr(nameAr).build();
+    }
+
+    private String label(AssistantIntentClassifier.IntentMatch match) {
+        if (match == null) {
+            return MODEL;
+        }
+        return match.action() == Action.CHECK_AVAILABILITY ? AVAILABILITY : match.serviceType().getName();
+    }
+
+    @Test
+    @DisplayName("confident answers on the labeled set are correct and cover most routine requests")
+    void classify_labeledSet_precisionAndCoverage() {
+        int confident = 0;
+        int correct = 0;
+        int routine = 0;
+        int covered = 0;
+        for (String[] example : LABELED) {
+            String actual = label(classifier.classify(example[0], session));
+            String expected = example[1];
+            if (!MODEL.equals(actual)) {
+                confident++;
+                assertThat(actual).as(example[0]).isEqualTo(expected);
+                correct++;
+            }
+            if (!MODEL.equals(expected)) {
+                routine++;
+                covered += expected.equals(actual) ? 1 : 0;
+            }
+        }
+
+        assertThat(correct).isEqualTo(confident);
+        assertThat((double) covered / routine).isGreaterThanOrEqualTo(0.85);
+        assertThat(meterRegistry.get("ai.intent.fast_path").tag("result", "hit").counter().count())
+                .isEqualTo(confident);
+    }
+
+    @Test
+    @DisplayName("classifies in well under a millisecond")
+    void classify_isFast() {
+        for (int i = 0; i < 2_000; i++) {
+            classifier.classify(LABELED[i % LABELED.length][0], session);
+        }
+
+        int runs = 10_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            classifier.classify(LABELED[i % LABELED.length][0], session);
+        }
+        long averageMicros = TimeUnit.NANOSECONDS.toMicros((System.nanoTime() - start) / runs);
+
+        assertThat(averageMicros).isLessThan(1_000);
+    }
+
+    @Test
+    @DisplayName("availability questions need a provider suggested earlier in the session")
+    void classify_availabilityWithoutSuggestedProvider_defersToModel() {
+        assertThat(classifier.classify("show me his availability", session))
+                .extracting(AssistantIntentClassifier.IntentMatch::providerId).isEqualTo(42L);
+        assertThat(classifier.classify("show me his availability", new ChatSession())).isNull();
+    }
+
+    @Test
+    @DisplayName("Arabic spelling variants fold to the same tokens")
+    void tokenize_foldsArabicVariants() {
+        assertThat(AssistantIntentClassifier.tokenize("السِّباكة"))
+                .isEqualTo(AssistantIntentClassifier.tokenize("سباكه"));
+        assertThat(AssistantIntentClassifier.tokenize("إصلاح كهرباءٍ"))
+                .containsExactly("اصلاح", "كهرباء");
+    }
+
+    @Test
+    @DisplayName("a catalog refresh is picked up without a restart")
+    void classify_rebuildsIndexWhenCatalogChanges() {
+        assertThat(classifier.classify("need a gardener", session)).isNull();
+
+        when(baseService.getCachedServiceTypes()).thenReturn(List.of(serviceType(9L, "Gardening", "تنسيق حدائق")));
+
+        assertThat(classifier.classify("need a gardener", session))
+                .extracting(match -> match.serviceType().getName()).isEqualTo("Gardening");
+    }
+
+    @Test
+    @DisplayName("the fast path can be switched off")
+    void classify_disabled_returnsNull() {
+        AssistantIntentClassifier disabled = new AssistantIntentClassifier(baseService, meterRegistry, 0.8, false);
+
+        assertThat(disabled.classify("I need a plumber", session)).isNull();
+    }
+}
@@ -0,0 +1,269 @@
+package com.aykhedma.service;
+
+import com.aykhedma.dto.request.AcceptBookingRequest;
+import com.aykhedma.dto.response.AcceptBookingResponse;
+import com.aykhedma.model.booking.Booking;
+import com.aykhedma.model.booking.BookingStatus;
+import com.aykhedma.model.booking.Schedule;
+import com.aykhedma.model.booking.TimeSlot;
+import com.aykhedma.model.booking.TimeSlotStatus;
+import com.aykhedma.model.booking.WorkingDay;
+import com.aykhedma.model.location.Location;
+import com.aykhedma.model.service.PriceType;
+import com.aykhedma.model.service.RiskLevel;
+import com.aykhedma.model.service.ServiceCategory;
+import com.aykhedma.model.service.ServiceType;
+import com.aykhedma.model.user.Consumer;
+import com.aykhedma.model.user.Provider;
+import com.aykhedma.model.user.UserType;
+import com.aykhedma.model.user.VerificationStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires concurrent accepts for overlapping bookings of one provider and checks that
+ * no two accepted bookings (or booked slots) overlap.
+ */
+@Slf4j
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Tag("load")
+@DisplayName("Booking Concurrency Load Test")
+class BookingConcurrencyLoadTest {
+
+    private static final int BOOKINGS = 24;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @MockBean
+    private NotificationFactory notificationFactory;
+
+    private TransactionTemplate tx;
+    private Long providerId;
+    private Long scheduleId;
+    private LocalDate date;
+    private final List<Long> bookingIds = new ArrayList<>();
+    private final List<Object> created = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        date = LocalDate.now().plusDays(2);
+        String suffix = String.valueOf(System.nanoTime() % 1_000_000_000L);
+
+        tx.executeWithoutResult(status -> {
+            ServiceCategory category = persist(ServiceCategory.builder().name("Load " + suffix).build());
+            ServiceType serviceType = persist(ServiceType.builder()
+                    .name("Load type " + suffix)
+                    .category(category)
+                    .riskLevel(RiskLevel.LOW)
+                    .basePrice(100.0)
+                    .defaultPriceType(PriceType.HOUR)
+                    .build());
+            Location location = persist(Location.builder()
+                    .latitude(30.0444)
+                    .longitude(31.2357)
+                    .address("Load Street")
+                    .city("Cairo")
+                    .build());
+            Schedule schedule = persist(Schedule.builder().build());
+
+            Provider provider = persist(Provider.builder()
+                    .name("Load Provider")
+                    .email("load-provider-" + suffix + "@test.com")
+                    .phoneNumber(String.format("011%08d", Long.parseLong(suffix) % 100_000_000L))
+                    .password("hashedpassword")
+                    .role(UserType.PROVIDER)
+                    .verificationStatus(VerificationStatus.VERIFIED)
+                    .serviceType(serviceType)
+                    .nationalId(String.format("%014d", Long.parseLong(suffix)))
+                    .price(100.0)
+                    .priceType(PriceType.HOUR)
+                    .location(location)
+                    .schedule(schedule)
+                    .build());
+            Consumer consumer = persist(Consumer.builder()
+                    .name("Load Consumer")
+                    .email("load-consumer-" + suffix + "@test.com")
+                    .phoneNumber(String.format("012%08d", Long.parseLong(suffix) % 100_000_000L))
+                    .password("hashedpassword")
+                    .role(UserType.CONSUMER)
+                    .build());
+
+            persist(WorkingDay.builder()
+                    .date(date)
+                    .startTime(LocalTime.of(8, 0))
+                    .endTime(LocalTime.of(20, 0))
+                    .schedule(schedule)
+                    .build());
+            persist(TimeSlot.builder()
+                    .date(date)
+                    .startTime(LocalTime.of(8, 0))
+                    .endTime(LocalTime.of(20, 0))
+                    .status(TimeSlotStatus.AVAILABLE)
+                    .schedule(schedule)
+                    .build());
+
+            // heavily overlapping requests: 24 bookings spread over 10:00-15:30
+            for (int i = 0; i < BOOKINGS; i++) {
+                Booking booking = persist(Booking.builder()
+                        .consumer(consumer)
+                        .provider(provider)
+                        .serviceType(serviceType)
+                        .requestedDate(date)
+                        .requestedStartTime(LocalTime.of(10, 0).plusMinutes(30L * (i % 12)))
+                        .status(BookingStatus.PENDING)
+                        .build());
+                bookingIds.add(booking.getId());
+            }
+
+            providerId = provider.getId();
+            scheduleId = schedule.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        tx.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM Booking b WHERE b.provider.id = :providerId")
+                    .setParameter("providerId", providerId)
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM TimeSlot t WHERE t.schedule.id = :scheduleId")
+                    .setParameter("scheduleId", scheduleId)
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM WorkingDay w WHERE w.schedule.id = :scheduleId")
+                    .setParameter("scheduleId", scheduleId)
+                    .executeUpdate();
+            // users first; anything they cascaded away is already gone when we get to it
+            for (int i = created.size() - 1; i >= 0; i--) {
+                Object entity = created.get(i);
+                if (entity instanceof Booking || entity instanceof TimeSlot || entity instanceof WorkingDay) {
+                    continue;
+                }
+                Object id = entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+                Object managed = entityManager.find(entity.getClass(), id);
+                if (managed != null) {
+                    entityManager.remove(managed);
+                }
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("concurrent accepts never double book a provider")
+    void concurrentAccepts_neverDoubleBook() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentHashMap<String, Integer> outcomes = new ConcurrentHashMap<>();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (Long bookingId : bookingIds) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                String outcome;
+                try {
+                    AcceptBookingResponse response = bookingService.acceptBooking(providerId,
+                            AcceptBookingRequest.builder().bookingId(bookingId).estimatedDuration(60L).build());
+                    outcome = response.getStatus();
+                } catch (RuntimeException e) {
+                    outcome = e.getClass().getSimpleName();
+                }
+                outcomes.merge(outcome, 1, Integer::sum);
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        pool.shutdown();
+
+        log.info("{} concurrent accepts in {} ms ({} accepts/s): {}", BOOKINGS, elapsedMillis,
+                BOOKINGS * 1000L / elapsedMillis, outcomes);
+
+        List<Booking> accepted = tx.execute(status -> entityManager
+                .createQuery("SELECT b FROM Booking b WHERE b.provider.id = :providerId AND b.status = :status",
+                        Booking.class)
+                .setParameter("providerId", providerId)
+                .setParameter("status", BookingStatus.ACCEPTED)
+                .getResultList());
+        List<TimeSlot> booked = tx.execute(status -> entityManager
+                .createQuery("SELECT t FROM TimeSlot t WHERE t.schedule.id = :scheduleId AND t.status = :status",
+                        TimeSlot.class)
+                .setParameter("scheduleId", scheduleId)
+                .setParameter("status", TimeSlotStatus.BOOKED)
+                .getResultList());
+
+        assertThat(outcomes.values().stream().mapToInt(Integer::intValue).sum()).isEqualTo(BOOKINGS);
+        assertThat(accepted).isNotEmpty();
+        assertThat(booked).hasSameSizeAs(accepted);
+
+        for (int i = 0; i < accepted.size(); i++) {
+            for (int j = i + 1; j < accepted.size(); j++) {
+                Booking a = accepted.get(i);
+                Booking b = accepted.get(j);
+                boolean overlap = a.getRequestedStartTime().isBefore(end(b)) && b.getRequestedStartTime().isBefore(end(a));
+                assertThat(overlap)
+                        .as("bookings %d and %d overlap", a.getId(), b.getId())
+                        .isFalse();
+            }
+        }
+        for (int i = 0; i < booked.size(); i++) {
+            for (int j = i + 1; j < booked.size(); j++) {
+                TimeSlot a = booked.get(i);
+                TimeSlot b = booked.get(j);
+                assertThat(a.getStartTime().isBefore(b.getEndTime()) && b.getStartTime().isBefore(a.getEndTime()))
+                        .as("booked slots %d and %d overlap", a.getId(), b.getId())
+                        .isFalse();
+            }
+        }
+    }
+
+    private static LocalTime end(Booking booking) {
+        return booking.getRequestedStartTime().plusMinutes(booking.getEstimatedDuration());
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        created.add(entity);
+        return entity;
+    }
+}
@@ -17,6 +17,10 @@ import com.aykhedma.model.user.Consumer;
 import com.aykhedma.model.user.Provider;
 import com.aykhedma.model.user.UserType;
 import com.aykhedma.repository.*;
+import com.aykhedma.service.availability.AvailabilityEngine;
+import com.aykhedma.service.availability.ReservationRetryExecutor;
+import com.aykhedma.service.rating.RatingAggregateService;
+import com.aykhedma.service.stats.ProviderBookingStatsService;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -38,6 +42,7 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -66,6 +71,14 @@ class BookingServiceTest
     private ProviderService providerService;
     @Mock
     private NotificationFactory notificationFactory;
+    @Mock
+    private AvailabilityEngine availabilityEngine;
+    @Mock
+    private ReservationRetryExecutor reservationRetryExecutor;
+    @Mock
+    private RatingAggregateService ratingAggregateService;
+    @Mock
+    private ProviderBookingStatsService providerBookingStatsService;
 
     @InjectMocks
     private BookingServiceImpl bookingService;
@@ -88,6 +101,9 @@ class BookingServiceTest
     @BeforeEach
     void setUp()
     {
+        lenient().when(reservationRetryExecutor.execute(any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+
         today = LocalDate.now();
         now = LocalTime.now();
 
@@ -265,6 +281,8 @@ class BookingServiceTest
             Booking saved = bookingCaptor.getValue();
             assertThat(saved.getStatus()).isEqualTo(BookingStatus.COMPLETED);
             assertThat(saved.getCompletedAt()).isNotNull();
+            verify(providerBookingStatsService)
+                    .recordTransition(booking, BookingStatus.ACCEPTED, BookingStatus.COMPLETED);
 
             verify(providerRepository).save(providerCaptor.capture());
             Provider savedProvider = providerCaptor.getValue();
@@ -309,6 +327,8 @@ class BookingServiceTest
             assertThat(saved.getEstimatedDuration()).isEqualTo(60L);
             assertThat(saved.getAcceptedAt()).isNotNull();
             assertThat(saved.getTimeSlot()).isEqualTo(timeSlot);
+            verify(providerBookingStatsService)
+                    .recordTransition(booking, BookingStatus.PENDING, BookingStatus.ACCEPTED);
 
             verify(providerRepository).save(providerCaptor.capture());
             Provider savedProvider = providerCaptor.getValue();
@@ -430,6 +450,8 @@ class BookingServiceTest
             assertThat(saved.getCancellationReason()).isEqualTo("Personal reasons");
             assertThat(saved.getCancelledAt()).isNotNull();
             assertThat(saved.getCancelledBy()).isEqualTo("C");
+            verify(providerBookingStatsService)
+                    .recordTransition(booking, BookingStatus.ACCEPTED, BookingStatus.CANCELLED);
 
             verify(consumerRepository).save(consumerCaptor.capture());
             Consumer savedConsumer = consumerCaptor.getValue();
@@ -473,8 +495,7 @@ class BookingServiceTest
             bookingService.cancelBooking(consumer.getId(), request);
 
             verify(consumerRepository).save(consumerCaptor.capture());
-            Consumer savedConsumer = consumerCaptor.getValue();
-            assertThat(savedConsumer.getAverageRating()).isEqualTo(0.0);
+            verify(ratingAggregateService).applyCancellationPenalty(consumerCaptor.getValue(), 0.2);
         }
     }
 
@@ -486,9 +507,12 @@ class BookingServiceTest
         @DisplayName("Get Weekly Stats Successfully")
         void getWeeklyBookingStatsSuccessTest()
         {
-            when(providerRepository.findById(provider.getId())).thenReturn(Optional.of(provider));
-            when(bookingRepository.findBookingStatsCurrentWeek(provider.getId(), LocalDate.now()))
-                    .thenReturn(new Object[]{5, 2});
+            when(providerRepository.existsById(provider.getId())).thenReturn(true);
+            when(providerBookingStatsService.getWeeklyStats(provider.getId(), LocalDate.now()))
+                    .thenReturn(WeeklyBookingStatsResponse.builder()
+                            .acceptedAndCompletedBookings(5)
+                            .cancelledBookings(2)
+                            .build());
 
             WeeklyBookingStatsResponse response = bookingService.getWeeklyBookingStats(provider.getId());
 
@@ -505,13 +529,13 @@ class BookingServiceTest
         @DisplayName("Get Monthly Stats Successfully")
         void getMonthlyBookingStatsSuccessTest()
         {
-            when(providerRepository.findById(provider.getId())).thenReturn(Optional.of(provider));
-            List<Object[]> results = List.of(
-                    new Object[]{"2025-01", 10, 2},
-                    new Object[]{"2025-02", 8, 1}
-            );
-            when(bookingRepository.findBookingStatsLastSixMonths(provider.getId(), LocalDate.now()))
-                    .thenReturn(results);
+            when(providerRepository.existsById(provider.getId())).thenReturn(true);
+            when(providerBookingStatsService.getMonthlyStats(provider.getId(), LocalDate.now()))
+                    .thenReturn(MonthlyBookingStatsResponse.builder()
+                            .months(List.of("2025-01", "2025-02"))
+                            .completedBookings(List.of(10, 8))
+                            .cancelledBookings(List.of(2, 1))
+                            .build());
 
             MonthlyBookingStatsResponse response = bookingService.getMonthlyBookingStats(provider.getId());
 
@@ -651,7 +675,6 @@ class BookingServiceTest
             booking.setAcceptedAt(LocalDateTime.now().minusDays(1));
 
             when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-            when(bookingRepository.countByProviderIdAndConsumerRatingIsNotNull(provider.getId())).thenReturn(1L);
             when(bookingMapper.toBookingResponse(booking)).thenReturn(BookingResponse.builder().id(booking.getId()).build());
 
             BookingResponse response = bookingService.submitRating(consumer.getId(), ratingRequest);
@@ -671,7 +694,6 @@ class BookingServiceTest
             booking.setAcceptedAt(LocalDateTime.now().minusDays(1));
 
             when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-            when(bookingRepository.countByProviderIdAndConsumerRatingIsNotNull(provider.getId())).thenReturn(1L);
             when(bookingMapper.toBookingResponse(booking)).thenReturn(BookingResponse.builder().id(booking.getId()).build());
 
             BookingResponse response = bookingService.submitRating(consumer.getId(), ratingRequest);
@@ -0,0 +1,135 @@
+package com.aykhedma.service;
+
+import com.aykhedma.repository.ChatRoomRepository;
+import com.aykhedma.repository.ChatRoomSummaryRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Chat Room Summary Service Unit Tests")
+class ChatRoomSummaryServiceTest {
+
+    @Mock
+    private ChatRoomSummaryRepository summaryRepository;
+
+    @Mock
+    private ChatRoomRepository chatRoomRepository;
+
+    @InjectMocks
+    private ChatRoomSummaryService chatRoomSummaryService;
+
+    @Test
+    @DisplayName("flush coalesces several messages in a room into one write per row")
+    void flush_coalescesMessagesPerRoom() {
+        LocalDateTime t0 = LocalDateTime.now().minusSeconds(3);
+
+        chatRoomSummaryService.recordMessage("room-1", 2L, "first", t0);
+        chatRoomSummaryService.recordMessage("room-1", 2L, "second", t0.plusSeconds(1));
+        chatRoomSummaryService.recordMessage("room-1", 1L, "third", t0.plusSeconds(2));
+
+        int flushed = chatRoomSummaryService.flushPendingUpdates();
+
+        assertThat(flushed).isEqualTo(1);
+        verify(chatRoomRepository, times(1)).updateLastMessage("room-1", "third", t0.plusSeconds(2));
+        verify(summaryRepository, times(1)).applyLastMessage("room-1", "third", t0.plusSeconds(2));
+        verify(summaryRepository).incrementUnread("room-1", 2L, 2L);
+        verify(summaryRepository).incrementUnread("room-1", 1L, 1L);
+
+        assertThat(chatRoomSummaryService.flushPendingUpdates()).isZero();
+    }
+
+    @Test
+    @DisplayName("markRead drops pending unread increments for the reader")
+    void markRead_dropsPendingUnreadForReader() {
+        LocalDateTime now = LocalDateTime.now();
+        chatRoomSummaryService.recordMessage("room-1", 2L, "hello", now);
+
+        chatRoomSummaryService.markRead("room-1", 2L);
+        chatRoomSummaryService.flushPendingUpdates();
+
+        verify(summaryRepository).resetUnread("room-1", 2L);
+        verify(summaryRepository).applyLastMessage("room-1", "hello", now);
+        verify(summaryRepository, never()).incrementUnread(any(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("markRead during a flush drops the reader's increments from the batch being written")
+    void markRead_duringFlush_dropsInFlightUnread() {
+        LocalDateTime now = LocalDateTime.now();
+        chatRoomSummaryService.recordMessage("room-1", 2L, "hello", now);
+        chatRoomSummaryService.recordMessage("room-1", 1L, "hello", now);
+
+        when(summaryRepository.applyLastMessage("room-1", "hello", now)).thenAnswer(invocation -> {
+            chatRoomSummaryService.markRead("room-1", 2L);
+            return 1;
+        });
+
+        assertThat(chatRoomSummaryService.flushPendingUpdates()).isEqualTo(1);
+
+        verify(summaryRepository).resetUnread("room-1", 2L);
+        verify(summaryRepository, never()).incrementUnread("room-1", 2L, 1L);
+        verify(summaryRepository).incrementUnread("room-1", 1L, 1L);
+    }
+
+    @Test
+    @DisplayName("failed flush keeps the batch for the next run")
+    void flush_failureRequeuesBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        chatRoomSummaryService.recordMessage("room-1", 2L, "hello", now);
+
+        when(chatRoomRepository.updateLastMessage(any(), any(), any()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(1);
+
+        assertThatThrownBy(() -> chatRoomSummaryService.flushPendingUpdates())
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(chatRoomSummaryService.flushPendingUpdates()).isEqualTo(1);
+        verify(summaryRepository).incrementUnread("room-1", 2L, 1L);
+    }
+
+    @Test
+    @DisplayName("messages sent inside a transaction are queued only after it commits")
+    void recordMessage_insideTransaction_queuedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            chatRoomSummaryService.recordMessage("room-1", 2L, "hello", LocalDateTime.now());
+
+            assertThat(chatRoomSummaryService.flushPendingUpdates()).isZero();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(chatRoomSummaryService.flushPendingUpdates()).isEqualTo(1);
+        verify(summaryRepository).incrementUnread("room-1", 2L, 1L);
+    }
+
+    @Test
+    @DisplayName("removeRooms discards pending writes and deletes summaries")
+    void removeRooms_discardsPendingWrites() {
+        chatRoomSummaryService.recordMessage("room-1", 2L, "hello", LocalDateTime.now());
+
+        chatRoomSummaryService.removeRooms(List.of("room-1"));
+
+        assertThat(chatRoomSummaryService.flushPendingUpdates()).isZero();
+        verify(summaryRepository).deleteByRoomIds(List.of("room-1"));
+        verifyNoInteractions(chatRoomRepository);
+    }
+}
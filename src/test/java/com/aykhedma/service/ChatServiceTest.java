@@ -2,6 +2,7 @@ package com.aykhedma.service;
 
 import com.aykhedma.dto.request.ChatMessageRequest;
 import com.aykhedma.dto.response.ChatMessageResponse;
+import com.aykhedma.exception.ForbiddenException;
 import com.aykhedma.model.chat.ChatMessage;
 import com.aykhedma.model.chat.ChatRoom;
 import com.aykhedma.model.chat.MessageType;
@@ -11,9 +12,9 @@ import com.aykhedma.model.user.UserType;
 import com.aykhedma.repository.*;
 import com.aykhedma.security.CustomUserDetailsService;
 import com.aykhedma.security.JwtService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -23,6 +24,8 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -36,14 +39,22 @@ class ChatServiceTest {
     @Mock SimpMessagingTemplate messagingTemplate;
     @Mock MediaStorageService mediaStorageService;
     @Mock NotificationFactory notificationFactory;
+    @Mock ChatRoomSummaryService chatRoomSummaryService;
 
-    @InjectMocks ChatService chatService;
+    ChatService chatService;
     @MockBean
     private JwtService jwtService;
 
     @MockBean
     private CustomUserDetailsService customUserDetailsService;
 
+    @BeforeEach
+    void setUp() {
+        chatService = new ChatService(chatRoomRepository, chatMessageRepository, userRepository,
+                messagingTemplate, mediaStorageService, notificationFactory,
+                new ChatRoomMembershipCache(chatRoomRepository), chatRoomSummaryService);
+    }
+
     private CustomUserDetails getPrincipal() {
 
         User user = new User() {};
@@ -72,6 +83,10 @@ class ChatServiceTest {
         return r;
     }
 
+    private Set<Long> participantIds(ChatRoom r) {
+        return r.getParticipants().stream().map(User::getId).collect(Collectors.toSet());
+    }
+
 
     @Test
     void sendMessage_success() throws Exception {
@@ -86,6 +101,7 @@ class ChatServiceTest {
         req.setType(MessageType.TEXT);
 
         when(chatRoomRepository.findById("room1")).thenReturn(Optional.of(r));
+        when(chatRoomRepository.findParticipantIds("room1")).thenReturn(participantIds(r));
 
         when(chatMessageRepository.save(any())).thenAnswer(invocation -> {
             ChatMessage m = invocation.getArgument(0);
@@ -101,6 +117,8 @@ class ChatServiceTest {
                 eq("/topic/chat/room1"),
                 any(ChatMessageResponse.class)
         );
+        verify(chatRoomSummaryService).recordMessage(eq("room1"), eq(2L), eq("hello"), any(LocalDateTime.class));
+        verify(chatRoomRepository, never()).save(any());
     }
 
     @Test
@@ -113,6 +131,7 @@ class ChatServiceTest {
         req.setRoomId("room1");
 
         when(chatRoomRepository.findById("room1")).thenReturn(Optional.of(r));
+        when(chatRoomRepository.findParticipantIds("room1")).thenReturn(participantIds(r));
 
         assertThrows(RuntimeException.class,
                 () -> chatService.sendMessage(sender, req));
@@ -131,6 +150,7 @@ class ChatServiceTest {
         msg.setChatRoom(r);
 
         when(chatRoomRepository.findById("room1")).thenReturn(Optional.of(r));
+        when(chatRoomRepository.findParticipantIds("room1")).thenReturn(participantIds(r));
         when(chatMessageRepository.findByChatRoomId(eq("room1"), any()))
                 .thenReturn(new PageImpl<>(List.of(msg)));
 
@@ -154,4 +174,35 @@ class ChatServiceTest {
 
         verify(chatMessageRepository).delete(msg);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getUnreadCount_usesCachedMembershipAfterFirstLookup() {
+
+        User user = user(1L);
+        ChatRoom r = room(user, user(2L));
+
+        when(chatRoomRepository.findById("room1")).thenReturn(Optional.of(r));
+        when(chatRoomRepository.findParticipantIds("room1")).thenReturn(participantIds(r));
+        when(chatMessageRepository.countUnreadMessages("room1", 1L)).thenReturn(3L);
+
+        assertEquals(3L, chatService.getUnreadCount("room1", 1L));
+        assertEquals(3L, chatService.getUnreadCount("room1", 1L));
+
+        verify(chatRoomRepository, times(1)).findById("room1");
+    }
+
+    @Test
+    void getUnreadCount_rejectsNonParticipantFromCache() {
+
+        ChatRoom r = room(user(2L), user(3L));
+
+        when(chatRoomRepository.findById("room1")).thenReturn(Optional.of(r));
+        when(chatRoomRepository.findParticipantIds("room1")).thenReturn(participantIds(r));
+
+        assertThrows(ForbiddenException.class, () -> chatService.getUnreadCount("room1", 1L));
+        assertThrows(ForbiddenException.class, () -> chatService.getUnreadCount("room1", 1L));
+
+        verify(chatRoomRepository, times(1)).findById("room1");
+        verify(chatMessageRepository, never()).countUnreadMessages(any(), any());
+    }
+}
@@ -10,6 +10,7 @@ import com.aykhedma.model.user.Consumer;
 import com.aykhedma.model.user.Provider;
 import com.aykhedma.repository.ConsumerRepository;
 import com.aykhedma.repository.ProviderRepository;
+import com.aykhedma.security.CustomUserDetailsService;
 import com.aykhedma.util.TestDataFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -55,6 +56,9 @@ class ConsumerServiceImplTest {
     @Mock
     private LocationService locationService;
 
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
     @InjectMocks
     private ConsumerServiceImpl consumerService;
 
@@ -122,10 +126,12 @@ class ConsumerServiceImplTest {
             when(consumerRepository.save(any(Consumer.class))).thenReturn(consumer);
             when(consumerMapper.toConsumerResponse(any(Consumer.class))).thenReturn(consumerResponse);
 
+            String oldEmail = consumer.getEmail();
             ConsumerResponse result = consumerService.updateConsumerProfile(CONSUMER_ID, request);
 
             assertThat(result).isNotNull();
 
+            verify(userDetailsService).evictUser(oldEmail);
             verify(locationService).updateConsumerLocation(eq(CONSUMER_ID), eq(request.getLocation()));
             verify(consumerRepository).save(consumer);
         }
@@ -144,6 +150,7 @@ class ConsumerServiceImplTest {
             assertThat(consumer.getName()).isEqualTo(request.getName());
 
             verify(locationService, never()).updateConsumerLocation(any(), any());
+            verify(userDetailsService, never()).evictUser(any());
             verify(consumerRepository).save(consumer);
         }
 
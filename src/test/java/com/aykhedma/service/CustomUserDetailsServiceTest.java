@@ -14,10 +14,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Date;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -66,4 +72,78 @@ class CustomUserDetailsServiceTest {
                 .isInstanceOf(UsernameNotFoundException.class)
                 .hasMessageContaining("User not found");
     }
+
+    private User user(boolean enabled) {
+        return Consumer.builder()
+                .id(1L)
+                .email("test@mail.com")
+                .password("encoded")
+                .role(UserType.CONSUMER)
+                .enabled(enabled)
+                .build();
+    }
+
+    private Date inOneHour() {
+        return new Date(System.currentTimeMillis() + 3_600_000L);
+    }
+
+    @Test
+    @DisplayName("loadUserForToken() should look the user up once per token within the TTL")
+    void loadUserForToken_cachesPerToken() {
+        ReflectionTestUtils.setField(userDetailsService, "principalCacheTtlMs", 60_000L);
+        when(userRepository.findByEmail("test@mail.com")).thenReturn(Optional.of(user(true)));
+
+        CustomUserDetails first = userDetailsService.loadUserForToken("jti-1", "test@mail.com", inOneHour());
+        CustomUserDetails second = userDetailsService.loadUserForToken("jti-1", "test@mail.com", inOneHour());
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getId()).isEqualTo(1L);
+        assertThat(second.getUsername()).isEqualTo("test@mail.com");
+        assertThat(second.getAuthorities()).extracting("authority").containsExactly("ROLE_CONSUMER");
+        verify(userRepository, times(1)).findByEmail("test@mail.com");
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("a cached principal loads the current user entity when a request needs it")
+    void loadUserForToken_cachedPrincipalLoadsCurrentUser() {
+        ReflectionTestUtils.setField(userDetailsService, "principalCacheTtlMs", 60_000L);
+        when(userRepository.findByEmail("test@mail.com")).thenReturn(Optional.of(user(true)));
+        User renamed = user(true);
+        renamed.setName("Renamed");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(renamed));
+
+        userDetailsService.loadUserForToken("jti-1", "test@mail.com", inOneHour());
+        CustomUserDetails cached = userDetailsService.loadUserForToken("jti-1", "test@mail.com", inOneHour());
+
+        assertThat(cached.getUser().getName()).isEqualTo("Renamed");
+        assertThat(cached.getUser()).isSameAs(renamed);
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("evictUser() should make the next request load the user again")
+    void evictUser_forcesReload() {
+        ReflectionTestUtils.setField(userDetailsService, "principalCacheTtlMs", 60_000L);
+        when(userRepository.findByEmail("test@mail.com")).thenReturn(Optional.of(user(true)), Optional.of(user(false)));
+
+        userDetailsService.loadUserForToken("jti-1", "test@mail.com", inOneHour());
+        userDetailsService.evictUser("test@mail.com");
+        CustomUserDetails reloaded = userDetailsService.loadUserForToken("jti-1", "test@mail.com", inOneHour());
+
+        assertThat(reloaded.isEnabled()).isFalse();
+        verify(userRepository, times(2)).findByEmail("test@mail.com");
+    }
+
+    @Test
+    @DisplayName("loadUserForToken() should not cache disabled users")
+    void loadUserForToken_disabledUserNotCached() {
+        ReflectionTestUtils.setField(userDetailsService, "principalCacheTtlMs", 60_000L);
+        when(userRepository.findByEmail("test@mail.com")).thenReturn(Optional.of(user(false)));
+
+        userDetailsService.loadUserForToken("jti-1", "test@mail.com", inOneHour());
+        userDetailsService.loadUserForToken("jti-1", "test@mail.com", inOneHour());
+
+        verify(userRepository, times(2)).findByEmail("test@mail.com");
+    }
 }
@@ -14,6 +14,7 @@ import com.aykhedma.model.user.Consumer;
 import com.aykhedma.model.user.Provider;
 import com.aykhedma.model.user.UserType;
 import com.aykhedma.repository.*;
+import com.aykhedma.service.rating.RatingAggregateService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -66,7 +67,7 @@ class EmergencyRatingServiceTest
     @Mock
     private NotificationFactory notificationFactory;
     @Mock
-    private BookingRepository bookingRepository;
+    private RatingAggregateService ratingAggregateService;
 
     @InjectMocks
     private EmergencyRequestServiceImpl emergencyRequestService;
@@ -134,8 +135,6 @@ class EmergencyRatingServiceTest
         void submitEmergencyRatingSuccessTest()
         {
             when(emergencyRequestRepository.findById(emergencyRequest.getId())).thenReturn(Optional.of(emergencyRequest));
-            when(bookingRepository.countByProviderIdAndConsumerRatingIsNotNull(provider.getId())).thenReturn(0L);
-            when(emergencyRequestRepository.countBySelectedProviderIdAndConsumerRatingIsNotNull(provider.getId())).thenReturn(1L);
             when(emergencyRequestMapper.toEmergencyRequestResponse(emergencyRequest))
                     .thenReturn(EmergencyRequestResponse.builder().id(emergencyRequest.getId()).build());
 
@@ -161,8 +160,6 @@ class EmergencyRatingServiceTest
             // selectedProvider is not null → treated as "accepted"
 
             when(emergencyRequestRepository.findById(emergencyRequest.getId())).thenReturn(Optional.of(emergencyRequest));
-            when(bookingRepository.countByProviderIdAndConsumerRatingIsNotNull(provider.getId())).thenReturn(0L);
-            when(emergencyRequestRepository.countBySelectedProviderIdAndConsumerRatingIsNotNull(provider.getId())).thenReturn(1L);
             when(emergencyRequestMapper.toEmergencyRequestResponse(emergencyRequest))
                     .thenReturn(EmergencyRequestResponse.builder().id(emergencyRequest.getId()).build());
 
@@ -173,45 +170,16 @@ class EmergencyRatingServiceTest
         }
 
         @Test
-        @DisplayName("Update Provider Averages For First Emergency Rating")
+        @DisplayName("Record Emergency Rating In Provider Totals")
         void submitEmergencyRatingFirstRatingUpdatesProviderTest()
         {
             when(emergencyRequestRepository.findById(emergencyRequest.getId())).thenReturn(Optional.of(emergencyRequest));
-            when(bookingRepository.countByProviderIdAndConsumerRatingIsNotNull(provider.getId())).thenReturn(0L);
-            when(emergencyRequestRepository.countBySelectedProviderIdAndConsumerRatingIsNotNull(provider.getId())).thenReturn(1L);
             when(emergencyRequestMapper.toEmergencyRequestResponse(emergencyRequest))
                     .thenReturn(EmergencyRequestResponse.builder().build());
 
             emergencyRequestService.submitEmergencyRequestRating(consumer.getId(), ratingRequest);
 
-            // First rating – should set directly
-            assertThat(provider.getAveragePunctualityRating()).isEqualTo(5.0);
-            assertThat(provider.getAverageCommitmentRating()).isEqualTo(4.0);
-            assertThat(provider.getAverageQualityOfWorkRating()).isEqualTo(3.0);
-            assertThat(provider.getAverageRating()).isEqualTo(4.0);
-            verify(providerRepository).save(provider);
-        }
-
-        @Test
-        @DisplayName("Update Provider Averages With Rolling Average For Subsequent Emergency Rating")
-        void submitEmergencyRatingSubsequentRatingUpdatesProviderTest()
-        {
-            provider.setAverageRating(3.0);
-            provider.setAveragePunctualityRating(3.0);
-            provider.setAverageCommitmentRating(3.0);
-            provider.setAverageQualityOfWorkRating(3.0);
-
-            when(emergencyRequestRepository.findById(emergencyRequest.getId())).thenReturn(Optional.of(emergencyRequest));
-            // 1 rated booking + 1 rated emergency (this one) = totalRatedCount = 2
-            when(bookingRepository.countByProviderIdAndConsumerRatingIsNotNull(provider.getId())).thenReturn(1L);
-            when(emergencyRequestRepository.countBySelectedProviderIdAndConsumerRatingIsNotNull(provider.getId())).thenReturn(1L);
-            when(emergencyRequestMapper.toEmergencyRequestResponse(emergencyRequest))
-                    .thenReturn(EmergencyRequestResponse.builder().build());
-
-            emergencyRequestService.submitEmergencyRequestRating(consumer.getId(), ratingRequest);
-
-            // Rolling average: punctuality: (3.0*1 + 5.0)/2 = 4.0
-            assertThat(provider.getAveragePunctualityRating()).isEqualTo(4.0);
+            verify(ratingAggregateService).recordProviderRating(provider, 5.0, 4.0, 3.0, 4.0);
             verify(providerRepository).save(provider);
         }
 
@@ -297,8 +265,6 @@ class EmergencyRatingServiceTest
             ratingRequest.setReview(null);
 
             when(emergencyRequestRepository.findById(emergencyRequest.getId())).thenReturn(Optional.of(emergencyRequest));
-            when(bookingRepository.countByProviderIdAndConsumerRatingIsNotNull(provider.getId())).thenReturn(0L);
-            when(emergencyRequestRepository.countBySelectedProviderIdAndConsumerRatingIsNotNull(provider.getId())).thenReturn(1L);
             when(emergencyRequestMapper.toEmergencyRequestResponse(emergencyRequest))
                     .thenReturn(EmergencyRequestResponse.builder().build());
 
@@ -333,8 +299,6 @@ class EmergencyRatingServiceTest
         void submitConsumerEmergencyRatingSuccessTest()
         {
             when(emergencyRequestRepository.findById(emergencyRequest.getId())).thenReturn(Optional.of(emergencyRequest));
-            when(bookingRepository.countByConsumerIdAndProviderRatingIsNotNull(consumer.getId())).thenReturn(0L);
-            when(emergencyRequestRepository.countByConsumerIdAndProviderRatingIsNotNull(consumer.getId())).thenReturn(1L);
             when(emergencyRequestMapper.toEmergencyRequestResponse(emergencyRequest))
                     .thenReturn(EmergencyRequestResponse.builder().id(emergencyRequest.getId()).build());
 
@@ -344,7 +308,6 @@ class EmergencyRatingServiceTest
             assertThat(emergencyRequest.getProviderRating()).isEqualTo(4.0);
             assertThat(emergencyRequest.getProviderReview()).isEqualTo("Cooperative client!");
             verify(emergencyRequestRepository).save(emergencyRequest);
-            verify(consumerRepository).save(consumer);
         }
 
         @Test
@@ -355,8 +318,6 @@ class EmergencyRatingServiceTest
             // selectedProvider is not null → treated as accepted
 
             when(emergencyRequestRepository.findById(emergencyRequest.getId())).thenReturn(Optional.of(emergencyRequest));
-            when(bookingRepository.countByConsumerIdAndProviderRatingIsNotNull(consumer.getId())).thenReturn(0L);
-            when(emergencyRequestRepository.countByConsumerIdAndProviderRatingIsNotNull(consumer.getId())).thenReturn(1L);
             when(emergencyRequestMapper.toEmergencyRequestResponse(emergencyRequest))
                     .thenReturn(EmergencyRequestResponse.builder().build());
 
@@ -367,38 +328,16 @@ class EmergencyRatingServiceTest
         }
 
         @Test
-        @DisplayName("Update Consumer Average Rating For First Emergency Rating")
+        @DisplayName("Record Emergency Rating In Consumer Totals")
         void submitConsumerEmergencyRatingFirstRatingTest()
         {
             when(emergencyRequestRepository.findById(emergencyRequest.getId())).thenReturn(Optional.of(emergencyRequest));
-            when(bookingRepository.countByConsumerIdAndProviderRatingIsNotNull(consumer.getId())).thenReturn(0L);
-            when(emergencyRequestRepository.countByConsumerIdAndProviderRatingIsNotNull(consumer.getId())).thenReturn(1L);
-            when(emergencyRequestMapper.toEmergencyRequestResponse(emergencyRequest))
-                    .thenReturn(EmergencyRequestResponse.builder().build());
-
-            emergencyRequestService.submitConsumerEmergencyRequestRating(provider.getId(), ratingRequest);
-
-            assertThat(consumer.getAverageRating()).isEqualTo(4.0);
-            verify(consumerRepository).save(consumer);
-        }
-
-        @Test
-        @DisplayName("Update Consumer Average Rating With Rolling Average")
-        void submitConsumerEmergencyRatingSubsequentTest()
-        {
-            consumer.setAverageRating(3.0);
-
-            when(emergencyRequestRepository.findById(emergencyRequest.getId())).thenReturn(Optional.of(emergencyRequest));
-            // 1 booking + 1 emergency = totalRatedCount = 2
-            when(bookingRepository.countByConsumerIdAndProviderRatingIsNotNull(consumer.getId())).thenReturn(1L);
-            when(emergencyRequestRepository.countByConsumerIdAndProviderRatingIsNotNull(consumer.getId())).thenReturn(1L);
             when(emergencyRequestMapper.toEmergencyRequestResponse(emergencyRequest))
                     .thenReturn(EmergencyRequestResponse.builder().build());
 
             emergencyRequestService.submitConsumerEmergencyRequestRating(provider.getId(), ratingRequest);
 
-            // Rolling average: (3.0*1 + 4.0)/2 = 3.5
-            assertThat(consumer.getAverageRating()).isEqualTo(3.5);
+            verify(ratingAggregateService).recordConsumerRating(consumer, 4.0);
         }
 
         @Test
@@ -482,8 +421,6 @@ class EmergencyRatingServiceTest
             ratingRequest.setReview(null);
 
             when(emergencyRequestRepository.findById(emergencyRequest.getId())).thenReturn(Optional.of(emergencyRequest));
-            when(bookingRepository.countByConsumerIdAndProviderRatingIsNotNull(consumer.getId())).thenReturn(0L);
-            when(emergencyRequestRepository.countByConsumerIdAndProviderRatingIsNotNull(consumer.getId())).thenReturn(1L);
             when(emergencyRequestMapper.toEmergencyRequestResponse(emergencyRequest))
                     .thenReturn(EmergencyRequestResponse.builder().build());
 
@@ -0,0 +1,186 @@
+package com.aykhedma.service;
+
+import com.aykhedma.config.UpstreamHttpProperties;
+import com.aykhedma.config.UpstreamWebClientConfig;
+import com.aykhedma.util.MockUpstreamServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("Gemini Client Tests")
+class GeminiClientTest {
+
+    private static final String KEY_A = "key-a-" + "x".repeat(36);
+    private static final String KEY_B = "key-b-" + "x".repeat(36);
+
+    private MockUpstreamServer gemini;
+    private GeminiClient geminiClient;
+    private GeminiContextCache contextCache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        gemini = new MockUpstreamServer();
+        WebClient webClient = UpstreamWebClientConfig.build(WebClient.builder(), "gemini-test", gemini.baseUrl(),
+                new UpstreamHttpProperties.Pool(4));
+        contextCache = new GeminiContextCache(webClient);
+        ReflectionTestUtils.setField(contextCache, "ttl", Duration.ofHours(1));
+        geminiClient = new GeminiClient(webClient, new ObjectMapper(), mock(ObjectProvider.class),
+                new LlmResponseCache(new SimpleMeterRegistry(), Duration.ofMinutes(10)), contextCache,
+                new GeminiKeyScheduler(new SimpleMeterRegistry(), 100, 1_000_000, Duration.ofSeconds(1)));
+        ReflectionTestUtils.setField(geminiClient, "apiKeys", List.of(KEY_A, KEY_B));
+        ReflectionTestUtils.setField(geminiClient, "model", "gemini-2.5-flash");
+    }
+
+    @AfterEach
+    void tearDown() {
+        gemini.close();
+    }
+
+    private static String candidate(String text) {
+        return "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + text + "\"}]}}]}";
+    }
+
+    @Test
+    @DisplayName("generateJson returns the candidate text from generateContent")
+    void generateJson_returnsCandidateText() {
+        gemini.enqueue(200, "application/json", candidate("{}"));
+
+        String response = geminiClient.generateJson(
+                List.of(new GeminiClient.ConversationTurn("user", "hello")), "be brief");
+
+        assertThat(response).isEqualTo("{}");
+        assertThat(gemini.requests()).singleElement().satisfies(request -> {
+            assertThat(request.uri()).isEqualTo("/models/gemini-2.5-flash:generateContent");
+            assertThat(request.apiKey()).isIn(KEY_A, KEY_B);
+            assertThat(request.body()).contains("be brief", "hello");
+        });
+    }
+
+    @Test
+    @DisplayName("a failing key is cooled down and the next key answers")
+    void generateJson_rotatesPastFailingKey() {
+        gemini.enqueue(503, "application/json", "{\"error\":{\"code\":503}}")
+                .enqueue(200, "application/json", candidate("ok"));
+
+        String response = geminiClient.generateJson(
+                List.of(new GeminiClient.ConversationTurn("user", "a longer question that is not cached")), "sys");
+
+        assertThat(response).isEqualTo("ok");
+        assertThat(gemini.requests()).extracting(MockUpstreamServer.RecordedRequest::apiKey)
+                .containsExactlyInAnyOrder(KEY_A, KEY_B);
+    }
+
+    @Test
+    @DisplayName("a rate-limited key sits out and the next key answers without a retry sleep")
+    void generateJson_movesPastRateLimitedKeyWithoutSleeping() {
+        gemini.enqueue(429, "application/json",
+                        "{\"error\":{\"code\":429,\"details\":[{\"retryDelay\":\"30s\"}]}}")
+                .enqueue(200, "application/json", candidate("ok"))
+                .enqueue(200, "application/json", candidate("again"));
+
+        long start = System.nanoTime();
+        String first = geminiClient.generateJson(
+                List.of(new GeminiClient.ConversationTurn("user", "question one")), "sys");
+        String second = geminiClient.generateJson(
+                List.of(new GeminiClient.ConversationTurn("user", "question two")), "sys");
+
+        assertThat(first).isEqualTo("ok");
+        assertThat(second).isEqualTo("again");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        List<MockUpstreamServer.RecordedRequest> requests = gemini.requests();
+        // the limited key is still cooling down, so both answers come from the other one
+        assertThat(requests.get(1).apiKey()).isNotEqualTo(requests.get(0).apiKey());
+        assertThat(requests.get(2).apiKey()).isEqualTo(requests.get(1).apiKey());
+    }
+
+    @Test
+    @DisplayName("calls share pooled keep-alive connections")
+    void generateJson_reusesConnections() {
+        int calls = 5;
+        for (int i = 0; i < calls; i++) {
+            gemini.enqueue(200, "application/json", candidate("answer " + i));
+        }
+
+        for (int i = 0; i < calls; i++) {
+            geminiClient.generateJson(List.of(new GeminiClient.ConversationTurn("user", "question " + i)), "sys");
+        }
+
+        // a connection goes back to the pool asynchronously, so a busy machine can
+        // occasionally open a second one; sequential calls must still reuse some
+        assertThat(gemini.requests()).hasSize(calls);
+        assertThat(gemini.requests().stream().map(MockUpstreamServer.RecordedRequest::clientPort).distinct().count())
+                .isLessThan(calls);
+    }
+
+    @Test
+    @DisplayName("streamJson emits the text of each server-sent event")
+    void streamJson_emitsEventText() {
+        gemini.enqueue(200, "text/event-stream",
+                "data: " + candidate("{\\\"reply\\\":\\\"Hel") + "\n\n"
+                        + "data: " + candidate("lo\\\"}") + "\n\n");
+
+        List<String> chunks = geminiClient.streamJson(
+                        List.of(new GeminiClient.ConversationTurn("user", "hi")), "sys")
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(chunks).containsExactly("{\"reply\":\"Hel", "lo\"}");
+        assertThat(gemini.requests().get(0).uri())
+                .isEqualTo("/models/gemini-2.5-flash:streamGenerateContent?alt=sse");
+    }
+
+    @Test
+    @DisplayName("instructions are uploaded to the context cache once and referenced by name")
+    void generateJson_referencesCachedInstructions() {
+        ReflectionTestUtils.setField(contextCache, "enabled", true);
+        ReflectionTestUtils.setField(geminiClient, "apiKeys", List.of(KEY_A));
+        gemini.enqueue(200, "application/json", "{\"name\":\"cachedContents/abc\"}")
+                .enqueue(200, "application/json", candidate("one"))
+                .enqueue(200, "application/json", candidate("two"));
+
+        geminiClient.generateJson(List.of(new GeminiClient.ConversationTurn("user", "first")),
+                "TOOLS AND RULES", "role: CONSUMER");
+        geminiClient.generateJson(List.of(new GeminiClient.ConversationTurn("user", "second")),
+                "TOOLS AND RULES", "role: CONSUMER");
+
+        List<MockUpstreamServer.RecordedRequest> requests = gemini.requests();
+        assertThat(requests).hasSize(3);
+        assertThat(requests.get(0).uri()).isEqualTo("/cachedContents");
+        assertThat(requests.get(0).body()).contains("models/gemini-2.5-flash", "TOOLS AND RULES", "3600s");
+        assertThat(requests.subList(1, 3)).allSatisfy(request -> {
+            assertThat(request.uri()).isEqualTo("/models/gemini-2.5-flash:generateContent");
+            assertThat(request.body()).contains("\"cachedContent\":\"cachedContents/abc\"", "role: CONSUMER")
+                    .doesNotContain("TOOLS AND RULES");
+        });
+    }
+
+    @Test
+    @DisplayName("instructions are sent inline when the context cache cannot be created")
+    void generateJson_sendsInstructionsInlineWhenCachingFails() {
+        ReflectionTestUtils.setField(contextCache, "enabled", true);
+        ReflectionTestUtils.setField(geminiClient, "apiKeys", List.of(KEY_A));
+        gemini.enqueue(400, "application/json", "{\"error\":{\"code\":400,\"message\":\"too small\"}}")
+                .enqueue(200, "application/json", candidate("{}"));
+
+        String response = geminiClient.generateJson(
+                List.of(new GeminiClient.ConversationTurn("user", "hello")), "TOOLS AND RULES", "role: CONSUMER");
+
+        assertThat(response).isEqualTo("{}");
+        assertThat(gemini.requests().get(1).body())
+                .contains("TOOLS AND RULES", "role: CONSUMER")
+                .doesNotContain("cachedContent");
+    }
+}
@@ -0,0 +1,105 @@
+package com.aykhedma.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Gemini Key Scheduler Tests")
+class GeminiKeySchedulerTest {
+
+    private static final List<String> KEYS = List.of("key-a", "key-b");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final long[] now = {0};
+
+    private GeminiKeyScheduler scheduler(int requestsPerMinute, int tokensPerMinute) {
+        return new GeminiKeyScheduler(meterRegistry, requestsPerMinute, tokensPerMinute,
+                Duration.ofSeconds(1), () -> now[0]);
+    }
+
+    @Test
+    @DisplayName("spreads concurrent calls over the least loaded keys")
+    void tryAcquire_prefersKeyWithFewerCallsInFlight() {
+        GeminiKeyScheduler scheduler = scheduler(10, 100_000);
+
+        GeminiKeyScheduler.Lease first = scheduler.tryAcquire(KEYS, Set.of(), 100);
+        GeminiKeyScheduler.Lease second = scheduler.tryAcquire(KEYS, Set.of(), 100);
+
+        assertThat(first.apiKey()).isEqualTo("key-a");
+        assertThat(second.apiKey()).isEqualTo("key-b");
+        assertThat(meterRegistry.get("ai.gemini.key.in_flight").tag("key", "key-0").gauge().value())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("skips keys whose requests per minute are used up until they refill")
+    void tryAcquire_respectsRequestQuota() {
+        GeminiKeyScheduler scheduler = scheduler(1, 100_000);
+
+        scheduler.tryAcquire(KEYS, Set.of(), 10).succeeded(0);
+        scheduler.tryAcquire(KEYS, Set.of(), 10).succeeded(0);
+
+        assertThat(scheduler.tryAcquire(KEYS, Set.of(), 10)).isNull();
+        assertThat(meterRegistry.get("ai.gemini.key.requests.utilization").tag("key", "key-1").gauge().value())
+                .isEqualTo(1.0);
+
+        now[0] += TimeUnit.MINUTES.toNanos(1);
+        assertThat(scheduler.tryAcquire(KEYS, Set.of(), 10)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("charges the reported token count against the key's token quota")
+    void succeeded_correctsTokenEstimate() {
+        GeminiKeyScheduler scheduler = scheduler(100, 1_000);
+
+        scheduler.tryAcquire(List.of("key-a"), Set.of(), 10).succeeded(900);
+
+        assertThat(scheduler.tryAcquire(List.of("key-a"), Set.of(), 200)).isNull();
+        assertThat(scheduler.tryAcquire(List.of("key-a"), Set.of(), 50)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("keeps a failed key out of rotation for its cooldown")
+    void failed_coolsKeyDown() {
+        GeminiKeyScheduler scheduler = scheduler(100, 100_000);
+
+        scheduler.tryAcquire(KEYS, Set.of(), 10).failed(Duration.ofSeconds(30));
+
+        assertThat(scheduler.tryAcquire(KEYS, Set.of("key-b"), 10)).isNull();
+        now[0] += TimeUnit.SECONDS.toNanos(31);
+        assertThat(scheduler.tryAcquire(KEYS, Set.of("key-b"), 10).apiKey()).isEqualTo("key-a");
+    }
+
+    @Test
+    @DisplayName("queues a caller until a key's cooldown ends, within the deadline")
+    void acquire_waitsForCooldownToEnd() {
+        GeminiKeyScheduler scheduler = new GeminiKeyScheduler(meterRegistry, 100, 100_000,
+                Duration.ofSeconds(2));
+        scheduler.tryAcquire(List.of("key-a"), Set.of(), 10).failed(Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        GeminiKeyScheduler.Lease lease = scheduler.acquire(List.of("key-a"), Set.of(), 10);
+
+        assertThat(lease).isNotNull();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isBetween(150L, 1_500L);
+    }
+
+    @Test
+    @DisplayName("gives up at once when no key can free up before the deadline")
+    void acquire_givesUpPastDeadline() {
+        GeminiKeyScheduler scheduler = new GeminiKeyScheduler(meterRegistry, 100, 100_000,
+                Duration.ofMillis(500));
+        scheduler.tryAcquire(List.of("key-a"), Set.of(), 10).failed(Duration.ofMinutes(1));
+
+        assertThat(scheduler.acquire(List.of("key-a"), Set.of(), 10)).isNull();
+        assertThat(scheduler.acquire(List.of("key-a"), Set.of("key-a"), 10)).isNull();
+        assertThat(meterRegistry.get("ai.gemini.keys.wait.timeouts").counter().count()).isEqualTo(1);
+    }
+}
@@ -11,6 +11,7 @@ import com.aykhedma.model.user.UserType;
 import com.aykhedma.repository.ConsumerRepository;
 import com.aykhedma.repository.InteractionRatingRepository;
 import com.aykhedma.repository.ProviderRepository;
+import com.aykhedma.service.rating.RatingAggregateService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -45,6 +46,8 @@ class InteractionRatingServiceTest
     private InteractionRatingMapper interactionRatingMapper;
     @Mock
     private NotificationFactory notificationFactory;
+    @Mock
+    private RatingAggregateService ratingAggregateService;
 
     @InjectMocks
     private InteractionRatingServiceImpl interactionRatingService;
@@ -148,7 +151,7 @@ class InteractionRatingServiceTest
         }
 
         @Test
-        @DisplayName("Update Provider Interaction Metrics For First Rating")
+        @DisplayName("Record Rating In Provider Interaction Totals")
         void submitRatingFirstMetricUpdateTest()
         {
             InteractionRating savedRating = InteractionRating.builder()
@@ -162,33 +165,7 @@ class InteractionRatingServiceTest
             request.setRating(5);
             interactionRatingService.submitRating(consumer.getId(), request);
 
-            // First rating: count = 0 → 1, avg = (0*0 + 5) / 1 = 5.0
-            assertThat(provider.getInteractionRatingCount()).isEqualTo(1);
-            assertThat(provider.getAverageInteractionRating()).isEqualTo(5.0);
-            verify(providerRepository).save(provider);
-        }
-
-        @Test
-        @DisplayName("Update Provider Interaction Metrics With Rolling Average")
-        void submitRatingRollingAverageTest()
-        {
-            provider.setInteractionRatingCount(2);
-            provider.setAverageInteractionRating(4.0);
-
-            InteractionRating savedRating = InteractionRating.builder()
-                    .id(3L).consumer(consumer).provider(provider).rating(1.0).build();
-
-            when(consumerRepository.findById(consumer.getId())).thenReturn(Optional.of(consumer));
-            when(providerRepository.findById(provider.getId())).thenReturn(Optional.of(provider));
-            when(interactionRatingRepository.save(any())).thenReturn(savedRating);
-            when(interactionRatingMapper.toResponse(any())).thenReturn(InteractionRatingResponse.builder().build());
-
-            request.setRating(1);
-            interactionRatingService.submitRating(consumer.getId(), request);
-
-            // newCount = 3, newAvg = (4.0*2 + 1.0)/3 = 9.0/3 = 3.0
-            assertThat(provider.getInteractionRatingCount()).isEqualTo(3);
-            assertThat(provider.getAverageInteractionRating()).isEqualTo(3.0);
+            verify(ratingAggregateService).recordInteractionRating(provider, 5.0);
         }
 
         @Test
@@ -225,7 +202,7 @@ class InteractionRatingServiceTest
 
             assertThat(response).isNotNull();
             // Metrics should still be updated despite notification failure
-            assertThat(provider.getInteractionRatingCount()).isEqualTo(1);
+            verify(ratingAggregateService).recordInteractionRating(provider, 4.0);
         }
 
         @Test
@@ -268,28 +245,6 @@ class InteractionRatingServiceTest
 
             assertThat(ratingCaptor.getValue().getComment()).isNull();
         }
-
-        @Test
-        @DisplayName("Rounding To 1 Decimal Place For Average Interaction Rating")
-        void submitRatingRoundingTest()
-        {
-            provider.setInteractionRatingCount(2);
-            provider.setAverageInteractionRating(3.0);
-
-            InteractionRating savedRating = InteractionRating.builder()
-                    .id(3L).consumer(consumer).provider(provider).rating(5.0).build();
-
-            when(consumerRepository.findById(consumer.getId())).thenReturn(Optional.of(consumer));
-            when(providerRepository.findById(provider.getId())).thenReturn(Optional.of(provider));
-            when(interactionRatingRepository.save(any())).thenReturn(savedRating);
-            when(interactionRatingMapper.toResponse(any())).thenReturn(InteractionRatingResponse.builder().build());
-
-            request.setRating(5);
-            interactionRatingService.submitRating(consumer.getId(), request);
-
-            // newAvg = (3.0*2 + 5.0)/3 = 11.0/3 = 3.6666... → rounded to 3.7
-            assertThat(provider.getAverageInteractionRating()).isEqualTo(3.7);
-        }
     }
 
     // ========================================================================
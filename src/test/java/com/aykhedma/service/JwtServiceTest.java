@@ -4,6 +4,7 @@ import com.aykhedma.model.user.Consumer;
 import com.aykhedma.model.user.User;
 import com.aykhedma.model.user.UserType;
 import com.aykhedma.security.JwtService;
+import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -81,4 +82,17 @@ class JwtServiceTest {
         assertThat(jwtService.isTokenValid("not.a.jwt")).isFalse();
         assertThat(jwtService.isTokenValid("completely-random-garbage-string")).isFalse();
     }
+
+    @Test
+    @DisplayName("parseValidClaims() should return subject and a unique token id in one parse")
+    void parseValidClaims_returnsSubjectAndId() {
+        User user = buildUser();
+
+        Claims first = jwtService.parseValidClaims(jwtService.generateToken(user));
+        Claims second = jwtService.parseValidClaims(jwtService.generateToken(user));
+
+        assertThat(first.getSubject()).isEqualTo("test@mail.com");
+        assertThat(first.getId()).isNotBlank().isNotEqualTo(second.getId());
+        assertThat(jwtService.parseValidClaims("not.a.jwt")).isNull();
+    }
 }
@@ -0,0 +1,123 @@
+package com.aykhedma.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LLM Response Cache Tests")
+class LlmResponseCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MutableClock clock;
+    private LlmResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-01-01T10:00:00Z"));
+        cache = new LlmResponseCache(meterRegistry, TTL, clock);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("ai.llm.cache.requests").tag("result", result).counter().count();
+    }
+
+    @Test
+    @DisplayName("returns a stored response and counts the hit")
+    void get_returnsStoredResponse() {
+        cache.put("mcp:CONSUMER:plumber", "{\"tool\":\"search_providers\"}");
+
+        assertThat(cache.get("mcp:CONSUMER:plumber")).isEqualTo("{\"tool\":\"search_providers\"}");
+        assertThat(cache.get("mcp:CONSUMER:electrician")).isNull();
+        assertThat(lookups("hit")).isEqualTo(1);
+        assertThat(lookups("miss")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("drops entries once their TTL has passed")
+    void get_expiresAfterTtl() {
+        cache.put("key", "value");
+
+        clock.advance(TTL.plusSeconds(1));
+
+        assertThat(cache.get("key")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("purges expired entries that are never read again")
+    void purgeExpired_removesOnlyExpiredEntries() {
+        cache.put("old", "value");
+        clock.advance(TTL.minusMinutes(1));
+        cache.put("fresh", "value");
+        clock.advance(Duration.ofMinutes(2));
+
+        cache.purgeExpired();
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get("fresh")).isEqualTo("value");
+        assertThat(meterRegistry.get("ai.llm.cache.size").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("evicts the least recently used entry when full")
+    void put_evictsLeastRecentlyUsed() {
+        for (int i = 0; i < LlmResponseCache.MAX_ENTRIES; i++) {
+            cache.put("key-" + i, "value");
+        }
+        cache.get("key-0");
+
+        cache.put("one-more", "value");
+
+        assertThat(cache.size()).isEqualTo(LlmResponseCache.MAX_ENTRIES);
+        assertThat(cache.get("key-0")).isEqualTo("value");
+        assertThat(cache.get("key-1")).isNull();
+    }
+
+    @Test
+    @DisplayName("ignores null keys")
+    void nullKey_isNeverCached() {
+        cache.put(null, "value");
+
+        assertThat(cache.get(null)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.aykhedma.service;
 
 import com.aykhedma.auth.OtpService;
+import com.aykhedma.auth.otp.InMemoryOtpStore;
+import com.aykhedma.auth.otp.OtpProperties;
+import com.aykhedma.exception.TooManyRequestsException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -22,7 +25,7 @@ class OtpServiceTest {
 
     @BeforeEach
     void setUp() {
-        otpService = new OtpService(notificationService);
+        otpService = new OtpService(notificationService, new InMemoryOtpStore(), new OtpProperties());
     }
 
     @Test
@@ -72,4 +75,29 @@ class OtpServiceTest {
         assertThat(otpService.validateOtp(email, generatedOtp)).isTrue();
         assertThat(otpService.validateOtp(email, generatedOtp)).isFalse();
     }
+
+    @Test
+    @DisplayName("OTP should be burnt after too many wrong guesses")
+    void validateOtp_tooManyWrongGuesses_burnsOtp() {
+        String email = "test4@mail.com";
+        String generatedOtp = otpService.generateOtp(email);
+
+        for (int i = 0; i < new OtpProperties().getMaxAttempts(); i++) {
+            assertThat(otpService.validateOtp(email, "000000")).isFalse();
+        }
+
+        assertThat(otpService.validateOtp(email, generatedOtp)).isFalse();
+    }
+
+    @Test
+    @DisplayName("generateOtp() should refuse once the email's send budget is used up")
+    void generateOtp_tooManyRequests_throws() {
+        String email = "test5@mail.com";
+        for (int i = 0; i < new OtpProperties().getSendsPerEmail(); i++) {
+            otpService.generateOtp(email);
+        }
+
+        assertThatThrownBy(() -> otpService.generateOtp(email))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
 }
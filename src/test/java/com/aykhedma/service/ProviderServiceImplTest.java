@@ -2,9 +2,12 @@ package com.aykhedma.service;
 
 import com.aykhedma.dto.location.LocationDTO;
 import com.aykhedma.dto.request.ProviderProfileRequest;
+import com.aykhedma.dto.request.RecurringScheduleRequest;
 import com.aykhedma.dto.request.WorkingDayRequest;
 import com.aykhedma.dto.response.ProviderDistanceProjection;
 import com.aykhedma.dto.response.ProviderResponse;
+import com.aykhedma.dto.response.ProviderSummaryResponse;
+import com.aykhedma.dto.response.RecurringScheduleResponse;
 import com.aykhedma.dto.response.ScheduleResponse;
 import com.aykhedma.dto.response.SearchResponse;
 import com.aykhedma.exception.BadRequestException;
@@ -21,6 +24,7 @@ import com.aykhedma.model.service.ServiceType;
 import com.aykhedma.model.user.Provider;
 import com.aykhedma.repository.DocumentRepository;
 import com.aykhedma.repository.ProviderRepository;
+import com.aykhedma.repository.ScheduleRepository;
 import com.aykhedma.repository.ServiceTypeRepository;
 import com.aykhedma.repository.TimeSlotRepository;
 import com.aykhedma.repository.WorkingDayRepository;
@@ -30,12 +34,15 @@ import com.aykhedma.model.user.VerificationStatus;
 import com.aykhedma.dto.response.WeeklyScheduleResponse;
 import com.aykhedma.model.document.Document;
 import com.aykhedma.model.user.VerificationStatus;
+import com.aykhedma.service.availability.AvailabilityEngine;
+import com.aykhedma.service.availability.ProviderAvailabilityIndex;
 import com.aykhedma.util.TestDataFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -44,8 +51,10 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
 import com.aykhedma.exception.BadRequestException;
 import java.io.IOException;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
@@ -54,6 +63,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
@@ -92,6 +102,12 @@ class ProviderServiceImplTest {
         @Mock
         private LocationService locationService;
 
+        @Mock
+        private ProviderAvailabilityIndex providerAvailabilityIndex;
+
+        @Mock
+        private ScheduleRepository scheduleRepository;
+
         @InjectMocks
         private ProviderServiceImpl providerService;
 
@@ -106,6 +122,9 @@ class ProviderServiceImplTest {
 
         @BeforeEach
         void setUp() {
+                ReflectionTestUtils.setField(providerService, "availabilityEngine",
+                                new AvailabilityEngine(timeSlotRepository, scheduleRepository,
+                                                mock(ProviderAvailabilityIndex.class)));
                 provider = TestDataFactory.createProvider(PROVIDER_ID);
                 providerResponse = ProviderResponse.builder()
                                 .id(PROVIDER_ID)
@@ -778,6 +797,56 @@ class ProviderServiceImplTest {
         }
     }
 
+    @Nested
+    @DisplayName("Find Available Providers Tests")
+    class FindAvailableProvidersTests {
+
+        private final LocalDate date = LocalDate.now().plusDays(1);
+
+        @Test
+        @DisplayName("Should return free providers near the consumer in distance order")
+        void findAvailableProviders_WithConsumer_ReturnsNearbyInDistanceOrder() {
+            Provider near = TestDataFactory.createProvider(2L);
+            Provider far = TestDataFactory.createProvider(3L);
+            ProviderSummaryResponse nearSummary = ProviderSummaryResponse.builder().id(2L).build();
+            ProviderSummaryResponse farSummary = ProviderSummaryResponse.builder().id(3L).build();
+
+            when(providerAvailabilityIndex.findAvailableProviderIds(5L, date, LocalTime.of(17, 0), LocalTime.of(18, 0)))
+                    .thenReturn(List.of(2L, 3L, 4L));
+            when(providerRepository.findBookableIdsNearConsumer(List.of(2L, 3L, 4L), 7L, 5000.0))
+                    .thenReturn(List.of(2L, 3L));
+            when(providerRepository.findAllById(List.of(2L, 3L))).thenReturn(List.of(far, near));
+            when(providerMapper.toProviderSummaryResponse(near)).thenReturn(nearSummary);
+            when(providerMapper.toProviderSummaryResponse(far)).thenReturn(farSummary);
+
+            List<ProviderSummaryResponse> result = providerService.findAvailableProviders(
+                    5L, date, LocalTime.of(17, 0), 60, 7L, 5.0);
+
+            assertThat(result).containsExactly(nearSummary, farSummary);
+        }
+
+        @Test
+        @DisplayName("Should skip the provider lookup when nobody is free")
+        void findAvailableProviders_NobodyFree_ReturnsEmpty() {
+            when(providerAvailabilityIndex.findAvailableProviderIds(5L, date, LocalTime.of(9, 30), LocalTime.of(10, 0)))
+                    .thenReturn(List.of());
+
+            List<ProviderSummaryResponse> result = providerService.findAvailableProviders(
+                    5L, date, LocalTime.of(9, 30), 30, null, null);
+
+            assertThat(result).isEmpty();
+            verifyNoInteractions(providerRepository);
+        }
+
+        @Test
+        @DisplayName("Should reject a start time off the half-hour grid")
+        void findAvailableProviders_OffGridTime_ThrowsBadRequest() {
+            assertThatThrownBy(() -> providerService.findAvailableProviders(
+                    5L, date, LocalTime.of(9, 10), 60, null, null))
+                    .isInstanceOf(BadRequestException.class);
+        }
+    }
+
     @Nested
     @DisplayName("Upload Document Tests")
     class UploadDocumentTests {
@@ -1292,5 +1361,110 @@ class ProviderServiceImplTest {
                     .hasMessageContaining("past dates");
         }
     }
-}
 
+    @Nested
+    @DisplayName("Recurring Schedule Tests")
+    class RecurringScheduleTests {
+
+        private final LocalDate monday = LocalDate.now().plusWeeks(1).with(DayOfWeek.MONDAY);
+
+        private RecurringScheduleRequest.WeeklyHours hours(DayOfWeek day, int startHour, int endHour) {
+            return RecurringScheduleRequest.WeeklyHours.builder()
+                    .dayOfWeek(day)
+                    .startTime(LocalTime.of(startHour, 0))
+                    .endTime(LocalTime.of(endHour, 0))
+                    .build();
+        }
+
+        @Test
+        @DisplayName("Should batch-insert template days, skipping exceptions and configured dates")
+        @SuppressWarnings("unchecked")
+        void generateRecurringSchedule_ValidTemplate_InsertsNewDaysOnly() {
+            provider.setSchedule(Schedule.builder().id(1L).build());
+            LocalDate endDate = monday.plusDays(13);
+            RecurringScheduleRequest request = RecurringScheduleRequest.builder()
+                    .startDate(monday)
+                    .endDate(endDate)
+                    .weeklyHours(List.of(hours(DayOfWeek.MONDAY, 9, 17), hours(DayOfWeek.WEDNESDAY, 12, 20)))
+                    .exceptions(List.of(monday.plusDays(2)))
+                    .build();
+
+            when(providerRepository.findById(PROVIDER_ID)).thenReturn(Optional.of(provider));
+            when(scheduleRepository.findAvailabilityVersion(1L)).thenReturn(Optional.of(0L));
+            when(scheduleRepository.bumpAvailabilityVersion(1L, 0L)).thenReturn(1);
+            when(workingDayRepository.findConfiguredDates(1L, monday, endDate)).thenReturn(List.of(monday));
+            when(workingDayRepository.insertWorkingDaysWithSlots(eq(1L), anyList())).thenReturn(new int[]{1, 1});
+
+            RecurringScheduleResponse result = providerService.generateRecurringSchedule(PROVIDER_ID, request);
+
+            ArgumentCaptor<List<WorkingDay>> inserted = ArgumentCaptor.forClass(List.class);
+            verify(workingDayRepository).insertWorkingDaysWithSlots(eq(1L), inserted.capture());
+            assertThat(inserted.getValue())
+                    .extracting(WorkingDay::getDate, WorkingDay::getStartTime)
+                    .containsExactly(
+                            tuple(monday.plusDays(7), LocalTime.of(9, 0)),
+                            tuple(monday.plusDays(9), LocalTime.of(12, 0)));
+            assertThat(result.getCreatedDays()).isEqualTo(2);
+            assertThat(result.getSkippedExistingDays()).isEqualTo(1);
+            assertThat(result.getSkippedExceptionDays()).isEqualTo(1);
+            verify(workingDayRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should report a day skipped by the insert guard as existing, not created")
+        void generateRecurringSchedule_ConcurrentlyConfiguredDay_NotReportedAsCreated() {
+            provider.setSchedule(Schedule.builder().id(1L).build());
+            LocalDate endDate = monday.plusDays(7);
+            RecurringScheduleRequest request = RecurringScheduleRequest.builder()
+                    .startDate(monday)
+                    .endDate(endDate)
+                    .weeklyHours(List.of(hours(DayOfWeek.MONDAY, 9, 17)))
+                    .build();
+
+            when(providerRepository.findById(PROVIDER_ID)).thenReturn(Optional.of(provider));
+            when(scheduleRepository.findAvailabilityVersion(1L)).thenReturn(Optional.of(0L));
+            when(scheduleRepository.bumpAvailabilityVersion(1L, 0L)).thenReturn(1);
+            when(workingDayRepository.findConfiguredDates(1L, monday, endDate)).thenReturn(List.of());
+            when(workingDayRepository.insertWorkingDaysWithSlots(eq(1L), anyList())).thenReturn(new int[]{0, 1});
+
+            RecurringScheduleResponse result = providerService.generateRecurringSchedule(PROVIDER_ID, request);
+
+            assertThat(result.getCreatedDays()).isEqualTo(1);
+            assertThat(result.getCreatedDates()).containsExactly(monday.plusDays(7));
+            assertThat(result.getSkippedExistingDays()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should reject a range longer than the allowed maximum")
+        void generateRecurringSchedule_RangeTooLong_ThrowsException() {
+            RecurringScheduleRequest request = RecurringScheduleRequest.builder()
+                    .startDate(monday)
+                    .endDate(monday.plusDays(400))
+                    .weeklyHours(List.of(hours(DayOfWeek.MONDAY, 9, 17)))
+                    .build();
+
+            when(providerRepository.findById(PROVIDER_ID)).thenReturn(Optional.of(provider));
+
+            assertThatThrownBy(() -> providerService.generateRecurringSchedule(PROVIDER_ID, request))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("at most");
+        }
+
+        @Test
+        @DisplayName("Should reject the same weekday given twice")
+        void generateRecurringSchedule_DuplicateWeekday_ThrowsException() {
+            RecurringScheduleRequest request = RecurringScheduleRequest.builder()
+                    .startDate(monday)
+                    .endDate(monday.plusDays(6))
+                    .weeklyHours(List.of(hours(DayOfWeek.MONDAY, 9, 12), hours(DayOfWeek.MONDAY, 13, 17)))
+                    .build();
+
+            when(providerRepository.findById(PROVIDER_ID)).thenReturn(Optional.of(provider));
+
+            assertThatThrownBy(() -> providerService.generateRecurringSchedule(PROVIDER_ID, request))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("given twice");
+            verify(workingDayRepository, never()).insertWorkingDaysWithSlots(any(), anyList());
+        }
+    }
+}
@@ -13,6 +13,7 @@ import com.aykhedma.model.emergency.EmergencyRequest;
 import com.aykhedma.model.service.ServiceType;
 import com.aykhedma.model.user.*;
 import com.aykhedma.repository.*;
+import com.aykhedma.service.rating.RatingAggregateService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -57,6 +58,8 @@ class RatingServiceTest
     private ProviderService providerService;
     @Mock
     private NotificationFactory notificationFactory;
+    @Mock
+    private RatingAggregateService ratingAggregateService;
 
     @InjectMocks
     private BookingServiceImpl bookingService;
@@ -141,7 +144,6 @@ class RatingServiceTest
         void submitRatingSuccessCompletedTest()
         {
             when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-            when(bookingRepository.countByProviderIdAndConsumerRatingIsNotNull(provider.getId())).thenReturn(1L);
             when(bookingMapper.toBookingResponse(booking)).thenReturn(BookingResponse.builder().id(booking.getId()).build());
 
             BookingResponse response = bookingService.submitRating(consumer.getId(), ratingRequest);
@@ -167,7 +169,6 @@ class RatingServiceTest
             booking.setAcceptedAt(LocalDateTime.now().minusDays(1));
 
             when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-            when(bookingRepository.countByProviderIdAndConsumerRatingIsNotNull(provider.getId())).thenReturn(1L);
             when(bookingMapper.toBookingResponse(booking)).thenReturn(BookingResponse.builder().id(booking.getId()).build());
 
             BookingResponse response = bookingService.submitRating(consumer.getId(), ratingRequest);
@@ -187,7 +188,6 @@ class RatingServiceTest
             ratingRequest.setQualityOfWorkRating(5);
 
             when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-            when(bookingRepository.countByProviderIdAndConsumerRatingIsNotNull(provider.getId())).thenReturn(1L);
             when(bookingMapper.toBookingResponse(booking)).thenReturn(BookingResponse.builder().id(booking.getId()).build());
 
             bookingService.submitRating(consumer.getId(), ratingRequest);
@@ -197,39 +197,15 @@ class RatingServiceTest
         }
 
         @Test
-        @DisplayName("Update Provider Averages For First Rating")
+        @DisplayName("Record Rating In Provider Totals")
         void submitRatingFirstRatingUpdatesProviderTest()
         {
             when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-            when(bookingRepository.countByProviderIdAndConsumerRatingIsNotNull(provider.getId())).thenReturn(1L);
-            when(bookingMapper.toBookingResponse(booking)).thenReturn(BookingResponse.builder().id(booking.getId()).build());
-
-            bookingService.submitRating(consumer.getId(), ratingRequest);
-
-            // First rating – should set directly
-            assertThat(provider.getAveragePunctualityRating()).isEqualTo(5.0);
-            assertThat(provider.getAverageCommitmentRating()).isEqualTo(4.0);
-            assertThat(provider.getAverageQualityOfWorkRating()).isEqualTo(3.0);
-            verify(providerRepository).save(provider);
-        }
-
-        @Test
-        @DisplayName("Update Provider Averages With Rolling Average For Subsequent Rating")
-        void submitRatingSubsequentRatingUpdatesProviderTest()
-        {
-            provider.setAverageRating(4.0);
-            provider.setAveragePunctualityRating(4.0);
-            provider.setAverageCommitmentRating(4.0);
-            provider.setAverageQualityOfWorkRating(4.0);
-
-            when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-            when(bookingRepository.countByProviderIdAndConsumerRatingIsNotNull(provider.getId())).thenReturn(2L);
             when(bookingMapper.toBookingResponse(booking)).thenReturn(BookingResponse.builder().id(booking.getId()).build());
 
             bookingService.submitRating(consumer.getId(), ratingRequest);
 
-            // Rolling average: (4.0 * 1 + 5.0) / 2 = 4.5
-            assertThat(provider.getAveragePunctualityRating()).isEqualTo(4.5);
+            verify(ratingAggregateService).recordProviderRating(provider, 5.0, 4.0, 3.0, 4.0);
             verify(providerRepository).save(provider);
         }
 
@@ -328,7 +304,6 @@ class RatingServiceTest
             ratingRequest.setReview(null);
 
             when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-            when(bookingRepository.countByProviderIdAndConsumerRatingIsNotNull(provider.getId())).thenReturn(1L);
             when(bookingMapper.toBookingResponse(booking)).thenReturn(BookingResponse.builder().id(booking.getId()).build());
 
             BookingResponse response = bookingService.submitRating(consumer.getId(), ratingRequest);
@@ -347,7 +322,6 @@ class RatingServiceTest
             ratingRequest.setQualityOfWorkRating(1);
 
             when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-            when(bookingRepository.countByProviderIdAndConsumerRatingIsNotNull(provider.getId())).thenReturn(1L);
             when(bookingMapper.toBookingResponse(booking)).thenReturn(BookingResponse.builder().id(booking.getId()).build());
 
             bookingService.submitRating(consumer.getId(), ratingRequest);
@@ -364,7 +338,6 @@ class RatingServiceTest
             ratingRequest.setQualityOfWorkRating(5);
 
             when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-            when(bookingRepository.countByProviderIdAndConsumerRatingIsNotNull(provider.getId())).thenReturn(1L);
             when(bookingMapper.toBookingResponse(booking)).thenReturn(BookingResponse.builder().id(booking.getId()).build());
 
             bookingService.submitRating(consumer.getId(), ratingRequest);
@@ -397,7 +370,6 @@ class RatingServiceTest
         void submitConsumerRatingSuccessTest()
         {
             when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-            when(bookingRepository.countByConsumerIdAndProviderRatingIsNotNull(consumer.getId())).thenReturn(1L);
             when(bookingMapper.toBookingResponse(booking)).thenReturn(BookingResponse.builder().id(booking.getId()).build());
 
             BookingResponse response = bookingService.submitConsumerRating(provider.getId(), providerRatingRequest);
@@ -406,7 +378,6 @@ class RatingServiceTest
             assertThat(booking.getProviderRating()).isEqualTo(4.0);
             assertThat(booking.getProviderReview()).isEqualTo("Good client!");
             verify(bookingRepository).save(booking);
-            verify(consumerRepository).save(consumer);
         }
 
         @Test
@@ -417,7 +388,6 @@ class RatingServiceTest
             booking.setAcceptedAt(LocalDateTime.now().minusDays(1));
 
             when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-            when(bookingRepository.countByConsumerIdAndProviderRatingIsNotNull(consumer.getId())).thenReturn(1L);
             when(bookingMapper.toBookingResponse(booking)).thenReturn(BookingResponse.builder().id(booking.getId()).build());
 
             BookingResponse response = bookingService.submitConsumerRating(provider.getId(), providerRatingRequest);
@@ -427,33 +397,15 @@ class RatingServiceTest
         }
 
         @Test
-        @DisplayName("Update Consumer Average Rating For First Rating")
+        @DisplayName("Record Rating In Consumer Totals")
         void submitConsumerRatingFirstRatingTest()
         {
             when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-            when(bookingRepository.countByConsumerIdAndProviderRatingIsNotNull(consumer.getId())).thenReturn(1L);
-            when(bookingMapper.toBookingResponse(booking)).thenReturn(BookingResponse.builder().id(booking.getId()).build());
-
-            bookingService.submitConsumerRating(provider.getId(), providerRatingRequest);
-
-            assertThat(consumer.getAverageRating()).isEqualTo(4.0);
-            verify(consumerRepository).save(consumer);
-        }
-
-        @Test
-        @DisplayName("Update Consumer Average Rating With Rolling Average For Subsequent Rating")
-        void submitConsumerRatingSubsequentRatingTest()
-        {
-            consumer.setAverageRating(3.0);
-
-            when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-            when(bookingRepository.countByConsumerIdAndProviderRatingIsNotNull(consumer.getId())).thenReturn(2L);
             when(bookingMapper.toBookingResponse(booking)).thenReturn(BookingResponse.builder().id(booking.getId()).build());
 
             bookingService.submitConsumerRating(provider.getId(), providerRatingRequest);
 
-            // Rolling average: (3.0 * 1 + 4.0) / 2 = 3.5
-            assertThat(consumer.getAverageRating()).isEqualTo(3.5);
+            verify(ratingAggregateService).recordConsumerRating(consumer, 4.0);
         }
 
         @Test
@@ -461,7 +413,6 @@ class RatingServiceTest
         void submitConsumerRatingSendsNotificationTest()
         {
             when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-            when(bookingRepository.countByConsumerIdAndProviderRatingIsNotNull(consumer.getId())).thenReturn(1L);
             when(bookingMapper.toBookingResponse(booking)).thenReturn(BookingResponse.builder().id(booking.getId()).build());
 
             bookingService.submitConsumerRating(provider.getId(), providerRatingRequest);
@@ -538,7 +489,6 @@ class RatingServiceTest
             providerRatingRequest.setReview(null);
 
             when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-            when(bookingRepository.countByConsumerIdAndProviderRatingIsNotNull(consumer.getId())).thenReturn(1L);
             when(bookingMapper.toBookingResponse(booking)).thenReturn(BookingResponse.builder().id(booking.getId()).build());
 
             BookingResponse response = bookingService.submitConsumerRating(provider.getId(), providerRatingRequest);
@@ -552,7 +502,6 @@ class RatingServiceTest
         void submitConsumerRatingNotificationFailureTest()
         {
             when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-            when(bookingRepository.countByConsumerIdAndProviderRatingIsNotNull(consumer.getId())).thenReturn(1L);
             when(bookingMapper.toBookingResponse(booking)).thenReturn(BookingResponse.builder().id(booking.getId()).build());
             doThrow(new RuntimeException("Push failed")).when(notificationFactory).send(any(), any(), any());
 
@@ -1,5 +1,6 @@
 package com.aykhedma.service;
 
+import com.aykhedma.auth.IssuedRefreshToken;
 import com.aykhedma.auth.RefreshTokenService;
 import com.aykhedma.model.user.RefreshToken;
 import com.aykhedma.model.user.Consumer;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -20,6 +22,9 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -51,62 +56,110 @@ class RefreshTokenServiceTest {
                 .build();
     }
 
+    private RefreshToken stored(LocalDateTime expiryDate) {
+        return RefreshToken.builder()
+                .id(1L)
+                .token("stored-hash")
+                .familyId("family-1")
+                .user(buildUser())
+                .expiryDate(expiryDate)
+                .build();
+    }
+
     @Test
-    @DisplayName("createRefreshToken() should save new one")
-    void createRefreshToken_success() {
+    @DisplayName("createRefreshToken() should store only the token's hash")
+    void createRefreshToken_storesHash() {
         User user = buildUser();
         when(repository.save(any(RefreshToken.class))).thenAnswer(i -> i.getArgument(0));
 
-        RefreshToken result = refreshTokenService.createRefreshToken(user);
-
-        assertThat(result.getUser()).isEqualTo(user);
-        assertThat(result.getToken()).isNotBlank();
-        assertThat(result.getExpiryDate()).isAfter(LocalDateTime.now());
+        IssuedRefreshToken result = refreshTokenService.createRefreshToken(user);
 
-        verify(repository).save(any(RefreshToken.class));
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository).save(saved.capture());
+        assertThat(result.user()).isEqualTo(user);
+        assertThat(result.token()).isNotBlank();
+        assertThat(result.expiresAt()).isAfter(LocalDateTime.now());
+        assertThat(saved.getValue().getToken()).hasSize(64).isNotEqualTo(result.token());
+        assertThat(saved.getValue().getFamilyId()).isNotBlank();
     }
 
     @Test
-    @DisplayName("verify() should return token when valid and not expired")
-    void verify_validToken_returnsToken() {
-        RefreshToken token = RefreshToken.builder()
-                .id(1L)
-                .token("valid-token")
-                .user(buildUser())
-                .expiryDate(LocalDateTime.now().plusDays(7))
-                .build();
-
-        when(repository.findByToken("valid-token")).thenReturn(Optional.of(token));
+    @DisplayName("rotate() should replace the token with a new one of the same family and expiry")
+    void rotate_validToken_issuesNewToken() {
+        LocalDateTime expiry = LocalDateTime.now().plusDays(7);
+        when(repository.findWithUserByToken(anyString())).thenReturn(Optional.of(stored(expiry)));
+        when(repository.markRotated(eq(1L), any())).thenReturn(1);
+        when(repository.save(any(RefreshToken.class))).thenAnswer(i -> i.getArgument(0));
 
-        RefreshToken result = refreshTokenService.verify("valid-token");
+        IssuedRefreshToken result = refreshTokenService.rotate("valid-token");
 
-        assertThat(result.getToken()).isEqualTo("valid-token");
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository).save(saved.capture());
+        assertThat(result.token()).isNotEqualTo("valid-token");
+        assertThat(result.expiresAt()).isEqualTo(expiry);
+        assertThat(saved.getValue().getFamilyId()).isEqualTo("family-1");
     }
 
     @Test
-    @DisplayName("verify() should throw when token not found")
-    void verify_invalidToken_throws() {
-        when(repository.findByToken("bad-token")).thenReturn(Optional.empty());
+    @DisplayName("rotate() should throw when token not found")
+    void rotate_invalidToken_throws() {
+        when(repository.findWithUserByToken(anyString())).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> refreshTokenService.verify("bad-token"))
+        assertThatThrownBy(() -> refreshTokenService.rotate("bad-token"))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Invalid refresh token");
     }
 
     @Test
-    @DisplayName("verify() should throw when token is expired")
-    void verify_expiredToken_throws() {
-        RefreshToken token = RefreshToken.builder()
-                .id(1L)
-                .token("expired-token")
-                .user(buildUser())
-                .expiryDate(LocalDateTime.now().minusDays(1))
-                .build();
+    @DisplayName("rotate() should match raw values only against legacy rows without a family")
+    void rotate_legacyToken_matchedOnlyWithoutFamily() {
+        RefreshToken legacy = stored(LocalDateTime.now().plusDays(7));
+        legacy.setFamilyId(null);
+        when(repository.findWithUserByToken(anyString())).thenReturn(Optional.empty());
+        when(repository.findLegacyWithUserByToken("legacy-token")).thenReturn(Optional.of(legacy));
+        when(repository.markRotated(eq(1L), any())).thenReturn(1);
+        when(repository.save(any(RefreshToken.class))).thenAnswer(i -> i.getArgument(0));
 
-        when(repository.findByToken("expired-token")).thenReturn(Optional.of(token));
+        IssuedRefreshToken result = refreshTokenService.rotate("legacy-token");
 
-        assertThatThrownBy(() -> refreshTokenService.verify("expired-token"))
+        assertThat(result.token()).isNotEqualTo("legacy-token");
+        verify(repository, never()).findWithUserByToken("legacy-token");
+    }
+
+    @Test
+    @DisplayName("rotate() should throw when token is expired")
+    void rotate_expiredToken_throws() {
+        RefreshToken token = stored(LocalDateTime.now().minusDays(1));
+        when(repository.findWithUserByToken(anyString())).thenReturn(Optional.of(token));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("expired-token"))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Expired refresh token");
+        verify(repository).delete(token);
+    }
+
+    @Test
+    @DisplayName("rotate() should revoke the whole family when a rotated token is replayed")
+    void rotate_reusedToken_revokesFamily() {
+        RefreshToken token = stored(LocalDateTime.now().plusDays(7));
+        token.setRotatedAt(LocalDateTime.now().minusMinutes(1));
+        when(repository.findWithUserByToken(anyString())).thenReturn(Optional.of(token));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("replayed-token"))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("already used");
+        verify(repository).deleteByFamilyId("family-1");
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("deleteExpiredTokens() should delete in batches until one comes back short")
+    void deleteExpiredTokens_deletesInBatches() {
+        when(repository.deleteExpiredBatch(any(), anyInt())).thenReturn(1000, 1000, 12);
+
+        int deleted = refreshTokenService.deleteExpiredTokens();
+
+        assertThat(deleted).isEqualTo(2012);
+        verify(repository, times(3)).deleteExpiredBatch(any(), anyInt());
     }
 }
@@ -0,0 +1,73 @@
+package com.aykhedma.service;
+
+import com.aykhedma.repository.SchedulerLeaseRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Scheduler Lease Service Unit Tests")
+class SchedulerLeaseServiceTest {
+
+    @Mock
+    private SchedulerLeaseRepository schedulerLeaseRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Test
+    @DisplayName("renewing a held or lapsed lease succeeds without inserting")
+    void tryAcquire_renewsExistingLease() {
+        when(schedulerLeaseRepository.tryAcquire(eq("job"), eq(schedulerLeaseService.getInstanceId()), any(), any()))
+                .thenReturn(1);
+
+        assertThat(schedulerLeaseService.tryAcquire("job", Duration.ofMinutes(1))).isTrue();
+        verify(schedulerLeaseRepository, never()).insertIfAbsent(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("a missing lease is created by the first instance")
+    void tryAcquire_createsMissingLease() {
+        when(schedulerLeaseRepository.tryAcquire(any(), any(), any(), any())).thenReturn(0);
+        when(schedulerLeaseRepository.insertIfAbsent(eq("job"), eq(schedulerLeaseService.getInstanceId()), any()))
+                .thenReturn(1);
+
+        assertThat(schedulerLeaseService.tryAcquire("job", Duration.ofMinutes(1))).isTrue();
+    }
+
+    @Test
+    @DisplayName("a lease held by another instance is not taken")
+    void tryAcquire_heldElsewhere() {
+        when(schedulerLeaseRepository.tryAcquire(any(), any(), any(), any())).thenReturn(0);
+        when(schedulerLeaseRepository.insertIfAbsent(any(), any(), any())).thenReturn(0);
+
+        assertThat(schedulerLeaseService.tryAcquire("job", Duration.ofMinutes(1))).isFalse();
+    }
+
+    @Test
+    @DisplayName("losing the race to create the lease is not an error")
+    void tryAcquire_lostCreateRace() {
+        when(schedulerLeaseRepository.tryAcquire(any(), any(), any(), any())).thenReturn(0);
+        when(schedulerLeaseRepository.insertIfAbsent(any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertThat(schedulerLeaseService.tryAcquire("job", Duration.ofMinutes(1))).isFalse();
+    }
+}
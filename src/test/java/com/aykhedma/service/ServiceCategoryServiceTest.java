@@ -17,6 +17,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.Optional;
@@ -42,6 +43,9 @@ class ServiceCategoryServiceTest {
     @Mock
     private FileStorageService fileStorageService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ServiceCategoryService service;
 
@@ -123,6 +127,7 @@ class ServiceCategoryServiceTest {
         assertThat(created.getServiceTypes()).hasSize(1);
         assertThat(created.getServiceTypes().get(0).getName()).isEqualTo("Electrician");
         verify(categoryRepository, times(1)).save(any(ServiceCategory.class));
+        verify(eventPublisher).publishEvent(any(ServiceCatalogChangedEvent.class));
     }
 
     @Test
@@ -165,6 +170,18 @@ class ServiceCategoryServiceTest {
         verify(categoryRepository).delete(category);
     }
 
+    @Test
+    @DisplayName("deleteCategory should announce every removed service type")
+    void testDeleteCategory_PublishesCatalogChange() {
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(providerRepository.existsByServiceTypeId(1L)).thenReturn(false);
+
+        service.deleteCategory(1L);
+
+        verify(serviceTypeRepository).deleteAll(category.getServiceTypes());
+        verify(eventPublisher).publishEvent(new ServiceCatalogChangedEvent(1L));
+    }
+
     @Test
     @DisplayName("deleteCategory should throw exception when category not found")
     void testDeleteCategory_NotFound() {
@@ -15,6 +15,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.Optional;
@@ -35,6 +36,8 @@ class ServiceManagementServiceImplTest {
     private ServiceManagementServiceImpl service;
     @Mock
     private ProviderRepository providerRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     private ServiceCategory category;
     private ServiceType type;
@@ -103,6 +106,7 @@ class ServiceManagementServiceImplTest {
         assertThat(created.getName()).isEqualTo("Electrician");
         assertThat(created.getCategoryId()).isEqualTo(1L);
         verify(typeRepository, times(1)).save(any(ServiceType.class));
+        verify(eventPublisher).publishEvent(any(ServiceCatalogChangedEvent.class));
     }
 
     @Test
@@ -126,6 +130,7 @@ class ServiceManagementServiceImplTest {
         assertThat(updated.getName()).isEqualTo("Updated Plumbing");
         assertThat(updated.getRiskLevel()).isEqualTo(RiskLevel.HIGH);
         verify(typeRepository, times(1)).save(any(ServiceType.class));
+        verify(eventPublisher).publishEvent(new ServiceCatalogChangedEvent(1L));
     }
 
 
@@ -146,6 +151,7 @@ class ServiceManagementServiceImplTest {
         verify(providerRepository).existsByServiceTypeId(1L);
         verify(typeRepository).existsById(1L);
         verify(typeRepository).deleteById(1L);
+        verify(eventPublisher).publishEvent(new ServiceCatalogChangedEvent(1L));
     }
     @Test
     @DisplayName("deleteType should throw ResourceNotFoundException when type not found")
@@ -158,6 +164,7 @@ class ServiceManagementServiceImplTest {
                 .hasMessage("Service type not found");
 
         verify(typeRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -0,0 +1,133 @@
+package com.aykhedma.service;
+
+import com.aykhedma.model.service.ServiceType;
+import com.aykhedma.repository.ServiceTypeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Service Type Lexicon Tests")
+class ServiceTypeLexiconTest {
+
+    @Mock
+    private ServiceTypeRepository serviceTypeRepository;
+
+    private ServiceTypeLexicon lexicon;
+
+    @BeforeEach
+    void setUp() {
+        when(serviceTypeRepository.findAll()).thenReturn(List.of(
+                serviceType(1L, "Plumbing", "سباكة"),
+                serviceType(2L, "Electrical", "كهرباء"),
+                serviceType(3L, "AC Repair", "صيانة تكييف"),
+                serviceType(4L, "House Cleaning", "تنظيف المنازل"),
+                serviceType(5L, "Office Cleaning", "تنظيف المكاتب")));
+        lexicon = new ServiceTypeLexicon(serviceTypeRepository);
+        lexicon.load();
+    }
+
+    private static ServiceType serviceType(Long id, String name, String nameAr) {
+        return ServiceType.builder().id(id).name(name).nameAr(nameAr).build();
+    }
+
+    private String resolvedName(String text) {
+        ServiceType resolved = lexicon.resolve(text);
+        return resolved != null ? resolved.getName() : null;
+    }
+
+    @Test
+    @DisplayName("Arabic spelling variants resolve to the same service")
+    void resolve_foldsArabicVariants() {
+        assertThat(resolvedName("السِّباكة")).isEqualTo("Plumbing");
+        assertThat(resolvedName("سباكه")).isEqualTo("Plumbing");
+        assertThat(resolvedName("صيانه التكييف")).isEqualTo("AC Repair");
+        assertThat(resolvedName("تنظيف مكاتب")).isEqualTo("Office Cleaning");
+    }
+
+    @Test
+    @DisplayName("typos, partial names and sentences naming a service resolve")
+    void resolve_toleratesTyposAndPartialNames() {
+        assertThat(resolvedName("plumbing")).isEqualTo("Plumbing");
+        assertThat(resolvedName("Plumbng")).isEqualTo("Plumbing");
+        assertThat(resolvedName("Electricl")).isEqualTo("Electrical");
+        assertThat(resolvedName("plumb")).isEqualTo("Plumbing");
+        assertThat(resolvedName("I need house cleaning tomorrow")).isEqualTo("House Cleaning");
+    }
+
+    @Test
+    @DisplayName("names that only share a word with a service do not resolve")
+    void resolve_unrelatedName_returnsNull() {
+        assertThat(lexicon.resolve("Drain Cleaning")).isNull();
+        assertThat(lexicon.resolve("Gardening")).isNull();
+        assertThat(lexicon.resolve("   ")).isNull();
+        assertThat(lexicon.resolve(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("search ranks the closest names first")
+    void search_ranksByCloseness() {
+        List<ServiceTypeLexicon.Match> matches = lexicon.search("cleaning", 3);
+
+        assertThat(matches).hasSize(3);
+        assertThat(matches.subList(0, 2)).extracting(match -> match.serviceType().getName())
+                .containsExactlyInAnyOrder("House Cleaning", "Office Cleaning");
+        assertThat(matches.get(2).score()).isLessThan(matches.get(1).score());
+    }
+
+    @Test
+    @DisplayName("the catalog is read once and reloaded when it changes")
+    void onCatalogChanged_reloadsCatalog() {
+        lexicon.resolve("plumbing");
+        lexicon.findById(1L);
+        assertThat(lexicon.resolve("Gardening")).isNull();
+        List<ServiceType> before = lexicon.all();
+
+        when(serviceTypeRepository.findAll()).thenReturn(List.of(serviceType(9L, "Gardening", "تنسيق حدائق")));
+        lexicon.onCatalogChanged(new ServiceCatalogChangedEvent(9L));
+
+        assertThat(resolvedName("gardening")).isEqualTo("Gardening");
+        assertThat(lexicon.resolve("plumbing")).isNull();
+        assertThat(lexicon.all()).isNotSameAs(before);
+        verify(serviceTypeRepository, times(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("resolves in microseconds against a large catalog")
+    void resolve_isFast() {
+        List<ServiceType> catalog = new ArrayList<>();
+        for (long i = 0; i < 500; i++) {
+            catalog.add(serviceType(i, "Service " + i + " Maintenance", "خدمة صيانة " + i));
+        }
+        catalog.add(serviceType(1_000L, "Plumbing", "سباكة"));
+        when(serviceTypeRepository.findAll()).thenReturn(catalog);
+        lexicon.refresh();
+
+        String[] queries = {"Plumbng", "سباكه", "service 42 maintenance", "unknown thing"};
+        for (int i = 0; i < 2_000; i++) {
+            lexicon.resolve(queries[i % queries.length]);
+        }
+
+        int runs = 10_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            lexicon.resolve(queries[i % queries.length]);
+        }
+        long averageMicros = TimeUnit.NANOSECONDS.toMicros((System.nanoTime() - start) / runs);
+
+        assertThat(resolvedName("Plumbng")).isEqualTo("Plumbing");
+        assertThat(averageMicros).isLessThan(200);
+    }
+}
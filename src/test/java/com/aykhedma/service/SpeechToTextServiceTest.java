@@ -1,16 +1,21 @@
 package com.aykhedma.service;
 
+import com.aykhedma.model.chat.VoiceTranscription;
+import com.aykhedma.repository.VoiceTranscriptionRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
@@ -21,8 +26,15 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -39,6 +51,9 @@ class SpeechToTextServiceTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private VoiceTranscriptionRepository transcriptionRepository;
+
     @InjectMocks
     private SpeechToTextService speechToTextService;
 
@@ -55,6 +70,7 @@ class SpeechToTextServiceTest {
         ReflectionTestUtils.setField(speechToTextService, "model", MODEL);
         ReflectionTestUtils.setField(speechToTextService, "restTemplate", restTemplate);
         ReflectionTestUtils.setField(speechToTextService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(speechToTextService, "transcriptionCacheTtl", Duration.ofDays(30));
     }
 
     @Nested
@@ -424,4 +440,115 @@ class SpeechToTextServiceTest {
                     eq(String.class));
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Transcription Cache Tests")
+    class TranscriptionCacheTests {
+
+        private String sha256(Long uploaderId, byte[] content) throws Exception {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((uploaderId != null ? "user:" + uploaderId : "anonymous").getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            return HexFormat.of().formatHex(digest.digest(content));
+        }
+
+        private void stubTranscript(String transcript) throws Exception {
+            String jsonResponse = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + transcript + "\"}]}}]}";
+            ResponseEntity<String> responseEntity = mock(ResponseEntity.class);
+            when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), eq(String.class)))
+                    .thenReturn(responseEntity);
+            when(responseEntity.getBody()).thenReturn(jsonResponse);
+            when(objectMapper.readTree(anyString())).thenReturn(realObjectMapper.readTree(jsonResponse));
+        }
+
+        @Test
+        @DisplayName("Should reuse the stored transcript for audio it has seen")
+        void transcribeAudio_KnownAudio_SkipsGemini() throws Exception {
+            byte[] content = "same recording".getBytes();
+            MockMultipartFile audioFile = new MockMultipartFile("audio", "retry.ogg", "audio/ogg", content);
+            when(transcriptionRepository.findByAudioHashAndCreatedAtAfter(eq(sha256(7L, content)), any()))
+                    .thenReturn(Optional.of(VoiceTranscription.builder()
+                            .audioHash(sha256(7L, content))
+                            .uploaderId(7L)
+                            .transcript("محتاج سباك")
+                            .build()));
+
+            String result = speechToTextService.transcribeAudio(audioFile, 7L);
+
+            assertThat(result).isEqualTo("محتاج سباك");
+            verifyNoInteractions(restTemplate);
+            verify(transcriptionRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should store a new transcript under the uploader and audio hash")
+        void transcribeAudio_NewAudio_StoresTranscript() throws Exception {
+            byte[] content = "new recording".getBytes();
+            MockMultipartFile audioFile = new MockMultipartFile("audio", "new.wav", "audio/wav", content);
+            stubTranscript("I need a plumber");
+
+            String result = speechToTextService.transcribeAudio(audioFile, 7L);
+
+            ArgumentCaptor<VoiceTranscription> saved = ArgumentCaptor.forClass(VoiceTranscription.class);
+            verify(transcriptionRepository).save(saved.capture());
+            assertThat(result).isEqualTo("I need a plumber");
+            assertThat(saved.getValue().getAudioHash()).isEqualTo(sha256(7L, content));
+            assertThat(saved.getValue().getUploaderId()).isEqualTo(7L);
+            assertThat(saved.getValue().getTranscript()).isEqualTo("I need a plumber");
+        }
+
+        @Test
+        @DisplayName("Should not share a transcript between users who upload the same audio")
+        void transcribeAudio_SameAudioOtherUser_LooksUpOwnKey() throws Exception {
+            byte[] content = "shared recording".getBytes();
+            MockMultipartFile audioFile = new MockMultipartFile("audio", "shared.ogg", "audio/ogg", content);
+            stubTranscript("I need an electrician");
+
+            speechToTextService.transcribeAudio(audioFile, 8L);
+
+            assertThat(sha256(8L, content)).isNotEqualTo(sha256(7L, content));
+            verify(transcriptionRepository).findByAudioHashAndCreatedAtAfter(eq(sha256(8L, content)), any());
+            verify(transcriptionRepository, never()).findByAudioHashAndCreatedAtAfter(eq(sha256(7L, content)), any());
+        }
+
+        @Test
+        @DisplayName("Should not store failed transcriptions")
+        void transcribeAudio_Failure_StoresNothing() throws Exception {
+            MockMultipartFile audioFile = new MockMultipartFile("audio", "bad.wav", "audio/wav", "noise".getBytes());
+            when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), eq(String.class)))
+                    .thenThrow(HttpClientErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "Service unavailable",
+                            null, null, null));
+
+            assertThat(speechToTextService.transcribeAudio(audioFile)).isNull();
+            verify(transcriptionRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should stream the audio into the request body as Base64")
+        @SuppressWarnings("unchecked")
+        void transcribeAudio_RequestBody_EncodesAudioWhileWriting() throws Exception {
+            byte[] content = new byte[10_001];
+            for (int i = 0; i < content.length; i++) {
+                content[i] = (byte) (i * 31);
+            }
+            MockMultipartFile audioFile = new MockMultipartFile("audio", "long.ogg", "audio/ogg", content);
+            stubTranscript("ok");
+
+            speechToTextService.transcribeAudio(audioFile);
+
+            ArgumentCaptor<HttpEntity<?>> request = ArgumentCaptor.forClass(HttpEntity.class);
+            verify(restTemplate).exchange(anyString(), eq(HttpMethod.POST), request.capture(), eq(String.class));
+            Resource body = (Resource) request.getValue().getBody();
+            String json;
+            try (InputStream in = body.getInputStream()) {
+                json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            JsonNode inlineData = realObjectMapper.readTree(json).path("contents").path(0).path("parts").path(1)
+                    .path("inline_data");
+
+            assertThat(body.contentLength()).isEqualTo(json.getBytes(StandardCharsets.UTF_8).length);
+            assertThat(inlineData.path("mime_type").asText()).isEqualTo("audio/ogg");
+            assertThat(inlineData.path("data").asText()).isEqualTo(Base64.getEncoder().encodeToString(content));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.aykhedma.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Streaming Reply Extractor Unit Tests")
+class StreamingReplyExtractorTest {
+
+    private static String feedAll(StreamingReplyExtractor extractor, List<String> chunks) {
+        StringBuilder reply = new StringBuilder();
+        chunks.forEach(chunk -> reply.append(extractor.feed(chunk)));
+        return reply.toString();
+    }
+
+    @Test
+    @DisplayName("the reply is emitted piece by piece as its chunks arrive")
+    void feed_emitsReplyIncrementally() {
+        StreamingReplyExtractor extractor = new StreamingReplyExtractor();
+
+        assertThat(extractor.feed("{\"tool\":\"search_providers\",\"re")).isEmpty();
+        assertThat(extractor.feed("ply\":\"Looking for ")).isEqualTo("Looking for ");
+        assertThat(extractor.feed("a plumber\",\"arguments\":{}}")).isEqualTo("a plumber");
+    }
+
+    @Test
+    @DisplayName("escapes are decoded even when split across chunks")
+    void feed_decodesEscapesAcrossChunks() {
+        String reply = feedAll(new StreamingReplyExtractor(),
+                List.of("{\"reply\":\"line\\", "n\\u06", "2a \\\"ok\\\"\"}"));
+
+        assertThat(reply).isEqualTo("line\nت \"ok\"");
+    }
+
+    @Test
+    @DisplayName("nested reply keys, key names and other values are not emitted")
+    void feed_ignoresNestedAndOtherFields() {
+        String reply = feedAll(new StreamingReplyExtractor(), List.of(
+                "```json\n{\"arguments\":{\"reply\":\"nested\"},",
+                "\"missingFields\":[\"reply\"],\"reply\":\"top\"}\n```{\"reply\":\"again\"}"));
+
+        assertThat(reply).isEqualTo("top");
+    }
+
+    @Test
+    @DisplayName("a null reply streams nothing")
+    void feed_nullReplyStreamsNothing() {
+        String reply = feedAll(new StreamingReplyExtractor(),
+                List.of("{\"reply\":null,\"tool\":\"x\"}"));
+
+        assertThat(reply).isEmpty();
+    }
+}
@@ -0,0 +1,142 @@
+package com.aykhedma.service.availability;
+
+import com.aykhedma.model.booking.Schedule;
+import com.aykhedma.model.booking.TimeSlot;
+import com.aykhedma.model.booking.TimeSlotStatus;
+import com.aykhedma.exception.ConflictException;
+import com.aykhedma.repository.ScheduleRepository;
+import com.aykhedma.repository.TimeSlotRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Availability Engine Unit Tests")
+class AvailabilityEngineTest {
+
+    @Mock
+    private TimeSlotRepository timeSlotRepository;
+
+    @Mock
+    private ScheduleRepository scheduleRepository;
+
+    @Mock
+    private ProviderAvailabilityIndex availabilityIndex;
+
+    @InjectMocks
+    private AvailabilityEngine availabilityEngine;
+
+    private final Schedule schedule = Schedule.builder().id(1L).build();
+    private final LocalDate date = LocalDate.now().plusDays(1);
+
+    private TimeSlot slot(long id, LocalDate day, int startHour, int endHour, TimeSlotStatus status) {
+        return TimeSlot.builder()
+                .id(id)
+                .date(day)
+                .startTime(LocalTime.of(startHour, 0))
+                .endTime(LocalTime.of(endHour, 0))
+                .status(status)
+                .schedule(schedule)
+                .build();
+    }
+
+    private void claimSucceeds() {
+        when(scheduleRepository.findAvailabilityVersion(1L)).thenReturn(Optional.of(7L));
+        when(scheduleRepository.bumpAvailabilityVersion(1L, 7L)).thenReturn(1);
+    }
+
+    @Test
+    @DisplayName("reserve loads the day once and writes only the changed rows")
+    void reserve_persistsDiffOnly() {
+        TimeSlot day = slot(10L, date, 9, 17, TimeSlotStatus.AVAILABLE);
+        claimSucceeds();
+        when(timeSlotRepository.findByScheduleIdAndDate(1L, date)).thenReturn(new ArrayList<>(List.of(day)));
+        when(timeSlotRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TimeSlot booked = availabilityEngine.reserve(1L, date, LocalTime.of(12, 0), LocalTime.of(13, 0), 30, false);
+
+        assertThat(booked).isSameAs(day);
+        assertThat(booked.getStatus()).isEqualTo(TimeSlotStatus.BOOKED);
+        verify(timeSlotRepository, times(1)).findByScheduleIdAndDate(1L, date);
+        verify(timeSlotRepository, times(1)).saveAll(anyList());
+        verify(timeSlotRepository, never()).delete(any(TimeSlot.class));
+        verify(timeSlotRepository, never()).deleteAll(anyList());
+    }
+
+    @Test
+    @DisplayName("available slots are served from cache after a write outside a transaction")
+    void availableSlots_servedFromCacheAfterWrite() {
+        TimeSlot day = slot(10L, date, 9, 17, TimeSlotStatus.AVAILABLE);
+        claimSucceeds();
+        when(timeSlotRepository.findByScheduleIdAndDate(1L, date)).thenReturn(new ArrayList<>(List.of(day)));
+        when(timeSlotRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        availabilityEngine.reserve(1L, date, LocalTime.of(12, 0), LocalTime.of(13, 0), 0, false);
+        List<TimeSlot> available = availabilityEngine.availableSlots(1L, date);
+
+        assertThat(available).extracting(TimeSlot::getStartTime)
+                .containsExactly(LocalTime.of(9, 0), LocalTime.of(13, 0));
+        verify(timeSlotRepository, never()).findByScheduleIdAndDateAndStatus(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("range reads only query days that are not cached")
+    void availableSlots_rangeQueriesMissingDaysOnce() {
+        LocalDate next = date.plusDays(1);
+        when(timeSlotRepository.findByScheduleIdAndDateAndStatus(1L, date, TimeSlotStatus.AVAILABLE))
+                .thenReturn(List.of(slot(1L, date, 9, 12, TimeSlotStatus.AVAILABLE)));
+        when(timeSlotRepository.findByScheduleIdAndDateBetweenAndStatus(1L, next, next, TimeSlotStatus.AVAILABLE))
+                .thenReturn(List.of(slot(2L, next, 10, 14, TimeSlotStatus.AVAILABLE)));
+
+        availabilityEngine.availableSlots(1L, date);
+        List<TimeSlot> range = availabilityEngine.availableSlots(1L, date, next);
+        List<TimeSlot> again = availabilityEngine.availableSlots(1L, date, next);
+
+        assertThat(range).extracting(TimeSlot::getId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(again).extracting(TimeSlot::getId).containsExactlyInAnyOrder(1L, 2L);
+        verify(timeSlotRepository, times(1))
+                .findByScheduleIdAndDateBetweenAndStatus(1L, next, next, TimeSlotStatus.AVAILABLE);
+    }
+
+    @Test
+    @DisplayName("invalidate forces the next read back to the database")
+    void invalidate_dropsCachedDay() {
+        when(timeSlotRepository.findByScheduleIdAndDateAndStatus(1L, date, TimeSlotStatus.AVAILABLE))
+                .thenReturn(List.of(slot(1L, date, 9, 12, TimeSlotStatus.AVAILABLE)));
+
+        availabilityEngine.availableSlots(1L, date);
+        availabilityEngine.invalidate(1L, date);
+        availabilityEngine.availableSlots(1L, date);
+
+        verify(timeSlotRepository, times(2)).findByScheduleIdAndDateAndStatus(1L, date, TimeSlotStatus.AVAILABLE);
+    }
+
+    @Test
+    @DisplayName("reserve fails with a conflict and writes nothing when the schedule version moved")
+    void reserve_conflictWhenVersionMoved() {
+        when(scheduleRepository.findAvailabilityVersion(1L)).thenReturn(Optional.of(7L));
+        when(scheduleRepository.bumpAvailabilityVersion(1L, 7L)).thenReturn(0);
+
+        assertThatThrownBy(() -> availabilityEngine.reserve(1L, date, LocalTime.of(12, 0), LocalTime.of(13, 0), 30,
+                false))
+                .isInstanceOf(ConflictException.class);
+
+        verify(timeSlotRepository, never()).findByScheduleIdAndDate(any(), any());
+        verify(timeSlotRepository, never()).saveAll(anyList());
+    }
+}
@@ -0,0 +1,147 @@
+package com.aykhedma.service.availability;
+
+import com.aykhedma.dto.response.ProviderWindowProjection;
+import com.aykhedma.model.booking.Schedule;
+import com.aykhedma.model.booking.TimeSlot;
+import com.aykhedma.model.booking.TimeSlotStatus;
+import com.aykhedma.repository.ProviderRepository;
+import com.aykhedma.repository.TimeSlotRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Provider Availability Index Unit Tests")
+class ProviderAvailabilityIndexTest {
+
+    @Mock
+    private TimeSlotRepository timeSlotRepository;
+
+    @Mock
+    private ProviderRepository providerRepository;
+
+    @InjectMocks
+    private ProviderAvailabilityIndex index;
+
+    private final LocalDate date = LocalDate.now().plusDays(1);
+
+    private ProviderWindowProjection window(long providerId, LocalTime start, LocalTime end) {
+        return new ProviderWindowProjection() {
+            @Override
+            public Long getProviderId() {
+                return providerId;
+            }
+
+            @Override
+            public LocalTime getStartTime() {
+                return start;
+            }
+
+            @Override
+            public LocalTime getEndTime() {
+                return end;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("only providers free for the whole range match, and the day is loaded once")
+    void findAvailableProviderIds_intersectsBuckets() {
+        when(timeSlotRepository.findAvailableWindowsByServiceType(5L, date)).thenReturn(List.of(
+                window(1L, LocalTime.of(9, 0), LocalTime.of(18, 0)),
+                window(2L, LocalTime.of(9, 0), LocalTime.of(17, 30)),
+                window(3L, LocalTime.of(16, 0), LocalTime.of(17, 0)),
+                window(3L, LocalTime.of(17, 0), LocalTime.of(20, 0)),
+                window(4L, LocalTime.of(17, 15), LocalTime.of(19, 0))));
+
+        List<Long> free = index.findAvailableProviderIds(5L, date, LocalTime.of(17, 0), LocalTime.of(18, 0));
+        List<Long> freeEarly = index.findAvailableProviderIds(5L, date, LocalTime.of(9, 0), LocalTime.of(9, 30));
+
+        assertThat(free).containsExactly(1L, 3L);
+        assertThat(freeEarly).containsExactly(1L, 2L);
+        verify(timeSlotRepository, times(1)).findAvailableWindowsByServiceType(5L, date);
+    }
+
+    @Test
+    @DisplayName("a committed reservation takes the provider out of the booked buckets")
+    void update_replacesProviderRow() {
+        when(timeSlotRepository.findAvailableWindowsByServiceType(5L, date)).thenReturn(List.of(
+                window(1L, LocalTime.of(9, 0), LocalTime.of(18, 0))));
+        assertThat(index.findAvailableProviderIds(5L, date, LocalTime.of(12, 0), LocalTime.of(13, 0)))
+                .containsExactly(1L);
+
+        TimeSlot day = TimeSlot.builder()
+                .id(10L)
+                .date(date)
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(18, 0))
+                .status(TimeSlotStatus.AVAILABLE)
+                .schedule(Schedule.builder().id(1L).build())
+                .build();
+        SlotIntervalSet set = SlotIntervalSet.of(date, List.of(day));
+        set.reserve(LocalTime.of(12, 0), LocalTime.of(13, 0), 30, true);
+        set.diff();
+
+        index.update(new ProviderAvailabilityIndex.Owner(1L, 5L), date, set.available());
+
+        assertThat(index.findAvailableProviderIds(5L, date, LocalTime.of(12, 0), LocalTime.of(13, 0))).isEmpty();
+        assertThat(index.findAvailableProviderIds(5L, date, LocalTime.of(13, 30), LocalTime.of(18, 0)))
+                .containsExactly(1L);
+        verify(timeSlotRepository, times(1)).findAvailableWindowsByServiceType(5L, date);
+    }
+
+    @Test
+    @DisplayName("a load that raced with a committed write is not kept")
+    void update_duringLoadDiscardsLoadedDay() {
+        when(timeSlotRepository.findAvailableWindowsByServiceType(5L, date))
+                .thenAnswer(invocation -> {
+                    index.update(new ProviderAvailabilityIndex.Owner(1L, 5L), date, List.of());
+                    return List.of(window(1L, LocalTime.of(9, 0), LocalTime.of(18, 0)));
+                })
+                .thenReturn(List.of());
+
+        assertThat(index.findAvailableProviderIds(5L, date, LocalTime.of(9, 0), LocalTime.of(10, 0)))
+                .containsExactly(1L);
+        assertThat(index.findAvailableProviderIds(5L, date, LocalTime.of(9, 0), LocalTime.of(10, 0)))
+                .isEmpty();
+
+        verify(timeSlotRepository, times(2)).findAvailableWindowsByServiceType(5L, date);
+    }
+
+    @Test
+    @DisplayName("large provider ids and providers added after the load come back in id order")
+    void update_newProviderKeepsIdOrder() {
+        when(timeSlotRepository.findAvailableWindowsByServiceType(5L, date)).thenReturn(List.of(
+                window(900_000_005L, LocalTime.of(9, 0), LocalTime.of(18, 0)),
+                window(900_000_001L, LocalTime.of(9, 0), LocalTime.of(18, 0))));
+        assertThat(index.findAvailableProviderIds(5L, date, LocalTime.of(10, 0), LocalTime.of(11, 0)))
+                .containsExactly(900_000_001L, 900_000_005L);
+
+        index.update(new ProviderAvailabilityIndex.Owner(900_000_003L, 5L), date,
+                SlotIntervalSet.of(date, List.of(TimeSlot.builder()
+                        .id(11L)
+                        .date(date)
+                        .startTime(LocalTime.of(10, 0))
+                        .endTime(LocalTime.of(12, 0))
+                        .status(TimeSlotStatus.AVAILABLE)
+                        .schedule(Schedule.builder().id(2L).build())
+                        .build())).available());
+
+        assertThat(index.findAvailableProviderIds(5L, date, LocalTime.of(10, 0), LocalTime.of(11, 0)))
+                .containsExactly(900_000_001L, 900_000_003L, 900_000_005L);
+        assertThat(index.findAvailableProviderIds(5L, date, LocalTime.of(14, 0), LocalTime.of(15, 0)))
+                .containsExactly(900_000_001L, 900_000_005L);
+    }
+}
@@ -0,0 +1,80 @@
+package com.aykhedma.service.availability;
+
+import com.aykhedma.exception.BadRequestException;
+import com.aykhedma.exception.ConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Reservation Retry Executor Unit Tests")
+class ReservationRetryExecutorTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReservationRetryExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ReservationRetryExecutor(transactionManager, 3, 0);
+    }
+
+    @Test
+    @DisplayName("a conflicting attempt is rolled back and retried in a new transaction")
+    void execute_retriesConflicts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw attempts.get() == 1
+                        ? new ConflictException("version moved")
+                        : new PessimisticLockingFailureException("lock timeout");
+            }
+            return "ACCEPTED";
+        });
+
+        assertThat(result).isEqualTo("ACCEPTED");
+        assertThat(attempts).hasValue(3);
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    @Test
+    @DisplayName("gives up with a conflict after the configured attempts")
+    void execute_givesUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.execute(() -> {
+            attempts.incrementAndGet();
+            throw new PessimisticLockingFailureException("lock timeout");
+        })).isInstanceOf(ConflictException.class);
+
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("business errors are not retried")
+    void execute_doesNotRetryOtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.execute(() -> {
+            attempts.incrementAndGet();
+            throw new BadRequestException("not available");
+        })).isInstanceOf(BadRequestException.class);
+
+        assertThat(attempts).hasValue(1);
+    }
+}
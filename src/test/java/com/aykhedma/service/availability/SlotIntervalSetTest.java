@@ -0,0 +1,112 @@
+package com.aykhedma.service.availability;
+
+import com.aykhedma.exception.BadRequestException;
+import com.aykhedma.model.booking.Schedule;
+import com.aykhedma.model.booking.TimeSlot;
+import com.aykhedma.model.booking.TimeSlotStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DisplayName("Slot Interval Set Unit Tests")
+class SlotIntervalSetTest {
+
+    private final Schedule schedule = Schedule.builder().id(1L).build();
+    private final LocalDate date = LocalDate.now().plusDays(1);
+
+    private TimeSlot slot(long id, int startHour, int endHour, TimeSlotStatus status) {
+        return TimeSlot.builder()
+                .id(id)
+                .date(date)
+                .startTime(LocalTime.of(startHour, 0))
+                .endTime(LocalTime.of(endHour, 0))
+                .status(status)
+                .schedule(schedule)
+                .build();
+    }
+
+    @Test
+    @DisplayName("reserve splits the containing slot and reuses its row for the booking")
+    void reserve_splitsContainingSlot() {
+        TimeSlot day = slot(10L, 9, 17, TimeSlotStatus.AVAILABLE);
+        SlotIntervalSet set = SlotIntervalSet.of(date, List.of(day));
+
+        SlotIntervalSet.Interval booked = set.reserve(LocalTime.of(12, 0), LocalTime.of(13, 0), 30, true);
+        SlotIntervalSet.Diff diff = set.diff();
+
+        assertThat(booked.getSlot()).isSameAs(day);
+        assertThat(day.getStatus()).isEqualTo(TimeSlotStatus.BOOKED);
+        assertThat(day.getStartTime()).isEqualTo(LocalTime.of(12, 0));
+        assertThat(diff.updated()).containsExactly(day);
+        assertThat(diff.removed()).isEmpty();
+        assertThat(diff.created()).extracting(TimeSlot::getStartTime, TimeSlot::getEndTime, TimeSlot::getStatus)
+                .containsExactly(
+                        tuple(LocalTime.of(9, 0), LocalTime.of(11, 30), TimeSlotStatus.AVAILABLE),
+                        tuple(LocalTime.of(11, 30), LocalTime.of(12, 0), TimeSlotStatus.UNAVAILABLE),
+                        tuple(LocalTime.of(13, 0), LocalTime.of(13, 30), TimeSlotStatus.UNAVAILABLE),
+                        tuple(LocalTime.of(13, 30), LocalTime.of(17, 0), TimeSlotStatus.AVAILABLE));
+    }
+
+    @Test
+    @DisplayName("reserve keeps buffers inside the containing slot")
+    void reserve_clampsBuffersToContainingSlot() {
+        SlotIntervalSet set = SlotIntervalSet.of(date, List.of(slot(10L, 9, 12, TimeSlotStatus.AVAILABLE)));
+
+        set.reserve(LocalTime.of(9, 0), LocalTime.of(12, 0), 30, true);
+
+        assertThat(set.intervals()).hasSize(1);
+        assertThat(set.diff().created()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("reserve rejects a range no available slot covers")
+    void reserve_rejectsUncoveredRange() {
+        SlotIntervalSet set = SlotIntervalSet.of(date, List.of(
+                slot(10L, 9, 12, TimeSlotStatus.AVAILABLE),
+                slot(11L, 12, 13, TimeSlotStatus.BOOKED),
+                slot(12L, 13, 17, TimeSlotStatus.AVAILABLE)));
+
+        assertThatThrownBy(() -> set.reserve(LocalTime.of(11, 0), LocalTime.of(14, 0), 30, false))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("release frees adjacent buffers and merges the day back into one row")
+    void release_restoresAndMergesDay() {
+        TimeSlot before = slot(1L, 9, 11, TimeSlotStatus.AVAILABLE);
+        TimeSlot preBuffer = slot(2L, 11, 12, TimeSlotStatus.UNAVAILABLE);
+        TimeSlot booked = slot(3L, 12, 13, TimeSlotStatus.BOOKED);
+        TimeSlot postBuffer = slot(4L, 13, 14, TimeSlotStatus.UNAVAILABLE);
+        TimeSlot after = slot(5L, 14, 17, TimeSlotStatus.AVAILABLE);
+        SlotIntervalSet set = SlotIntervalSet.of(date, List.of(after, booked, before, postBuffer, preBuffer));
+
+        set.release(3L);
+        SlotIntervalSet.Diff diff = set.diff();
+
+        assertThat(set.intervals()).hasSize(1);
+        assertThat(before.getEndTime()).isEqualTo(LocalTime.of(17, 0));
+        assertThat(diff.updated()).containsExactly(before);
+        assertThat(diff.removed()).containsExactlyInAnyOrder(preBuffer, booked, postBuffer, after);
+        assertThat(diff.created()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("merge with nothing to fold writes nothing")
+    void mergeAvailable_noChangesProducesEmptyDiff() {
+        SlotIntervalSet set = SlotIntervalSet.of(date, List.of(
+                slot(1L, 9, 11, TimeSlotStatus.AVAILABLE),
+                slot(2L, 11, 12, TimeSlotStatus.BOOKED),
+                slot(3L, 12, 17, TimeSlotStatus.AVAILABLE)));
+
+        set.mergeAvailable();
+
+        assertThat(set.diff().isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,84 @@
+package com.aykhedma.service.backfill;
+
+import com.aykhedma.model.scheduler.CompletedBackfill;
+import com.aykhedma.repository.CompletedBackfillRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Startup Backfill Runner Unit Tests")
+class StartupBackfillRunnerTest {
+
+    @Mock
+    private CompletedBackfillRepository completedBackfillRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StartupBackfill backfill(String name, boolean once) {
+        StartupBackfill backfill = mock(StartupBackfill.class);
+        when(backfill.backfillName()).thenReturn(name);
+        when(backfill.backfillOnce()).thenReturn(once);
+        return backfill;
+    }
+
+    private StartupBackfillRunner runner(StartupBackfill... backfills) {
+        return new StartupBackfillRunner(List.of(backfills), completedBackfillRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("a run-once backfill records its completion")
+    void runBackfills_marksRunOnceBackfillComplete() {
+        StartupBackfill stats = backfill("stats", true);
+        when(completedBackfillRepository.existsById("stats")).thenReturn(false);
+        when(stats.backfill()).thenReturn(3);
+
+        runner(stats).runBackfills();
+
+        ArgumentCaptor<CompletedBackfill> marker = ArgumentCaptor.forClass(CompletedBackfill.class);
+        verify(completedBackfillRepository).save(marker.capture());
+        assertThat(marker.getValue().getName()).isEqualTo("stats");
+        assertThat(marker.getValue().getCompletedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("a completed run-once backfill does not run again")
+    void runBackfills_skipsCompletedBackfill() {
+        StartupBackfill stats = backfill("stats", true);
+        when(completedBackfillRepository.existsById("stats")).thenReturn(true);
+
+        runner(stats).runBackfills();
+
+        verify(stats, never()).backfill();
+        verify(completedBackfillRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("a failed backfill is not marked complete and does not stop the others")
+    void runBackfills_failureIsRetriedLater() {
+        StartupBackfill failing = backfill("stats", true);
+        StartupBackfill summaries = backfill("summaries", false);
+        when(completedBackfillRepository.existsById("stats")).thenReturn(false);
+        when(failing.backfill()).thenThrow(new IllegalStateException("deadlock"));
+
+        runner(failing, summaries).runBackfills();
+
+        verify(completedBackfillRepository, never()).save(any());
+        verify(transactionManager).rollback(any());
+        verify(summaries).backfill();
+    }
+}
@@ -0,0 +1,164 @@
+package com.aykhedma.service.deletion;
+
+import com.aykhedma.model.user.Consumer;
+import com.aykhedma.model.user.User;
+import com.aykhedma.model.user.UserDeletionJob;
+import com.aykhedma.model.user.UserDeletionStatus;
+import com.aykhedma.model.user.UserType;
+import com.aykhedma.repository.UserDeletionJobRepository;
+import com.aykhedma.repository.UserRepository;
+import com.aykhedma.service.ChatRoomMembershipCache;
+import com.aykhedma.service.ChatRoomSummaryService;
+import com.aykhedma.service.FileStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("User Deletion Engine Unit Tests")
+class UserDeletionEngineTest {
+
+    private static final String CONSUMER_BOOKINGS = "SELECT id FROM bookings WHERE consumer_id = :userId LIMIT :limit";
+    private static final String CHAT_ROOMS = "SELECT room_id FROM chat_room_participants WHERE user_id = :userId LIMIT :limit";
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserDeletionJobRepository jobRepository;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private ChatRoomSummaryService chatRoomSummaryService;
+
+    @Mock
+    private ChatRoomMembershipCache chatRoomMembershipCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private UserDeletionEngine engine;
+
+    private final List<List<Object>> bookingChunks = new ArrayList<>();
+
+    private Consumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = Consumer.builder().id(20L).role(UserType.CONSUMER).profileImage("https://cdn/p.jpg").build();
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(UserDeletionJob.builder()
+                .id(1L)
+                .userId(20L)
+                .userRole(UserType.CONSUMER)
+                .status(UserDeletionStatus.QUEUED)
+                .build()));
+        when(jdbcTemplate.queryForList(anyString(), anyMap(), eq(Object.class))).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            if (sql.equals(CONSUMER_BOOKINGS)) {
+                return bookingChunks.isEmpty() ? List.of() : bookingChunks.remove(0);
+            }
+            if (sql.equals(CHAT_ROOMS)) {
+                return List.of("room-1");
+            }
+            return List.of();
+        });
+    }
+
+    private static List<Object> ids(long from, long to) {
+        return new ArrayList<>(LongStream.rangeClosed(from, to).boxed().toList());
+    }
+
+    @Test
+    @DisplayName("deletes the consumer's rows chunk by chunk, then the account and its media")
+    void run_deletesConsumerInChunks() {
+        bookingChunks.add(ids(1, 500));
+        bookingChunks.add(ids(501, 503));
+        when(jdbcTemplate.queryForList(contains("chat_message_media_urls"), anyMap(), eq(String.class)))
+                .thenReturn(List.of("https://cdn/voice.webm"));
+        when(userRepository.findById(20L)).thenReturn(Optional.of(consumer));
+
+        engine.run(1L);
+
+        verify(jdbcTemplate, times(2)).queryForList(eq(CONSUMER_BOOKINGS), anyMap(), eq(Object.class));
+        verify(jdbcTemplate, times(2)).update(eq("DELETE FROM bookings WHERE id IN (:ids)"), anyMap());
+        verify(jdbcTemplate, never()).queryForList(contains("provider_id = :userId"), anyMap(), eq(Object.class));
+        verify(chatRoomSummaryService).removeRooms(List.of("room-1"));
+        verify(chatRoomMembershipCache).evictAll(List.of("room-1"));
+        verify(userRepository).delete(consumer);
+        verify(jobRepository).finish(eq(1L), eq(UserDeletionStatus.COMPLETED), isNull(), any());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> media = ArgumentCaptor.forClass(Collection.class);
+        verify(fileStorageService).deleteFiles(media.capture());
+        assertThat(media.getValue()).containsExactlyInAnyOrder("https://cdn/voice.webm", "https://cdn/p.jpg");
+    }
+
+    @Test
+    @DisplayName("takes a chunk off the providers' booking stats and rating totals before deleting it")
+    void run_adjustsRollupsBeforeDeletingChunk() {
+        bookingChunks.add(ids(1, 3));
+        when(jdbcTemplate.update(anyString(), anyMap())).thenAnswer(invocation ->
+                invocation.<String>getArgument(0).startsWith("DELETE FROM bookings") ? 3 : 1);
+
+        engine.run(1L);
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).update(contains("UPDATE provider_daily_booking_stats"), anyMap());
+        inOrder.verify(jdbcTemplate).update(contains("UPDATE rating_aggregates"), anyMap());
+        inOrder.verify(jdbcTemplate).update(contains("UPDATE providers p"), anyMap());
+        inOrder.verify(jdbcTemplate).update(eq("DELETE FROM bookings WHERE id IN (:ids)"), anyMap());
+        verify(jobRepository).recordProgress(eq(1L), eq("consumer bookings"), eq(3L), any());
+    }
+
+    @Test
+    @DisplayName("a failing step marks the job failed and keeps the account")
+    void run_failureMarksJobFailed() {
+        bookingChunks.add(ids(1, 3));
+        when(jdbcTemplate.update(anyString(), anyMap())).thenAnswer(invocation -> {
+            if (invocation.<String>getArgument(0).startsWith("DELETE FROM bookings")) {
+                throw new DataIntegrityViolationException("bookings still referenced");
+            }
+            return 0;
+        });
+
+        engine.run(1L);
+
+        verify(jobRepository).finish(eq(1L), eq(UserDeletionStatus.FAILED), eq("bookings still referenced"), any());
+        verify(userRepository, never()).delete(any(User.class));
+        verify(fileStorageService, never()).deleteFiles(any());
+    }
+}
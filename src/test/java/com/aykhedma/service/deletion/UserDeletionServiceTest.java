@@ -0,0 +1,138 @@
+package com.aykhedma.service.deletion;
+
+import com.aykhedma.dto.response.UserDeletionJobResponse;
+import com.aykhedma.exception.ResourceNotFoundException;
+import com.aykhedma.model.user.Consumer;
+import com.aykhedma.model.user.UserDeletionJob;
+import com.aykhedma.model.user.UserDeletionStatus;
+import com.aykhedma.model.user.UserType;
+import com.aykhedma.repository.UserDeletionJobRepository;
+import com.aykhedma.repository.UserRepository;
+import com.aykhedma.security.CustomUserDetailsService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("User Deletion Service Unit Tests")
+class UserDeletionServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserDeletionJobRepository jobRepository;
+
+    @Mock
+    private UserDeletionEngine engine;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private UserDeletionService deletionService;
+
+    private Consumer consumer() {
+        return Consumer.builder().id(20L).role(UserType.CONSUMER).enabled(true).build();
+    }
+
+    private UserDeletionJob job(UserDeletionStatus status, long estimatedRows, LocalDateTime updatedAt) {
+        return UserDeletionJob.builder()
+                .id(5L)
+                .userId(20L)
+                .userRole(UserType.CONSUMER)
+                .status(status)
+                .estimatedRows(estimatedRows)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    private void givenAccountWithRows(Consumer consumer, long rows) {
+        when(userRepository.findById(20L)).thenReturn(Optional.of(consumer));
+        when(jdbcTemplate.queryForObject(eq(UserDeletionPlan.ESTIMATE_ROWS), anyMap(), eq(Long.class)))
+                .thenReturn(rows);
+        when(jobRepository.save(any(UserDeletionJob.class))).thenAnswer(invocation -> {
+            UserDeletionJob saved = invocation.getArgument(0);
+            saved.setId(5L);
+            return saved;
+        });
+    }
+
+    @Test
+    @DisplayName("a small account is disabled and deleted before the call returns")
+    void deleteUser_smallAccountRunsInline() {
+        Consumer consumer = consumer();
+        givenAccountWithRows(consumer, 40L);
+        when(jobRepository.findById(5L))
+                .thenReturn(Optional.of(job(UserDeletionStatus.COMPLETED, 40L, LocalDateTime.now())));
+
+        UserDeletionJobResponse response = deletionService.deleteUser(20L);
+
+        assertThat(consumer.isEnabled()).isFalse();
+        verify(userDetailsService).evictUser(consumer.getEmail());
+        assertThat(response.getStatus()).isEqualTo(UserDeletionStatus.COMPLETED);
+        verify(engine).run(5L);
+        verify(engine, never()).runAsync(anyLong());
+    }
+
+    @Test
+    @DisplayName("a large account is queued and deleted in the background")
+    void deleteUser_largeAccountRunsInBackground() {
+        givenAccountWithRows(consumer(), UserDeletionService.INLINE_ROW_LIMIT + 1);
+
+        UserDeletionJobResponse response = deletionService.deleteUser(20L);
+
+        assertThat(response.getStatus()).isEqualTo(UserDeletionStatus.QUEUED);
+        assertThat(response.getEstimatedRows()).isEqualTo(UserDeletionService.INLINE_ROW_LIMIT + 1);
+        verify(engine).runAsync(5L);
+        verify(engine, never()).run(anyLong());
+    }
+
+    @Test
+    @DisplayName("asking again while a job is making progress returns that job")
+    void deleteUser_returnsJobInProgress() {
+        when(jobRepository.findFirstByUserIdAndStatusInOrderByIdDesc(eq(20L), any()))
+                .thenReturn(Optional.of(job(UserDeletionStatus.RUNNING, 5_000L, LocalDateTime.now())));
+
+        UserDeletionJobResponse response = deletionService.deleteUser(20L);
+
+        assertThat(response.getJobId()).isEqualTo(5L);
+        assertThat(response.getStatus()).isEqualTo(UserDeletionStatus.RUNNING);
+        verify(jobRepository, never()).save(any());
+        verify(engine, never()).runAsync(anyLong());
+    }
+
+    @Test
+    @DisplayName("deleting an unknown user fails without creating a job")
+    void deleteUser_unknownUser() {
+        when(userRepository.findById(20L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> deletionService.deleteUser(20L))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(jobRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,158 @@
+package com.aykhedma.service.expiry;
+
+import com.aykhedma.dto.response.ExpiredBookingProjection;
+import com.aykhedma.dto.response.ExpiredEmergencyRequestProjection;
+import com.aykhedma.model.booking.BookingStatus;
+import com.aykhedma.model.emergency.EmergencyRequestStatus;
+import com.aykhedma.repository.BookingRepository;
+import com.aykhedma.repository.EmergencyRequestRepository;
+import com.aykhedma.service.stats.ProviderBookingStatsService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Expiry Service Unit Tests")
+class ExpiryServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private EmergencyRequestRepository emergencyRequestRepository;
+
+    @Mock
+    private ProviderBookingStatsService providerBookingStatsService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ExpiryService expiryService;
+
+    private final LocalDateTime now = LocalDateTime.of(2026, 3, 10, 14, 30, 15, 123_000_000);
+
+    private static List<Long> ids(long from, long to) {
+        return LongStream.rangeClosed(from, to).boxed().toList();
+    }
+
+    @Test
+    @DisplayName("pending bookings are expired in chunks until a short chunk")
+    void expireDueBookings_processesChunksUntilShort() {
+        List<Long> first = ids(1, ExpiryService.CHUNK_SIZE);
+        List<Long> second = ids(1001, 1003);
+        when(bookingRepository.findIdsDueForExpiry(eq(BookingStatus.PENDING), eq(now.toLocalDate()),
+                eq(now.toLocalTime()), any(Pageable.class)))
+                .thenReturn(first)
+                .thenReturn(second);
+        when(bookingRepository.findIdsDueForExpiry(eq(BookingStatus.ACCEPTED), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+        ExpiredBookingProjection expired = mock(ExpiredBookingProjection.class);
+        when(bookingRepository.findExpiredByIds(anyList(), eq(now.withNano(0))))
+                .thenReturn(List.of(expired))
+                .thenReturn(List.of(expired, expired));
+
+        int count = expiryService.expireDueBookings(now);
+
+        assertThat(count).isEqualTo(3);
+        verify(bookingRepository).expireByIds(first, BookingStatus.PENDING, now.withNano(0));
+        verify(bookingRepository).expireByIds(second, BookingStatus.PENDING, now.withNano(0));
+        verify(bookingRepository, times(3)).findIdsDueForExpiry(any(), any(), any(), any(Pageable.class));
+        verify(eventPublisher, times(2)).publishEvent(any(BookingsExpiredEvent.class));
+    }
+
+    @Test
+    @DisplayName("accepted bookings use a cutoff one day before now")
+    void expireDueBookings_acceptedCutoffIsOneDayEarlier() {
+        when(bookingRepository.findIdsDueForExpiry(eq(BookingStatus.PENDING), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(bookingRepository.findIdsDueForExpiry(eq(BookingStatus.ACCEPTED), eq(LocalDate.of(2026, 3, 9)),
+                eq(now.toLocalTime()), any(Pageable.class)))
+                .thenReturn(List.of(7L));
+        ExpiredBookingProjection expired = mock(ExpiredBookingProjection.class);
+        when(bookingRepository.findExpiredByIds(List.of(7L), now.withNano(0))).thenReturn(List.of(expired));
+
+        expiryService.expireDueBookings(now);
+
+        ArgumentCaptor<BookingsExpiredEvent> event = ArgumentCaptor.forClass(BookingsExpiredEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().previousStatus()).isEqualTo(BookingStatus.ACCEPTED);
+        assertThat(event.getValue().bookings()).containsExactly(expired);
+    }
+
+    @Test
+    @DisplayName("a chunk whose rows all changed status meanwhile publishes nothing")
+    void expireDueBookings_noEventWhenNothingExpired() {
+        when(bookingRepository.findIdsDueForExpiry(eq(BookingStatus.PENDING), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(4L));
+        when(bookingRepository.findIdsDueForExpiry(eq(BookingStatus.ACCEPTED), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(bookingRepository.findExpiredByIds(List.of(4L), now.withNano(0))).thenReturn(List.of());
+
+        assertThat(expiryService.expireDueBookings(now)).isZero();
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("a run stops after the chunk limit even if more rows are due")
+    void expireDueBookings_boundedPerRun() {
+        when(bookingRepository.findIdsDueForExpiry(eq(BookingStatus.PENDING), any(), any(), any(Pageable.class)))
+                .thenReturn(ids(1, ExpiryService.CHUNK_SIZE));
+        when(bookingRepository.findIdsDueForExpiry(eq(BookingStatus.ACCEPTED), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(bookingRepository.findExpiredByIds(anyList(), any())).thenReturn(List.of());
+
+        expiryService.expireDueBookings(now);
+
+        verify(bookingRepository, times(ExpiryService.MAX_CHUNKS_PER_RUN))
+                .expireByIds(anyList(), eq(BookingStatus.PENDING), any());
+    }
+
+    @Test
+    @DisplayName("waiting emergency requests expire an hour after creation")
+    void expireDueEmergencyRequests_usesCreationCutoffs() {
+        when(emergencyRequestRepository.findIdsDueForExpiry(eq(EmergencyRequestStatus.WAITING_ACCEPTANCE),
+                eq(now.minusHours(1)), any(Pageable.class)))
+                .thenReturn(List.of(3L));
+        when(emergencyRequestRepository.findIdsDueForExpiry(eq(EmergencyRequestStatus.ACCEPTED),
+                eq(now.minusDays(1)), any(Pageable.class)))
+                .thenReturn(List.of());
+        ExpiredEmergencyRequestProjection expired = mock(ExpiredEmergencyRequestProjection.class);
+        when(emergencyRequestRepository.findExpiredByIds(List.of(3L), now.withNano(0))).thenReturn(List.of(expired));
+
+        int count = expiryService.expireDueEmergencyRequests(now);
+
+        assertThat(count).isEqualTo(1);
+        verify(emergencyRequestRepository)
+                .expireByIds(List.of(3L), EmergencyRequestStatus.WAITING_ACCEPTANCE, now.withNano(0));
+        ArgumentCaptor<EmergencyRequestsExpiredEvent> event = ArgumentCaptor.forClass(EmergencyRequestsExpiredEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().previousStatus()).isEqualTo(EmergencyRequestStatus.WAITING_ACCEPTANCE);
+    }
+}
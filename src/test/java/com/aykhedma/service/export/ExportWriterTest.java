@@ -0,0 +1,77 @@
+package com.aykhedma.service.export;
+
+import com.aykhedma.dto.response.UserResponse;
+import com.aykhedma.model.user.UserType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Export Writer Unit Tests")
+class ExportWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final LinkedHashMap<String, Function<UserResponse, Object>> columns = new LinkedHashMap<>();
+
+    {
+        columns.put("id", UserResponse::getId);
+        columns.put("name", UserResponse::getName);
+        columns.put("role", UserResponse::getRole);
+    }
+
+    private String export(ExportFormat format, UserResponse... rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportWriter<UserResponse> writer = ExportWriter.open(format, out, objectMapper, columns)) {
+            for (UserResponse row : rows) {
+                writer.write(row);
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("CSV has a header line and quotes values containing separators or quotes")
+    void csv_escapesValues() throws IOException {
+        String csv = export(ExportFormat.CSV,
+                UserResponse.builder().id(1L).name("Nada, \"Admin\"").role(UserType.ADMIN).build(),
+                UserResponse.builder().id(2L).name("محمد").build());
+
+        assertThat(csv).isEqualTo("id,name,role\r\n"
+                + "1,\"Nada, \"\"Admin\"\"\",ADMIN\r\n"
+                + "2,محمد,\r\n");
+    }
+
+    @Test
+    @DisplayName("CSV cells that a spreadsheet would run as a formula are prefixed with a quote")
+    void csv_neutralizesFormulas() throws IOException {
+        String csv = export(ExportFormat.CSV,
+                UserResponse.builder().id(-1L).name("=HYPERLINK(\"http://x\",\"y\")").build(),
+                UserResponse.builder().id(2L).name("@SUM(A1)").build(),
+                UserResponse.builder().id(3L).name("+20 100").build());
+
+        assertThat(csv).isEqualTo("id,name,role\r\n"
+                + "-1,\"'=HYPERLINK(\"\"http://x\"\",\"\"y\"\")\",\r\n"
+                + "2,'@SUM(A1),\r\n"
+                + "3,'+20 100,\r\n");
+    }
+
+    @Test
+    @DisplayName("JSON is a single array of the rows, empty when nothing matched")
+    void json_writesArray() throws IOException {
+        String json = export(ExportFormat.JSON,
+                UserResponse.builder().id(1L).name("Nada").build(),
+                UserResponse.builder().id(2L).name("Omar").build());
+
+        assertThat(objectMapper.readTree(json).findValuesAsText("name")).containsExactly("Nada", "Omar");
+        assertThat(export(ExportFormat.JSON)).isEqualTo("[]");
+    }
+}
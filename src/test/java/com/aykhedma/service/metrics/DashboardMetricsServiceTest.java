@@ -0,0 +1,143 @@
+package com.aykhedma.service.metrics;
+
+import com.aykhedma.dto.response.DailyCountProjection;
+import com.aykhedma.dto.response.DailyCountResponse;
+import com.aykhedma.dto.response.DashboardStatsResponse;
+import com.aykhedma.model.user.VerificationStatus;
+import com.aykhedma.repository.BookingRepository;
+import com.aykhedma.repository.ProviderRepository;
+import com.aykhedma.repository.ServiceTypeRepository;
+import com.aykhedma.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Dashboard Metrics Service Unit Tests")
+class DashboardMetricsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ProviderRepository providerRepository;
+
+    @Mock
+    private ServiceTypeRepository serviceTypeRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private DashboardMetricsService metricsService;
+
+    private final LocalDate today = LocalDate.now();
+
+    private DailyCountProjection day(LocalDate date, long total) {
+        return new DailyCountProjection() {
+            @Override
+            public LocalDate getDay() {
+                return date;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.countRows()).thenReturn(10L);
+        when(providerRepository.countRows()).thenReturn(4L);
+        when(providerRepository.countRowsByVerificationStatus("PENDING")).thenReturn(2L);
+        when(serviceTypeRepository.countServices()).thenReturn(7L);
+        when(userRepository.countCreatedPerDay(any())).thenReturn(List.of(day(today, 3)));
+        when(bookingRepository.countCreatedPerDay(any())).thenReturn(List.of(day(today.minusDays(1), 5)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("the first read reconciles, later reads are served from memory")
+    void getStats_reconcilesOnceThenServesFromMemory() {
+        DashboardStatsResponse first = metricsService.getStats();
+        metricsService.getStats();
+
+        assertThat(first.getTotalUsers()).isEqualTo(10);
+        assertThat(first.getTotalProviders()).isEqualTo(4);
+        assertThat(first.getPendingProviders()).isEqualTo(2);
+        assertThat(first.getTotalServices()).isEqualTo(7);
+        assertThat(first.getReconciledAt()).isNotNull();
+        verify(userRepository, times(1)).countRows();
+    }
+
+    @Test
+    @DisplayName("series cover the last 30 days, oldest first, with empty days as zero")
+    void getStats_seriesAreZeroFilled() {
+        DashboardStatsResponse stats = metricsService.getStats();
+
+        assertThat(stats.getSignupsPerDay()).hasSize(DashboardMetricsService.SERIES_DAYS);
+        assertThat(stats.getSignupsPerDay().get(0).getDate())
+                .isEqualTo(today.minusDays(DashboardMetricsService.SERIES_DAYS - 1L));
+        assertThat(stats.getSignupsPerDay()).last().extracting(DailyCountResponse::getCount).isEqualTo(3L);
+        assertThat(stats.getBookingsPerDay().get(DashboardMetricsService.SERIES_DAYS - 2).getCount()).isEqualTo(5);
+        assertThat(stats.getBookingsPerDay()).last().extracting(DailyCountResponse::getCount).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("registrations, approvals and deletions adjust the counters")
+    void lifecycleChanges_adjustCounters() {
+        metricsService.reconcile();
+
+        metricsService.userAdded(today.atStartOfDay());
+        metricsService.providerAdded(VerificationStatus.PENDING);
+        metricsService.providerVerificationChanged(VerificationStatus.PENDING, VerificationStatus.VERIFIED);
+        metricsService.providerVerificationChanged(VerificationStatus.PENDING, VerificationStatus.VERIFIED);
+        metricsService.serviceTypesChanged(-1);
+        metricsService.bookingAdded(today.atTime(10, 0));
+
+        DashboardStatsResponse stats = metricsService.getStats();
+        assertThat(stats.getTotalUsers()).isEqualTo(11);
+        assertThat(stats.getTotalProviders()).isEqualTo(5);
+        assertThat(stats.getPendingProviders()).isEqualTo(1);
+        assertThat(stats.getTotalServices()).isEqualTo(6);
+        assertThat(stats.getSignupsPerDay()).last().extracting(DailyCountResponse::getCount).isEqualTo(4L);
+        assertThat(stats.getBookingsPerDay()).last().extracting(DailyCountResponse::getCount).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("changes inside a transaction are only counted once it commits")
+    void lifecycleChanges_waitForCommit() {
+        metricsService.reconcile();
+        TransactionSynchronizationManager.initSynchronization();
+
+        metricsService.userAdded(today.atStartOfDay());
+        assertThat(metricsService.getStats().getTotalUsers()).isEqualTo(10);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(metricsService.getStats().getTotalUsers()).isEqualTo(11);
+    }
+}
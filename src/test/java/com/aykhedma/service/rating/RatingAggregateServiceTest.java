@@ -0,0 +1,155 @@
+package com.aykhedma.service.rating;
+
+import com.aykhedma.dto.response.RatingTotalsProjection;
+import com.aykhedma.model.user.Consumer;
+import com.aykhedma.model.user.Provider;
+import com.aykhedma.repository.RatingAggregateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Rating Aggregate Service Unit Tests")
+class RatingAggregateServiceTest {
+
+    @Mock
+    private RatingAggregateRepository ratingAggregateRepository;
+
+    @InjectMocks
+    private RatingAggregateService ratingAggregateService;
+
+    private Provider provider;
+    private Consumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        provider = Provider.builder().id(1L).averageRating(0.0).build();
+        consumer = Consumer.builder().id(2L).averageRating(0.0).build();
+    }
+
+    private RatingTotalsProjection totals(double punctuality, double commitment, double qualityOfWork,
+                                          double overall, long count, double interactionSum,
+                                          long interactionCount) {
+        return new RatingTotalsProjection() {
+            @Override
+            public Double getPunctualitySum() {
+                return punctuality;
+            }
+
+            @Override
+            public Double getCommitmentSum() {
+                return commitment;
+            }
+
+            @Override
+            public Double getQualityOfWorkSum() {
+                return qualityOfWork;
+            }
+
+            @Override
+            public Double getOverallSum() {
+                return overall;
+            }
+
+            @Override
+            public Long getRatingCount() {
+                return count;
+            }
+
+            @Override
+            public Double getInteractionSum() {
+                return interactionSum;
+            }
+
+            @Override
+            public Long getInteractionCount() {
+                return interactionCount;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("a provider rating is added to the totals and the averages are written from them")
+    void recordProviderRating_writesAveragesFromTotals() {
+        when(ratingAggregateRepository.findTotals(1L))
+                .thenReturn(Optional.of(totals(9.0, 8.0, 7.0, 8.0, 2, 0.0, 0)));
+
+        ratingAggregateService.recordProviderRating(provider, 5.0, 4.0, 3.0, 4.0);
+
+        var order = inOrder(ratingAggregateRepository);
+        order.verify(ratingAggregateRepository).insertIfAbsent(1L);
+        order.verify(ratingAggregateRepository).addServiceRating(1L, 5.0, 4.0, 3.0, 4.0);
+        order.verify(ratingAggregateRepository).writeProviderAverages(1L, 4.5, 4.0, 3.5, 4.0);
+        assertThat(provider.getAveragePunctualityRating()).isEqualTo(4.5);
+        assertThat(provider.getAverageCommitmentRating()).isEqualTo(4.0);
+        assertThat(provider.getAverageQualityOfWorkRating()).isEqualTo(3.5);
+        assertThat(provider.getAverageRating()).isEqualTo(4.0);
+    }
+
+    @Test
+    @DisplayName("a consumer rating updates the consumer average")
+    void recordConsumerRating_writesAverage() {
+        when(ratingAggregateRepository.findTotals(2L))
+                .thenReturn(Optional.of(totals(0.0, 0.0, 0.0, 7.0, 2, 0.0, 0)));
+
+        ratingAggregateService.recordConsumerRating(consumer, 4.0);
+
+        verify(ratingAggregateRepository).addOverallRating(2L, 4.0);
+        verify(ratingAggregateRepository).writeConsumerAverage(2L, 3.5);
+        assertThat(consumer.getAverageRating()).isEqualTo(3.5);
+    }
+
+    @Test
+    @DisplayName("the interaction average is rounded to one decimal")
+    void recordInteractionRating_roundsAverage() {
+        when(ratingAggregateRepository.findTotals(1L))
+                .thenReturn(Optional.of(totals(0.0, 0.0, 0.0, 0.0, 0, 11.0, 3)));
+
+        ratingAggregateService.recordInteractionRating(provider, 4.0);
+
+        verify(ratingAggregateRepository).addInteractionRating(1L, 4.0);
+        verify(ratingAggregateRepository).writeProviderInteractionAverage(1L, 3.7, 3);
+        assertThat(provider.getAverageInteractionRating()).isEqualTo(3.7);
+        assertThat(provider.getInteractionRatingCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("a penalty lowers the overall average through the totals")
+    void applyCancellationPenalty_lowersOverall() {
+        when(ratingAggregateRepository.applyPenalty(1L, 0.2)).thenReturn(1);
+        when(ratingAggregateRepository.findTotals(1L))
+                .thenReturn(Optional.of(totals(10.0, 10.0, 10.0, 7.6, 2, 0.0, 0)));
+
+        ratingAggregateService.applyCancellationPenalty(provider, 0.2);
+
+        verify(ratingAggregateRepository).writeProviderOverallAverage(1L, 3.8);
+        assertThat(provider.getAverageRating()).isEqualTo(3.8);
+    }
+
+    @Test
+    @DisplayName("a penalty is a no-op for a user who has never been rated")
+    void applyCancellationPenalty_withoutTotalsIsNoOp() {
+        when(ratingAggregateRepository.applyPenalty(2L, 0.2)).thenReturn(0);
+
+        ratingAggregateService.applyCancellationPenalty(consumer, 0.2);
+
+        verify(ratingAggregateRepository, never()).findTotals(anyLong());
+        verify(ratingAggregateRepository, never()).writeConsumerAverage(eq(2L), anyDouble());
+        assertThat(consumer.getAverageRating()).isEqualTo(0.0);
+    }
+}
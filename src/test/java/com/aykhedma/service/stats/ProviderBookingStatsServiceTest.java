@@ -0,0 +1,152 @@
+package com.aykhedma.service.stats;
+
+import com.aykhedma.dto.response.BookingStatsTotalsProjection;
+import com.aykhedma.dto.response.ExpiredBookingProjection;
+import com.aykhedma.dto.response.MonthlyBookingStatsResponse;
+import com.aykhedma.dto.response.WeeklyBookingStatsResponse;
+import com.aykhedma.model.booking.Booking;
+import com.aykhedma.model.booking.BookingStatus;
+import com.aykhedma.model.booking.ProviderDailyBookingStats;
+import com.aykhedma.model.user.Provider;
+import com.aykhedma.repository.ProviderDailyBookingStatsRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Provider Booking Stats Service Unit Tests")
+class ProviderBookingStatsServiceTest {
+
+    @Mock
+    private ProviderDailyBookingStatsRepository statsRepository;
+
+    @InjectMocks
+    private ProviderBookingStatsService statsService;
+
+    private final LocalDate day = LocalDate.of(2026, 7, 8);
+
+    private Booking booking() {
+        return Booking.builder()
+                .id(10L)
+                .provider(Provider.builder().id(1L).build())
+                .requestedDate(day)
+                .build();
+    }
+
+    private ExpiredBookingProjection expired(long providerId, LocalDate date) {
+        ExpiredBookingProjection projection = mock(ExpiredBookingProjection.class);
+        when(projection.getProviderId()).thenReturn(providerId);
+        when(projection.getRequestedDate()).thenReturn(date);
+        return projection;
+    }
+
+    private ProviderDailyBookingStats stats(LocalDate date, int completed, int cancelled) {
+        return ProviderDailyBookingStats.builder()
+                .providerId(1L)
+                .statDate(date)
+                .completedCount(completed)
+                .cancelledCount(cancelled)
+                .build();
+    }
+
+    @Test
+    @DisplayName("a transition moves the booking from one counter of its day to another")
+    void recordTransition_movesBetweenCounters() {
+        statsService.recordTransition(booking(), BookingStatus.ACCEPTED, BookingStatus.COMPLETED);
+
+        InOrder order = inOrder(statsRepository);
+        order.verify(statsRepository).insertIfAbsent(1L, day);
+        order.verify(statsRepository).adjust(1L, day, -1, 1, 0);
+    }
+
+    @Test
+    @DisplayName("transitions between uncounted statuses don't touch the rollup")
+    void recordTransition_uncountedStatusesAreIgnored() {
+        statsService.recordTransition(booking(), BookingStatus.PENDING, BookingStatus.DECLINED);
+
+        verify(statsRepository, never()).insertIfAbsent(any(), any());
+        verify(statsRepository, never()).adjust(any(), any(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("expired accepted bookings are taken off their days in one update per day")
+    void recordExpired_groupsByProviderDay() {
+        LocalDate other = day.plusDays(1);
+        statsService.recordExpired(BookingStatus.ACCEPTED,
+                List.of(expired(1L, day), expired(1L, other), expired(1L, day)));
+
+        verify(statsRepository).adjust(1L, day, -2, 0, 0);
+        verify(statsRepository).adjust(1L, other, -1, 0, 0);
+    }
+
+    @Test
+    @DisplayName("expired pending bookings were never counted")
+    void recordExpired_pendingIsNoOp() {
+        statsService.recordExpired(BookingStatus.PENDING, List.of(mock(ExpiredBookingProjection.class)));
+
+        verify(statsRepository, never()).adjust(any(), any(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("the weekly chart sums the Saturday-to-Friday week")
+    void getWeeklyStats_sumsCurrentWeek() {
+        BookingStatsTotalsProjection totals = mock(BookingStatsTotalsProjection.class);
+        when(totals.getAccepted()).thenReturn(2L);
+        when(totals.getCompleted()).thenReturn(1L);
+        when(totals.getCancelled()).thenReturn(1L);
+        when(statsRepository.sumBetween(1L, LocalDate.of(2026, 7, 4), LocalDate.of(2026, 7, 10)))
+                .thenReturn(totals);
+
+        WeeklyBookingStatsResponse response = statsService.getWeeklyStats(1L, LocalDate.of(2026, 7, 6));
+
+        assertThat(response.getAcceptedAndCompletedBookings()).isEqualTo(3);
+        assertThat(response.getCancelledBookings()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("the monthly chart has the six previous months, empty ones included")
+    void getMonthlyStats_foldsDaysIntoMonths() {
+        when(statsRepository.findByProviderIdAndStatDateBetweenOrderByStatDate(1L,
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 6, 30)))
+                .thenReturn(List.of(
+                        stats(LocalDate.of(2026, 1, 5), 1, 0),
+                        stats(LocalDate.of(2026, 1, 20), 1, 1),
+                        stats(LocalDate.of(2026, 6, 15), 2, 1)));
+
+        MonthlyBookingStatsResponse response = statsService.getMonthlyStats(1L, LocalDate.of(2026, 7, 1));
+
+        assertThat(response.getMonths()).containsExactly("Jan", "Feb", "Mar", "Apr", "May", "Jun");
+        assertThat(response.getCompletedBookings()).containsExactly(2, 0, 0, 0, 0, 2);
+        assertThat(response.getCancelledBookings()).containsExactly(1, 0, 0, 0, 0, 1);
+    }
+
+    @Test
+    @DisplayName("backfill rebuilds the rollup under a lock, once")
+    void backfill_rebuildsRollupUnderLock() {
+        when(statsRepository.insertFromBookings()).thenReturn(4);
+
+        assertThat(statsService.backfillOnce()).isTrue();
+        assertThat(statsService.backfill()).isEqualTo(4);
+
+        InOrder order = inOrder(statsRepository);
+        order.verify(statsRepository).lockForRebuild();
+        order.verify(statsRepository).deleteAllDays();
+        order.verify(statsRepository).insertFromBookings();
+    }
+}
@@ -0,0 +1,62 @@
+package com.aykhedma.service.verification;
+
+import com.aykhedma.config.UpstreamHttpProperties;
+import com.aykhedma.config.UpstreamWebClientConfig;
+import com.aykhedma.dto.response.verification.NidExtractionResponse;
+import com.aykhedma.util.MockUpstreamServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Verification Service Tests")
+class VerificationServiceImplTest {
+
+    private MockUpstreamServer upstream;
+    private VerificationServiceImpl verificationService;
+
+    private final MockMultipartFile idImage =
+            new MockMultipartFile("file", "id.jpg", "image/jpeg", "id".getBytes());
+
+    @BeforeEach
+    void setUp() throws Exception {
+        upstream = new MockUpstreamServer();
+        verificationService = new VerificationServiceImpl(UpstreamWebClientConfig.build(WebClient.builder(),
+                "verification-test", upstream.baseUrl(), new UpstreamHttpProperties.Pool(2)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        upstream.close();
+    }
+
+    @Test
+    @DisplayName("extractNid posts the image to the shared client and maps the answer")
+    void extractNid_mapsUpstreamResponse() {
+        upstream.enqueue(200, "application/json", "{\"nid\":\"29801011234567\",\"valid\":true}");
+
+        NidExtractionResponse response = verificationService.extractNid(idImage);
+
+        assertThat(response.isValid()).isTrue();
+        assertThat(response.getNid()).isEqualTo("29801011234567");
+        assertThat(upstream.requests()).singleElement().satisfies(request -> {
+            assertThat(request.uri()).isEqualTo("/extract-nid");
+            assertThat(request.body()).contains("filename=\"id.jpg\"");
+        });
+    }
+
+    @Test
+    @DisplayName("an upstream error becomes an invalid result instead of an exception")
+    void extractNid_upstreamErrorIsInvalid() {
+        upstream.enqueue(502, "text/plain", "bad gateway");
+
+        NidExtractionResponse response = verificationService.extractNid(idImage);
+
+        assertThat(response.isValid()).isFalse();
+        assertThat(response.getError()).startsWith("Verification service unavailable");
+    }
+}
@@ -0,0 +1,75 @@
+package com.aykhedma.util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Local HTTP server standing in for an upstream (Gemini, the verification service) in
+ * tests. Responses are served in the order they were enqueued; every request is recorded.
+ */
+public class MockUpstreamServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final BlockingQueue<MockResponse> responses = new LinkedBlockingQueue<>();
+    private final List<RecordedRequest> requests = new CopyOnWriteArrayList<>();
+
+    public MockUpstreamServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public MockUpstreamServer enqueue(int status, String contentType, String body) {
+        responses.add(new MockResponse(status, contentType, body));
+        return this;
+    }
+
+    public List<RecordedRequest> requests() {
+        return requests;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        requests.add(new RecordedRequest(
+                exchange.getRequestMethod(),
+                exchange.getRequestURI().toString(),
+                exchange.getRequestHeaders().getFirst("X-goog-api-key"),
+                body,
+                exchange.getRemoteAddress().getPort()));
+
+        MockResponse response = responses.poll();
+        if (response == null) {
+            response = new MockResponse(500, "text/plain", "no response enqueued");
+        }
+        byte[] bytes = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", response.contentType());
+        exchange.sendResponseHeaders(response.status(), bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private record MockResponse(int status, String contentType, String body) {
+    }
+
+    public record RecordedRequest(String method, String uri, String apiKey, String body, int clientPort) {
+    }
+}